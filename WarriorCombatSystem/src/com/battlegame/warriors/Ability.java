@@ -0,0 +1,76 @@
+package com.battlegame.warriors;
+
+/**
+ * Unveränderliche Beschreibung einer Fähigkeit mit Abklingzeit und Dauer.
+ *
+ * Alle Zeiten werden in Zügen gemessen; ein Zug ist ein einzelner Angriff.
+ * Die Bedeutung der Stärke hängt von der {@link AbilityType Art} ab:
+ * Heilung pro Zug, Ausweichbonus in Prozentpunkten, bei
+ * {@link AbilityType#TELEPORT_EVADE} ohne Bedeutung.
+ *
+ * @param type die Art der Fähigkeit
+ * @param duration Wirkungsdauer in Zügen (muss positiv sein)
+ * @param cooldown Züge zwischen zwei Einsätzen (darf nicht negativ sein)
+ * @param magnitude Stärke der Fähigkeit (darf nicht negativ sein)
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see AbilityBattle
+ * @see EffectScheduler
+ */
+public record Ability(AbilityType type, int duration, int cooldown, int magnitude) {
+
+    /**
+     * Validiert die Werte der Fähigkeit.
+     *
+     * @throws IllegalArgumentException wenn type null, duration nicht positiv
+     *                                  oder cooldown bzw. magnitude negativ ist
+     */
+    public Ability {
+        if (type == null) {
+            throw new IllegalArgumentException("Art der Fähigkeit darf nicht null sein");
+        }
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Wirkungsdauer muss positiv sein");
+        }
+        if (cooldown < 0 || magnitude < 0) {
+            throw new IllegalArgumentException("Abklingzeit und Stärke dürfen nicht negativ sein");
+        }
+    }
+
+    /**
+     * Erstellt eine Ausweich-Teleportation.
+     *
+     * @param duration Züge, in denen gegnerische Angriffe ins Leere gehen
+     * @param cooldown Züge zwischen zwei Einsätzen
+     * @return die Fähigkeit
+     */
+    public static Ability teleportEvade(int duration, int cooldown) {
+        return new Ability(AbilityType.TELEPORT_EVADE, duration, cooldown, 0);
+    }
+
+    /**
+     * Erstellt eine Heilung über Zeit.
+     *
+     * @param perTick Heilung pro Zug
+     * @param duration Anzahl der Züge mit Heilung
+     * @param cooldown Züge zwischen zwei Einsätzen
+     * @return die Fähigkeit
+     */
+    public static Ability healOverTime(int perTick, int duration, int cooldown) {
+        return new Ability(AbilityType.HEAL_OVER_TIME, duration, cooldown, perTick);
+    }
+
+    /**
+     * Erstellt einen Ausweichbonus.
+     *
+     * @param percentPoints Bonus auf die Ausweichwahrscheinlichkeit in Prozentpunkten
+     * @param duration Wirkungsdauer in Zügen
+     * @param cooldown Züge zwischen zwei Einsätzen
+     * @return die Fähigkeit
+     */
+    public static Ability dodgeBuff(int percentPoints, int duration, int cooldown) {
+        return new Ability(AbilityType.DODGE_BUFF, duration, cooldown, percentPoints);
+    }
+}
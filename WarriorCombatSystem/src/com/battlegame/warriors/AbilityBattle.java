@@ -0,0 +1,208 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+
+/**
+ * Führt Kämpfe aus, in denen Krieger Fähigkeiten mit Abklingzeit und
+ * Wirkungsdauer einsetzen.
+ *
+ * Jeder Angriff ist ein Zug. Vor seinem Angriff setzt ein Krieger jede
+ * bereite Fähigkeit ein, deren Bedingung erfüllt ist:
+ * <ul>
+ *   <li>{@link AbilityType#TELEPORT_EVADE}: wenn seine
+ *       {@link Teleports Teleportationsfähigkeit} {@link Teleports#relocates()
+ *       versetzt} und er nicht schon ausweicht</li>
+ *   <li>{@link AbilityType#HEAL_OVER_TIME}: wenn ihm mindestens so viel
+ *       Gesundheit fehlt, wie die Fähigkeit insgesamt heilt</li>
+ *   <li>{@link AbilityType#DODGE_BUFF}: wenn er ein {@link DodgeWarrior} ist</li>
+ * </ul>
+ * Greift der Gegner einen außer Reichweite teleportierten Krieger an, geht der
+ * Angriff ohne Würfe ins Leere und wird als Ausweichen gemeldet. Alle übrigen
+ * Angriffe laufen über {@link BattleEngine#resolveAttack(Warrior, Warrior, CombatRandom)}.
+ * Nach jedem Zug rückt der {@link EffectScheduler} vor.
+ *
+ * Die Fähigkeiten werden über {@code switch} auf ihre {@link AbilityType Art}
+ * ausgewertet, nicht über virtuelle Aufrufe. Ohne Fähigkeiten verläuft ein
+ * Kampf bei gleicher Zufallsquelle exakt wie
+ * {@link BattleEngine#startFight(Warrior, Warrior, int, CombatRandom)}.
+ *
+ * Instanzen sind nicht threadsicher; mehrere Instanzen desselben Threads
+ * können sich einen Scheduler teilen.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Ability
+ * @see EffectScheduler
+ */
+public final class AbilityBattle {
+
+    private static final Ability[] NONE = new Ability[0];
+
+    private final BattleEngine engine;
+    private final EffectScheduler scheduler;
+
+    /**
+     * Erstellt einen Kampfablauf mit eigenem Scheduler.
+     *
+     * @param engine die Engine, über die alle Angriffe laufen
+     * @throws IllegalArgumentException wenn engine null ist
+     */
+    public AbilityBattle(BattleEngine engine) {
+        this(engine, new EffectScheduler());
+    }
+
+    /**
+     * Erstellt einen Kampfablauf mit dem angegebenen Scheduler.
+     *
+     * @param engine die Engine, über die alle Angriffe laufen
+     * @param scheduler der Scheduler für alle Effekte
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public AbilityBattle(BattleEngine engine, EffectScheduler scheduler) {
+        if (engine == null || scheduler == null) {
+            throw new IllegalArgumentException("Engine und Scheduler dürfen nicht null sein");
+        }
+        this.engine = engine;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gibt den Scheduler dieses Kampfablaufs zurück.
+     *
+     * @return der Scheduler für alle Effekte
+     */
+    public EffectScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Führt einen Kampf mit Fähigkeiten aus.
+     *
+     * Beide Krieger greifen abwechselnd an, beginnend mit {@code w1}. Alle
+     * Effekte des Kampfes werden an seinem Ende abgebrochen, sodass die
+     * Krieger keine Boni über den Kampf hinaus behalten.
+     *
+     * @param w1 der erste Krieger
+     * @param abilities1 die Fähigkeiten des ersten Kriegers
+     * @param w2 der zweite Krieger
+     * @param abilities2 die Fähigkeiten des zweiten Kriegers
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return der siegreiche Krieger oder {@code null} bei Unentschieden
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn ein Parameter null oder
+     *                                  maxRounds nicht positiv ist
+     */
+    public Warrior startFight(Warrior w1, List<Ability> abilities1, Warrior w2, List<Ability> abilities2,
+                              int maxRounds, CombatRandom rng) throws InterruptedException {
+        if (w1 == null || w2 == null || abilities1 == null || abilities2 == null || rng == null) {
+            throw new IllegalArgumentException("Krieger, Fähigkeiten und Zufallsquelle dürfen nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        Side first = new Side(w1, abilities1.toArray(NONE));
+        Side second = new Side(w2, abilities2.toArray(NONE));
+        BattleReporter reporter = engine.getReporter();
+        first.slot = scheduler.register(w1);
+        try {
+            second.slot = scheduler.register(w2);
+            try {
+                reporter.fightStarted(w1, w2);
+                for (int rounds = 0; rounds < maxRounds; ) {
+                    Side attacker = (rounds & 1) == 0 ? first : second;
+                    Side defender = attacker == first ? second : first;
+                    rounds++;
+                    useAbilities(attacker);
+                    if (strike(attacker, defender, rng, reporter)) {
+                        reporter.fightEnded(attacker.warrior, defender.warrior, rounds);
+                        return attacker.warrior;
+                    }
+                    scheduler.advance();
+                }
+                reporter.fightDrawn(w1, w2, maxRounds);
+                return null;
+            } finally {
+                scheduler.release(second.slot);
+            }
+        } finally {
+            scheduler.release(first.slot);
+        }
+    }
+
+    private boolean strike(Side attacker, Side defender, CombatRandom rng, BattleReporter reporter)
+            throws InterruptedException {
+        if (scheduler.isEvading(defender.slot)) {
+            reporter.dodged(defender.warrior);
+            reporter.attacked(attacker.warrior, defender.warrior, 0, 0, 0);
+            engine.getPacer().pause();
+            return false;
+        }
+        return engine.resolveAttack(attacker.warrior, defender.warrior, rng).isFatal();
+    }
+
+    private void useAbilities(Side side) {
+        long now = scheduler.now();
+        Ability[] abilities = side.abilities;
+        for (int i = 0; i < abilities.length; i++) {
+            if (side.readyAt[i] > now) {
+                continue;
+            }
+            Ability ability = abilities[i];
+            boolean used = switch (ability.type()) {
+                case TELEPORT_EVADE -> {
+                    Teleports teleport = side.warrior.teleportType;
+                    if (teleport == null || !teleport.relocates() || scheduler.isEvading(side.slot)) {
+                        yield false;
+                    }
+                    scheduler.evade(side.slot, ability.duration());
+                    yield true;
+                }
+                case HEAL_OVER_TIME -> {
+                    long total = (long) ability.magnitude() * ability.duration();
+                    if (side.startHealth - side.warrior.health < total) {
+                        yield false;
+                    }
+                    scheduler.healOverTime(side.slot, ability.magnitude(), ability.duration());
+                    yield true;
+                }
+                case DODGE_BUFF -> {
+                    if (!(side.warrior instanceof DodgeWarrior)) {
+                        yield false;
+                    }
+                    scheduler.dodgeBuff(side.slot, Math.min(1.0, ability.magnitude() / 100.0), ability.duration());
+                    yield true;
+                }
+            };
+            if (used) {
+                side.readyAt[i] = now + ability.cooldown();
+            }
+        }
+    }
+
+    /**
+     * Zustand eines Kriegers während eines Kampfes.
+     */
+    private static final class Side {
+
+        final Warrior warrior;
+        final Ability[] abilities;
+        final long[] readyAt;
+        final int startHealth;
+        int slot;
+
+        Side(Warrior warrior, Ability[] abilities) {
+            for (Ability ability : abilities) {
+                if (ability == null) {
+                    throw new IllegalArgumentException("Fähigkeit darf nicht null sein");
+                }
+            }
+            this.warrior = warrior;
+            this.abilities = abilities;
+            this.readyAt = new long[abilities.length];
+            this.startHealth = warrior.health;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.battlegame.warriors;
+
+/**
+ * Art einer Fähigkeit, die ein Krieger während eines Kampfes einsetzen kann.
+ *
+ * Die {@link AbilityBattle} und der {@link EffectScheduler} unterscheiden die
+ * Arten über {@code switch} statt über virtuelle Aufrufe, sodass der
+ * JIT-Compiler die Verzweigungen ohne polymorphe Aufrufstellen übersetzt.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Ability
+ */
+public enum AbilityType {
+
+    /**
+     * Teleportiert den Krieger für die Dauer der Fähigkeit außer Reichweite;
+     * gegnerische Angriffe gehen ins Leere. Setzt eine {@link Teleports
+     * Teleportationsfähigkeit} voraus, die {@link Teleports#relocates() versetzt}.
+     */
+    TELEPORT_EVADE,
+
+    /**
+     * Heilt den Krieger in jedem Zug der Dauer um die Stärke der Fähigkeit.
+     */
+    HEAL_OVER_TIME,
+
+    /**
+     * Erhöht die Ausweichwahrscheinlichkeit eines {@link DodgeWarrior} für die
+     * Dauer der Fähigkeit um die Stärke in Prozentpunkten.
+     */
+    DODGE_BUFF
+}
@@ -0,0 +1,142 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unveränderliches Verzeichnis von Krieger-Archetypen.
+ *
+ * Ein Archetyp ist eine {@link WarriorSpec}: Name und Kampfwerte werden
+ * einmal abgelegt und von beliebig vielen Kämpfen gemeinsam genutzt
+ * (Flyweight-Pattern). Jeder Kampf erzeugt daraus nur noch leichte
+ * {@link Combatant}-Objekte mit seinem veränderlichen Zustand.
+ *
+ * Verzeichnisse sind unveränderlich und können gefahrlos von mehreren
+ * Threads gemeinsam verwendet werden; {@link #with(WarriorSpec)} liefert
+ * ein neues Verzeichnis.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see WarriorSpec
+ * @see Combatant
+ */
+public final class Archetypes {
+
+    /** Thor wie in {@link WarriorGame}: 800 HP, Angriff bis 130, Block bis 40. */
+    public static final WarriorSpec THOR = WarriorSpec.of("Thor", 800, 130, 40);
+
+    /** Loki wie in {@link WarriorGame}: 800 HP, Angriff bis 85, Block bis 40, 25 % Ausweichen. */
+    public static final WarriorSpec LOKI = new WarriorSpec("Loki", 800, 85, 40, 0.25);
+
+    /** Verzeichnis mit {@link #THOR} und {@link #LOKI}. */
+    public static final Archetypes DEFAULT = of(THOR, LOKI);
+
+    /** Archetypen nach Namen, in Einfügereihenfolge. */
+    private final Map<String, WarriorSpec> byName;
+
+    private Archetypes(Map<String, WarriorSpec> byName) {
+        this.byName = byName;
+    }
+
+    /**
+     * Erstellt ein Verzeichnis aus den angegebenen Archetypen.
+     *
+     * @param archetypes die Archetypen, deren Namen eindeutig sein müssen
+     * @return das neue Verzeichnis
+     * @throws IllegalArgumentException wenn ein Archetyp null ist oder ein
+     *                                  Name mehrfach vorkommt
+     */
+    public static Archetypes of(WarriorSpec... archetypes) {
+        if (archetypes == null) {
+            throw new IllegalArgumentException("Archetypen dürfen nicht null sein");
+        }
+        return new Archetypes(index(Arrays.asList(archetypes)));
+    }
+
+    /**
+     * Gibt ein neues Verzeichnis zurück, das zusätzlich den angegebenen
+     * Archetyp enthält.
+     *
+     * @param archetype der hinzuzufügende Archetyp
+     * @return ein neues Verzeichnis; dieses bleibt unverändert
+     * @throws IllegalArgumentException wenn archetype null ist oder sein Name
+     *                                  bereits vergeben ist
+     */
+    public Archetypes with(WarriorSpec archetype) {
+        List<WarriorSpec> all = new ArrayList<>(byName.values());
+        all.add(archetype);
+        return new Archetypes(index(all));
+    }
+
+    private static Map<String, WarriorSpec> index(List<WarriorSpec> archetypes) {
+        Map<String, WarriorSpec> map = new LinkedHashMap<>();
+        for (WarriorSpec archetype : archetypes) {
+            if (archetype == null) {
+                throw new IllegalArgumentException("Archetyp darf nicht null sein");
+            }
+            if (map.putIfAbsent(archetype.name(), archetype) != null) {
+                throw new IllegalArgumentException("Archetyp " + archetype.name() + " ist bereits vorhanden");
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Gibt den Archetyp mit dem angegebenen Namen zurück.
+     *
+     * @param name der Name des Archetyps
+     * @return der Archetyp
+     * @throws IllegalArgumentException wenn kein Archetyp so heißt
+     */
+    public WarriorSpec get(String name) {
+        WarriorSpec archetype = byName.get(name);
+        if (archetype == null) {
+            throw new IllegalArgumentException("Unbekannter Archetyp: " + name);
+        }
+        return archetype;
+    }
+
+    /**
+     * Prüft, ob ein Archetyp mit dem angegebenen Namen vorhanden ist.
+     *
+     * @param name der gesuchte Name
+     * @return {@code true} wenn der Archetyp vorhanden ist
+     */
+    public boolean contains(String name) {
+        return byName.containsKey(name);
+    }
+
+    /**
+     * Gibt alle Archetypen in Einfügereihenfolge zurück.
+     *
+     * @return unveränderliche Liste der Archetypen
+     */
+    public List<WarriorSpec> all() {
+        return List.copyOf(byName.values());
+    }
+
+    /**
+     * Gibt die Anzahl der Archetypen zurück.
+     *
+     * @return die Anzahl der Archetypen
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Erzeugt einen leichten Kampfteilnehmer des angegebenen Archetyps.
+     *
+     * @param name der Name des Archetyps
+     * @return ein neuer {@link Combatant} mit voller Gesundheit
+     * @throws IllegalArgumentException wenn kein Archetyp so heißt
+     */
+    public Combatant combatant(String name) {
+        return new Combatant(get(name));
+    }
+}
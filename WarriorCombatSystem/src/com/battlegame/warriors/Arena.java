@@ -0,0 +1,503 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kampf vieler Krieger in mehreren Teams auf einer zweidimensionalen Karte.
+ *
+ * In jedem Zug handelt jeder lebende Krieger einmal, in der Reihenfolge,
+ * in der er hinzugefügt wurde: Er sucht den nächsten lebenden Gegner und
+ * greift ihn an, wenn er in Reichweite ist. Andernfalls teleportiert er sich
+ * neben ihn, sofern seine {@link Teleports Teleportationsfähigkeit}
+ * {@link Teleports#relocates() tatsächlich versetzt} und nicht abklingt,
+ * oder er geht ein Stück auf ihn zu. Angriffe laufen über
+ * {@link BattleEngine#resolveAttack(Warrior, Warrior, CombatRandom)} und
+ * folgen damit denselben Regeln wie ein Zweikampf.
+ *
+ * Die Positionen jedes Teams liegen in einem gleichmäßigen Raster aus
+ * quadratischen Zellen. Jede Zelle hält eine doppelt verkettete Liste ihrer
+ * Krieger in Arrays, sodass Bewegen, Teleportieren und Sterben die Liste in
+ * konstanter Zeit aktualisieren. Das Raster eines Teams ist dünn besetzt:
+ * Es besteht aus Seiten von 64 Zellen, die erst angelegt werden, wenn ein
+ * Krieger des Teams dort steht, und mit dem letzten wieder freigegeben
+ * werden. Je Team bleibt nur ein Verzeichnis mit einem Eintrag je Seite;
+ * alle Seiten zusammen wachsen mit der Anzahl der Krieger und nicht mit
+ * Teams mal Zellen. Die Suche nach dem nächsten Gegner prüft
+ * Ringe von Zellen um den Suchenden und bricht ab, sobald kein weiterer Ring
+ * einen näheren Gegner enthalten kann. Bei gleichmäßiger Dichte kostet ein
+ * Zug damit etwa O(N) statt O(N²).
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ArenaResult
+ * @see Teleports#relocates()
+ */
+public final class Arena {
+
+    /** Standard-Kantenlänge einer Rasterzelle. */
+    public static final double DEFAULT_CELL_SIZE = 4.0;
+
+    /** Abstand, bis zu dem ein Krieger angreifen kann. */
+    public static final double ATTACK_RANGE = 1.5;
+
+    /** Strecke, die ein Krieger pro Zug geht. */
+    public static final double SPEED = 1.0;
+
+    /** Anzahl der Züge, bevor ein Krieger erneut teleportieren kann. */
+    public static final int TELEPORT_COOLDOWN = 10;
+
+    /** Höchstzahl an Teams; jedes Team besitzt ein eigenes Raster. */
+    public static final int MAX_TEAMS = 64;
+
+    private static final int PAGE_BITS = 6;
+
+    /** Anzahl der Zellen einer Seite im Raster eines Teams. */
+    private static final int PAGE = 1 << PAGE_BITS;
+
+    private final double width;
+    private final double height;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final BattleEngine engine;
+
+    private final List<Warrior> warriors = new ArrayList<>();
+    private int[] team = new int[64];
+    private double[] x = new double[64];
+    private double[] y = new double[64];
+    private int[] cell = new int[64];
+    private int[] next = new int[64];
+    private int[] prev = new int[64];
+    private int[] cooldown = new int[64];
+
+    /** Seite je 64 Zellen und Team, -1 solange das Team dort niemanden hat. */
+    private final List<int[]> pages = new ArrayList<>();
+
+    /** Erster Krieger je Zelle aller angelegten Seiten, -1 für eine leere Zelle. */
+    private int[] heads = new int[16 * PAGE];
+
+    /** Krieger je Seite; freie Seiten sind über ihre erste Zelle verkettet. */
+    private int[] pageSize = new int[16];
+    private int pageCount;
+    private int freePage = -1;
+
+    /** Lebende Krieger je Team. */
+    private int[] alive = new int[0];
+
+    private int ticks;
+    private long attacks;
+    private long teleports;
+
+    /**
+     * Erstellt eine Arena mit {@link #DEFAULT_CELL_SIZE} ohne Ausgabe und Taktung.
+     *
+     * @param width Breite der Karte (muss positiv sein)
+     * @param height Höhe der Karte (muss positiv sein)
+     * @throws IllegalArgumentException wenn eine Abmessung nicht positiv ist
+     */
+    public Arena(double width, double height) {
+        this(width, height, DEFAULT_CELL_SIZE, BattleEngine.HEADLESS);
+    }
+
+    /**
+     * Erstellt eine Arena.
+     *
+     * Die Zellgröße sollte etwa dem typischen Abstand zwischen Kriegern
+     * entsprechen; deutlich größere Zellen machen jede Suche teurer,
+     * deutlich kleinere erhöhen die Zahl leerer Zellen.
+     *
+     * @param width Breite der Karte (muss positiv sein)
+     * @param height Höhe der Karte (muss positiv sein)
+     * @param cellSize Kantenlänge einer Rasterzelle (muss positiv sein)
+     * @param engine die Engine, über die alle Angriffe laufen
+     * @throws IllegalArgumentException wenn ein Wert nicht positiv, das Raster zu
+     *                                  groß oder engine null ist
+     */
+    public Arena(double width, double height, double cellSize, BattleEngine engine) {
+        if (!(width > 0.0) || !(height > 0.0) || !(cellSize > 0.0)) {
+            throw new IllegalArgumentException("Abmessungen und Zellgröße müssen positiv sein");
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("BattleEngine darf nicht null sein");
+        }
+        double cells = Math.ceil(width / cellSize) * Math.ceil(height / cellSize);
+        if (cells > 1 << 26) {
+            throw new IllegalArgumentException("Raster ist zu groß, Zellgröße erhöhen");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.engine = engine;
+    }
+
+    /**
+     * Fügt einen Krieger hinzu.
+     *
+     * @param warrior der Krieger (muss leben)
+     * @param team sein Team zwischen 0 und {@link #MAX_TEAMS} - 1
+     * @param px x-Position zwischen 0 und der Breite
+     * @param py y-Position zwischen 0 und der Höhe
+     * @return die Nummer des Kriegers in dieser Arena
+     * @throws IllegalArgumentException wenn warrior null oder tot, team ungültig
+     *                                  oder die Position außerhalb der Karte ist
+     */
+    public int add(Warrior warrior, int team, double px, double py) {
+        if (warrior == null) {
+            throw new IllegalArgumentException("Warrior-Objekt darf nicht null sein");
+        }
+        if (!warrior.isAlive()) {
+            throw new IllegalArgumentException("Krieger muss leben");
+        }
+        if (team < 0 || team >= MAX_TEAMS) {
+            throw new IllegalArgumentException("Team muss zwischen 0 und " + (MAX_TEAMS - 1) + " liegen");
+        }
+        if (!(px >= 0.0 && px <= width && py >= 0.0 && py <= height)) {
+            throw new IllegalArgumentException("Position liegt außerhalb der Karte");
+        }
+        int id = warriors.size();
+        if (id == this.team.length) {
+            grow(id * 2);
+        }
+        while (pages.size() <= team) {
+            int[] directory = new int[(columns * rows + PAGE - 1) >>> PAGE_BITS];
+            Arrays.fill(directory, -1);
+            pages.add(directory);
+        }
+        if (alive.length <= team) {
+            alive = Arrays.copyOf(alive, team + 1);
+        }
+        warriors.add(warrior);
+        this.team[id] = team;
+        x[id] = px;
+        y[id] = py;
+        cooldown[id] = 0;
+        alive[team]++;
+        link(id, cellOf(px, py));
+        return id;
+    }
+
+    /**
+     * Gibt die Anzahl der hinzugefügten Krieger zurück.
+     *
+     * @return die Anzahl der Krieger, lebend oder tot
+     */
+    public int size() {
+        return warriors.size();
+    }
+
+    /**
+     * Gibt einen Krieger zurück.
+     *
+     * @param id Nummer des Kriegers
+     * @return der Krieger
+     */
+    public Warrior warrior(int id) {
+        return warriors.get(id);
+    }
+
+    /**
+     * Gibt das Team eines Kriegers zurück.
+     *
+     * @param id Nummer des Kriegers
+     * @return sein Team
+     */
+    public int team(int id) {
+        checkId(id);
+        return team[id];
+    }
+
+    /**
+     * Gibt die x-Position eines Kriegers zurück.
+     *
+     * @param id Nummer des Kriegers
+     * @return die x-Position
+     */
+    public double x(int id) {
+        checkId(id);
+        return x[id];
+    }
+
+    /**
+     * Gibt die y-Position eines Kriegers zurück.
+     *
+     * @param id Nummer des Kriegers
+     * @return die y-Position
+     */
+    public double y(int id) {
+        checkId(id);
+        return y[id];
+    }
+
+    /**
+     * Gibt die Anzahl der lebenden Krieger eines Teams zurück.
+     *
+     * @param team das Team
+     * @return die lebenden Krieger des Teams, 0 für unbekannte Teams
+     */
+    public int alive(int team) {
+        return team >= 0 && team < alive.length ? alive[team] : 0;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher ausgeführten Züge zurück.
+     *
+     * @return die Anzahl der Züge
+     */
+    public int ticks() {
+        return ticks;
+    }
+
+    /**
+     * Sucht den nächsten lebenden Gegner eines Kriegers.
+     *
+     * @param id Nummer des suchenden Kriegers
+     * @return die Nummer des nächsten Gegners oder -1, wenn es keinen gibt
+     */
+    public int nearestEnemy(int id) {
+        checkId(id);
+        int own = team[id];
+        double px = x[id];
+        double py = y[id];
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int t = 0; t < pages.size(); t++) {
+            if (t == own || alive[t] == 0) {
+                continue;
+            }
+            int[] directory = pages.get(t);
+            int cx = column(px);
+            int cy = row(py);
+            int maxRing = Math.max(Math.max(cx, columns - 1 - cx), Math.max(cy, rows - 1 - cy));
+            for (int r = 0; r <= maxRing; r++) {
+                // Jeder Punkt in Ring r liegt mindestens (r - 1) Zellen entfernt
+                double reach = (r - 1) * cellSize;
+                if (r > 0 && reach * reach >= bestDistance) {
+                    break;
+                }
+                for (int gy = cy - r; gy <= cy + r; gy++) {
+                    if (gy < 0 || gy >= rows) {
+                        continue;
+                    }
+                    boolean edge = gy == cy - r || gy == cy + r;
+                    int step = edge || r == 0 ? 1 : 2 * r;
+                    for (int gx = cx - r; gx <= cx + r; gx += step) {
+                        if (gx < 0 || gx >= columns) {
+                            continue;
+                        }
+                        int c = gy * columns + gx;
+                        int page = directory[c >>> PAGE_BITS];
+                        if (page < 0) {
+                            continue;
+                        }
+                        for (int other = heads[page << PAGE_BITS | c & PAGE - 1]; other >= 0; other = next[other]) {
+                            double dx = x[other] - px;
+                            double dy = y[other] - py;
+                            double distance = dx * dx + dy * dy;
+                            if (distance < bestDistance || (distance == bestDistance && other < best)) {
+                                bestDistance = distance;
+                                best = other;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Führt einen Zug aus.
+     *
+     * @param rng die Zufallsquelle für alle Würfe dieses Zuges
+     * @return {@code true} wenn danach noch mindestens zwei Teams leben
+     * @throws InterruptedException wenn der Thread während der Taktung der
+     *                             Engine unterbrochen wird
+     * @throws IllegalArgumentException wenn rng null ist
+     */
+    public boolean tick(CombatRandom rng) throws InterruptedException {
+        if (rng == null) {
+            throw new IllegalArgumentException("Zufallsquelle darf nicht null sein");
+        }
+        ticks++;
+        for (int id = 0, n = warriors.size(); id < n; id++) {
+            if (cell[id] < 0) {
+                continue;
+            }
+            if (cooldown[id] > 0) {
+                cooldown[id]--;
+            }
+            int target = nearestEnemy(id);
+            if (target < 0) {
+                break;
+            }
+            act(id, target, rng);
+        }
+        return livingTeams() > 1;
+    }
+
+    /**
+     * Führt Züge aus, bis höchstens ein Team übrig ist.
+     *
+     * @param maxTicks maximale Anzahl an Zügen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return das Ergebnis der Arena
+     * @throws InterruptedException wenn der Thread während der Taktung der
+     *                             Engine unterbrochen wird
+     * @throws IllegalArgumentException wenn rng null oder maxTicks nicht positiv ist
+     */
+    public ArenaResult run(int maxTicks, CombatRandom rng) throws InterruptedException {
+        if (maxTicks <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Zügen muss positiv sein");
+        }
+        int limit = ticks + maxTicks;
+        while (livingTeams() > 1 && ticks < limit) {
+            tick(rng);
+        }
+        int winner = -1;
+        int survivors = 0;
+        for (int t = 0; t < alive.length; t++) {
+            if (alive[t] > 0) {
+                winner = survivors == 0 ? t : -1;
+                survivors += alive[t];
+            }
+        }
+        return new ArenaResult(winner, ticks, attacks, teleports, survivors);
+    }
+
+    private void act(int id, int target, CombatRandom rng) throws InterruptedException {
+        double dx = x[target] - x[id];
+        double dy = y[target] - y[id];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        Warrior warrior = warriors.get(id);
+        if (distance <= ATTACK_RANGE) {
+            attacks++;
+            Warrior defender = warriors.get(target);
+            if (engine.resolveAttack(warrior, defender, rng).isFatal()) {
+                unlink(target);
+                cell[target] = -1;
+                alive[team[target]]--;
+            }
+        } else if (cooldown[id] == 0 && warrior.teleportType != null && warrior.teleportType.relocates()) {
+            // Auf der eigenen Seite des Gegners in halber Angriffsreichweite landen
+            double offset = ATTACK_RANGE / 2 / distance;
+            moveTo(id, x[target] - dx * offset, y[target] - dy * offset);
+            cooldown[id] = TELEPORT_COOLDOWN;
+            teleports++;
+        } else {
+            double step = Math.min(SPEED, distance - ATTACK_RANGE / 2) / distance;
+            moveTo(id, x[id] + dx * step, y[id] + dy * step);
+        }
+    }
+
+    private void moveTo(int id, double px, double py) {
+        px = Math.min(width, Math.max(0.0, px));
+        py = Math.min(height, Math.max(0.0, py));
+        x[id] = px;
+        y[id] = py;
+        int target = cellOf(px, py);
+        if (target != cell[id]) {
+            unlink(id);
+            link(id, target);
+        }
+    }
+
+    private void link(int id, int c) {
+        int[] directory = pages.get(team[id]);
+        int page = directory[c >>> PAGE_BITS];
+        if (page < 0) {
+            page = newPage();
+            directory[c >>> PAGE_BITS] = page;
+        }
+        int slot = page << PAGE_BITS | c & PAGE - 1;
+        int first = heads[slot];
+        next[id] = first;
+        prev[id] = -1;
+        if (first >= 0) {
+            prev[first] = id;
+        }
+        heads[slot] = id;
+        pageSize[page]++;
+        cell[id] = c;
+    }
+
+    private void unlink(int id) {
+        int[] directory = pages.get(team[id]);
+        int c = cell[id];
+        int page = directory[c >>> PAGE_BITS];
+        int p = prev[id];
+        int n = next[id];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[page << PAGE_BITS | c & PAGE - 1] = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        }
+        if (--pageSize[page] == 0) {
+            directory[c >>> PAGE_BITS] = -1;
+            heads[page << PAGE_BITS] = freePage;
+            freePage = page;
+        }
+    }
+
+    private int newPage() {
+        int page = freePage;
+        if (page >= 0) {
+            freePage = heads[page << PAGE_BITS];
+        } else {
+            page = pageCount++;
+            if (page == pageSize.length) {
+                pageSize = Arrays.copyOf(pageSize, page * 2);
+                heads = Arrays.copyOf(heads, page * 2 * PAGE);
+            }
+        }
+        Arrays.fill(heads, page << PAGE_BITS, (page + 1) << PAGE_BITS, -1);
+        return page;
+    }
+
+    private int livingTeams() {
+        int living = 0;
+        for (int count : alive) {
+            if (count > 0) {
+                living++;
+            }
+        }
+        return living;
+    }
+
+    private int cellOf(double px, double py) {
+        return row(py) * columns + column(px);
+    }
+
+    private int column(double px) {
+        return Math.min(columns - 1, (int) (px / cellSize));
+    }
+
+    private int row(double py) {
+        return Math.min(rows - 1, (int) (py / cellSize));
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= warriors.size()) {
+            throw new IndexOutOfBoundsException("Krieger " + id + " existiert nicht");
+        }
+    }
+
+    private void grow(int capacity) {
+        team = Arrays.copyOf(team, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        cell = Arrays.copyOf(cell, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+    }
+}
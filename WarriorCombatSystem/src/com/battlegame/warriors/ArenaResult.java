@@ -0,0 +1,28 @@
+package com.battlegame.warriors;
+
+/**
+ * Ergebnis einer {@link Arena}.
+ *
+ * @param winningTeam das einzige überlebende Team oder -1, wenn mehrere
+ *                    Teams überleben oder keines
+ * @param ticks Anzahl der ausgeführten Züge
+ * @param attacks Anzahl der Angriffe
+ * @param teleports Anzahl der Teleportationen
+ * @param survivors Anzahl der überlebenden Krieger aller Teams
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Arena
+ */
+public record ArenaResult(int winningTeam, int ticks, long attacks, long teleports, int survivors) {
+
+    /**
+     * Prüft, ob die Arena ohne eindeutigen Sieger endete.
+     *
+     * @return {@code true} wenn kein einzelnes Team übrig ist
+     */
+    public boolean isDraw() {
+        return winningTeam < 0;
+    }
+}
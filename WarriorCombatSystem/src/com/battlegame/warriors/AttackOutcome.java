@@ -0,0 +1,48 @@
+package com.battlegame.warriors;
+
+/**
+ * Ergebnis eines einzelnen Angriffs innerhalb der {@link BattleEngine}.
+ *
+ * Ersetzt im Kampfkern die Textergebnisse {@link Battle#GAME_OVER} und
+ * {@link Battle#FIGHT_AGAIN}. Der Vergleich erfolgt per Referenz, sodass
+ * weder {@code equals} noch sonstige String-Arbeit anfällt.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleEngine#resolveAttack(Warrior, Warrior, CombatRandom)
+ */
+public enum AttackOutcome {
+
+    /** Der verteidigende Krieger lebt noch, der Kampf geht weiter. */
+    FIGHT_AGAIN(Battle.FIGHT_AGAIN),
+
+    /** Der verteidigende Krieger ist gestorben. */
+    GAME_OVER(Battle.GAME_OVER);
+
+    /** Das bisherige Textergebnis. */
+    private final String label;
+
+    AttackOutcome(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Prüft, ob der Angriff den Kampf beendet hat.
+     *
+     * @return {@code true} bei {@link #GAME_OVER}
+     */
+    public boolean isFatal() {
+        return this == GAME_OVER;
+    }
+
+    /**
+     * Gibt das bisherige Textergebnis zurück, wie es
+     * {@link Battle#getAttackResult(Warrior, Warrior)} liefert.
+     *
+     * @return {@link Battle#GAME_OVER} oder {@link Battle#FIGHT_AGAIN}
+     */
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,395 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sucht Kampfwerte, mit denen ein Krieger eine vorgegebene Siegquote erreicht.
+ *
+ * Durchsucht wird ein {@link TuningSpace Raster} aus Gesundheit, Angriffs-,
+ * Block- und Ausweichwert, entweder gegen einen einzelnen Gegner
+ * ({@link #tuneMatchup}) oder gegen eine ganze Aufstellung
+ * ({@link #tuneRoster}). Die Siegquote eines Kandidaten ist das Mittel über
+ * alle Gegner; gegen jeden Gegner greift der Kandidat in der Hälfte der
+ * Kämpfe zuerst an.
+ *
+ * Die Suche verläuft in Stufen: Zuerst wird jeder Kandidat mit wenigen
+ * Kämpfen grob geschätzt, danach wird die Anzahl der Kämpfe je Stufe
+ * vervierfacht, bis die gewünschte Genauigkeit erreicht ist. Nach jeder
+ * Stufe scheiden Kandidaten aus, deren Abstand zur Zielquote selbst im
+ * günstigsten Fall (drei Standardfehler) größer ist als der ungünstigste
+ * Abstand der bisher besten Kandidaten. Die Kandidaten einer Stufe werden
+ * per Fork/Join parallel ausgewertet.
+ *
+ * Jede ausgewertete Paarung aus Kandidat und Gegner wird samt ihren
+ * Zählern gespeichert. Kampf Nummer {@code i} einer Paarung verwendet
+ * immer denselben Zufallsstrom; eine höhere Stufe oder ein späterer Aufruf
+ * mit derselben Paarung setzt daher die bisherigen Kämpfe fort, statt sie
+ * zu wiederholen. Gekämpft wird allokationsfrei mit {@link Combatant}
+ * über {@link DamageTables}.
+ *
+ * Die Klasse ist threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see TuningSpace
+ * @see TuningResult
+ */
+public final class BalanceTuner {
+
+    /** Standardanzahl an Kämpfen je Gegner in der letzten Stufe. */
+    public static final int DEFAULT_PRECISE_FIGHTS = 4_096;
+
+    /** Kämpfe je Gegner in der ersten, groben Stufe. */
+    private static final int COARSE_FIGHTS = 64;
+
+    /** Breite des Konfidenzbands in Standardfehlern. */
+    private static final double Z = 3.0;
+
+    /** Pool, auf dem die Kandidaten ausgewertet werden. */
+    private final ForkJoinPool pool;
+
+    /** Basis-Startwert für die Zufallsströme der Paarungen. */
+    private final long seed;
+
+    /** Kämpfe je Gegner in der letzten Stufe. */
+    private final int preciseFights;
+
+    private final DamageTables tables = new DamageTables();
+
+    /** Zähler je ausgewerteter Paarung. */
+    private final ConcurrentHashMap<Matchup, Tally> tallies = new ConcurrentHashMap<>();
+
+    /** Insgesamt simulierte Kämpfe. */
+    private final LongAdder simulated = new LongAdder();
+
+    /**
+     * Erstellt einen Tuner auf dem gemeinsamen Fork/Join-Pool mit zufälligem Startwert.
+     */
+    public BalanceTuner() {
+        this(ForkJoinPool.commonPool(), SplitMixRandom.randomSeed(), DEFAULT_PRECISE_FIGHTS);
+    }
+
+    /**
+     * Erstellt einen Tuner mit eigenem Pool, Startwert und eigener Genauigkeit.
+     *
+     * @param pool Pool, auf dem die Kandidaten ausgewertet werden
+     * @param seed Basis-Startwert; gleiche Startwerte liefern gleiche Ergebnisse
+     * @param preciseFights Kämpfe je Gegner in der letzten Stufe (muss positiv sein)
+     * @throws IllegalArgumentException wenn pool null oder preciseFights nicht positiv ist
+     */
+    public BalanceTuner(ForkJoinPool pool, long seed, int preciseFights) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool darf nicht null sein");
+        }
+        if (preciseFights <= 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe muss positiv sein");
+        }
+        this.pool = pool;
+        this.seed = seed;
+        this.preciseFights = preciseFights;
+    }
+
+    /**
+     * Sucht die Kandidaten, deren Siegquote gegen einen Gegner der Zielquote am nächsten kommt.
+     *
+     * @param space das Raster der Kandidaten
+     * @param opponent der Gegner
+     * @param targetWinRate die Zielquote zwischen 0.0 und 1.0
+     * @param results Anzahl der gewünschten Kandidaten (muss positiv sein)
+     * @return bis zu {@code results} Kandidaten, der nächstgelegene zuerst
+     * @throws IllegalArgumentException wenn ein Parameter null oder ungültig ist
+     */
+    public List<TuningResult> tuneMatchup(TuningSpace space, WarriorSpec opponent,
+                                          double targetWinRate, int results) {
+        if (opponent == null) {
+            throw new IllegalArgumentException("Gegner darf nicht null sein");
+        }
+        return tuneRoster(space, List.of(opponent), targetWinRate, results);
+    }
+
+    /**
+     * Sucht die Kandidaten, deren mittlere Siegquote gegen eine Aufstellung
+     * der Zielquote am nächsten kommt.
+     *
+     * @param space das Raster der Kandidaten
+     * @param roster die Gegner (mindestens einer)
+     * @param targetWinRate die Zielquote zwischen 0.0 und 1.0
+     * @param results Anzahl der gewünschten Kandidaten (muss positiv sein)
+     * @return bis zu {@code results} Kandidaten, der nächstgelegene zuerst
+     * @throws IllegalArgumentException wenn ein Parameter null oder ungültig ist
+     */
+    public List<TuningResult> tuneRoster(TuningSpace space, List<WarriorSpec> roster,
+                                         double targetWinRate, int results) {
+        if (space == null || roster == null || roster.isEmpty()) {
+            throw new IllegalArgumentException("Raster und Gegner dürfen nicht null oder leer sein");
+        }
+        for (WarriorSpec opponent : roster) {
+            if (opponent == null) {
+                throw new IllegalArgumentException("Gegner darf nicht null sein");
+            }
+        }
+        if (targetWinRate < 0.0 || targetWinRate > 1.0) {
+            throw new IllegalArgumentException("Zielquote muss zwischen 0.0 und 1.0 liegen");
+        }
+        if (results <= 0) {
+            throw new IllegalArgumentException("Anzahl der Ergebnisse muss positiv sein");
+        }
+
+        Candidate[] alive = new Candidate[space.size()];
+        for (int i = 0; i < alive.length; i++) {
+            WarriorSpec spec = space.candidate(i);
+            Tally[] perOpponent = new Tally[roster.size()];
+            for (int o = 0; o < perOpponent.length; o++) {
+                perOpponent[o] = tallies.computeIfAbsent(new Matchup(spec, roster.get(o)), Tally::new);
+            }
+            alive[i] = new Candidate(i, spec, perOpponent);
+        }
+
+        int count = alive.length;
+        int fights = Math.min(COARSE_FIGHTS, preciseFights);
+        while (true) {
+            long chunk = Math.max(1, count / (pool.getParallelism() * 8L));
+            pool.invoke(new Evaluate(alive, 0, count, chunk, fights));
+            for (int i = 0; i < count; i++) {
+                alive[i].estimate(targetWinRate);
+            }
+            if (fights == preciseFights) {
+                break;
+            }
+            count = prune(alive, count, results);
+            fights = (int) Math.min((long) fights * 4, preciseFights);
+        }
+
+        Candidate[] ranked = Arrays.copyOf(alive, count);
+        Arrays.sort(ranked, Comparator.comparingDouble((Candidate c) -> c.error).thenComparingInt(c -> c.index));
+        List<TuningResult> best = new ArrayList<>(Math.min(results, count));
+        for (int i = 0; i < ranked.length && i < results; i++) {
+            Candidate c = ranked[i];
+            best.add(new TuningResult(c.spec, c.winRate, c.error, c.fights));
+        }
+        return best;
+    }
+
+    /**
+     * Behält nur Kandidaten, die noch unter die besten {@code results} fallen können.
+     *
+     * @return die Anzahl der verbleibenden Kandidaten am Anfang von {@code alive}
+     */
+    private static int prune(Candidate[] alive, int count, int results) {
+        if (count <= results) {
+            return count;
+        }
+        double[] upper = new double[count];
+        for (int i = 0; i < count; i++) {
+            upper[i] = alive[i].error + alive[i].margin;
+        }
+        Arrays.sort(upper);
+        double threshold = upper[results - 1];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (alive[i].error - alive[i].margin <= threshold) {
+                alive[kept++] = alive[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher ausgewerteten Paarungen aus Kandidat und Gegner zurück.
+     *
+     * @return die Anzahl der gespeicherten Paarungen
+     */
+    public int evaluatedMatchups() {
+        return tallies.size();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher insgesamt simulierten Kämpfe zurück.
+     *
+     * @return die Anzahl der Kämpfe über alle Aufrufe
+     */
+    public long simulatedFights() {
+        return simulated.sum();
+    }
+
+    /**
+     * Verwirft alle gespeicherten Paarungen.
+     */
+    public void clear() {
+        tallies.clear();
+    }
+
+    /**
+     * Setzt die Kämpfe einer Paarung bis zur angegebenen Anzahl fort.
+     */
+    private void extend(Tally tally, int fights) {
+        synchronized (tally) {
+            if (tally.fights >= fights) {
+                return;
+            }
+            Combatant candidate = new Combatant(tally.matchup.candidate);
+            Combatant opponent = new Combatant(tally.matchup.opponent);
+            SplitMixRandom rng = new SplitMixRandom(0);
+            long stream = tally.matchup.stream(seed);
+            long wins = tally.wins;
+            for (long i = tally.fights; i < fights; i++) {
+                rng.setState(SplitMixRandom.streamSeed(stream, i));
+                candidate.reset();
+                opponent.reset();
+                Combatant winner = (i & 1) == 0
+                        ? Combatant.fight(candidate, opponent, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng, tables)
+                        : Combatant.fight(opponent, candidate, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng, tables);
+                if (winner == candidate) {
+                    wins++;
+                }
+            }
+            simulated.add(fights - tally.fights);
+            tally.wins = wins;
+            tally.fights = fights;
+        }
+    }
+
+    /**
+     * Paarung aus Kandidat und Gegner, nur über die Kampfwerte verglichen.
+     */
+    private static final class Matchup {
+
+        final WarriorSpec candidate;
+        final WarriorSpec opponent;
+
+        Matchup(WarriorSpec candidate, WarriorSpec opponent) {
+            this.candidate = candidate;
+            this.opponent = opponent;
+        }
+
+        /**
+         * Startwert des Zufallsstroms dieser Paarung, unabhängig von der JVM.
+         */
+        long stream(long seed) {
+            long s = seed;
+            for (long value : new long[] {candidate.health(), candidate.attkMax(), candidate.blockMax(),
+                    Double.doubleToLongBits(candidate.dodgePercent()), opponent.health(), opponent.attkMax(),
+                    opponent.blockMax(), Double.doubleToLongBits(opponent.dodgePercent())}) {
+                s = SplitMixRandom.streamSeed(s, value);
+            }
+            return s;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Matchup m && sameStats(candidate, m.candidate) && sameStats(opponent, m.opponent);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * statsHash(candidate) + statsHash(opponent);
+        }
+
+        private static boolean sameStats(WarriorSpec a, WarriorSpec b) {
+            return a.health() == b.health() && a.attkMax() == b.attkMax() && a.blockMax() == b.blockMax()
+                    && Double.compare(a.dodgePercent(), b.dodgePercent()) == 0;
+        }
+
+        private static int statsHash(WarriorSpec spec) {
+            return ((spec.health() * 31 + spec.attkMax()) * 31 + spec.blockMax()) * 31
+                    + Double.hashCode(spec.dodgePercent());
+        }
+    }
+
+    /**
+     * Bisherige Kämpfe und Siege des Kandidaten einer Paarung.
+     */
+    private static final class Tally {
+
+        final Matchup matchup;
+        long fights;
+        long wins;
+
+        Tally(Matchup matchup) {
+            this.matchup = matchup;
+        }
+    }
+
+    /**
+     * Ein Kandidat mit seinen Paarungen und der Schätzung der letzten Stufe.
+     */
+    private static final class Candidate {
+
+        final int index;
+        final WarriorSpec spec;
+        final Tally[] tallies;
+        double winRate;
+        double error;
+        double margin;
+        long fights;
+
+        Candidate(int index, WarriorSpec spec, Tally[] tallies) {
+            this.index = index;
+            this.spec = spec;
+            this.tallies = tallies;
+        }
+
+        void estimate(double target) {
+            double rate = 0.0;
+            double variance = 0.0;
+            fights = Long.MAX_VALUE;
+            for (Tally tally : tallies) {
+                fights = Math.min(fights, tally.fights);
+                double n = tally.fights;
+                rate += tally.wins / n;
+                // Geglättete Quote, damit 0 oder alle Siege nicht als sicher gelten
+                double smoothed = (tally.wins + 1) / (n + 2);
+                variance += smoothed * (1 - smoothed) / n;
+            }
+            int m = tallies.length;
+            winRate = rate / m;
+            error = Math.abs(winRate - target);
+            margin = Z * Math.sqrt(variance) / m;
+        }
+    }
+
+    /**
+     * Teilauftrag, der einen Bereich von Kandidaten auf die Kämpfe einer Stufe bringt.
+     */
+    private final class Evaluate extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Candidate[] candidates;
+        private final int from;
+        private final int to;
+        private final long chunk;
+        private final int fights;
+
+        Evaluate(Candidate[] candidates, int from, int to, long chunk, int fights) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.fights = fights;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    for (Tally tally : candidates[i].tallies) {
+                        extend(tally, fights);
+                    }
+                }
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            invokeAll(new Evaluate(candidates, from, mid, chunk, fights),
+                    new Evaluate(candidates, mid, to, chunk, fights));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.battlegame.warriors;
+
+/**
+ * Kampf-Engine, die viele unabhängige Kämpfe gleichzeitig rundenweise auflöst.
+ *
+ * Die Engine arbeitet auf einem spaltenorientierten {@link FightBatch} und
+ * führt in jedem Schritt einen Angriff für alle noch laufenden Kämpfe aus.
+ * Ist das Inkubator-Modul {@code jdk.incubator.vector} geladen (z.B. über
+ * {@code --add-modules jdk.incubator.vector}), werden mehrere Kämpfe in einer
+ * Vektor-Lane gleichzeitig berechnet; andernfalls läuft dieselbe Logik in
+ * einer skalaren Schleife.
+ *
+ * Die Regeln entsprechen exakt {@link BattleEngine#getAttackResult(Warrior, Warrior, CombatRandom)}:
+ * Angriffswurf, bei ausweichfähigen Verteidigern Ausweichwurf, danach
+ * gegebenenfalls Blockwurf, Schaden als Angriff minus Block, mindestens 0.
+ * Bei gleichem Startwert liefern beide Engines denselben Kampfverlauf.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see FightBatch
+ * @see VectorLanes
+ */
+public final class BatchCombatEngine {
+
+    /** Standardgröße eines Batches für {@link #simulate(WarriorSpec, WarriorSpec, long, long)}. */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /** Ob die Vector API zur Laufzeit verfügbar ist. */
+    private static final boolean VECTOR_API_AVAILABLE = detectVectorApi();
+
+    /** Ob diese Engine die Vektor-Lanes verwendet. */
+    private final boolean vectorized;
+
+    /**
+     * Erstellt eine Engine, die die Vector API verwendet, sofern verfügbar.
+     */
+    public BatchCombatEngine() {
+        this(true);
+    }
+
+    /**
+     * Erstellt eine Engine mit wählbarem Ausführungspfad.
+     *
+     * @param useVectorLanes {@code true} um die Vector API zu verwenden, sofern
+     *                       verfügbar, {@code false} für die skalare Schleife
+     */
+    public BatchCombatEngine(boolean useVectorLanes) {
+        this.vectorized = useVectorLanes && VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Prüft, ob die Vector API in dieser JVM verfügbar ist.
+     *
+     * @return {@code true} wenn {@code jdk.incubator.vector} geladen ist
+     */
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    /**
+     * Prüft, ob diese Engine die Vektor-Lanes verwendet.
+     *
+     * @return {@code true} bei vektorisierter Ausführung
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Führt alle laufenden Kämpfe eines Batches bis zum Ende aus.
+     *
+     * Alle laufenden Kämpfe müssen frisch über {@link FightBatch#set} oder
+     * {@link FightBatch#fill} gesetzt worden sein, da sie im Gleichschritt
+     * mit derselben Angriffsreihenfolge fortschreiten. Kämpfe, die nach
+     * {@code maxRounds} Angriffen noch laufen, enden unentschieden.
+     *
+     * @param batch der auszuführende Batch
+     * @param maxRounds maximale Anzahl an Angriffen pro Kampf (muss positiv sein)
+     * @throws IllegalArgumentException wenn batch null oder maxRounds nicht positiv ist
+     */
+    public void run(FightBatch batch, int maxRounds) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch darf nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+
+        // Laufende Kämpfe liegen während des Laufs zusammenhängend in [0, live)
+        int live = batch.compact(batch.size);
+
+        // Jeder Schritt ist ein Angriff; gerade Schritte gehören dem ersten Krieger
+        for (int step = 0; live > 0 && step < maxRounds; step++) {
+            int killed;
+            if ((step & 1) == 0) {
+                killed = attack(batch, live, batch.firstAttkMax, batch.secondBlockMax, batch.secondDodge,
+                        batch.secondHealth, batch.firstDamage, FightBatch.FIRST_WON);
+            } else {
+                killed = attack(batch, live, batch.secondAttkMax, batch.firstBlockMax, batch.firstDodge,
+                        batch.firstHealth, batch.secondDamage, FightBatch.SECOND_WON);
+            }
+            if (killed > 0) {
+                live = batch.compact(live);
+            }
+        }
+
+        for (int i = 0; i < live; i++) {
+            batch.outcome[i] = FightBatch.DRAW;
+        }
+        batch.restoreOrder();
+    }
+
+    /**
+     * Simuliert Kämpfe einer Paarung batchweise auf dem aufrufenden Thread.
+     *
+     * Kampf Nummer {@code i} verwendet denselben Startwert wie im
+     * {@link MonteCarloSimulator}, sodass beide bei gleichem Startwert
+     * identische Ergebnisse liefern.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der zu simulierenden Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert der Simulation
+     * @return das zusammengefasste Ergebnis aller Kämpfe
+     * @throws IllegalArgumentException wenn eine Spezifikation null oder fights negativ ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights, long seed) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        if (fights < 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe darf nicht negativ sein");
+        }
+        FightBatch batch = new FightBatch((int) Math.max(1, Math.min(fights, DEFAULT_BATCH_SIZE)));
+        SimulationResult result = SimulationResult.EMPTY;
+        for (long done = 0; done < fights; ) {
+            int count = (int) Math.min(batch.size, fights - done);
+            batch.fill(first, second, seed, done, count);
+            run(batch, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+            result = result.merge(batch.toResult(count));
+            done += count;
+        }
+        return result;
+    }
+
+    /**
+     * Führt einen Angriff für alle laufenden Kämpfe in [0, live) aus.
+     *
+     * @return Anzahl der Kämpfe, die durch diesen Angriff beendet wurden
+     */
+    private int attack(FightBatch b, int live, int[] atkMax, int[] defBlock, double[] defDodge,
+                       int[] defHealth, int[] atkDamage, int winCode) {
+        int killed = 0;
+        int from = 0;
+        if (vectorized) {
+            killed = VectorLanes.attack(b, live, atkMax, defBlock, defDodge, defHealth, atkDamage, winCode);
+            from = VectorLanes.loopBound(live);
+        }
+        int[] outcome = b.outcome;
+        long[] rngState = b.rngState;
+        for (int i = from; i < live; i++) {
+            if (outcome[i] != FightBatch.RUNNING) {
+                continue;
+            }
+            // Alle Würfe werden verzweigungsfrei berechnet; welcher Zustand
+            // übernommen wird, entscheidet wie im Warrior-Modell das Ausweichen
+            long sAttack = rngState[i] + SplitMixRandom.GAMMA;
+            int atk = 1 + (int) (unit(sAttack) * atkMax[i]);
+
+            double dodge = defDodge[i];
+            boolean canDodge = dodge > 0.0;
+            long sDodge = sAttack + SplitMixRandom.GAMMA;
+            boolean dodged = canDodge & unit(sDodge) <= dodge;
+            long sBlock = (canDodge ? sDodge : sAttack) + SplitMixRandom.GAMMA;
+            int blockRoll = 1 + (int) (unit(sBlock) * defBlock[i]);
+            int blk = dodged ? DodgeWarrior.DODGE_BLOCK : blockRoll;
+            rngState[i] = dodged ? sDodge : sBlock;
+
+            int dmg = Math.max(0, atk - blk);
+            defHealth[i] -= dmg;
+            atkDamage[i] += dmg;
+            b.maxHit[i] = Math.max(b.maxHit[i], dmg);
+            b.rounds[i]++;
+            if (defHealth[i] <= 0) {
+                outcome[i] = winCode;
+                killed++;
+            }
+        }
+        return killed;
+    }
+
+    /**
+     * Wandelt einen SplitMix64-Zustand in eine Zufallszahl aus [0.0, 1.0) um.
+     */
+    private static double unit(long state) {
+        return (SplitMixRandom.mix64(state) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Prüft, ob das Vector-API-Modul geladen ist und Vektoren mit mehreren Lanes unterstützt.
+     */
+    private static boolean detectVectorApi() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorLanes.isUsable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
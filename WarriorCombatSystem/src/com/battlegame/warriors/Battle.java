@@ -7,17 +7,39 @@ package com.battlegame.warriors;
  * keinem spezifischen Objekt zugeordnet werden müssen und allgemeine
  * Funktionalitäten für alle Warrior-Objekte bereitstellen.
  * 
+ * Die Methoden verwenden die interaktive Konfiguration der
+ * {@link BattleEngine}. Taktung und Ausgabe lassen sich über eigene
+ * Engine-Instanzen austauschen oder abschalten.
+ * 
  * @author MoBoudni
- * @version 1.0
+ * @version 2.0
  * @since 1.0
+ * @see BattleEngine
  */
 public class Battle {
 
+    /** Ergebnis eines Angriffs, nach dem der verteidigende Krieger gestorben ist. */
+    public static final String GAME_OVER = "Game Over";
+
+    /** Ergebnis eines Angriffs, nach dem der Kampf fortgesetzt werden kann. */
+    public static final String FIGHT_AGAIN = "Fight Again";
+
+    /**
+     * Version der Kampfregeln.
+     *
+     * Muss bei jeder Änderung erhöht werden, die den Ausgang von Kämpfen
+     * beeinflusst; gespeicherte Ergebnisse älterer Regeln, etwa im
+     * {@link MatchupCache}, werden dann verworfen.
+     */
+    public static final int RULES_VERSION = 1;
+
     /**
      * Startet einen Kampf zwischen zwei Warrior-Objekten.
      * 
      * Die Methode führt eine Kampfschleife aus, in der sich beide Krieger
-     * abwechselnd angreifen, bis einer von ihnen stirbt.
+     * abwechselnd angreifen, bis einer von ihnen stirbt. Der Kampf läuft
+     * interaktiv mit Konsolenausgabe und Pausen ab; für den Headless-Betrieb
+     * steht {@link BattleEngine#HEADLESS} zur Verfügung.
      * 
      * 
      * @param w1 der erste Krieger
@@ -25,23 +47,10 @@ public class Battle {
      * @throws InterruptedException wenn der Thread während der Wartezeit
      *                             zwischen den Angriffen unterbrochen wird
      * @throws IllegalArgumentException wenn einer der Parameter null ist
+     * @see BattleEngine#INTERACTIVE
      */
     public static void startFight(Warrior w1, Warrior w2) throws InterruptedException {
-        if (w1 == null || w2 == null) {
-            throw new IllegalArgumentException("Warrior-Objekte dürfen nicht null sein");
-        }
-        
-        // Kampfschleife: Jeder Krieger greift abwechselnd an
-        while (true) {
-            if (getAttackResult(w1, w2).equals("Game Over")) {
-                System.out.println("Game Over");
-                break;
-            }
-            if (getAttackResult(w2, w1).equals("Game Over")) {
-                System.out.println("Game Over");
-                break;
-            }
-        }
+        BattleEngine.INTERACTIVE.startFight(w1, w2);
     }
 
     /**
@@ -59,48 +68,9 @@ public class Battle {
      * @throws InterruptedException wenn der Thread während der Wartezeit
      *                             zwischen den Ausgaben unterbrochen wird
      * @throws IllegalArgumentException wenn einer der Parameter null ist
+     * @see BattleEngine#getAttackResult(Warrior, Warrior)
      */
     public static String getAttackResult(Warrior wA, Warrior wB) throws InterruptedException {
-        if (wA == null || wB == null) {
-            throw new IllegalArgumentException("Warrior-Objekte dürfen nicht null sein");
-        }
-
-        // Angriffs- und Verteidigungswerte ermitteln
-        int wAAttkAmt = wA.attack();
-        int wBBlockAmt = wB.block();
-
-        // Netto-Schaden berechnen (Angriff minus Verteidigung)
-        int dmg2WarB = wAAttkAmt - wBBlockAmt;
-
-        // Schaden anwenden, falls positiv
-        if (dmg2WarB > 0) {
-            wB.health = wB.health - dmg2WarB;
-        } else {
-            dmg2WarB = 0; // Kein negativer Schaden möglich
-        }
-
-        // Schadensbericht ausgeben
-        // Verwendung von printf für formatierte Ausgabe:
-        // %s = String, %d = Integer, %f = Float/Double
-        // %.2f = Float mit 2 Dezimalstellen, %c = Character
-        // %e = Wissenschaftliche Notation, %t = Datum, %b = Boolean
-        System.out.printf("%s Attacks %s and deals %d Damage\n", 
-                         wA.getName(), wB.getName(), dmg2WarB);
-
-        // Aktuelle Gesundheit des verteidigenden Kriegers ausgeben
-        System.out.printf("%s Has %d Health\n\n", 
-                         wB.getName(), wB.health);
-
-        // Kurze Pause für bessere Lesbarkeit der Ausgabe
-        Thread.sleep(1500);
-
-        // Prüfen ob der Krieger gestorben ist
-        if (wB.health <= 0) {
-            System.out.printf("%s has Died and %s is Victorious\n", 
-                             wB.getName(), wA.getName());
-            return "Game Over";
-        } else {
-            return "Fight Again";
-        }
+        return BattleEngine.INTERACTIVE.getAttackResult(wA, wB);
     }
 }
@@ -0,0 +1,512 @@
+package com.battlegame.warriors;
+
+/**
+ * Konfigurierbare Kampf-Engine für Kämpfe zwischen Warrior-Objekten.
+ *
+ * Die Engine enthält die Kampfregeln von {@link Battle}, trennt aber
+ * Taktung ({@link BattlePacer}) und Berichterstattung ({@link BattleReporter})
+ * als austauschbare Bestandteile ab. Damit lässt sich derselbe Kampfablauf
+ * sowohl interaktiv mit Pausen und Konsolenausgabe als auch im
+ * Headless-Betrieb ohne jede Ausgabe ausführen.
+ *
+ * Instanzen sind unveränderlich und können gefahrlos von mehreren Threads
+ * gemeinsam verwendet werden, solange jeder Kampf eigene Warrior-Objekte nutzt.
+ * Für Krieger, die gleichzeitig von mehreren Threads angegriffen werden,
+ * wendet eine Engine aus {@link #withSharedWarriors()} den Schaden atomar an.
+ * Eine Engine aus {@link #withDamageTables(DamageTables)} zieht den Schaden
+ * ganzer Kämpfe ohne Berichterstattung mit einem Wurf pro Angriff aus
+ * vorberechneten Tabellen.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Battle
+ * @see BattleReporter
+ * @see BattlePacer
+ */
+public final class BattleEngine {
+
+    /**
+     * Interaktive Konfiguration: Konsolenausgabe und 1,5 Sekunden Pause
+     * nach jedem Angriff, wie in {@link WarriorGame#main(String[])}.
+     */
+    public static final BattleEngine INTERACTIVE =
+            new BattleEngine(BattleReporter.CONSOLE, BattlePacer.sleeping(1500));
+
+    /**
+     * Headless-Konfiguration: keine Ausgabe und keine Pausen.
+     */
+    public static final BattleEngine HEADLESS =
+            new BattleEngine(BattleReporter.SILENT, BattlePacer.NONE);
+
+    /** Empfänger aller Kampfereignisse. */
+    private final BattleReporter reporter;
+
+    /** Taktung zwischen zwei Angriffen. */
+    private final BattlePacer pacer;
+
+    /**
+     * {@code false} bei {@link BattleReporter#SILENT}; der Kampfkern
+     * überspringt dann sämtliche Aufrufe der Berichterstattung.
+     */
+    private final boolean reporting;
+
+    /** {@code false} bei {@link BattlePacer#NONE}. */
+    private final boolean pacing;
+
+    /** Schaden über {@link Warrior#applyDamage(int)} statt direkt anwenden. */
+    private final boolean shared;
+
+    /** Schadenstabellen für Kämpfe ohne Berichterstattung, oder {@code null}. */
+    private final DamageTables tables;
+
+    /**
+     * Erstellt eine Engine mit der angegebenen Berichterstattung und Taktung.
+     *
+     * @param reporter Empfänger der Kampfereignisse
+     * @param pacer Taktung zwischen zwei Angriffen
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public BattleEngine(BattleReporter reporter, BattlePacer pacer) {
+        this(reporter, pacer, false, null);
+    }
+
+    private BattleEngine(BattleReporter reporter, BattlePacer pacer, boolean shared, DamageTables tables) {
+        if (reporter == null || pacer == null) {
+            throw new IllegalArgumentException("Reporter und Taktung dürfen nicht null sein");
+        }
+        this.reporter = reporter;
+        this.pacer = pacer;
+        this.reporting = reporter != BattleReporter.SILENT;
+        this.pacing = pacer != BattlePacer.NONE;
+        this.shared = shared;
+        this.tables = tables;
+    }
+
+    /**
+     * Gibt eine Kopie dieser Engine mit anderer Berichterstattung zurück.
+     *
+     * @param newReporter die neue Berichterstattung
+     * @return eine neue Engine mit derselben Taktung
+     * @throws IllegalArgumentException wenn newReporter null ist
+     */
+    public BattleEngine withReporter(BattleReporter newReporter) {
+        return new BattleEngine(newReporter, pacer, shared, tables);
+    }
+
+    /**
+     * Gibt eine Kopie dieser Engine mit anderer Taktung zurück.
+     *
+     * @param newPacer die neue Taktung
+     * @return eine neue Engine mit derselben Berichterstattung
+     * @throws IllegalArgumentException wenn newPacer null ist
+     */
+    public BattleEngine withPacer(BattlePacer newPacer) {
+        return new BattleEngine(reporter, newPacer, shared, tables);
+    }
+
+    /**
+     * Gibt eine Kopie dieser Engine zurück, die Schaden atomar anwendet.
+     *
+     * Für Krieger, die gleichzeitig von mehreren Threads angegriffen oder
+     * geheilt werden. Jeder Treffer läuft über {@link Warrior#applyDamage(int)},
+     * sodass keine Treffer verloren gehen und genau ein Angriff
+     * {@link AttackOutcome#GAME_OVER} liefert: der, der den Verteidiger tötet.
+     * Die Standard-Engines greifen ohne Synchronisation direkt auf
+     * {@link Warrior#health} zu, was für Kämpfe mit eigenen Kriegern pro
+     * Thread schneller ist.
+     *
+     * @return eine neue Engine mit derselben Berichterstattung und Taktung
+     */
+    public BattleEngine withSharedWarriors() {
+        return new BattleEngine(reporter, pacer, true, tables);
+    }
+
+    /**
+     * Prüft, ob diese Engine Schaden atomar anwendet.
+     *
+     * @return {@code true} für Engines aus {@link #withSharedWarriors()}
+     */
+    public boolean isSharedWarriors() {
+        return shared;
+    }
+
+    /**
+     * Gibt eine Kopie dieser Engine zurück, die ganze Kämpfe über
+     * Schadenstabellen auflöst.
+     *
+     * Gilt für {@link #startFight(Warrior, Warrior, int, CombatRandom)} ohne
+     * Berichterstattung und mit Kriegern der Klassen {@link Warrior} oder
+     * {@link DodgeWarrior}; Unterklassen mit eigenem Verhalten und Kämpfe mit
+     * Berichterstattung würfeln weiterhin einzeln. Je Kampf werden die beiden
+     * {@link DamageSampler Tabellen} einmal nachgeschlagen, danach kostet
+     * jeder Angriff genau einen Wurf. Der Schaden ist genauso verteilt wie
+     * beim Würfeln, derselbe Startwert führt aber zu einem anderen Kampfverlauf.
+     *
+     * @param newTables die Schadenstabellen, oder {@code null} zum Abschalten
+     * @return eine neue Engine mit derselben Berichterstattung und Taktung
+     */
+    public BattleEngine withDamageTables(DamageTables newTables) {
+        return new BattleEngine(reporter, pacer, shared, newTables);
+    }
+
+    /**
+     * Gibt die Schadenstabellen dieser Engine zurück.
+     *
+     * @return die Schadenstabellen oder {@code null}, wenn gewürfelt wird
+     */
+    public DamageTables getDamageTables() {
+        return tables;
+    }
+
+    /**
+     * Gibt die Berichterstattung dieser Engine zurück.
+     *
+     * @return der Empfänger der Kampfereignisse
+     */
+    public BattleReporter getReporter() {
+        return reporter;
+    }
+
+    /**
+     * Gibt die Taktung dieser Engine zurück.
+     *
+     * @return die Taktung zwischen zwei Angriffen
+     */
+    public BattlePacer getPacer() {
+        return pacer;
+    }
+
+    /**
+     * Führt einen Kampf zwischen zwei Kriegern bis zum Tod eines der beiden aus.
+     *
+     * Beide Krieger greifen abwechselnd an, beginnend mit {@code w1}.
+     * Wie bei {@link Battle#startFight(Warrior, Warrior)} gibt es keine
+     * Begrenzung der Angriffe.
+     *
+     * @param w1 der erste Krieger
+     * @param w2 der zweite Krieger
+     * @return der siegreiche Krieger
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public Warrior startFight(Warrior w1, Warrior w2) throws InterruptedException {
+        return startFight(w1, w2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Führt einen Kampf mit einer Obergrenze an Angriffen aus.
+     *
+     * Beide Krieger greifen abwechselnd an, beginnend mit {@code w1}. Ist nach
+     * {@code maxRounds} Angriffen keiner der beiden gestorben, endet der Kampf
+     * unentschieden. Die Obergrenze verhindert Endlosschleifen bei Kriegern,
+     * deren Angriffe den Blockwert des Gegners nie übersteigen können.
+     * Verwendet die Zufallsquelle des aktuellen Threads.
+     *
+     * @param w1 der erste Krieger
+     * @param w2 der zweite Krieger
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @return der siegreiche Krieger oder {@code null} bei Unentschieden
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn ein Krieger null oder
+     *                                  maxRounds nicht positiv ist
+     */
+    public Warrior startFight(Warrior w1, Warrior w2, int maxRounds) throws InterruptedException {
+        return startFight(w1, w2, maxRounds, CombatRandom.current());
+    }
+
+    /**
+     * Führt einen Kampf mit einer Obergrenze an Angriffen und einer
+     * vorgegebenen Zufallsquelle aus.
+     *
+     * Alle Würfe des Kampfes laufen über {@code rng}. Mit einer frisch
+     * erzeugten Zufallsquelle und festem Startwert, etwa
+     * {@code CombatRandom.seeded(seed)}, ist der Kampf exakt reproduzierbar.
+     *
+     * @param w1 der erste Krieger
+     * @param w2 der zweite Krieger
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return der siegreiche Krieger oder {@code null} bei Unentschieden
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn ein Krieger oder rng null oder
+     *                                  maxRounds nicht positiv ist
+     */
+    public Warrior startFight(Warrior w1, Warrior w2, int maxRounds, CombatRandom rng)
+            throws InterruptedException {
+        if (rng == null) {
+            throw new IllegalArgumentException("Zufallsquelle darf nicht null sein");
+        }
+        if (w1 == null || w2 == null) {
+            throw new IllegalArgumentException("Warrior-Objekte dürfen nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+
+        if (tables != null && !reporting && rollsLikeSpec(w1) && rollsLikeSpec(w2)) {
+            return sampledFight(w1, w2, maxRounds, rng);
+        }
+        if (reporting) {
+            reporter.fightStarted(w1, w2);
+        }
+        int rounds = 0;
+
+        // Kampfschleife: Jeder Krieger greift abwechselnd an
+        while (rounds < maxRounds) {
+            Warrior attacker = (rounds & 1) == 0 ? w1 : w2;
+            Warrior defender = attacker == w1 ? w2 : w1;
+            rounds++;
+            if (strike(attacker, defender, rng) == AttackOutcome.GAME_OVER) {
+                if (reporting) {
+                    reporter.fightEnded(attacker, defender, rounds);
+                }
+                return attacker;
+            }
+        }
+        if (reporting) {
+            reporter.fightDrawn(w1, w2, rounds);
+        }
+        return null;
+    }
+
+    /**
+     * Kampfschleife über Schadenstabellen, ein Wurf pro Angriff.
+     */
+    private Warrior sampledFight(Warrior w1, Warrior w2, int maxRounds, CombatRandom rng)
+            throws InterruptedException {
+        DamageSampler oneToTwo = tables.get(w1.attkMax, w2.blockMax, dodgePercent(w2));
+        DamageSampler twoToOne = tables.get(w2.attkMax, w1.blockMax, dodgePercent(w1));
+        for (int rounds = 0; rounds < maxRounds; rounds++) {
+            boolean firstAttacks = (rounds & 1) == 0;
+            Warrior defender = firstAttacks ? w2 : w1;
+            int damage = (firstAttacks ? oneToTwo : twoToOne).sample(rng);
+            boolean died;
+            if (shared) {
+                died = defender.applyDamage(damage);
+            } else {
+                defender.health = defender.health - damage;
+                died = defender.health <= 0;
+            }
+            if (pacing) {
+                pacer.pause();
+            }
+            if (died) {
+                return firstAttacks ? w1 : w2;
+            }
+        }
+        return null;
+    }
+
+    /** Nur Krieger ohne überschriebene Würfe und mit gültigen Werten entsprechen ihren Tabellen. */
+    private static boolean rollsLikeSpec(Warrior warrior) {
+        Class<?> type = warrior.getClass();
+        return (type == Warrior.class || type == DodgeWarrior.class)
+                && warrior.attkMax > 0 && warrior.blockMax > 0;
+    }
+
+    private static double dodgePercent(Warrior warrior) {
+        return warrior instanceof DodgeWarrior dodger ? dodger.getDodgePercent() : 0.0;
+    }
+
+    /**
+     * Führt einen Angriff von Krieger A gegen Krieger B aus.
+     *
+     * Der Schaden wird als Angriffswert minus Blockwert berechnet und,
+     * falls positiv, von der Gesundheit des verteidigenden Kriegers abgezogen.
+     * Verwendet die Zufallsquelle des aktuellen Threads.
+     *
+     * @param wA der angreifende Krieger
+     * @param wB der verteidigende Krieger
+     * @return {@link Battle#GAME_OVER} wenn der verteidigende Krieger stirbt,
+     *         {@link Battle#FIGHT_AGAIN} wenn der Kampf fortgesetzt werden kann
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public String getAttackResult(Warrior wA, Warrior wB) throws InterruptedException {
+        return getAttackResult(wA, wB, CombatRandom.current());
+    }
+
+    /**
+     * Führt einen Angriff von Krieger A gegen Krieger B mit einer
+     * vorgegebenen Zufallsquelle aus.
+     *
+     * Gewürfelt wird in fester Reihenfolge: zuerst der Angriff, danach die
+     * Verteidigung (bei einem {@link DodgeWarrior} erst der Ausweich-, dann
+     * gegebenenfalls der Blockwurf).
+     *
+     * @param wA der angreifende Krieger
+     * @param wB der verteidigende Krieger
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return {@link Battle#GAME_OVER} wenn der verteidigende Krieger stirbt,
+     *         {@link Battle#FIGHT_AGAIN} wenn der Kampf fortgesetzt werden kann
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public String getAttackResult(Warrior wA, Warrior wB, CombatRandom rng) throws InterruptedException {
+        return resolveAttack(wA, wB, rng).label();
+    }
+
+    /**
+     * Führt einen Angriff von Krieger A gegen Krieger B aus und liefert das
+     * Ergebnis als {@link AttackOutcome}.
+     *
+     * Gleiche Regeln und Würfelreihenfolge wie
+     * {@link #getAttackResult(Warrior, Warrior, CombatRandom)}, aber ohne
+     * Textergebnis. Ohne Berichterstattung ({@link BattleReporter#SILENT})
+     * und ohne Taktung ({@link BattlePacer#NONE}) allokiert der Angriff
+     * keinen Speicher und führt keine String-Arbeit aus.
+     *
+     * @param wA der angreifende Krieger
+     * @param wB der verteidigende Krieger
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return {@link AttackOutcome#GAME_OVER} wenn der verteidigende Krieger
+     *         stirbt, andernfalls {@link AttackOutcome#FIGHT_AGAIN}
+     * @throws InterruptedException wenn der Thread während der Taktung
+     *                             unterbrochen wird
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     */
+    public AttackOutcome resolveAttack(Warrior wA, Warrior wB, CombatRandom rng) throws InterruptedException {
+        if (wA == null || wB == null) {
+            throw new IllegalArgumentException("Warrior-Objekte dürfen nicht null sein");
+        }
+        if (rng == null) {
+            throw new IllegalArgumentException("Zufallsquelle darf nicht null sein");
+        }
+        return strike(wA, wB, rng);
+    }
+
+    /**
+     * Kampfkern eines Angriffs ohne Parameterprüfung.
+     *
+     * Keine Varargs, kein Boxing und keine Strings; Berichterstattung und
+     * Taktung werden nur aufgerufen, wenn sie tatsächlich etwas tun.
+     */
+    private AttackOutcome strike(Warrior wA, Warrior wB, CombatRandom rng) throws InterruptedException {
+        AttackOutcome outcome = hit(wA, wB, rng);
+        if (pacing) {
+            pacer.pause();
+        }
+        if (outcome == AttackOutcome.GAME_OVER && reporting) {
+            reporter.died(wB, wA);
+        }
+        return outcome;
+    }
+
+    /**
+     * Angriff ohne Taktung und ohne Meldung des Todes.
+     *
+     * Der {@link PacedFightScheduler} gibt den Takt selbst vor und meldet den
+     * Tod erst nach der folgenden Pause, wie {@link #strike} nach
+     * {@link BattlePacer#pause()}.
+     */
+    AttackOutcome hit(Warrior wA, Warrior wB, CombatRandom rng) {
+        // Angriffs- und Verteidigungswerte ermitteln
+        int wAAttkAmt = wA.attack(rng);
+        int wBBlockAmt = wB.defend(rng, reporter);
+
+        // Netto-Schaden berechnen (Angriff minus Verteidigung)
+        int dmg2WarB = wAAttkAmt - wBBlockAmt;
+
+        if (dmg2WarB < 0) {
+            dmg2WarB = 0; // Kein negativer Schaden möglich
+        }
+
+        // Schaden anwenden und prüfen, ob der Krieger gestorben ist
+        boolean died;
+        if (shared) {
+            died = wB.applyDamage(dmg2WarB);
+        } else {
+            wB.health = wB.health - dmg2WarB;
+            died = wB.health <= 0;
+        }
+
+        if (reporting) {
+            reporter.attacked(wA, wB, wAAttkAmt, wBBlockAmt, dmg2WarB);
+        }
+        return died ? AttackOutcome.GAME_OVER : AttackOutcome.FIGHT_AGAIN;
+    }
+
+    /**
+     * Kampf wie {@link #startFight(Warrior, Warrior, int, CombatRandom)} ohne
+     * Parameterprüfung, der Angriffe und Schaden direkt in {@code tally}
+     * zählt statt über einen {@link BattleReporter}.
+     *
+     * Simulationen bleiben so auf dem Pfad ohne Berichterstattung und
+     * verwenden die Schadenstabellen, falls die Engine welche hat. Gewürfelt
+     * wird in derselben Reihenfolge wie bei {@link #startFight}, derselbe
+     * Startwert ergibt also denselben Kampf. Nur für Engines ohne
+     * Berichterstattung.
+     */
+    Warrior tallyFight(Warrior w1, Warrior w2, int maxRounds, CombatRandom rng, Tally tally)
+            throws InterruptedException {
+        DamageSampler oneToTwo = null;
+        DamageSampler twoToOne = null;
+        if (tables != null && rollsLikeSpec(w1) && rollsLikeSpec(w2)) {
+            oneToTwo = tables.get(w1.attkMax, w2.blockMax, dodgePercent(w2));
+            twoToOne = tables.get(w2.attkMax, w1.blockMax, dodgePercent(w1));
+        }
+        for (int rounds = 1; rounds <= maxRounds; rounds++) {
+            boolean firstAttacks = (rounds & 1) == 1;
+            Warrior attacker = firstAttacks ? w1 : w2;
+            Warrior defender = firstAttacks ? w2 : w1;
+            int damage;
+            if (oneToTwo != null) {
+                damage = (firstAttacks ? oneToTwo : twoToOne).sample(rng);
+            } else {
+                int attack = attacker.attack(rng);
+                damage = Math.max(0, attack - defender.defend(rng, reporter));
+            }
+            tally.count(firstAttacks, damage);
+            boolean died;
+            if (shared) {
+                died = defender.applyDamage(damage);
+            } else {
+                defender.health = defender.health - damage;
+                died = defender.health <= 0;
+            }
+            if (pacing) {
+                pacer.pause();
+            }
+            if (died) {
+                tally.rounds = rounds;
+                return attacker;
+            }
+        }
+        tally.rounds = maxRounds;
+        return null;
+    }
+
+    /**
+     * Zähler für {@link #tallyFight}; jede Instanz gehört einem Thread.
+     */
+    static final class Tally {
+
+        long firstHits;
+        long firstDamage;
+        long secondHits;
+        long secondDamage;
+        int maxHit;
+
+        /** Angriffe des zuletzt gezählten Kampfes. */
+        int rounds;
+
+        void count(boolean first, int damage) {
+            if (first) {
+                firstHits++;
+                firstDamage += damage;
+            } else {
+                secondHits++;
+                secondDamage += damage;
+            }
+            if (damage > maxHit) {
+                maxHit = damage;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.battlegame.warriors;
+
+/**
+ * Interface für die Taktung eines Kampfes.
+ *
+ * Die {@link BattleEngine} ruft nach jedem Angriff {@link #pause()} auf.
+ * Im interaktiven Betrieb wartet der Thread dort, damit die Ausgabe lesbar
+ * bleibt; im Headless-Betrieb kehrt die Methode sofort zurück. Für viele
+ * gleichzeitig getaktete Kämpfe, die nicht je einen Thread blockieren
+ * sollen, gibt es den {@link PacedFightScheduler}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleEngine
+ * @see PacedFightScheduler
+ */
+@FunctionalInterface
+public interface BattlePacer {
+
+    /**
+     * Taktung ohne jede Wartezeit.
+     */
+    BattlePacer NONE = () -> {
+    };
+
+    /**
+     * Wartet zwischen zwei Angriffen.
+     *
+     * @throws InterruptedException wenn der Thread während der Wartezeit
+     *                             unterbrochen wird
+     */
+    void pause() throws InterruptedException;
+
+    /**
+     * Erzeugt eine Taktung, die nach jedem Angriff die angegebene Zeit schläft.
+     *
+     * @param millis Wartezeit in Millisekunden (darf nicht negativ sein)
+     * @return eine schlafende Taktung
+     * @throws IllegalArgumentException wenn millis negativ ist
+     */
+    static BattlePacer sleeping(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Wartezeit darf nicht negativ sein");
+        }
+        if (millis == 0) {
+            return NONE;
+        }
+        return () -> Thread.sleep(millis);
+    }
+}
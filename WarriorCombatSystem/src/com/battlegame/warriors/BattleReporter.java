@@ -0,0 +1,210 @@
+package com.battlegame.warriors;
+
+/**
+ * Interface für die Berichterstattung über den Verlauf eines Kampfes.
+ *
+ * Die {@link BattleEngine} ruft an festen Stellen des Kampfablaufs die
+ * Methoden dieses Interfaces auf, anstatt selbst auf die Konsole zu schreiben.
+ * Dadurch kann die Ausgabe zur Laufzeit ausgetauscht oder vollständig
+ * abgeschaltet werden (Strategy-Pattern, wie bei {@link Teleports}).
+ *
+ * Alle Methoden besitzen eine leere Standardimplementierung, sodass
+ * Implementierungen nur die für sie relevanten Ereignisse überschreiben müssen.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleEngine
+ * @see BattleReporter#CONSOLE
+ */
+public interface BattleReporter {
+
+    /**
+     * Berichterstattung, die sämtliche Ereignisse verwirft.
+     *
+     * Wird für den Headless-Betrieb verwendet, in dem Kämpfe ohne jede
+     * Ausgabe so schnell wie möglich aufgelöst werden.
+     */
+    BattleReporter SILENT = new BattleReporter() {
+    };
+
+    /**
+     * Berichterstattung auf {@code System.out} im bisherigen Textformat.
+     */
+    BattleReporter CONSOLE = new ConsoleReporter();
+
+    /**
+     * Wird einmal zu Beginn eines Kampfes aufgerufen.
+     *
+     * @param first der zuerst angreifende Krieger
+     * @param second der zweite Krieger
+     */
+    default void fightStarted(Warrior first, Warrior second) {
+    }
+
+    /**
+     * Wird aufgerufen, wenn ein Krieger einem Angriff vollständig ausweicht.
+     *
+     * @param defender der ausweichende Krieger
+     */
+    default void dodged(Warrior defender) {
+    }
+
+    /**
+     * Wird nach jedem Angriff aufgerufen, nachdem der Schaden angewendet wurde.
+     *
+     * @param attacker der angreifende Krieger
+     * @param defender der verteidigende Krieger (mit bereits aktualisierter Gesundheit)
+     * @param attack der gewürfelte Angriffswert
+     * @param block der gewürfelte Blockwert
+     * @param damage der tatsächlich angewendete Schaden (nie negativ)
+     */
+    default void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+    }
+
+    /**
+     * Wird aufgerufen, wenn ein Krieger durch einen Angriff stirbt.
+     *
+     * @param loser der gefallene Krieger
+     * @param winner der siegreiche Krieger
+     */
+    default void died(Warrior loser, Warrior winner) {
+    }
+
+    /**
+     * Wird einmal am Ende eines Kampfes aufgerufen.
+     *
+     * @param winner der siegreiche Krieger
+     * @param loser der unterlegene Krieger
+     * @param rounds Anzahl der ausgeführten Angriffe
+     */
+    default void fightEnded(Warrior winner, Warrior loser, int rounds) {
+    }
+
+    /**
+     * Wird anstelle von {@link #fightEnded(Warrior, Warrior, int)} aufgerufen,
+     * wenn ein Kampf die maximale Anzahl an Angriffen ohne Sieger erreicht.
+     *
+     * @param first der zuerst angreifende Krieger
+     * @param second der zweite Krieger
+     * @param rounds Anzahl der ausgeführten Angriffe
+     */
+    default void fightDrawn(Warrior first, Warrior second, int rounds) {
+    }
+
+    /**
+     * Kombiniert diese Berichterstattung mit einer weiteren.
+     *
+     * Jedes Ereignis wird zuerst an diese und danach an {@code next} gemeldet,
+     * z.B. {@code BattleReporter.CONSOLE.andThen(metrics)}.
+     *
+     * @param next die zusätzlich zu benachrichtigende Berichterstattung
+     * @return eine Berichterstattung, die beide benachrichtigt
+     * @throws IllegalArgumentException wenn next null ist
+     */
+    default BattleReporter andThen(BattleReporter next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Berichterstattung darf nicht null sein");
+        }
+        return new CompositeReporter(this, next);
+    }
+}
+
+/**
+ * Berichterstattung auf der Konsole.
+ *
+ * Diese Implementierung gibt exakt die Texte aus, die {@link Battle} vor
+ * der Einführung der {@link BattleEngine} direkt geschrieben hat.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleReporter
+ */
+class ConsoleReporter implements BattleReporter {
+
+    @Override
+    public void dodged(Warrior defender) {
+        System.out.printf("%s ist dem Angriff ausgewichen\n\n", defender.getName());
+    }
+
+    @Override
+    public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+        System.out.printf("%s Attacks %s and deals %d Damage\n",
+                         attacker.getName(), defender.getName(), damage);
+        System.out.printf("%s Has %d Health\n\n",
+                         defender.getName(), defender.health);
+    }
+
+    @Override
+    public void died(Warrior loser, Warrior winner) {
+        System.out.printf("%s has Died and %s is Victorious\n",
+                         loser.getName(), winner.getName());
+    }
+
+    @Override
+    public void fightEnded(Warrior winner, Warrior loser, int rounds) {
+        System.out.println("Game Over");
+    }
+
+    @Override
+    public void fightDrawn(Warrior first, Warrior second, int rounds) {
+        System.out.printf("Unentschieden nach %d Angriffen\n", rounds);
+        System.out.println("Game Over");
+    }
+}
+
+/**
+ * Berichterstattung, die jedes Ereignis an zwei weitere meldet.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleReporter#andThen(BattleReporter)
+ */
+class CompositeReporter implements BattleReporter {
+
+    private final BattleReporter first;
+    private final BattleReporter second;
+
+    CompositeReporter(BattleReporter first, BattleReporter second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void fightStarted(Warrior a, Warrior b) {
+        first.fightStarted(a, b);
+        second.fightStarted(a, b);
+    }
+
+    @Override
+    public void dodged(Warrior defender) {
+        first.dodged(defender);
+        second.dodged(defender);
+    }
+
+    @Override
+    public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+        first.attacked(attacker, defender, attack, block, damage);
+        second.attacked(attacker, defender, attack, block, damage);
+    }
+
+    @Override
+    public void died(Warrior loser, Warrior winner) {
+        first.died(loser, winner);
+        second.died(loser, winner);
+    }
+
+    @Override
+    public void fightEnded(Warrior winner, Warrior loser, int rounds) {
+        first.fightEnded(winner, loser, rounds);
+        second.fightEnded(winner, loser, rounds);
+    }
+
+    @Override
+    public void fightDrawn(Warrior a, Warrior b, int rounds) {
+        first.fightDrawn(a, b, rounds);
+        second.fightDrawn(a, b, rounds);
+    }
+}
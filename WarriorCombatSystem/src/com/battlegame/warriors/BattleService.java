@@ -0,0 +1,487 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Lokaler HTTP-Dienst, der Kämpfe und Simulationen auf Anfrage auflöst.
+ *
+ * Endpunkte (GET oder POST, Parameter in der Query):
+ * <ul>
+ *   <li>{@code /fight?first=Thor,800,130,40&second=Loki,800,85,40,0.25[&seed=n]}
+ *       trägt einen Kampf aus,</li>
+ *   <li>{@code /simulate?first=...&second=...&fights=n[&seed=n]} simuliert eine
+ *       Serie von Kämpfen und</li>
+ *   <li>{@code /stats} liefert Durchsatz und Latenz-Perzentile.</li>
+ * </ul>
+ * Ein Krieger wird als {@code Name,Gesundheit,Angriff,Block[,Ausweichen]}
+ * angegeben, wie im Konstruktor von {@link Warrior} bzw. {@link DodgeWarrior}.
+ * Alle Antworten sind JSON.
+ *
+ * Jede Anfrage wird auf einem eigenen virtuellen Thread bearbeitet.
+ * Kampfanfragen landen in einer begrenzten Warteschlange; ein eigener
+ * Thread entnimmt jeweils alle wartenden Anfragen (höchstens
+ * {@code maxBatch}) und löst sie gemeinsam in einem {@link FightBatch} auf
+ * der {@link BatchCombatEngine} auf. Unter Last wachsen die Batches daher
+ * von selbst, ohne dass einzelne Anfragen auf einen Zeitgeber warten.
+ * Simulationen rechnen mehrere Sekunden und laufen deshalb nicht auf dem
+ * virtuellen Thread der Anfrage, sondern auf einem eigenen Pool aus
+ * {@code maxSimulations} Plattform-Threads; sie belegen so keinen der
+ * Träger-Threads, auf denen {@code /fight} und {@code /stats} laufen. Ist
+ * die Warteschlange voll oder laufen bereits {@code maxSimulations}
+ * Simulationen, wird die Anfrage sofort mit 503 und {@code Retry-After}
+ * abgewiesen.
+ *
+ * Die Kämpfe folgen exakt den Regeln der {@link BattleEngine}: Ein Kampf mit
+ * Startwert {@code seed} verläuft wie
+ * {@code BattleEngine.HEADLESS.startFight(first.newWarrior(), second.newWarrior(),
+ * maxRounds, new SplitMixRandom(seed))}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ServiceStats
+ */
+public final class BattleService implements AutoCloseable {
+
+    /** Standardkapazität der Warteschlange für Kampfanfragen. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4_096;
+
+    /** Standardobergrenze für Kämpfe je Batch. */
+    public static final int DEFAULT_MAX_BATCH = 512;
+
+    /** Obergrenze für Kämpfe einer Simulationsanfrage. */
+    public static final long MAX_SIMULATION_FIGHTS = 10_000_000;
+
+    private final HttpServer server;
+    private final ExecutorService connections;
+    private final ArrayBlockingQueue<PendingFight> queue;
+    private final Semaphore simulationSlots;
+    private final ExecutorService simulationPool;
+    private final int maxBatch;
+    private final BatchCombatEngine engine = new BatchCombatEngine();
+    private final Thread batcher;
+    private volatile boolean running = true;
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder fights = new LongAdder();
+    private final LongAdder simulations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLongArray latency = new AtomicLongArray(HistogramSnapshot.BUCKETS);
+
+    private BattleService(InetSocketAddress address, int queueCapacity, int maxBatch, int maxSimulations)
+            throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.simulationSlots = new Semaphore(maxSimulations);
+        this.simulationPool = Executors.newFixedThreadPool(maxSimulations,
+                Thread.ofPlatform().name("battle-service-simulation-", 0).daemon().factory());
+        this.maxBatch = maxBatch;
+        this.server = HttpServer.create(address, 0);
+        this.connections = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(connections);
+        server.createContext("/fight", handler(this::fight));
+        server.createContext("/simulate", handler(this::simulate));
+        server.createContext("/stats", handler(exchange -> respond(exchange, 200, statsJson(stats()))));
+        batcher = new Thread(this::runBatches, "battle-service-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+        server.start();
+    }
+
+    /**
+     * Startet den Dienst auf der Loopback-Adresse mit Standardwerten.
+     *
+     * Gleichzeitig laufen höchstens halb so viele Simulationen, wie
+     * Prozessoren verfügbar sind, mindestens aber eine, damit Kämpfe auch
+     * unter Simulationslast Rechenzeit erhalten.
+     *
+     * @param port der Port, 0 für einen freien Port
+     * @return der laufende Dienst
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public static BattleService start(int port) throws IOException {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Startet den Dienst.
+     *
+     * @param address die Adresse, an die der Dienst gebunden wird
+     * @param queueCapacity Plätze in der Warteschlange für Kampfanfragen (muss positiv sein)
+     * @param maxBatch höchstens gemeinsam aufgelöste Kämpfe (muss positiv sein)
+     * @param maxSimulations höchstens gleichzeitig laufende Simulationen (muss positiv sein)
+     * @return der laufende Dienst
+     * @throws IOException wenn die Adresse nicht gebunden werden kann
+     * @throws IllegalArgumentException wenn address null oder ein Wert nicht positiv ist
+     */
+    public static BattleService start(InetSocketAddress address, int queueCapacity, int maxBatch,
+                                      int maxSimulations) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Adresse darf nicht null sein");
+        }
+        if (queueCapacity <= 0 || maxBatch <= 0 || maxSimulations <= 0) {
+            throw new IllegalArgumentException("Warteschlange, Batch-Größe und Simulationen müssen positiv sein");
+        }
+        return new BattleService(address, queueCapacity, maxBatch, maxSimulations);
+    }
+
+    /**
+     * Gibt den Port zurück, an den der Dienst gebunden ist.
+     *
+     * @return der Port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme der Kennzahlen.
+     *
+     * @return die Momentaufnahme
+     */
+    public ServiceStats stats() {
+        long[] counts = new long[HistogramSnapshot.BUCKETS];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latency.get(i);
+        }
+        return new ServiceStats(fights.sum(), simulations.sum(), rejected.sum(), batches.sum(),
+                System.nanoTime() - startNanos, new HistogramSnapshot(counts));
+    }
+
+    /**
+     * Beendet den Dienst.
+     *
+     * Laufende Anfragen erhalten bis zu einer Sekunde Zeit für ihre Antwort,
+     * bereits eingereihte Kämpfe werden noch aufgelöst. Kampfanfragen, die
+     * erst nach dem Ende des Batch-Threads eingereiht werden, erhalten 503.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        running = false;
+        try {
+            batcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Nachzügler, die die Prüfung auf running vor dem Beenden bestanden haben
+        List<PendingFight> late = new ArrayList<>();
+        queue.drainTo(late);
+        for (PendingFight p : late) {
+            p.result.completeExceptionally(new RejectedExecutionException("Dienst wurde beendet"));
+        }
+        connections.close();
+        simulationPool.shutdown();
+    }
+
+    /**
+     * Startet den Dienst und läuft bis zum Beenden der JVM.
+     *
+     * @param args optional der Port (Standard: 8080)
+     * @throws IOException wenn der Port nicht gebunden werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        BattleService service = start(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.close();
+            System.out.println(service.stats());
+        }));
+        System.out.println("Kampfdienst läuft auf http://localhost:" + service.port());
+    }
+
+    // ------------------------------------------------------------------
+    // Anfragen
+    // ------------------------------------------------------------------
+
+    private void fight(HttpExchange exchange) throws IOException {
+        Map<String, String> params = params(exchange);
+        WarriorSpec first = spec(params, "first");
+        WarriorSpec second = spec(params, "second");
+        long seed = seed(params);
+        PendingFight pending = new PendingFight(first, second, seed);
+        if (!running || !queue.offer(pending)) {
+            reject(exchange);
+            return;
+        }
+        // Beim Beenden nimmt niemand mehr Anfragen aus der Warteschlange
+        if (!running && queue.remove(pending)) {
+            reject(exchange);
+            return;
+        }
+        int[] outcome;
+        try {
+            outcome = join(pending.result);
+        } catch (RejectedExecutionException e) {
+            reject(exchange);
+            return;
+        }
+        String winner = switch (outcome[0]) {
+            case FightBatch.FIRST_WON -> first.name();
+            case FightBatch.SECOND_WON -> second.name();
+            default -> null;
+        };
+        fights.increment();
+        respond(exchange, 200, "{\"winner\":" + quote(winner) + ",\"rounds\":" + outcome[1]
+                + ",\"firstHealth\":" + outcome[2] + ",\"secondHealth\":" + outcome[3]
+                + ",\"seed\":" + seed + "}");
+    }
+
+    private void simulate(HttpExchange exchange) throws IOException {
+        Map<String, String> params = params(exchange);
+        WarriorSpec first = spec(params, "first");
+        WarriorSpec second = spec(params, "second");
+        long seed = seed(params);
+        long count = Long.parseLong(required(params, "fights"));
+        if (count <= 0 || count > MAX_SIMULATION_FIGHTS) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe muss zwischen 1 und "
+                    + MAX_SIMULATION_FIGHTS + " liegen");
+        }
+        if (!simulationSlots.tryAcquire()) {
+            reject(exchange);
+            return;
+        }
+        SimulationResult result;
+        try {
+            result = join(CompletableFuture.supplyAsync(() -> engine.simulate(first, second, count, seed),
+                    simulationPool));
+        } finally {
+            simulationSlots.release();
+        }
+        simulations.increment();
+        respond(exchange, 200, "{\"fights\":" + result.fights() + ",\"firstWins\":" + result.firstWins()
+                + ",\"secondWins\":" + result.secondWins() + ",\"draws\":" + result.draws()
+                + ",\"firstWinRate\":" + result.firstWinRate() + ",\"meanRounds\":" + result.meanRounds()
+                + ",\"seed\":" + seed + "}");
+    }
+
+    /**
+     * Entnimmt wartende Kampfanfragen und löst sie batchweise auf.
+     */
+    private void runBatches() {
+        FightBatch batch = new FightBatch(maxBatch);
+        List<PendingFight> pending = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingFight head = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (head == null) {
+                    continue;
+                }
+                pending.add(head);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(pending, maxBatch - 1);
+            try {
+                batch.clear();
+                for (int i = 0; i < pending.size(); i++) {
+                    PendingFight p = pending.get(i);
+                    batch.set(i, p.first, p.second, p.seed);
+                }
+                engine.run(batch, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).result.complete(new int[] {batch.outcome(i), batch.rounds(i),
+                            batch.firstHealth(i), batch.secondHealth(i)});
+                }
+            } catch (RuntimeException e) {
+                for (PendingFight p : pending) {
+                    p.result.completeExceptionally(e);
+                }
+            }
+            batches.increment();
+            pending.clear();
+        }
+    }
+
+    /**
+     * Eine eingereihte Kampfanfrage; das Ergebnis enthält Ausgang, Angriffe
+     * und die Gesundheit beider Krieger.
+     */
+    private static final class PendingFight {
+
+        final WarriorSpec first;
+        final WarriorSpec second;
+        final long seed;
+        final CompletableFuture<int[]> result = new CompletableFuture<>();
+
+        PendingFight(WarriorSpec first, WarriorSpec second, long seed) {
+            this.first = first;
+            this.second = second;
+            this.seed = seed;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // HTTP
+    // ------------------------------------------------------------------
+
+    /**
+     * Antwort für eine einzelne Anfrage.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Prüft die Methode, übersetzt Fehler in Statuscodes und misst die Antwortzeit.
+     */
+    private HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            long start = System.nanoTime();
+            try {
+                String method = exchange.getRequestMethod();
+                if (!method.equals("GET") && !method.equals("POST")) {
+                    respond(exchange, 405, error("Nur GET und POST werden unterstützt"));
+                    return;
+                }
+                try {
+                    endpoint.handle(exchange);
+                } catch (IllegalArgumentException e) {
+                    respond(exchange, 400, error(e.getMessage()));
+                    return;
+                } catch (RuntimeException e) {
+                    respond(exchange, 500, error(e.toString()));
+                    return;
+                }
+                if (exchange.getResponseCode() == 200) {
+                    latency.incrementAndGet(HistogramSnapshot.bucket(System.nanoTime() - start));
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private void reject(HttpExchange exchange) throws IOException {
+        rejected.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, error("Dienst ist ausgelastet"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Parameter fehlt: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Liest einen Krieger im Format {@code Name,Gesundheit,Angriff,Block[,Ausweichen]}.
+     */
+    private static WarriorSpec spec(Map<String, String> params, String name) {
+        String[] parts = required(params, name).split(",");
+        if (parts.length != 4 && parts.length != 5) {
+            throw new IllegalArgumentException("Krieger erwartet Name,Gesundheit,Angriff,Block[,Ausweichen]: "
+                    + name);
+        }
+        try {
+            return new WarriorSpec(parts[0], Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()),
+                    Integer.parseInt(parts[3].trim()), parts.length == 5 ? Double.parseDouble(parts[4].trim()) : 0.0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Zahlenwert für " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static long seed(Map<String, String> params) {
+        String seed = params.get("seed");
+        try {
+            return seed == null ? SplitMixRandom.randomSeed() : Long.parseLong(seed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Startwert: " + seed);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String statsJson(ServiceStats stats) {
+        HistogramSnapshot l = stats.latencyNanos();
+        return "{\"fights\":" + stats.fights() + ",\"simulations\":" + stats.simulations()
+                + ",\"rejected\":" + stats.rejected() + ",\"batches\":" + stats.batches()
+                + ",\"meanBatchSize\":" + stats.meanBatchSize() + ",\"throughput\":" + stats.throughput()
+                + ",\"latencyMicros\":{\"p50\":" + l.percentile(0.5) / 1_000 + ",\"p90\":" + l.percentile(0.9) / 1_000
+                + ",\"p99\":" + l.percentile(0.99) / 1_000 + ",\"p999\":" + l.percentile(0.999) / 1_000
+                + ",\"max\":" + l.max() / 1_000 + "}}";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
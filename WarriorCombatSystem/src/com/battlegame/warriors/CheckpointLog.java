@@ -0,0 +1,387 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Fortschreibendes Journal für Checkpoints langer Läufe.
+ *
+ * Ein Lauf hängt nach jedem abgeschlossenen Arbeitsschritt (ein Abschnitt
+ * einer Simulation, ein Turnierkampf) einen kleinen Datensatz an; jeder
+ * Checkpoint enthält also nur den Zuwachs seit dem letzten. Beim erneuten
+ * Öffnen liefert {@link #records()} alle vollständig geschriebenen
+ * Datensätze, aus denen der Lauf seinen Stand wiederherstellt.
+ *
+ * {@link #append(ByteBuffer)} kopiert den Datensatz nur in eine
+ * Warteschlange. Prüfsumme, Schreiben und {@link FileChannel#force(boolean)}
+ * erledigt ein eigener Thread, der alle wartenden Datensätze gemeinsam
+ * schreibt; der rechnende Thread wartet nicht auf die Platte. Synchronisiert
+ * wird höchstens alle {@link #FORCE_INTERVAL_MILLIS} Millisekunden sowie
+ * sofort bei {@link #sync()} und {@link #close()}. Geschriebene Datensätze
+ * überstehen einen Absturz des Prozesses auch ohne Synchronisation; nur bei
+ * einem Absturz des Betriebssystems können die Datensätze der letzten
+ * Sekunde fehlen.
+ *
+ * Aufbau der Datei (Big-Endian): Dateikopf mit Kennung, Formatversion,
+ * {@link Battle#RULES_VERSION} und dem Schlüssel des Laufs, danach je
+ * Datensatz Länge (int), CRC32 (int) und Inhalt. Ein nach einem Absturz
+ * unvollständiger oder beschädigter Datensatz am Ende wird beim Öffnen
+ * verworfen. Wurde die Datei unter anderen Kampfregeln geschrieben, beginnt
+ * der Lauf von vorn.
+ *
+ * Instanzen sind threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MonteCarloSimulator#simulate(WarriorSpec, WarriorSpec, long, long, Path)
+ * @see Tournament#roundRobin(List, int, Path)
+ */
+public final class CheckpointLog implements AutoCloseable {
+
+    /** Größte Länge eines Datensatzes in Bytes. */
+    public static final int MAX_RECORD = 1 << 20;
+
+    /** Kennung am Dateianfang ("WCSC"). */
+    static final int MAGIC = 0x57435343;
+
+    /** Version des Formats. */
+    static final short VERSION = 1;
+
+    /** Länge des Dateikopfs in Bytes. */
+    static final int FILE_HEADER = 24;
+
+    /** Länge des Kopfs eines Datensatzes: Länge und Prüfsumme. */
+    static final int RECORD_HEADER = 8;
+
+    /** Höchstzahl wartender Datensätze, bevor {@link #append(ByteBuffer)} wartet. */
+    private static final int QUEUE_CAPACITY = 4_096;
+
+    /** Mindestabstand zwischen zwei Synchronisationen ohne ausdrückliche Anforderung. */
+    static final long FORCE_INTERVAL_MILLIS = 1_000;
+
+    /** Markierung in der Warteschlange: sofort synchronisieren. */
+    private static final ByteBuffer FORCE = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final List<ByteBuffer> recovered;
+    private final ArrayBlockingQueue<ByteBuffer> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private final Object progress = new Object();
+    private long appended;
+    private long durable;
+    private IOException failure;
+    private volatile boolean closed;
+
+    /**
+     * Öffnet ein Journal bzw. legt es an.
+     *
+     * @param file die Datei
+     * @param runKey Schlüssel des Laufs, z.B. ein Hash über alle Parameter,
+     *               die das Ergebnis bestimmen
+     * @throws IOException wenn die Datei nicht geöffnet werden kann, kein
+     *                     Journal ist oder zu einem anderen Lauf gehört
+     * @throws IllegalArgumentException wenn file null ist
+     */
+    public CheckpointLog(Path file, long runKey) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            recovered = recover(runKey);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        writer = new Thread(this::writeLoop, "checkpoint-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gibt die beim Öffnen vorgefundenen Datensätze in Schreibreihenfolge zurück.
+     *
+     * @return unveränderliche Liste schreibgeschützter Puffer, leer bei einem neuen Lauf
+     */
+    public List<ByteBuffer> records() {
+        List<ByteBuffer> copies = new ArrayList<>(recovered.size());
+        for (ByteBuffer record : recovered) {
+            copies.add(record.asReadOnlyBuffer());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Hängt einen Datensatz an.
+     *
+     * Die verbleibenden Bytes von {@code record} werden kopiert; der Puffer
+     * kann danach sofort wiederverwendet werden. Der Aufruf kehrt zurück,
+     * bevor der Datensatz auf der Platte ist; siehe {@link #sync()}.
+     *
+     * @param record der Inhalt des Datensatzes
+     * @throws IllegalArgumentException wenn record null, leer oder länger als {@link #MAX_RECORD} ist
+     * @throws IllegalStateException wenn das Journal geschlossen ist
+     * @throws UncheckedIOException wenn ein früherer Schreibvorgang fehlgeschlagen ist
+     */
+    public void append(ByteBuffer record) {
+        if (record == null || !record.hasRemaining() || record.remaining() > MAX_RECORD) {
+            throw new IllegalArgumentException("Datensatz muss zwischen 1 und " + MAX_RECORD + " Bytes lang sein");
+        }
+        ByteBuffer framed = ByteBuffer.allocate(RECORD_HEADER + record.remaining());
+        framed.position(RECORD_HEADER);
+        framed.put(record.duplicate());
+        framed.flip();
+        synchronized (progress) {
+            if (closed) {
+                throw new IllegalStateException("Journal ist geschlossen");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            appended++;
+        }
+        try {
+            pending.put(framed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Checkpoint wurde unterbrochen", e);
+        }
+    }
+
+    /**
+     * Wartet, bis alle bisher angehängten Datensätze auf der Platte sind.
+     *
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist
+     * @throws InterruptedIOException wenn der Thread beim Warten unterbrochen wird
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (progress) {
+            target = appended;
+            if (durable < target && failure == null) {
+                requestForce();
+            }
+        }
+        synchronized (progress) {
+            while (durable < target && failure == null) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Warten auf Checkpoint wurde unterbrochen");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle angehängten Datensätze und schließt die Datei.
+     *
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (progress) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        requestForce();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (progress) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Weckt den Schreib-Thread, damit er sofort synchronisiert.
+     *
+     * Ist die Warteschlange voll, schreibt der Thread ohnehin und
+     * synchronisiert spätestens nach {@link #FORCE_INTERVAL_MILLIS}.
+     */
+    private void requestForce() {
+        pending.offer(FORCE);
+    }
+
+    /**
+     * Schreibt wartende Datensätze gebündelt, bis das Journal geschlossen ist.
+     */
+    private void writeLoop() {
+        List<ByteBuffer> batch = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        long forceInterval = TimeUnit.MILLISECONDS.toNanos(FORCE_INTERVAL_MILLIS);
+        long lastForce = System.nanoTime();
+        long unforced = 0;
+        while (true) {
+            if (unforced == 0) {
+                synchronized (progress) {
+                    // Erst beenden, wenn jeder angenommene Datensatz geschrieben ist
+                    if (closed && durable == appended) {
+                        return;
+                    }
+                }
+            }
+            ByteBuffer head;
+            try {
+                // Geschriebene, noch nicht synchronisierte Datensätze begrenzen die Wartezeit
+                long wait = unforced > 0 ? Math.max(0, lastForce + forceInterval - System.nanoTime())
+                        : TimeUnit.MILLISECONDS.toNanos(50);
+                head = pending.poll(wait, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (head == null && unforced == 0) {
+                continue;
+            }
+            boolean forceNow = false;
+            if (head != null) {
+                batch.add(head);
+                pending.drainTo(batch);
+                forceNow = batch.removeIf(buffer -> buffer == FORCE);
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    for (ByteBuffer framed : batch) {
+                        crc.reset();
+                        crc.update(framed.duplicate().position(RECORD_HEADER));
+                        framed.putInt(0, framed.limit() - RECORD_HEADER).putInt(4, (int) crc.getValue());
+                    }
+                    ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+                    long remaining = 0;
+                    for (ByteBuffer framed : buffers) {
+                        remaining += framed.remaining();
+                    }
+                    while (remaining > 0) {
+                        remaining -= channel.write(buffers);
+                    }
+                    unforced += batch.size();
+                }
+                long now = System.nanoTime();
+                if (unforced > 0 && (forceNow || now - lastForce >= forceInterval)) {
+                    channel.force(false);
+                    lastForce = now;
+                    synchronized (progress) {
+                        durable += unforced;
+                        progress.notifyAll();
+                    }
+                    unforced = 0;
+                }
+            } catch (IOException e) {
+                synchronized (progress) {
+                    failure = e;
+                    progress.notifyAll();
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Prüft den Dateikopf und liest alle vollständigen Datensätze.
+     */
+    private List<ByteBuffer> recover(long runKey) throws IOException {
+        long size = channel.size();
+        if (size >= FILE_HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+            readFully(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Keine Checkpoint-Datei: falsche Kennung");
+            }
+            if (header.getShort(4) != VERSION) {
+                throw new IOException("Nicht unterstützte Version der Checkpoint-Datei: " + header.getShort(4));
+            }
+            if (header.getInt(8) == Battle.RULES_VERSION) {
+                if (header.getLong(12) != runKey) {
+                    throw new IOException("Checkpoint-Datei gehört zu einem anderen Lauf");
+                }
+                return readRecords(size);
+            }
+            // Unter anderen Regeln entstandene Ergebnisse sind wertlos
+        } else if (size > 0) {
+            // Beim Anlegen abgebrochen: höchstens ein Anfang des Dateikopfs
+            ByteBuffer start = ByteBuffer.allocate((int) Math.min(size, Integer.BYTES));
+            readFully(start, 0);
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC).flip().limit(start.limit());
+            if (!start.equals(magic)) {
+                throw new IOException("Keine Checkpoint-Datei: Dateikopf fehlt");
+            }
+        }
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(Battle.RULES_VERSION).putLong(runKey);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+        channel.position(FILE_HEADER);
+        return List.of();
+    }
+
+    private List<ByteBuffer> readRecords(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint-Datei ist zu groß");
+        }
+        ByteBuffer content = ByteBuffer.allocate((int) size - FILE_HEADER);
+        readFully(content, FILE_HEADER);
+        List<ByteBuffer> records = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + RECORD_HEADER <= content.limit()) {
+            int length = content.getInt(position);
+            if (length <= 0 || length > MAX_RECORD || position + RECORD_HEADER + length > content.limit()) {
+                break;
+            }
+            ByteBuffer record = content.slice(position + RECORD_HEADER, length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != content.getInt(position + 4)) {
+                break;
+            }
+            records.add(record);
+            position += RECORD_HEADER + length;
+        }
+        // Unvollständiges Ende eines abgebrochenen Schreibvorgangs verwerfen
+        long end = FILE_HEADER + (long) position;
+        if (end < size) {
+            channel.truncate(end);
+            channel.force(false);
+        }
+        channel.position(end);
+        return records;
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Unerwartetes Ende der Checkpoint-Datei");
+            }
+        }
+        target.flip();
+    }
+}
@@ -0,0 +1,93 @@
+package com.battlegame.warriors;
+
+/**
+ * Ein Platz im Ringpuffer des {@link CombatEventBus}.
+ *
+ * Ereignisobjekte werden einmalig beim Anlegen des Busses erzeugt und danach
+ * immer wieder überschrieben. Ein {@link CombatEventHandler} darf ein Ereignis
+ * daher nur während seines Aufrufs lesen und muss benötigte Werte kopieren.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventBus
+ * @see CombatEventType
+ */
+public final class CombatEvent {
+
+    CombatEventType type;
+    long fightId;
+    String actor;
+    String target;
+    int value;
+    int health;
+
+    CombatEvent() {
+    }
+
+    /**
+     * Gibt die Art des Ereignisses zurück.
+     *
+     * @return die Ereignisart
+     */
+    public CombatEventType type() {
+        return type;
+    }
+
+    /**
+     * Gibt die laufende Nummer des Kampfes auf diesem Bus zurück.
+     *
+     * @return die Kampfnummer, beginnend bei 1
+     */
+    public long fightId() {
+        return fightId;
+    }
+
+    /**
+     * Gibt den Namen des handelnden Kriegers zurück.
+     *
+     * @return der Akteur, z.B. der Angreifer oder der Ausweichende
+     */
+    public String actor() {
+        return actor;
+    }
+
+    /**
+     * Gibt den Namen des betroffenen Kriegers zurück.
+     *
+     * @return das Ziel oder {@code null}, wenn es keines gibt
+     */
+    public String target() {
+        return target;
+    }
+
+    /**
+     * Gibt den Zahlenwert des Ereignisses zurück.
+     *
+     * @return Angriffs-, Block- oder Schadenswert bzw. Anzahl der Angriffe
+     * @see CombatEventType
+     */
+    public int value() {
+        return value;
+    }
+
+    /**
+     * Gibt die Gesundheit des Ziels nach dem Ereignis zurück.
+     *
+     * @return die verbliebene Gesundheit des Ziels
+     */
+    public int health() {
+        return health;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Ereignisses zurück.
+     *
+     * @return formatierte Beschreibung mit allen Feldern
+     */
+    @Override
+    public String toString() {
+        return String.format("CombatEvent{type=%s, fightId=%d, actor='%s', target='%s', value=%d, health=%d}",
+                type, fightId, actor, target, value, health);
+    }
+}
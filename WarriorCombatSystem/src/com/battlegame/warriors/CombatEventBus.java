@@ -0,0 +1,401 @@
+package com.battlegame.warriors;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-freier Ringpuffer für Kampfereignisse mit einem Produzenten.
+ *
+ * Der Bus ist ein {@link BattleReporter}: Die {@link BattleEngine} meldet
+ * jeden Angriff, jedes Ausweichen und jedes Kampfende, und der Bus legt daraus
+ * typisierte {@link CombatEvent Ereignisse} in einem beim Anlegen vollständig
+ * vorbelegten Ringpuffer ab. Jeder {@link CombatEventHandler} liest den Puffer
+ * auf einem eigenen Thread und erhält alle seit seinem letzten Durchlauf
+ * veröffentlichten Ereignisse als Stapel. Der kämpfende Thread schreibt nur
+ * in den Puffer und wartet nie auf Ein- oder Ausgabe.
+ *
+ * Ein Angriff erzeugt die Ereignisse {@link CombatEventType#ATTACK ATTACK},
+ * {@link CombatEventType#DODGE DODGE} oder {@link CombatEventType#BLOCK BLOCK}
+ * und {@link CombatEventType#DAMAGE DAMAGE}; ein Kampfende
+ * {@link CombatEventType#DEATH DEATH} und {@link CombatEventType#VICTORY VICTORY}.
+ *
+ * Zu jedem Zeitpunkt darf nur ein Thread Ereignisse veröffentlichen, also
+ * nur eine {@link BattleEngine} mit diesem Bus kämpfen. Ist der Puffer voll,
+ * wartet der Produzent, bis der langsamste Verbraucher Platz geschaffen hat;
+ * die Kapazität sollte daher großzügig gewählt werden. Verbraucher werden vor
+ * {@link #start()} registriert; {@link #close()} wartet, bis alle
+ * veröffentlichten Ereignisse verarbeitet sind. Ereignisse vor
+ * {@link #start()} werden mit einer {@link IllegalStateException}
+ * abgelehnt, da noch kein Verbraucher den Produzenten bremst und sie
+ * ungelesene Plätze überschreiben würden.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventHandler
+ * @see ConsoleEventRenderer
+ * @see CombatEventStatistics
+ */
+public final class CombatEventBus implements BattleReporter, AutoCloseable {
+
+    /** Standardkapazität des Ringpuffers. */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /** Wartezeit eines untätigen Threads nach erfolglosem Drehen. */
+    private static final long PARK_NANOS = 50_000L;
+
+    /** Anzahl der Warteversuche, bevor ein Thread sich schlafen legt. */
+    private static final int SPIN_TRIES = 100;
+
+    private final CombatEvent[] slots;
+    private final int mask;
+
+    /** Sequenz des zuletzt veröffentlichten Ereignisses. */
+    private final Sequence cursor = new Sequence(-1L);
+
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    /** Verbraucher, auf die der Produzent wartet; wird beim Start festgelegt. */
+    private volatile Consumer[] gating = new Consumer[0];
+
+    /** Nächste zu vergebende Sequenz; nur vom Produzenten benutzt. */
+    private long next;
+
+    /** Zwischengespeichertes Minimum aller Verbraucher; nur vom Produzenten benutzt. */
+    private long gatingCache = -1L;
+
+    /** Nummer des aktuellen Kampfes; nur vom Produzenten benutzt. */
+    private long fightId;
+
+    /** Der Verteidiger des laufenden Angriffs ist ausgewichen. */
+    private boolean pendingDodge;
+
+    /** Der Produzent hat den Start bereits gesehen; nur vom Produzenten benutzt. */
+    private boolean producing;
+
+    private volatile boolean running;
+    private boolean started;
+
+    /**
+     * Erstellt einen Bus mit {@link #DEFAULT_CAPACITY}.
+     */
+    public CombatEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Erstellt einen Bus mit der angegebenen Kapazität.
+     *
+     * @param capacity Anzahl der Ereignisplätze (Zweierpotenz)
+     * @throws IllegalArgumentException wenn capacity keine positive Zweierpotenz ist
+     */
+    public CombatEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Kapazität muss eine positive Zweierpotenz sein");
+        }
+        slots = new CombatEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new CombatEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Registriert einen Verbraucher.
+     *
+     * @param handler der Verbraucher
+     * @return dieser Bus
+     * @throws IllegalArgumentException wenn handler null ist
+     * @throws IllegalStateException wenn der Bus bereits gestartet wurde
+     */
+    public synchronized CombatEventBus addConsumer(CombatEventHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Verbraucher darf nicht null sein");
+        }
+        if (started) {
+            throw new IllegalStateException("Bus wurde bereits gestartet");
+        }
+        consumers.add(new Consumer(handler, cursor.get()));
+        return this;
+    }
+
+    /**
+     * Startet für jeden registrierten Verbraucher einen eigenen Thread.
+     *
+     * @return dieser Bus
+     * @throws IllegalStateException wenn der Bus bereits gestartet wurde
+     */
+    public synchronized CombatEventBus start() {
+        if (started) {
+            throw new IllegalStateException("Bus wurde bereits gestartet");
+        }
+        started = true;
+        running = true;
+        gating = consumers.toArray(new Consumer[0]);
+        for (int i = 0; i < consumers.size(); i++) {
+            Consumer consumer = consumers.get(i);
+            consumer.thread = Thread.ofPlatform()
+                    .name("combat-events-" + i)
+                    .daemon()
+                    .start(consumer);
+        }
+        return this;
+    }
+
+    /**
+     * Gibt die Kapazität des Ringpuffers zurück.
+     *
+     * @return die Anzahl der Ereignisplätze
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Wartet, bis alle Verbraucher die bisher veröffentlichten Ereignisse
+     * verarbeitet haben.
+     *
+     * @throws InterruptedException wenn der Thread während des Wartens unterbrochen wird
+     */
+    public void drain() throws InterruptedException {
+        long published = cursor.get();
+        int tries = 0;
+        while (minimumConsumerSequence(published) < published) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            tries = idle(tries);
+        }
+    }
+
+    /**
+     * Verarbeitet alle ausstehenden Ereignisse und beendet die Verbraucher-Threads.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        boolean interrupted = false;
+        try {
+            drain();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        running = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            while (consumer.thread.isAlive()) {
+                try {
+                    consumer.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void fightStarted(Warrior first, Warrior second) {
+        fightId++;
+        pendingDodge = false;
+    }
+
+    @Override
+    public void dodged(Warrior defender) {
+        // Erst mit dem Angriff veröffentlichen, damit ATTACK vor DODGE steht
+        pendingDodge = true;
+    }
+
+    @Override
+    public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+        String attackerName = attacker.getName();
+        String defenderName = defender.getName();
+        publish(CombatEventType.ATTACK, attackerName, defenderName, attack, defender.health);
+        if (pendingDodge) {
+            pendingDodge = false;
+            publish(CombatEventType.DODGE, defenderName, attackerName, 0, defender.health);
+        } else {
+            publish(CombatEventType.BLOCK, defenderName, attackerName, block, defender.health);
+        }
+        publish(CombatEventType.DAMAGE, attackerName, defenderName, damage, defender.health);
+    }
+
+    @Override
+    public void died(Warrior loser, Warrior winner) {
+        publish(CombatEventType.DEATH, loser.getName(), winner.getName(), 0, loser.health);
+    }
+
+    @Override
+    public void fightEnded(Warrior winner, Warrior loser, int rounds) {
+        publish(CombatEventType.VICTORY, winner.getName(), loser.getName(), rounds, winner.health);
+    }
+
+    @Override
+    public void fightDrawn(Warrior first, Warrior second, int rounds) {
+        publish(CombatEventType.VICTORY, null, null, rounds, 0);
+    }
+
+    /**
+     * Beschreibt den nächsten Platz und gibt ihn für die Verbraucher frei.
+     *
+     * @throws IllegalStateException wenn der Bus noch nicht gestartet wurde
+     */
+    private void publish(CombatEventType type, String actor, String target, int value, int health) {
+        if (!producing) {
+            if (!running) {
+                throw new IllegalStateException("Bus wurde noch nicht gestartet");
+            }
+            producing = true;
+        }
+        long sequence = next++;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > gatingCache) {
+            awaitCapacity(wrapPoint);
+        }
+        CombatEvent event = slots[(int) sequence & mask];
+        event.type = type;
+        event.fightId = fightId;
+        event.actor = actor;
+        event.target = target;
+        event.value = value;
+        event.health = health;
+        cursor.setRelease(sequence);
+    }
+
+    /**
+     * Wartet, bis alle Verbraucher den Platz {@code wrapPoint} gelesen haben.
+     */
+    private void awaitCapacity(long wrapPoint) {
+        int tries = 0;
+        long minimum;
+        while (wrapPoint > (minimum = minimumConsumerSequence(wrapPoint))) {
+            tries = idle(tries);
+        }
+        gatingCache = minimum;
+    }
+
+    private long minimumConsumerSequence(long upperBound) {
+        long minimum = upperBound;
+        for (Consumer consumer : gating) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Dreht zunächst kurz, gibt dann den Prozessor ab und schläft zuletzt.
+     */
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < 2 * SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Ein Verbraucher mit eigener Lesesequenz und eigenem Thread.
+     */
+    private final class Consumer implements Runnable {
+
+        private final CombatEventHandler handler;
+
+        /** Sequenz des zuletzt verarbeiteten Ereignisses. */
+        private final Sequence sequence;
+
+        private Thread thread;
+
+        Consumer(CombatEventHandler handler, long initial) {
+            this.handler = handler;
+            this.sequence = new Sequence(initial);
+        }
+
+        @Override
+        public void run() {
+            long processed = sequence.get();
+            int tries = 0;
+            while (true) {
+                long available = cursor.getAcquire();
+                if (available > processed) {
+                    for (long s = processed + 1; s <= available; s++) {
+                        handler.onEvent(slots[(int) s & mask], s == available);
+                    }
+                    processed = available;
+                    sequence.setRelease(processed);
+                    tries = 0;
+                } else if (!running) {
+                    return;
+                } else {
+                    tries = idle(tries);
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Linke Auffüllung einer {@link Sequence} gegen False Sharing.
+ */
+abstract class SequenceLeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * Wert einer {@link Sequence}.
+ */
+abstract class SequenceValue extends SequenceLeftPadding {
+    volatile long value;
+}
+
+/**
+ * Eine fortlaufende Position im Ringpuffer des {@link CombatEventBus}.
+ *
+ * Der Wert liegt zwischen zwei Auffüllblöcken, damit Produzent und
+ * Verbraucher nicht dieselbe Cache-Line beschreiben.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventBus
+ */
+final class Sequence extends SequenceValue {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup()
+                    .findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    long p11, p12, p13, p14, p15, p16, p17;
+
+    Sequence(long initial) {
+        VALUE.setRelease(this, initial);
+    }
+
+    long get() {
+        return value;
+    }
+
+    long getAcquire() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
@@ -0,0 +1,26 @@
+package com.battlegame.warriors;
+
+/**
+ * Verbraucher von Kampfereignissen auf einem {@link CombatEventBus}.
+ *
+ * Jeder Verbraucher läuft auf einem eigenen Thread und erhält alle
+ * Ereignisse in der Reihenfolge ihrer Veröffentlichung. Ereignisse werden
+ * stapelweise ausgeliefert; {@code endOfBatch} markiert das letzte Ereignis
+ * eines Stapels, etwa um gepufferte Ausgaben zu leeren.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventBus
+ */
+@FunctionalInterface
+public interface CombatEventHandler {
+
+    /**
+     * Verarbeitet ein Ereignis.
+     *
+     * @param event das Ereignis (nur während des Aufrufs gültig)
+     * @param endOfBatch {@code true} beim letzten Ereignis des aktuellen Stapels
+     */
+    void onEvent(CombatEvent event, boolean endOfBatch);
+}
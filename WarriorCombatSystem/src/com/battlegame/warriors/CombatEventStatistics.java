@@ -0,0 +1,77 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Zählt Kampfereignisse eines {@link CombatEventBus}.
+ *
+ * Nur der Verbraucher-Thread schreibt; die Zähler können jederzeit von
+ * anderen Threads gelesen werden und hinken dabei höchstens um den gerade
+ * verarbeiteten Stapel hinterher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventBus
+ */
+public final class CombatEventStatistics implements CombatEventHandler {
+
+    private static final CombatEventType[] TYPES = CombatEventType.values();
+
+    /** Anzahl der Ereignisse je {@link CombatEventType#ordinal()}. */
+    private final AtomicLongArray counts = new AtomicLongArray(TYPES.length);
+
+    /** Summe des angewendeten Schadens über alle Kämpfe. */
+    private volatile long totalDamage;
+
+    @Override
+    public void onEvent(CombatEvent event, boolean endOfBatch) {
+        int type = event.type().ordinal();
+        counts.setRelease(type, counts.getPlain(type) + 1);
+        if (event.type() == CombatEventType.DAMAGE) {
+            totalDamage += event.value();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse einer Art zurück.
+     *
+     * @param type die Ereignisart
+     * @return die Anzahl der bisher verarbeiteten Ereignisse dieser Art
+     */
+    public long count(CombatEventType type) {
+        return counts.getAcquire(type.ordinal());
+    }
+
+    /**
+     * Gibt die Anzahl der beendeten Kämpfe zurück.
+     *
+     * @return die Anzahl der Kämpfe einschließlich Unentschieden
+     */
+    public long fights() {
+        return count(CombatEventType.VICTORY);
+    }
+
+    /**
+     * Gibt den insgesamt angewendeten Schaden zurück.
+     *
+     * @return die Summe aller Schadenswerte
+     */
+    public long totalDamage() {
+        return totalDamage;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation der Zähler zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CombatEventStatistics{");
+        for (CombatEventType type : TYPES) {
+            sb.append(type).append('=').append(count(type)).append(", ");
+        }
+        return sb.append("totalDamage=").append(totalDamage()).append('}').toString();
+    }
+}
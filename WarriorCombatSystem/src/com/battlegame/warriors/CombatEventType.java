@@ -0,0 +1,30 @@
+package com.battlegame.warriors;
+
+/**
+ * Arten von Kampfereignissen auf dem {@link CombatEventBus}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEvent
+ */
+public enum CombatEventType {
+
+    /** Ein Krieger greift an; Wert = gewürfelter Angriffswert. */
+    ATTACK,
+
+    /** Ein Krieger blockt; Wert = gewürfelter Blockwert. */
+    BLOCK,
+
+    /** Ein Krieger weicht einem Angriff vollständig aus. */
+    DODGE,
+
+    /** Schaden wurde angewendet; Wert = Schaden, Gesundheit = verbliebene Gesundheit des Ziels. */
+    DAMAGE,
+
+    /** Ein Krieger ist gestorben; Ziel = der Sieger. */
+    DEATH,
+
+    /** Ein Kampf ist beendet; Akteur = Sieger oder {@code null} bei Unentschieden, Wert = Angriffe. */
+    VICTORY
+}
@@ -0,0 +1,314 @@
+package com.battlegame.warriors;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Kennzahlen über alle Kämpfe einer oder mehrerer {@link BattleEngine BattleEngines}.
+ *
+ * Als {@link BattleReporter} zählt diese Klasse Angriffe, Treffer, Ausweichen
+ * und Schaden und führt Histogramme über den Schaden je Angriff, die
+ * Angriffe je Kampf und die Kampfdauer. Zusätzlich werden JDK-Flight-Recorder-
+ * Ereignisse erzeugt: {@code com.battlegame.warriors.Fight} je Kampf und das
+ * standardmäßig abgeschaltete {@code com.battlegame.warriors.Attack} je Angriff.
+ *
+ * Jeder Thread schreibt in einen eigenen Zählerblock, ohne Sperren und ohne
+ * atomare Read-Modify-Write-Operationen; nur {@link #snapshot()} summiert alle
+ * Blöcke. Die Blöcke beendeter Threads werden dabei in einen gemeinsamen Block
+ * übernommen, sodass auch Kämpfe auf kurzlebigen virtuellen Threads erhalten
+ * bleiben. Eine Instanz kann von beliebig vielen Threads gleichzeitig
+ * verwendet werden.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MetricsSnapshot
+ * @see BattleReporter#andThen(BattleReporter)
+ */
+public final class CombatMetrics implements BattleReporter {
+
+    private static final EventType FIGHT_EVENT = EventType.getEventType(FightEvent.class);
+
+    /** Standardmäßig abgeschaltet; ohne Aufzeichnung wird kein Ereignisobjekt angelegt. */
+    private static final EventType ATTACK_EVENT = EventType.getEventType(AttackEvent.class);
+
+    /** Opaque-Zugriff auf die Zähler, damit Leser keine halben Werte sehen. */
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int FIGHTS = 0;
+    private static final int DRAWS = 1;
+    private static final int ATTACKS = 2;
+    private static final int HITS = 3;
+    private static final int DODGES = 4;
+    private static final int DODGE_CHANCES = 5;
+    private static final int TOTAL_DAMAGE = 6;
+    private static final int COUNTERS = 7;
+
+    private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::register);
+
+    /** Zählerblöcke aller Threads, die seit der letzten Aufräumrunde gekämpft haben. */
+    private final List<Recorder> recorders = new ArrayList<>();
+
+    /** Summe der Blöcke bereits beendeter Threads. */
+    private final Recorder retired = new Recorder(null);
+
+    /** Größe von {@link #recorders}, ab der beendete Threads aufgeräumt werden. */
+    private int sweepThreshold = 64;
+
+    @Override
+    public void fightStarted(Warrior first, Warrior second) {
+        Recorder r = recorder.get();
+        if (FIGHT_EVENT.isEnabled()) {
+            r.event = new FightEvent();
+            r.event.begin();
+        } else {
+            r.event = null;
+        }
+        r.fightDamage = 0;
+        r.fightDodges = 0;
+        r.start = System.nanoTime();
+    }
+
+    @Override
+    public void dodged(Warrior defender) {
+        Recorder r = recorder.get();
+        r.add(r.counters, DODGES, 1);
+        r.fightDodges++;
+    }
+
+    @Override
+    public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+        Recorder r = recorder.get();
+        long[] counters = r.counters;
+        r.add(counters, ATTACKS, 1);
+        if (damage > 0) {
+            r.add(counters, HITS, 1);
+            r.add(counters, TOTAL_DAMAGE, damage);
+            r.fightDamage += damage;
+        }
+        if (defender instanceof DodgeWarrior dodger && dodger.getDodgePercent() > 0.0) {
+            r.add(counters, DODGE_CHANCES, 1);
+        }
+        r.add(r.damage, HistogramSnapshot.bucket(damage), 1);
+
+        if (ATTACK_EVENT.isEnabled()) {
+            AttackEvent event = new AttackEvent();
+            if (event.shouldCommit()) {
+                event.attacker = attacker.getName();
+                event.defender = defender.getName();
+                event.attack = attack;
+                event.block = block;
+                event.damage = damage;
+                event.health = defender.health;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void fightEnded(Warrior winner, Warrior loser, int rounds) {
+        finish(winner, loser, winner.getName(), rounds);
+    }
+
+    @Override
+    public void fightDrawn(Warrior first, Warrior second, int rounds) {
+        finish(first, second, null, rounds);
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme aller Kennzahlen.
+     *
+     * Angriffe laufender Kämpfe sind bereits enthalten, die Kämpfe selbst
+     * erst nach ihrem Ende.
+     *
+     * @return die Momentaufnahme
+     */
+    public synchronized MetricsSnapshot snapshot() {
+        sweep();
+        long[] counters = retired.counters.clone();
+        long[] damage = retired.damage.clone();
+        long[] rounds = retired.rounds.clone();
+        long[] nanos = retired.nanos.clone();
+        for (Recorder r : recorders) {
+            r.addTo(counters, damage, rounds, nanos);
+        }
+        return new MetricsSnapshot(counters[FIGHTS], counters[DRAWS], counters[ATTACKS], counters[HITS],
+                counters[DODGES], counters[DODGE_CHANCES], counters[TOTAL_DAMAGE],
+                new HistogramSnapshot(damage), new HistogramSnapshot(rounds), new HistogramSnapshot(nanos));
+    }
+
+    /**
+     * Legt den Zählerblock des aktuellen Threads an.
+     */
+    private synchronized Recorder register() {
+        if (recorders.size() >= sweepThreshold) {
+            sweep();
+            sweepThreshold = Math.max(64, 2 * recorders.size());
+        }
+        Recorder r = new Recorder(Thread.currentThread());
+        recorders.add(r);
+        return r;
+    }
+
+    /**
+     * Übernimmt die Blöcke beendeter Threads in {@link #retired}.
+     *
+     * Nach {@link Thread#isAlive()} == false sind alle Schreibzugriffe des
+     * Threads sichtbar und es folgen keine weiteren.
+     */
+    private void sweep() {
+        Iterator<Recorder> it = recorders.iterator();
+        while (it.hasNext()) {
+            Recorder r = it.next();
+            if (!r.owner.isAlive()) {
+                r.addTo(retired.counters, retired.damage, retired.rounds, retired.nanos);
+                it.remove();
+            }
+        }
+    }
+
+    private void finish(Warrior first, Warrior second, String winner, int fightRounds) {
+        long nanos = System.nanoTime();
+        Recorder r = recorder.get();
+        nanos -= r.start;
+
+        long[] counters = r.counters;
+        r.add(counters, FIGHTS, 1);
+        if (winner == null) {
+            r.add(counters, DRAWS, 1);
+        }
+        r.add(r.rounds, HistogramSnapshot.bucket(fightRounds), 1);
+        r.add(r.nanos, HistogramSnapshot.bucket(nanos), 1);
+
+        FightEvent event = r.event;
+        if (event != null) {
+            r.event = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.first = first.getName();
+                event.second = second.getName();
+                event.winner = winner;
+                event.rounds = fightRounds;
+                event.totalDamage = r.fightDamage;
+                event.dodges = r.fightDodges;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Zählerblock eines Threads.
+     *
+     * Nur der besitzende Thread schreibt; andere Threads lesen die Werte per
+     * Opaque-Zugriff und sehen so jeden Zähler entweder vor oder nach einer
+     * Änderung, aber nie halb geschrieben.
+     */
+    private static final class Recorder {
+
+        private final Thread owner;
+        private final long[] counters = new long[COUNTERS];
+        private final long[] damage = new long[HistogramSnapshot.BUCKETS];
+        private final long[] rounds = new long[HistogramSnapshot.BUCKETS];
+        private final long[] nanos = new long[HistogramSnapshot.BUCKETS];
+
+        /** Werte des laufenden Kampfes für das JFR-Ereignis. */
+        private long start;
+        private long fightDamage;
+        private int fightDodges;
+        private FightEvent event;
+
+        Recorder(Thread owner) {
+            this.owner = owner;
+        }
+
+        void add(long[] values, int index, long delta) {
+            LONGS.setOpaque(values, index, values[index] + delta);
+        }
+
+        void addTo(long[] counters, long[] damage, long[] rounds, long[] nanos) {
+            sum(this.counters, counters);
+            sum(this.damage, damage);
+            sum(this.rounds, rounds);
+            sum(this.nanos, nanos);
+        }
+
+        private static void sum(long[] from, long[] to) {
+            for (int i = 0; i < from.length; i++) {
+                to[i] += (long) LONGS.getOpaque(from, i);
+            }
+        }
+    }
+
+    /**
+     * JFR-Ereignis für einen vollständigen Kampf.
+     */
+    @Name("com.battlegame.warriors.Fight")
+    @Label("Fight")
+    @Category("Warrior Combat")
+    @Description("Ein vollständiger Kampf zwischen zwei Kriegern")
+    @StackTrace(false)
+    static final class FightEvent extends Event {
+
+        @Label("First")
+        String first;
+
+        @Label("Second")
+        String second;
+
+        @Label("Winner")
+        @Description("Name des Siegers, leer bei Unentschieden")
+        String winner;
+
+        @Label("Rounds")
+        int rounds;
+
+        @Label("Total Damage")
+        long totalDamage;
+
+        @Label("Dodges")
+        int dodges;
+    }
+
+    /**
+     * JFR-Ereignis für einen einzelnen Angriff; standardmäßig abgeschaltet.
+     */
+    @Name("com.battlegame.warriors.Attack")
+    @Label("Attack")
+    @Category("Warrior Combat")
+    @Description("Ein einzelner Angriff mit Würfen und Schaden")
+    @StackTrace(false)
+    @Enabled(false)
+    static final class AttackEvent extends Event {
+
+        @Label("Attacker")
+        String attacker;
+
+        @Label("Defender")
+        String defender;
+
+        @Label("Attack")
+        int attack;
+
+        @Label("Block")
+        int block;
+
+        @Label("Damage")
+        int damage;
+
+        @Label("Health")
+        @Description("Gesundheit des Verteidigers nach dem Angriff")
+        int health;
+    }
+}
@@ -0,0 +1,73 @@
+package com.battlegame.warriors;
+
+/**
+ * Zufallsquelle für alle Würfe im Kampfsystem.
+ *
+ * Angriffs-, Block- und Ausweichwürfe in {@link Warrior}, {@link DodgeWarrior}
+ * und {@link BattleEngine} laufen ausschließlich über dieses Interface.
+ * Damit lässt sich die Zufallsquelle austauschen, ein Kampf über einen festen
+ * Startwert exakt reproduzieren und die gemeinsame Sperre von
+ * {@code Math.random()} bei vielen parallelen Kämpfen vermeiden.
+ *
+ * Implementierungen sind nicht threadsicher; jeder Thread bzw. jeder Kampf
+ * verwendet eine eigene Instanz.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see SplitMixRandom
+ */
+public interface CombatRandom {
+
+    /**
+     * Liefert eine gleichverteilte Zufallszahl im Intervall [0.0, 1.0).
+     *
+     * @return die nächste Zufallszahl
+     */
+    double nextDouble();
+
+    /**
+     * Würfelt einen Wert zwischen 1 und {@code max} (inklusive).
+     *
+     * Entspricht der ursprünglichen Formel {@code 1 + (int)(Math.random() * max)}
+     * für Angriffs- und Blockwerte.
+     *
+     * @param max der größtmögliche Wert
+     * @return ein zufälliger Wert zwischen 1 und max
+     */
+    default int roll(int max) {
+        return 1 + (int) (nextDouble() * max);
+    }
+
+    /**
+     * Würfelt, ob ein Ereignis mit der angegebenen Wahrscheinlichkeit eintritt.
+     *
+     * @param probability Wahrscheinlichkeit zwischen 0.0 und 1.0
+     * @return {@code true} wenn das Ereignis eintritt
+     */
+    default boolean chance(double probability) {
+        return nextDouble() <= probability;
+    }
+
+    /**
+     * Erzeugt eine reproduzierbare Zufallsquelle mit festem Startwert.
+     *
+     * @param seed der Startwert
+     * @return eine neue Zufallsquelle
+     */
+    static CombatRandom seeded(long seed) {
+        return new SplitMixRandom(seed);
+    }
+
+    /**
+     * Gibt die Zufallsquelle des aktuellen Threads zurück.
+     *
+     * Jeder Thread besitzt eine eigene Instanz mit eigenem Startwert, sodass
+     * parallele Kämpfe nie um einen gemeinsamen Zustand konkurrieren.
+     *
+     * @return die Zufallsquelle des aktuellen Threads
+     */
+    static CombatRandom current() {
+        return SplitMixRandom.current();
+    }
+}
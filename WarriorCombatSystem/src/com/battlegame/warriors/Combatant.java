@@ -0,0 +1,256 @@
+package com.battlegame.warriors;
+
+/**
+ * Leichtgewichtiger Kampfteilnehmer eines {@link Archetypes Archetyps}.
+ *
+ * Ein Combatant trägt nur den veränderlichen Zustand eines Kampfes, also
+ * aktuelle Gesundheit und Abklingzeit. Name und Kampfwerte liegen einmalig
+ * in der gemeinsam genutzten {@link WarriorSpec}. Mit komprimierten
+ * Referenzen belegt ein Combatant 24 Byte, und über {@link #reset()} lässt
+ * er sich für den nächsten Kampf ohne neue Allokation wiederverwenden.
+ *
+ * {@link #fight(Combatant, Combatant, int, CombatRandom)} löst einen Kampf
+ * ohne Berichterstattung und ohne Taktung auf, nach exakt den Regeln von
+ * {@link BattleEngine#resolveAttack(Warrior, Warrior, CombatRandom)} und mit
+ * derselben Würfelreihenfolge. Bei gleichem Startwert verläuft der Kampf
+ * wie einer zwischen {@link WarriorSpec#newWarrior()}-Objekten in
+ * {@link BattleEngine#HEADLESS}. Für Kämpfe mit Berichterstattung,
+ * Teleportation oder überschriebenem Verhalten bleibt {@link Warrior} zuständig.
+ *
+ * Ein Combatant wird jeweils nur von einem Thread verwendet.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Archetypes
+ * @see WarriorSpec
+ */
+public final class Combatant {
+
+    /** Der gemeinsam genutzte Archetyp. */
+    private final WarriorSpec archetype;
+
+    /** Aktuelle Gesundheitspunkte. */
+    private int health;
+
+    /** Verbleibende Abklingzeit in Zügen. */
+    private int cooldown;
+
+    /**
+     * Erstellt einen Combatant mit voller Gesundheit.
+     *
+     * @param archetype der Archetyp
+     * @throws IllegalArgumentException wenn archetype null ist
+     */
+    public Combatant(WarriorSpec archetype) {
+        if (archetype == null) {
+            throw new IllegalArgumentException("Archetyp darf nicht null sein");
+        }
+        this.archetype = archetype;
+        this.health = archetype.health();
+    }
+
+    /**
+     * Führt einen Kampf bis zum Tod eines Teilnehmers oder bis zur
+     * Obergrenze an Angriffen aus.
+     *
+     * Beide Teilnehmer greifen abwechselnd an, beginnend mit {@code c1}, und
+     * setzen ihren Kampf mit dem aktuellen Gesundheitsstand fort. Der Kampf
+     * allokiert keinen Speicher.
+     *
+     * @param c1 der erste Teilnehmer
+     * @param c2 der zweite Teilnehmer
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe
+     * @return der Sieger oder {@code null} bei Unentschieden
+     * @throws IllegalArgumentException wenn ein Parameter null, beide
+     *                                  Teilnehmer identisch oder maxRounds
+     *                                  nicht positiv ist
+     */
+    public static Combatant fight(Combatant c1, Combatant c2, int maxRounds, CombatRandom rng) {
+        checkFight(c1, c2, maxRounds, rng);
+        for (int rounds = 0; rounds < maxRounds; rounds++) {
+            Combatant attacker = (rounds & 1) == 0 ? c1 : c2;
+            Combatant defender = attacker == c1 ? c2 : c1;
+            if (attacker.strike(defender, rng)) {
+                return attacker;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Führt einen Kampf über Schadenstabellen aus, mit einem Wurf pro Angriff.
+     *
+     * Der Schaden ist genauso verteilt wie bei
+     * {@link #fight(Combatant, Combatant, int, CombatRandom)}, derselbe
+     * Startwert führt aber zu einem anderen Kampfverlauf.
+     *
+     * @param c1 der erste Teilnehmer
+     * @param c2 der zweite Teilnehmer
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe
+     * @param tables die Schadenstabellen
+     * @return der Sieger oder {@code null} bei Unentschieden
+     * @throws IllegalArgumentException wenn ein Parameter null, beide
+     *                                  Teilnehmer identisch oder maxRounds
+     *                                  nicht positiv ist
+     * @see BattleEngine#withDamageTables(DamageTables)
+     */
+    public static Combatant fight(Combatant c1, Combatant c2, int maxRounds, CombatRandom rng,
+                                  DamageTables tables) {
+        if (tables == null) {
+            throw new IllegalArgumentException("Schadenstabellen dürfen nicht null sein");
+        }
+        checkFight(c1, c2, maxRounds, rng);
+        DamageSampler oneToTwo = tables.get(c1.archetype, c2.archetype);
+        DamageSampler twoToOne = tables.get(c2.archetype, c1.archetype);
+        for (int rounds = 0; rounds < maxRounds; rounds++) {
+            boolean firstAttacks = (rounds & 1) == 0;
+            Combatant defender = firstAttacks ? c2 : c1;
+            defender.health -= (firstAttacks ? oneToTwo : twoToOne).sample(rng);
+            if (defender.health <= 0) {
+                return firstAttacks ? c1 : c2;
+            }
+        }
+        return null;
+    }
+
+    private static void checkFight(Combatant c1, Combatant c2, int maxRounds, CombatRandom rng) {
+        if (c1 == null || c2 == null || rng == null) {
+            throw new IllegalArgumentException("Teilnehmer und Zufallsquelle dürfen nicht null sein");
+        }
+        if (c1 == c2) {
+            throw new IllegalArgumentException("Ein Teilnehmer kann nicht gegen sich selbst kämpfen");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+    }
+
+    /**
+     * Ein Angriff auf {@code defender}; liefert {@code true}, wenn er stirbt.
+     */
+    private boolean strike(Combatant defender, CombatRandom rng) {
+        int attack = rng.roll(archetype.attkMax());
+        WarriorSpec target = defender.archetype;
+        int block = target.canDodge() && rng.chance(target.dodgePercent())
+                ? DodgeWarrior.DODGE_BLOCK
+                : rng.roll(target.blockMax());
+        int damage = attack - block;
+        if (damage > 0) {
+            defender.health -= damage;
+        }
+        return defender.health <= 0;
+    }
+
+    /**
+     * Setzt Gesundheit und Abklingzeit auf die Startwerte des Archetyps zurück.
+     *
+     * @return dieser Combatant
+     */
+    public Combatant reset() {
+        health = archetype.health();
+        cooldown = 0;
+        return this;
+    }
+
+    /**
+     * Gibt den Archetyp zurück.
+     *
+     * @return der gemeinsam genutzte Archetyp
+     */
+    public WarriorSpec archetype() {
+        return archetype;
+    }
+
+    /**
+     * Gibt den Namen des Archetyps zurück.
+     *
+     * @return der Name
+     */
+    public String getName() {
+        return archetype.name();
+    }
+
+    /**
+     * Gibt die aktuelle Gesundheit zurück.
+     *
+     * @return die aktuellen Gesundheitspunkte
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Setzt die aktuelle Gesundheit.
+     *
+     * @param health die neuen Gesundheitspunkte
+     */
+    public void setHealth(int health) {
+        this.health = health;
+    }
+
+    /**
+     * Prüft, ob der Combatant noch am Leben ist.
+     *
+     * @return {@code true} wenn health > 0, andernfalls {@code false}
+     */
+    public boolean isAlive() {
+        return health > 0;
+    }
+
+    /**
+     * Gibt die verbleibende Abklingzeit zurück.
+     *
+     * @return die Abklingzeit in Zügen
+     */
+    public int getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Setzt die Abklingzeit.
+     *
+     * @param cooldown die Abklingzeit in Zügen (darf nicht negativ sein)
+     * @throws IllegalArgumentException wenn cooldown negativ ist
+     */
+    public void setCooldown(int cooldown) {
+        if (cooldown < 0) {
+            throw new IllegalArgumentException("Abklingzeit darf nicht negativ sein");
+        }
+        this.cooldown = cooldown;
+    }
+
+    /**
+     * Verringert die Abklingzeit um einen Zug, sofern sie noch läuft.
+     */
+    public void tickCooldown() {
+        if (cooldown > 0) {
+            cooldown--;
+        }
+    }
+
+    /**
+     * Erzeugt einen vollwertigen {@link Warrior} mit dem aktuellen Zustand.
+     *
+     * Für Kämpfe mit Berichterstattung oder Teleportation.
+     *
+     * @return ein neuer Krieger des Archetyps mit der aktuellen Gesundheit
+     */
+    public Warrior toWarrior() {
+        Warrior warrior = archetype.newWarrior();
+        warrior.health = health;
+        return warrior;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Combatants zurück.
+     *
+     * @return Name, Gesundheit und Abklingzeit
+     */
+    @Override
+    public String toString() {
+        return "Combatant{name='" + archetype.name() + "', health=" + health + ", cooldown=" + cooldown + "}";
+    }
+}
@@ -0,0 +1,67 @@
+package com.battlegame.warriors;
+
+import java.io.PrintStream;
+
+/**
+ * Gibt Kampfereignisse im bisherigen Textformat aus.
+ *
+ * Die Ausgabe entspricht zeichengenau der des {@link BattleReporter#CONSOLE},
+ * wird aber auf dem Thread eines {@link CombatEventBus}-Verbrauchers erzeugt
+ * statt auf dem kämpfenden Thread. Der Ausgabestrom wird am Ende jedes
+ * Stapels geleert.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatEventBus
+ */
+public final class ConsoleEventRenderer implements CombatEventHandler {
+
+    private final PrintStream out;
+
+    /**
+     * Erstellt einen Renderer für {@code System.out}.
+     */
+    public ConsoleEventRenderer() {
+        this(System.out);
+    }
+
+    /**
+     * Erstellt einen Renderer für den angegebenen Ausgabestrom.
+     *
+     * @param out der Ausgabestrom
+     * @throws IllegalArgumentException wenn out null ist
+     */
+    public ConsoleEventRenderer(PrintStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Ausgabestrom darf nicht null sein");
+        }
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(CombatEvent event, boolean endOfBatch) {
+        switch (event.type()) {
+            case DODGE -> out.printf("%s ist dem Angriff ausgewichen\n\n", event.actor());
+            case DAMAGE -> {
+                out.printf("%s Attacks %s and deals %d Damage\n",
+                          event.actor(), event.target(), event.value());
+                out.printf("%s Has %d Health\n\n",
+                          event.target(), event.health());
+            }
+            case DEATH -> out.printf("%s has Died and %s is Victorious\n",
+                                    event.actor(), event.target());
+            case VICTORY -> {
+                if (event.actor() == null) {
+                    out.printf("Unentschieden nach %d Angriffen\n", event.value());
+                }
+                out.println("Game Over");
+            }
+            default -> {
+            }
+        }
+        if (endOfBatch) {
+            out.flush();
+        }
+    }
+}
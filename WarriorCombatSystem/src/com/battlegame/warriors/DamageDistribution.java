@@ -0,0 +1,123 @@
+package com.battlegame.warriors;
+
+/**
+ * Exakte Wahrscheinlichkeitsverteilung des Schadens eines einzelnen Angriffs.
+ *
+ * Nach den Regeln von {@link BattleEngine#getAttackResult(Warrior, Warrior, CombatRandom)}
+ * ist der Schaden {@code max(0, a - b)} mit einem gleichverteilten Angriffswert
+ * {@code a} aus 1 bis attkMax und einem gleichverteilten Blockwert {@code b}
+ * aus 1 bis blockMax. Ein ausweichfähiger Verteidiger ersetzt den Blockwert
+ * mit Wahrscheinlichkeit dodgePercent durch {@link DodgeWarrior#DODGE_BLOCK}.
+ * Für ein festes Paar aus Angreifer und Verteidiger ist diese Verteilung
+ * unveränderlich und wird hier einmalig berechnet.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MatchupSolver
+ */
+public final class DamageDistribution {
+
+    /** Wahrscheinlichkeit je Schadenswert, Index = Schaden. */
+    private final double[] pmf;
+
+    private DamageDistribution(double[] pmf) {
+        this.pmf = pmf;
+    }
+
+    /**
+     * Berechnet die Schadensverteilung eines Angreifers gegen einen Verteidiger.
+     *
+     * @param attacker Spezifikation des Angreifers
+     * @param defender Spezifikation des Verteidigers
+     * @return die Schadensverteilung eines Angriffs
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist
+     */
+    public static DamageDistribution of(WarriorSpec attacker, WarriorSpec defender) {
+        if (attacker == null || defender == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        return of(attacker.attkMax(), defender.blockMax(), defender.dodgePercent());
+    }
+
+    /**
+     * Berechnet die Schadensverteilung für die angegebenen Kampfwerte.
+     *
+     * @param attkMax maximaler Angriffswert des Angreifers (muss positiv sein)
+     * @param blockMax maximaler Blockwert des Verteidigers (muss positiv sein)
+     * @param dodgePercent Ausweichwahrscheinlichkeit des Verteidigers zwischen 0.0 und 1.0
+     * @return die Schadensverteilung eines Angriffs
+     * @throws IllegalArgumentException wenn ein Wert außerhalb des gültigen Bereichs liegt
+     */
+    public static DamageDistribution of(int attkMax, int blockMax, double dodgePercent) {
+        if (attkMax <= 0 || blockMax <= 0) {
+            throw new IllegalArgumentException("Angriffs- und Blockwert müssen positiv sein");
+        }
+        if (dodgePercent < 0.0 || dodgePercent > 1.0) {
+            throw new IllegalArgumentException("Ausweichwahrscheinlichkeit muss zwischen 0.0 und 1.0 liegen");
+        }
+        double[] pmf = new double[attkMax];
+        double pairs = (double) attkMax * blockMax;
+        double hit = 1.0 - dodgePercent;
+
+        // Ohne Ausweichen: Anzahl der Paare (a, b) mit a - b = d
+        double blocked = 0.0;
+        for (int d = 1; d < attkMax; d++) {
+            int count = Math.min(blockMax, attkMax - d);
+            pmf[d] = hit * count / pairs;
+            blocked += count;
+        }
+        pmf[0] = hit * (pairs - blocked) / pairs;
+
+        // Mit Ausweichen: Block entspricht DODGE_BLOCK
+        if (dodgePercent > 0.0) {
+            int overflow = Math.max(0, attkMax - DodgeWarrior.DODGE_BLOCK);
+            pmf[0] += dodgePercent * (attkMax - overflow) / attkMax;
+            for (int d = 1; d <= overflow; d++) {
+                pmf[d] += dodgePercent / attkMax;
+            }
+        }
+        return new DamageDistribution(pmf);
+    }
+
+    /**
+     * Gibt den größtmöglichen Schaden eines Angriffs zurück.
+     *
+     * @return der maximale Schaden
+     */
+    public int maxDamage() {
+        return pmf.length - 1;
+    }
+
+    /**
+     * Gibt die Wahrscheinlichkeit eines bestimmten Schadens zurück.
+     *
+     * @param damage der Schadenswert
+     * @return die Wahrscheinlichkeit, genau diesen Schaden zu verursachen
+     */
+    public double probability(int damage) {
+        return damage < 0 || damage >= pmf.length ? 0.0 : pmf[damage];
+    }
+
+    /**
+     * Gibt den Erwartungswert des Schadens zurück.
+     *
+     * @return der mittlere Schaden pro Angriff
+     */
+    public double mean() {
+        double sum = 0.0;
+        for (int d = 1; d < pmf.length; d++) {
+            sum += d * pmf[d];
+        }
+        return sum;
+    }
+
+    /**
+     * Gibt eine Kopie der Wahrscheinlichkeiten zurück, Index = Schaden.
+     *
+     * @return die Wahrscheinlichkeitsfunktion des Schadens
+     */
+    public double[] toArray() {
+        return pmf.clone();
+    }
+}
@@ -0,0 +1,125 @@
+package com.battlegame.warriors;
+
+/**
+ * Zieht den Schaden eines Angriffs mit einem einzigen Zufallswert in O(1).
+ *
+ * Die Tabelle wird nach Walkers Alias-Methode aus einer
+ * {@link DamageDistribution} aufgebaut: Jede der n Spalten enthält einen
+ * Schadenswert, die Wahrscheinlichkeit, ihn zu behalten, und einen
+ * Ersatzwert. Ein gleichverteilter Wert {@code u} aus [0, 1) wählt über
+ * {@code u * n} die Spalte und über den Nachkommaanteil zwischen Spalte und
+ * Ersatzwert. Statt Angriffs-, Ausweich- und Blockwurf genügt damit ein Wurf
+ * pro Angriff, bei identischer Verteilung des Schadens.
+ *
+ * Instanzen sind unveränderlich und threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see DamageDistribution
+ * @see DamageTables
+ */
+public final class DamageSampler {
+
+    private static final double ONE = 0x1p32;
+    private static final long MASK = 0xFFFF_FFFFL;
+
+    private final DamageDistribution distribution;
+
+    /** Wahrscheinlichkeit, den Schaden der Spalte zu behalten, skaliert auf 2^32. */
+    private final long[] keep;
+
+    /** Ersatzschaden je Spalte. */
+    private final int[] alias;
+
+    /** Spaltenzahl mal 2^32. */
+    private final double scale;
+
+    private DamageSampler(DamageDistribution distribution, long[] keep, int[] alias) {
+        this.distribution = distribution;
+        this.keep = keep;
+        this.alias = alias;
+        this.scale = alias.length * ONE;
+    }
+
+    /**
+     * Baut die Alias-Tabelle einer Schadensverteilung auf.
+     *
+     * @param distribution die Schadensverteilung
+     * @return die Tabelle
+     * @throws IllegalArgumentException wenn distribution null ist
+     */
+    public static DamageSampler of(DamageDistribution distribution) {
+        if (distribution == null) {
+            throw new IllegalArgumentException("Schadensverteilung darf nicht null sein");
+        }
+        double[] pmf = distribution.toArray();
+        int n = pmf.length;
+        double[] keep = new double[n];
+        int[] alias = new int[n];
+
+        // Spalten mit zu kleiner bzw. zu großer Masse als Stapel in Arrays
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int d = 0; d < n; d++) {
+            scaled[d] = pmf[d] * n;
+            alias[d] = d;
+            if (scaled[d] < 1.0) {
+                small[smallCount++] = d;
+            } else {
+                large[largeCount++] = d;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            keep[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+        // Rest hat bis auf Rundungsfehler genau Masse 1
+        while (largeCount > 0) {
+            keep[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            keep[small[--smallCount]] = 1.0;
+        }
+        long[] scaledKeep = new long[n];
+        for (int d = 0; d < n; d++) {
+            scaledKeep[d] = (long) (keep[d] * ONE);
+        }
+        return new DamageSampler(distribution, scaledKeep, alias);
+    }
+
+    /**
+     * Zieht den Schaden eines Angriffs.
+     *
+     * @param rng die Zufallsquelle; es wird genau ein Wert gezogen
+     * @return der Schaden, mindestens 0
+     */
+    public int sample(CombatRandom rng) {
+        // Obere Bits wählen die Spalte, die unteren 32 Bit den Kandidaten
+        long x = (long) (rng.nextDouble() * scale);
+        // Rundung kann u * n auf n heben
+        int column = Math.min((int) (x >>> 32), alias.length - 1);
+        int other = alias[column];
+        return (x & MASK) < keep[column] ? column : other;
+    }
+
+    /**
+     * Gibt die zugrunde liegende Schadensverteilung zurück.
+     *
+     * @return die Schadensverteilung
+     */
+    public DamageDistribution distribution() {
+        return distribution;
+    }
+}
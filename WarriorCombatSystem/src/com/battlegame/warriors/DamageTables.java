@@ -0,0 +1,161 @@
+package com.battlegame.warriors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Begrenzter Zwischenspeicher für {@link DamageSampler}-Tabellen.
+ *
+ * Tabellen werden nach den Kampfwerten (Angriffswert des Angreifers,
+ * Block- und Ausweichwert des Verteidigers) abgelegt, unabhängig von Namen
+ * und Gesundheit. Wird die Kapazität überschritten, fällt die am längsten
+ * nicht verwendete Tabelle heraus (LRU).
+ *
+ * Ein Treffer im Zwischenspeicher allokiert nichts: Gesucht wird mit einem
+ * wiederverwendeten Suchschlüssel unter der Sperre des Speichers. Die
+ * Engines schlagen Tabellen einmal pro Kampf nach, nicht pro Angriff.
+ *
+ * Die Klasse ist threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see DamageSampler
+ * @see BattleEngine#withDamageTables(DamageTables)
+ */
+public final class DamageTables {
+
+    /** Standardkapazität in Tabellen. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, DamageSampler> samplers;
+
+    /** Suchschlüssel, nur unter der Sperre verwendet. */
+    private final Key probe = new Key(0, 0, 0.0);
+
+    /**
+     * Erstellt einen Zwischenspeicher mit {@link #DEFAULT_CAPACITY}.
+     */
+    public DamageTables() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Erstellt einen Zwischenspeicher mit der angegebenen Kapazität.
+     *
+     * @param capacity maximale Anzahl an Tabellen (muss positiv sein)
+     * @throws IllegalArgumentException wenn capacity nicht positiv ist
+     */
+    public DamageTables(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Kapazität muss positiv sein");
+        }
+        this.capacity = capacity;
+        this.samplers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DamageSampler> eldest) {
+                return size() > DamageTables.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gibt die Tabelle eines Angreifers gegen einen Verteidiger zurück.
+     *
+     * @param attacker Spezifikation des Angreifers
+     * @param defender Spezifikation des Verteidigers
+     * @return die Tabelle
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist
+     */
+    public DamageSampler get(WarriorSpec attacker, WarriorSpec defender) {
+        if (attacker == null || defender == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        return get(attacker.attkMax(), defender.blockMax(), defender.dodgePercent());
+    }
+
+    /**
+     * Gibt die Tabelle für die angegebenen Kampfwerte zurück und legt sie
+     * bei Bedarf an.
+     *
+     * @param attkMax maximaler Angriffswert des Angreifers (muss positiv sein)
+     * @param blockMax maximaler Blockwert des Verteidigers (muss positiv sein)
+     * @param dodgePercent Ausweichwahrscheinlichkeit des Verteidigers zwischen 0.0 und 1.0
+     * @return die Tabelle
+     * @throws IllegalArgumentException wenn ein Wert außerhalb des gültigen Bereichs liegt
+     */
+    public DamageSampler get(int attkMax, int blockMax, double dodgePercent) {
+        synchronized (samplers) {
+            probe.attkMax = attkMax;
+            probe.blockMax = blockMax;
+            probe.dodgePercent = dodgePercent;
+            DamageSampler sampler = samplers.get(probe);
+            if (sampler != null) {
+                return sampler;
+            }
+        }
+        // Außerhalb der Sperre aufbauen; ein gleichzeitiger Aufbau ist harmlos
+        DamageSampler built = DamageSampler.of(DamageDistribution.of(attkMax, blockMax, dodgePercent));
+        synchronized (samplers) {
+            DamageSampler existing = samplers.putIfAbsent(new Key(attkMax, blockMax, dodgePercent), built);
+            return existing != null ? existing : built;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der gespeicherten Tabellen zurück.
+     *
+     * @return die Anzahl der Tabellen
+     */
+    public int size() {
+        synchronized (samplers) {
+            return samplers.size();
+        }
+    }
+
+    /**
+     * Gibt die Kapazität zurück.
+     *
+     * @return die maximale Anzahl an Tabellen
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Verwirft alle gespeicherten Tabellen.
+     */
+    public void clear() {
+        synchronized (samplers) {
+            samplers.clear();
+        }
+    }
+
+    /**
+     * Schlüssel aus den Kampfwerten; nur {@link #probe} wird verändert.
+     */
+    private static final class Key {
+
+        int attkMax;
+        int blockMax;
+        double dodgePercent;
+
+        Key(int attkMax, int blockMax, double dodgePercent) {
+            this.attkMax = attkMax;
+            this.blockMax = blockMax;
+            this.dodgePercent = dodgePercent;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.attkMax == attkMax && k.blockMax == blockMax
+                    && Double.compare(k.dodgePercent, dodgePercent) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * attkMax + blockMax) + Double.hashCode(dodgePercent);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.battlegame.warriors;
 
-import java.util.Random;
-
 /**
  * Ein Krieger, der die Fähigkeit besitzt, Angriffen auszuweichen.
  * 
@@ -20,6 +18,13 @@ import java.util.Random;
  */
 public class DodgeWarrior extends Warrior {
 
+    /**
+     * Blockwert, der bei erfolgreichem Ausweichen zurückgegeben wird.
+     * 
+     * Der Wert ist so hoch, dass er praktisch jeden Angriff neutralisiert.
+     */
+    public static final int DODGE_BLOCK = 10000;
+
     /** 
      * Wahrscheinlichkeit für erfolgreiches Ausweichen.
      * 
@@ -28,13 +33,6 @@ public class DodgeWarrior extends Warrior {
      */
     private double dodgePercent;
 
-    /** 
-     * Zufallsgenerator für Ausweichberechnungen.
-     * 
-     * Wird verwendet, um zu bestimmen, ob ein Ausweichversuch erfolgreich ist.
-     */
-    private Random rand = new Random();
-
     /**
      * Konstruktor für einen DodgeWarrior mit Ausweichfähigkeit.
      * 
@@ -62,8 +60,30 @@ public class DodgeWarrior extends Warrior {
         this.dodgePercent = dodgePercent;
 
         // Interface-Erweiterung: Teleportfähigkeit hinzufügen
-        // Die Teleportfähigkeit wird durch das CanTeleport-Interface implementiert
-        teleportType = new CanTeleport();
+        // Die Teleportfähigkeit wird durch das CanTeleport-Interface implementiert;
+        // die zustandslose Instanz teilen sich alle DodgeWarrior-Objekte
+        teleportType = CanTeleport.INSTANCE;
+    }
+
+    /**
+     * Verteidigt sich innerhalb einer {@link BattleEngine}.
+     * 
+     * Entspricht {@link #block(CombatRandom)}, meldet ein erfolgreiches
+     * Ausweichen aber an die übergebene Berichterstattung statt direkt
+     * auf die Konsole. Überschreibt eine Unterklasse {@link #block()} oder
+     * {@link #block(CombatRandom)}, verteidigt sie sich über diese Methoden.
+     * 
+     * @param rng die Zufallsquelle für Ausweich- und Blockwurf
+     * @param reporter Empfänger der Kampfereignisse
+     * @return {@link #DODGE_BLOCK} bei erfolgreichem Ausweichen, andernfalls
+     *         einen zufälligen Blockwert zwischen 1 und blockMax (inklusive)
+     */
+    @Override
+    int defend(CombatRandom rng, BattleReporter reporter) {
+        if (overridesBlock()) {
+            return block(rng);
+        }
+        return rollBlock(rng, reporter);
     }
 
     /**
@@ -76,23 +96,23 @@ public class DodgeWarrior extends Warrior {
      *
      * Schlägt das Ausweichen fehl, wird ein normaler zufälliger Blockwert
      * zwischen 1 und {@code blockMax} zurückgegeben, wie bei einem
-     * Standard-Warrior.
+     * Standard-Warrior. Über {@link #block(CombatRandom)} wird ein
+     * erfolgreiches Ausweichen auf der Konsole gemeldet.
      * 
-     * @return 10000 bei erfolgreichem Ausweichen, andernfalls einen 
-     *         zufälligen Blockwert zwischen 1 und blockMax (inklusive)
-     * @see Warrior#block()
+     * @param rng die Zufallsquelle für Ausweich- und Blockwurf
+     * @param reporter Empfänger der Kampfereignisse
+     * @return {@link #DODGE_BLOCK} bei erfolgreichem Ausweichen, andernfalls
+     *         einen zufälligen Blockwert zwischen 1 und blockMax (inklusive)
      */
     @Override
-    public int block() {
-        double chance = rand.nextDouble();
-        
-        if (chance <= dodgePercent) {
-            // Erfolgreiche Ausweichung - Ausgabe der Meldung
-            System.out.printf("%s ist dem Angriff ausgewichen\n\n", this.getName());
-            return 10000; // Extrem hoher Blockwert für vollständiges Ausweichen
+    int rollBlock(CombatRandom rng, BattleReporter reporter) {
+        if (rng.chance(dodgePercent)) {
+            // Erfolgreiche Ausweichung - Meldung an die Berichterstattung
+            reporter.dodged(this);
+            return DODGE_BLOCK; // Extrem hoher Blockwert für vollständiges Ausweichen
         } else {
             // Normale Blockierung - zufälliger Wert zwischen 1 und blockMax
-            return 1 + (int)(Math.random() * blockMax);
+            return rng.roll(blockMax);
         }
     }
 
@@ -0,0 +1,341 @@
+package com.battlegame.warriors;
+
+import java.util.Arrays;
+
+/**
+ * Verwaltet zeitlich begrenzte Effekte auf Kriegern über ein hierarchisches
+ * Zeitrad.
+ *
+ * Krieger werden mit {@link #register(Warrior)} angemeldet und erhalten eine
+ * Nummer, über die Effekte sie ansprechen. Alle Effekte liegen
+ * spaltenorientiert in Arrays; Einplanen, Ablaufen und Abbrechen kosten
+ * unabhängig von der Zahl aktiver Effekte O(1). Ein Scheduler kann die
+ * Effekte beliebig vieler Kämpfe gleichzeitig führen, z.B. aller Kämpfe
+ * eines Threads.
+ *
+ * Die Effektarten werden über {@code switch} unterschieden, nicht über
+ * virtuelle Aufrufe. Beendete oder abgebrochene Effekte machen ihre Wirkung
+ * rückgängig: Ausweichboni werden abgezogen und Ausweichphasen beendet.
+ * Heilung läuft über {@link Warrior#healIfAlive(int)} und belebt gefallene Krieger
+ * daher nicht wieder.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see AbilityBattle
+ * @see TimingWheel
+ */
+public final class EffectScheduler {
+
+    private static final int HEAL = 0;
+    private static final int DODGE = 1;
+    private static final int EVADE = 2;
+
+    private final TimingWheel wheel;
+
+    // Angemeldete Krieger
+    private Warrior[] warriors;
+    private int[] evading;
+    private int[] firstEffect;
+    private int freeTarget = -1;
+    private int targets;
+
+    // Effekte, verkettet je Krieger; freie Nummern über nextOfTarget
+    private int[] kind;
+    private int[] target;
+    private int[] amount;
+    private int[] remaining;
+    private double[] dodgeDelta;
+    private int[] nextOfTarget;
+    private int[] prevOfTarget;
+    private int freeEffect = -1;
+    private int effects;
+    private int active;
+
+    /**
+     * Erstellt einen leeren Scheduler.
+     */
+    public EffectScheduler() {
+        this(64);
+    }
+
+    /**
+     * Erstellt einen leeren Scheduler mit der angegebenen Anfangsgröße.
+     *
+     * @param capacity erwartete Anzahl gleichzeitig aktiver Effekte (muss positiv sein)
+     * @throws IllegalArgumentException wenn capacity nicht positiv ist
+     */
+    public EffectScheduler(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Kapazität muss positiv sein");
+        }
+        wheel = new TimingWheel(capacity);
+        warriors = new Warrior[16];
+        evading = new int[16];
+        firstEffect = new int[16];
+        kind = new int[capacity];
+        target = new int[capacity];
+        amount = new int[capacity];
+        remaining = new int[capacity];
+        dodgeDelta = new double[capacity];
+        nextOfTarget = new int[capacity];
+        prevOfTarget = new int[capacity];
+    }
+
+    /**
+     * Gibt den aktuellen Zeitpunkt in Zügen zurück.
+     *
+     * @return die Anzahl der Aufrufe von {@link #advance()}
+     */
+    public long now() {
+        return wheel.now();
+    }
+
+    /**
+     * Gibt die Anzahl aktiver Effekte zurück.
+     *
+     * @return die Anzahl der Effekte, die noch wirken
+     */
+    public int activeEffects() {
+        return active;
+    }
+
+    /**
+     * Meldet einen Krieger an.
+     *
+     * @param warrior der Krieger
+     * @return seine Nummer in diesem Scheduler
+     * @throws IllegalArgumentException wenn warrior null ist
+     */
+    public int register(Warrior warrior) {
+        if (warrior == null) {
+            throw new IllegalArgumentException("Warrior-Objekt darf nicht null sein");
+        }
+        int slot;
+        if (freeTarget >= 0) {
+            slot = freeTarget;
+            freeTarget = firstEffect[slot];
+        } else {
+            slot = targets++;
+            if (slot == warriors.length) {
+                int grown = slot * 2;
+                warriors = Arrays.copyOf(warriors, grown);
+                evading = Arrays.copyOf(evading, grown);
+                firstEffect = Arrays.copyOf(firstEffect, grown);
+            }
+        }
+        warriors[slot] = warrior;
+        evading[slot] = 0;
+        firstEffect[slot] = -1;
+        return slot;
+    }
+
+    /**
+     * Meldet einen Krieger ab und bricht alle seine Effekte ab.
+     *
+     * @param slot die Nummer des Kriegers
+     * @throws IllegalArgumentException wenn die Nummer nicht angemeldet ist
+     */
+    public void release(int slot) {
+        checkTarget(slot);
+        while (firstEffect[slot] >= 0) {
+            cancel(firstEffect[slot]);
+        }
+        warriors[slot] = null;
+        firstEffect[slot] = freeTarget;
+        freeTarget = slot;
+    }
+
+    /**
+     * Prüft, ob ein Krieger gerade außer Reichweite teleportiert ist.
+     *
+     * @param slot die Nummer des Kriegers
+     * @return {@code true} während einer Ausweich-Teleportation
+     */
+    public boolean isEvading(int slot) {
+        return evading[slot] > 0;
+    }
+
+    /**
+     * Startet eine Heilung über Zeit, beginnend im nächsten Zug.
+     *
+     * @param slot die Nummer des Kriegers
+     * @param perTick Heilung pro Zug (darf nicht negativ sein)
+     * @param ticks Anzahl der Züge mit Heilung (muss positiv sein)
+     * @return die Nummer des Effekts
+     * @throws IllegalArgumentException wenn ein Wert ungültig oder die Nummer
+     *                                  nicht angemeldet ist
+     */
+    public int healOverTime(int slot, int perTick, int ticks) {
+        checkTarget(slot);
+        if (perTick < 0 || ticks <= 0) {
+            throw new IllegalArgumentException("Heilung darf nicht negativ und Dauer muss positiv sein");
+        }
+        int id = allocate(HEAL, slot);
+        amount[id] = perTick;
+        remaining[id] = ticks;
+        wheel.schedule(id, wheel.now() + 1);
+        return id;
+    }
+
+    /**
+     * Erhöht die Ausweichwahrscheinlichkeit eines {@link DodgeWarrior} sofort
+     * und nimmt den Bonus nach Ablauf wieder zurück.
+     *
+     * Der Bonus wird bei 1.0 gekappt; zurückgenommen wird nur der tatsächlich
+     * gewährte Anteil.
+     *
+     * @param slot die Nummer des Kriegers
+     * @param bonus Bonus auf die Ausweichwahrscheinlichkeit (0.0 bis 1.0)
+     * @param ticks Wirkungsdauer in Zügen (muss positiv sein)
+     * @return die Nummer des Effekts
+     * @throws IllegalArgumentException wenn der Krieger kein DodgeWarrior, ein
+     *                                  Wert ungültig oder die Nummer nicht
+     *                                  angemeldet ist
+     */
+    public int dodgeBuff(int slot, double bonus, int ticks) {
+        checkTarget(slot);
+        if (!(warriors[slot] instanceof DodgeWarrior dodger)) {
+            throw new IllegalArgumentException("Nur ein DodgeWarrior kann ausweichen");
+        }
+        if (bonus < 0.0 || bonus > 1.0 || ticks <= 0) {
+            throw new IllegalArgumentException("Bonus muss zwischen 0.0 und 1.0 liegen und Dauer positiv sein");
+        }
+        double before = dodger.getDodgePercent();
+        double after = Math.min(1.0, before + bonus);
+        dodger.setDodgePercent(after);
+        int id = allocate(DODGE, slot);
+        dodgeDelta[id] = after - before;
+        wheel.schedule(id, wheel.now() + ticks);
+        return id;
+    }
+
+    /**
+     * Teleportiert einen Krieger sofort für die angegebene Dauer außer Reichweite.
+     *
+     * @param slot die Nummer des Kriegers
+     * @param ticks Dauer in Zügen (muss positiv sein)
+     * @return die Nummer des Effekts
+     * @throws IllegalArgumentException wenn ticks nicht positiv oder die
+     *                                  Nummer nicht angemeldet ist
+     */
+    public int evade(int slot, int ticks) {
+        checkTarget(slot);
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Dauer muss positiv sein");
+        }
+        evading[slot]++;
+        int id = allocate(EVADE, slot);
+        wheel.schedule(id, wheel.now() + ticks);
+        return id;
+    }
+
+    /**
+     * Bricht einen aktiven Effekt ab und macht seine Wirkung rückgängig.
+     *
+     * Nummern beendeter Effekte werden wiederverwendet; eine Nummer darf daher
+     * nur abgebrochen werden, solange ihr Effekt bekanntermaßen noch wirkt.
+     *
+     * @param effect die Nummer des Effekts
+     * @return {@code false} wenn der Effekt bereits beendet war
+     */
+    public boolean cancel(int effect) {
+        if (effect < 0 || effect >= effects || !wheel.cancel(effect)) {
+            return false;
+        }
+        finish(effect);
+        return true;
+    }
+
+    /**
+     * Rückt um einen Zug vor und wendet alle fälligen Effekte an.
+     */
+    public void advance() {
+        int id = wheel.advance();
+        while (id >= 0) {
+            int following = wheel.nextExpired(id);
+            if (kind[id] == HEAL) {
+                tickHeal(id);
+            } else {
+                finish(id);
+            }
+            id = following;
+        }
+    }
+
+    private void tickHeal(int id) {
+        // Gefallene Krieger werden nicht geheilt, der Effekt endet dann vorzeitig
+        if (warriors[target[id]].healIfAlive(amount[id]) && --remaining[id] > 0) {
+            wheel.schedule(id, wheel.now() + 1);
+        } else {
+            finish(id);
+        }
+    }
+
+    private void finish(int id) {
+        int slot = target[id];
+        switch (kind[id]) {
+            case DODGE -> {
+                DodgeWarrior dodger = (DodgeWarrior) warriors[slot];
+                dodger.setDodgePercent(Math.max(0.0, dodger.getDodgePercent() - dodgeDelta[id]));
+            }
+            case EVADE -> evading[slot]--;
+            default -> {
+                // Heilung hinterlässt nichts zurückzunehmen
+            }
+        }
+        int p = prevOfTarget[id];
+        int n = nextOfTarget[id];
+        if (p >= 0) {
+            nextOfTarget[p] = n;
+        } else {
+            firstEffect[slot] = n;
+        }
+        if (n >= 0) {
+            prevOfTarget[n] = p;
+        }
+        nextOfTarget[id] = freeEffect;
+        freeEffect = id;
+        active--;
+    }
+
+    private int allocate(int effectKind, int slot) {
+        int id;
+        if (freeEffect >= 0) {
+            id = freeEffect;
+            freeEffect = nextOfTarget[id];
+        } else {
+            id = effects++;
+            if (id == kind.length) {
+                int grown = id * 2;
+                kind = Arrays.copyOf(kind, grown);
+                target = Arrays.copyOf(target, grown);
+                amount = Arrays.copyOf(amount, grown);
+                remaining = Arrays.copyOf(remaining, grown);
+                dodgeDelta = Arrays.copyOf(dodgeDelta, grown);
+                nextOfTarget = Arrays.copyOf(nextOfTarget, grown);
+                prevOfTarget = Arrays.copyOf(prevOfTarget, grown);
+                wheel.ensureCapacity(grown);
+            }
+        }
+        kind[id] = effectKind;
+        target[id] = slot;
+        int first = firstEffect[slot];
+        nextOfTarget[id] = first;
+        prevOfTarget[id] = -1;
+        if (first >= 0) {
+            prevOfTarget[first] = id;
+        }
+        firstEffect[slot] = id;
+        active++;
+        return id;
+    }
+
+    private void checkTarget(int slot) {
+        if (slot < 0 || slot >= targets || warriors[slot] == null) {
+            throw new IllegalArgumentException("Krieger " + slot + " ist nicht angemeldet");
+        }
+    }
+}
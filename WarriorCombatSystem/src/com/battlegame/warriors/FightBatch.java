@@ -0,0 +1,329 @@
+package com.battlegame.warriors;
+
+/**
+ * Spaltenorientierter Speicher für viele unabhängige Kämpfe.
+ *
+ * Statt eines Warrior-Objekts pro Kämpfer hält ein Batch alle Kampfwerte in
+ * primitiven Arrays (Struct-of-Arrays): eine Spalte je Eigenschaft, ein Index
+ * je Kampf. Es gibt weder Objekt-Header noch Namen oder Teleportstrategien
+ * pro Kämpfer, und die {@link BatchCombatEngine} kann jede Spalte in einer
+ * engen Schleife oder in Vektor-Lanes durchlaufen.
+ *
+ * Jeder Kampf besitzt einen eigenen SplitMix64-Zustand. Ein Kampf mit dem
+ * Startwert {@code seed} verläuft exakt wie
+ * {@code BattleEngine.HEADLESS.startFight(first.newWarrior(), second.newWarrior(),
+ * maxRounds, new SplitMixRandom(seed))}.
+ *
+ * Instanzen sind nicht threadsicher und können für weitere Kämpfe
+ * wiederverwendet werden.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BatchCombatEngine
+ */
+public final class FightBatch {
+
+    /** Der Kampf läuft noch. */
+    public static final int RUNNING = 0;
+
+    /** Der erste Krieger hat gewonnen. */
+    public static final int FIRST_WON = 1;
+
+    /** Der zweite Krieger hat gewonnen. */
+    public static final int SECOND_WON = 2;
+
+    /** Der Kampf endete ohne Sieger. */
+    public static final int DRAW = 3;
+
+    /** Anzahl der Kämpfe in diesem Batch. */
+    final int size;
+
+    final int[] firstHealth;
+    final int[] secondHealth;
+    final int[] firstAttkMax;
+    final int[] secondAttkMax;
+    final int[] firstBlockMax;
+    final int[] secondBlockMax;
+    final double[] firstDodge;
+    final double[] secondDodge;
+
+    /** SplitMix64-Zustand je Kampf. */
+    final long[] rngState;
+
+    /** Ergebnis je Kampf, siehe {@link #RUNNING} usw. */
+    final int[] outcome;
+
+    /** Anzahl der ausgeführten Angriffe je Kampf. */
+    final int[] rounds;
+
+    final int[] firstDamage;
+    final int[] secondDamage;
+    final int[] maxHit;
+
+    /**
+     * Ursprünglicher Index des Kampfes an jeder Position.
+     *
+     * Die {@link BatchCombatEngine} verschiebt beendete Kämpfe während eines
+     * Laufs ans Ende, damit nur laufende Kämpfe durchlaufen werden, und stellt
+     * die ursprüngliche Reihenfolge danach wieder her. Außerhalb eines Laufs
+     * gilt {@code order[i] == i}.
+     */
+    final int[] order;
+
+    /**
+     * Erstellt einen leeren Batch für die angegebene Anzahl an Kämpfen.
+     *
+     * @param size Anzahl der Kämpfe (muss positiv sein)
+     * @throws IllegalArgumentException wenn size nicht positiv ist
+     */
+    public FightBatch(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch-Größe muss positiv sein");
+        }
+        this.size = size;
+        firstHealth = new int[size];
+        secondHealth = new int[size];
+        firstAttkMax = new int[size];
+        secondAttkMax = new int[size];
+        firstBlockMax = new int[size];
+        secondBlockMax = new int[size];
+        firstDodge = new double[size];
+        secondDodge = new double[size];
+        rngState = new long[size];
+        outcome = new int[size];
+        rounds = new int[size];
+        firstDamage = new int[size];
+        secondDamage = new int[size];
+        maxHit = new int[size];
+        order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Kämpfe in diesem Batch zurück.
+     *
+     * @return die Batch-Größe
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Setzt einen Kampf auf seinen Anfangszustand.
+     *
+     * @param i Index des Kampfes
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param seed Startwert des Zufallsstroms dieses Kampfes
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist
+     * @throws IndexOutOfBoundsException wenn i außerhalb des Batches liegt
+     */
+    public void set(int i, WarriorSpec first, WarriorSpec second, long seed) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        firstHealth[i] = first.health();
+        secondHealth[i] = second.health();
+        firstAttkMax[i] = first.attkMax();
+        secondAttkMax[i] = second.attkMax();
+        firstBlockMax[i] = first.blockMax();
+        secondBlockMax[i] = second.blockMax();
+        firstDodge[i] = first.dodgePercent();
+        secondDodge[i] = second.dodgePercent();
+        rngState[i] = seed;
+        outcome[i] = RUNNING;
+        rounds[i] = 0;
+        firstDamage[i] = 0;
+        secondDamage[i] = 0;
+        maxHit[i] = 0;
+    }
+
+    /**
+     * Füllt die ersten {@code count} Plätze mit Kämpfen derselben Paarung.
+     *
+     * Kampf {@code i} erhält den Startwert
+     * {@link SplitMixRandom#streamSeed(long, long) streamSeed(seed, firstIndex + i)},
+     * genau wie Kampf {@code firstIndex + i} im {@link MonteCarloSimulator}.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param seed Basis-Startwert der Simulation
+     * @param firstIndex globaler Index des ersten Kampfes
+     * @param count Anzahl der zu setzenden Kämpfe
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist oder
+     *                                  count außerhalb von 0 bis size liegt
+     */
+    public void fill(WarriorSpec first, WarriorSpec second, long seed, long firstIndex, int count) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Anzahl muss zwischen 0 und der Batch-Größe liegen");
+        }
+        for (int i = 0; i < count; i++) {
+            set(i, first, second, SplitMixRandom.streamSeed(seed, firstIndex + i));
+        }
+        clear(count);
+    }
+
+    /**
+     * Markiert alle Plätze als beendet.
+     *
+     * Danach lassen sich einzelne Plätze über
+     * {@link #set(int, WarriorSpec, WarriorSpec, long)} belegen; die
+     * übrigen überspringt die {@link BatchCombatEngine}.
+     */
+    public void clear() {
+        clear(0);
+    }
+
+    private void clear(int from) {
+        for (int i = from; i < size; i++) {
+            // Unbenutzte Plätze gelten als beendet und werden übersprungen
+            outcome[i] = DRAW;
+            rounds[i] = 0;
+        }
+    }
+
+    /**
+     * Gibt das Ergebnis eines Kampfes zurück.
+     *
+     * @param i Index des Kampfes
+     * @return {@link #RUNNING}, {@link #FIRST_WON}, {@link #SECOND_WON} oder {@link #DRAW}
+     */
+    public int outcome(int i) {
+        return outcome[i];
+    }
+
+    /**
+     * Gibt die Anzahl der Angriffe eines Kampfes zurück.
+     *
+     * @param i Index des Kampfes
+     * @return die bisher ausgeführten Angriffe
+     */
+    public int rounds(int i) {
+        return rounds[i];
+    }
+
+    /**
+     * Gibt die aktuelle Gesundheit des ersten Kriegers eines Kampfes zurück.
+     *
+     * @param i Index des Kampfes
+     * @return die aktuelle Gesundheit
+     */
+    public int firstHealth(int i) {
+        return firstHealth[i];
+    }
+
+    /**
+     * Gibt die aktuelle Gesundheit des zweiten Kriegers eines Kampfes zurück.
+     *
+     * @param i Index des Kampfes
+     * @return die aktuelle Gesundheit
+     */
+    public int secondHealth(int i) {
+        return secondHealth[i];
+    }
+
+    /**
+     * Verschiebt alle laufenden Kämpfe im Bereich [0, live) an den Anfang.
+     *
+     * @param live Ende des Bereichs, in dem laufende Kämpfe liegen können
+     * @return Anzahl der laufenden Kämpfe, die nun in [0, Rückgabewert) liegen
+     */
+    int compact(int live) {
+        int i = 0;
+        while (i < live) {
+            if (outcome[i] == RUNNING) {
+                i++;
+            } else {
+                swap(i, --live);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Stellt die ursprüngliche Reihenfolge der Kämpfe wieder her.
+     */
+    void restoreOrder() {
+        for (int i = 0; i < size; i++) {
+            while (order[i] != i) {
+                swap(i, order[i]);
+            }
+        }
+    }
+
+    /**
+     * Vertauscht zwei Kämpfe in allen Spalten.
+     */
+    private void swap(int i, int j) {
+        swap(firstHealth, i, j);
+        swap(secondHealth, i, j);
+        swap(firstAttkMax, i, j);
+        swap(secondAttkMax, i, j);
+        swap(firstBlockMax, i, j);
+        swap(secondBlockMax, i, j);
+        double d = firstDodge[i];
+        firstDodge[i] = firstDodge[j];
+        firstDodge[j] = d;
+        d = secondDodge[i];
+        secondDodge[i] = secondDodge[j];
+        secondDodge[j] = d;
+        long s = rngState[i];
+        rngState[i] = rngState[j];
+        rngState[j] = s;
+        swap(outcome, i, j);
+        swap(rounds, i, j);
+        swap(firstDamage, i, j);
+        swap(secondDamage, i, j);
+        swap(maxHit, i, j);
+        swap(order, i, j);
+    }
+
+    private static void swap(int[] column, int i, int j) {
+        int v = column[i];
+        column[i] = column[j];
+        column[j] = v;
+    }
+
+    /**
+     * Fasst die ersten {@code count} Kämpfe zu einem Ergebnis zusammen.
+     *
+     * @param count Anzahl der auszuwertenden Kämpfe
+     * @return das Ergebnis dieser Kämpfe
+     * @throws IllegalArgumentException wenn count außerhalb von 0 bis size liegt
+     */
+    public SimulationResult toResult(int count) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Anzahl muss zwischen 0 und der Batch-Größe liegen");
+        }
+        long firstWins = 0;
+        long secondWins = 0;
+        long draws = 0;
+        long totalRounds = 0;
+        long roundsSquared = 0;
+        long firstHits = 0;
+        long secondHits = 0;
+        long firstTotal = 0;
+        long secondTotal = 0;
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            switch (outcome[i]) {
+                case FIRST_WON -> firstWins++;
+                case SECOND_WON -> secondWins++;
+                default -> draws++;
+            }
+            int r = rounds[i];
+            totalRounds += r;
+            roundsSquared += (long) r * r;
+            firstHits += (r + 1) / 2;
+            secondHits += r / 2;
+            firstTotal += firstDamage[i];
+            secondTotal += secondDamage[i];
+            max = Math.max(max, maxHit[i]);
+        }
+        return new SimulationResult(count, firstWins, secondWins, draws, totalRounds, roundsSquared,
+                firstHits, firstTotal, secondHits, secondTotal, max);
+    }
+}
@@ -0,0 +1,415 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Trägt die Kämpfe einer Kaderdatei beliebiger Größe aus und schreibt die
+ * Ergebnisse fortlaufend in eine Textdatei.
+ *
+ * Aufeinanderfolgende Krieger bilden ein Paar (1 gegen 2, 3 gegen 4 usw.);
+ * bei einer ungeraden Anzahl bleibt der letzte ohne Gegner. Kampf Nummer
+ * {@code i} verwendet den Startwert
+ * {@link SplitMixRandom#streamSeed(long, long) streamSeed(seed, i)} und
+ * verläuft damit wie in der {@link BattleEngine}, unabhängig von der Anzahl
+ * der Threads.
+ *
+ * Ein Lauf besteht aus drei überlappenden Stufen:
+ * <ol>
+ *   <li>der aufrufende Thread liest den Kader mit einem {@link RosterReader}
+ *       und füllt Blöcke zu je {@code chunkSize} Kämpfen,</li>
+ *   <li>{@code workers} Threads lösen jeden Block als {@link FightBatch} auf der
+ *       {@link BatchCombatEngine} auf und</li>
+ *   <li>ein Schreib-Thread gibt die Blöcke in Eingabereihenfolge über einen
+ *       {@link FileChannel} aus.</li>
+ * </ol>
+ * Alle Blöcke stammen aus einem festen Vorrat von {@code 2 * workers + 2}
+ * Stück und kehren nach dem Schreiben dorthin zurück. Ist der Vorrat
+ * erschöpft, wartet das Lesen auf die langsamste Stufe; der Speicherbedarf
+ * ist daher unabhängig von der Größe des Kaders.
+ *
+ * Jede Zeile der Ausgabe lautet
+ * {@code erster,zweiter,sieger,angriffe,gesundheit1,gesundheit2}; bei einem
+ * Unentschieden bleibt der Sieger leer.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see RosterReader
+ * @see PipelineResult
+ */
+public final class FightPipeline {
+
+    /** Standardanzahl der Kämpfe je Block. */
+    public static final int DEFAULT_CHUNK_SIZE = 4_096;
+
+    /** Kopfzeile der Ergebnisdatei. */
+    static final String HEADER = "first,second,winner,rounds,firstHealth,secondHealth\n";
+
+    /** Größe des Schreibpuffers in Bytes. */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    /** Wartezeit, nach der eine blockierte Stufe auf Abbruch prüft. */
+    private static final long POLL_MILLIS = 100;
+
+    private final int workers;
+    private final int chunkSize;
+    private final int maxRounds;
+    private final BatchCombatEngine engine = new BatchCombatEngine();
+
+    /**
+     * Erstellt eine Pipeline mit einem Simulations-Thread je Prozessorkern.
+     */
+    public FightPipeline() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * Erstellt eine Pipeline.
+     *
+     * @param workers Anzahl der Simulations-Threads (muss positiv sein)
+     * @param chunkSize Kämpfe je Block (muss positiv sein)
+     * @param maxRounds maximale Anzahl an Angriffen pro Kampf (muss positiv sein)
+     * @throws IllegalArgumentException wenn ein Wert nicht positiv ist
+     */
+    public FightPipeline(int workers, int chunkSize, int maxRounds) {
+        if (workers <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Threads und Blockgröße müssen positiv sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Trägt alle Kämpfe eines Kaders aus.
+     *
+     * Eine bestehende Ergebnisdatei wird überschrieben. Schlägt eine Stufe
+     * fehl, werden alle Stufen abgebrochen und der Fehler geworfen; die
+     * Ergebnisdatei ist dann unvollständig.
+     *
+     * @param roster die Kaderdatei (Text oder binär, siehe {@link RosterFormat})
+     * @param results die Ergebnisdatei
+     * @param seed Basis-Startwert der Kämpfe
+     * @return Kennzahlen des Laufs
+     * @throws IOException wenn Lesen oder Schreiben fehlschlägt oder der Kader
+     *                     einen ungültigen Eintrag enthält
+     * @throws IllegalArgumentException wenn roster oder results null ist
+     */
+    public PipelineResult run(Path roster, Path results, long seed) throws IOException {
+        if (roster == null || results == null) {
+            throw new IllegalArgumentException("Dateien dürfen nicht null sein");
+        }
+        long start = System.nanoTime();
+        try (RosterReader reader = new RosterReader(roster);
+             FileChannel out = FileChannel.open(results, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return new Run(out, seed).execute(reader, start);
+        }
+    }
+
+    /**
+     * Trägt die Kämpfe einer Kaderdatei aus.
+     *
+     * @param args Kaderdatei, Ergebnisdatei und optional der Startwert
+     * @throws IOException wenn Lesen oder Schreiben fehlschlägt
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Aufruf: FightPipeline <kader> <ergebnisse> [startwert]");
+            return;
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : SplitMixRandom.randomSeed();
+        System.out.println(new FightPipeline().run(Paths.get(args[0]), Paths.get(args[1]), seed));
+    }
+
+    /**
+     * Ein Block von Kämpfen, der alle drei Stufen durchläuft.
+     */
+    private static final class Chunk {
+
+        final WarriorSpec[] first;
+        final WarriorSpec[] second;
+        final FightBatch batch;
+        long sequence;
+        long firstIndex;
+        int count;
+
+        Chunk(int size) {
+            first = new WarriorSpec[size];
+            second = new WarriorSpec[size];
+            batch = new FightBatch(size);
+        }
+    }
+
+    /**
+     * Zustand eines einzelnen Laufs.
+     */
+    private final class Run {
+
+        final int chunks = 2 * workers + 2;
+        final ArrayBlockingQueue<Chunk> free = new ArrayBlockingQueue<>(chunks);
+        final ArrayBlockingQueue<Chunk> parsed = new ArrayBlockingQueue<>(chunks + workers);
+        final ArrayBlockingQueue<Chunk> simulated = new ArrayBlockingQueue<>(chunks + workers);
+
+        /** Markiert das Ende der Eingabe für die nachfolgende Stufe. */
+        final Chunk end = new Chunk(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final FileChannel out;
+        final long seed;
+
+        // Nur vom Schreib-Thread verändert, nach join() gelesen
+        long firstWins;
+        long secondWins;
+        long draws;
+
+        Run(FileChannel out, long seed) {
+            this.out = out;
+            this.seed = seed;
+        }
+
+        PipelineResult execute(RosterReader reader, long start) throws IOException {
+            for (int i = 0; i < chunks; i++) {
+                free.add(new Chunk(chunkSize));
+            }
+            Thread[] threads = new Thread[workers + 1];
+            for (int w = 0; w < workers; w++) {
+                threads[w] = new Thread(this::simulate, "fight-pipeline-worker-" + w);
+            }
+            threads[workers] = new Thread(this::write, "fight-pipeline-writer");
+            for (Thread thread : threads) {
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            long fights = 0;
+            try {
+                fights = parse(reader);
+                // Jeder Simulations-Thread erhält eine Endmarke
+                for (int w = 0; w < workers; w++) {
+                    if (!put(parsed, end)) {
+                        break;
+                    }
+                }
+            } catch (Throwable t) {
+                fail(t);
+            }
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                fail(e);
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable t = failure.get();
+            if (t instanceof IOException e) {
+                throw e;
+            } else if (t instanceof RuntimeException e) {
+                throw e;
+            } else if (t instanceof Error e) {
+                throw e;
+            } else if (t instanceof InterruptedException) {
+                throw new InterruptedIOException("Kampf-Pipeline wurde unterbrochen");
+            } else if (t != null) {
+                throw new IOException(t);
+            }
+            return new PipelineResult(reader.count(), fights, firstWins, secondWins, draws,
+                    System.nanoTime() - start);
+        }
+
+        /**
+         * Stufe 1: liest Paare und reicht volle Blöcke weiter.
+         *
+         * @return Anzahl der Kämpfe
+         */
+        long parse(RosterReader reader) throws IOException, InterruptedException {
+            long fights = 0;
+            long sequence = 0;
+            Chunk chunk = null;
+            WarriorSpec first;
+            while ((first = reader.next()) != null) {
+                WarriorSpec second = reader.next();
+                if (second == null) {
+                    break;
+                }
+                if (chunk == null) {
+                    chunk = take(free);
+                    if (chunk == null) {
+                        return fights;
+                    }
+                    chunk.sequence = sequence++;
+                    chunk.firstIndex = fights;
+                    chunk.count = 0;
+                }
+                chunk.first[chunk.count] = first;
+                chunk.second[chunk.count++] = second;
+                fights++;
+                if (chunk.count == chunkSize) {
+                    if (!put(parsed, chunk)) {
+                        return fights;
+                    }
+                    chunk = null;
+                }
+            }
+            if (chunk != null) {
+                put(parsed, chunk);
+            }
+            return fights;
+        }
+
+        /**
+         * Stufe 2: löst Blöcke auf der {@link BatchCombatEngine} auf.
+         */
+        void simulate() {
+            try {
+                Chunk chunk;
+                while ((chunk = take(parsed)) != null) {
+                    if (chunk == end) {
+                        put(simulated, end);
+                        return;
+                    }
+                    FightBatch batch = chunk.batch;
+                    batch.clear();
+                    for (int i = 0; i < chunk.count; i++) {
+                        batch.set(i, chunk.first[i], chunk.second[i],
+                                SplitMixRandom.streamSeed(seed, chunk.firstIndex + i));
+                    }
+                    engine.run(batch, maxRounds);
+                    if (!put(simulated, chunk)) {
+                        return;
+                    }
+                }
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        /**
+         * Stufe 3: schreibt Blöcke in Eingabereihenfolge und gibt sie frei.
+         */
+        void write() {
+            try {
+                ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+                CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+                StringBuilder text = new StringBuilder(HEADER);
+                emit(text, encoder, output);
+
+                // Block mit der Sequenz s liegt auf Platz s % chunks, bis er an der Reihe ist
+                Chunk[] waiting = new Chunk[chunks];
+                long next = 0;
+                int ended = 0;
+                while (ended < workers) {
+                    Chunk chunk = take(simulated);
+                    if (chunk == null) {
+                        return;
+                    }
+                    if (chunk == end) {
+                        ended++;
+                        continue;
+                    }
+                    waiting[(int) (chunk.sequence % chunks)] = chunk;
+                    Chunk ready;
+                    while ((ready = waiting[(int) (next % chunks)]) != null) {
+                        waiting[(int) (next % chunks)] = null;
+                        format(ready, text);
+                        emit(text, encoder, output);
+                        free.add(ready);
+                        next++;
+                    }
+                }
+                drain(output);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void format(Chunk chunk, StringBuilder text) {
+            FightBatch batch = chunk.batch;
+            for (int i = 0; i < chunk.count; i++) {
+                WarriorSpec first = chunk.first[i];
+                WarriorSpec second = chunk.second[i];
+                text.append(first.name()).append(',').append(second.name()).append(',');
+                switch (batch.outcome(i)) {
+                    case FightBatch.FIRST_WON -> {
+                        text.append(first.name());
+                        firstWins++;
+                    }
+                    case FightBatch.SECOND_WON -> {
+                        text.append(second.name());
+                        secondWins++;
+                    }
+                    default -> draws++;
+                }
+                text.append(',').append(batch.rounds(i))
+                        .append(',').append(batch.firstHealth(i))
+                        .append(',').append(batch.secondHealth(i)).append('\n');
+                // Verweise freigeben, damit gelesene Krieger nicht im Vorrat verbleiben
+                chunk.first[i] = null;
+                chunk.second[i] = null;
+            }
+        }
+
+        private void emit(StringBuilder text, CharsetEncoder encoder, ByteBuffer output) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (encoder.encode(chars, output, true).isOverflow()) {
+                drain(output);
+            }
+            encoder.reset();
+            text.setLength(0);
+        }
+
+        private void drain(ByteBuffer output) throws IOException {
+            output.flip();
+            while (output.hasRemaining()) {
+                out.write(output);
+            }
+            output.clear();
+        }
+
+        private void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        /**
+         * Entnimmt ein Element oder gibt {@code null} zurück, sobald eine Stufe fehlgeschlagen ist.
+         */
+        private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+            while (failure.get() == null) {
+                T value = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reiht ein Element ein oder gibt {@code false} zurück, sobald eine Stufe fehlgeschlagen ist.
+         */
+        private <T> boolean put(BlockingQueue<T> queue, T value) throws InterruptedException {
+            while (failure.get() == null) {
+                if (queue.offer(value, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.battlegame.warriors;
+
+/**
+ * Unveränderliches Histogramm über nicht negative ganzzahlige Werte.
+ *
+ * Die Eimer sind log-linear angeordnet: Werte unter 16 werden exakt
+ * gezählt, größere Werte in acht gleich breite Eimer je Zweierpotenz, was
+ * einen relativen Fehler von höchstens 12,5 % ergibt. Damit reichen 488
+ * Eimer für den gesamten Wertebereich von {@code long}. Perzentile und
+ * Maximum werden als obere Grenze des jeweiligen Eimers angegeben, der
+ * Mittelwert über die Eimermitten.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatMetrics
+ */
+public final class HistogramSnapshot {
+
+    /** Anzahl der Bits für die Unterteilung einer Zweierpotenz. */
+    static final int SUB_BITS = 3;
+
+    /** Eimer je Zweierpotenz. */
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Anzahl der Eimer. */
+    static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    /** Leeres Histogramm. */
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[BUCKETS]);
+
+    private final long[] counts;
+    private final long count;
+
+    HistogramSnapshot(long[] counts) {
+        this.counts = counts;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+    }
+
+    /**
+     * Gibt die Anzahl der Werte zurück.
+     *
+     * @return die Anzahl der Werte
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Gibt den ungefähren Mittelwert zurück.
+     *
+     * @return der Mittelwert oder 0 bei einem leeren Histogramm
+     */
+    public double mean() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] != 0) {
+                sum += counts[b] * ((lowerBound(b) + (double) upperBound(b)) / 2.0);
+            }
+        }
+        return sum / count;
+    }
+
+    /**
+     * Gibt den Wert zurück, unter oder auf dem der angegebene Anteil aller Werte liegt.
+     *
+     * @param quantile Anteil zwischen 0.0 und 1.0, z.B. 0.99 für das 99. Perzentil
+     * @return die obere Grenze des Eimers dieses Perzentils oder 0 bei einem leeren Histogramm
+     * @throws IllegalArgumentException wenn quantile außerhalb von 0.0 bis 1.0 liegt
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Anteil muss zwischen 0.0 und 1.0 liegen");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                return upperBound(b);
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Gibt den ungefähren größten Wert zurück.
+     *
+     * @return die obere Grenze des höchsten belegten Eimers oder 0 bei einem leeren Histogramm
+     */
+    public long max() {
+        for (int b = counts.length - 1; b >= 0; b--) {
+            if (counts[b] != 0) {
+                return upperBound(b);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gibt die Anzahl der Werte zwischen zwei Grenzen zurück.
+     *
+     * Eimer, die nur teilweise im Bereich liegen, werden ganz mitgezählt.
+     *
+     * @param from kleinster Wert (einschließlich)
+     * @param to größter Wert (einschließlich)
+     * @return die Anzahl der Werte im Bereich
+     */
+    public long count(long from, long to) {
+        long total = 0;
+        for (int b = bucket(from); b <= bucket(to); b++) {
+            total += counts[b];
+        }
+        return total;
+    }
+
+    /**
+     * Führt zwei Histogramme zusammen.
+     *
+     * @param other das andere Histogramm
+     * @return ein neues Histogramm mit den Werten beider
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = counts.clone();
+        for (int b = 0; b < merged.length; b++) {
+            merged[b] += other.counts[b];
+        }
+        return new HistogramSnapshot(merged);
+    }
+
+    /**
+     * Gibt den Eimer eines Wertes zurück; negative Werte gehören zu Eimer 0.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gibt den kleinsten Wert eines Eimers zurück.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Gibt den größten Wert eines Eimers zurück.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return lowerBound(bucket) + ((1L << shift) - 1);
+    }
+
+    /**
+     * Gibt eine String-Repräsentation mit den wichtigsten Kennzahlen zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("Histogram{count=%d, mean=%.2f, p50=%d, p90=%d, p99=%d, max=%d}",
+                count, mean(), percentile(0.5), percentile(0.9), percentile(0.99), max());
+    }
+}
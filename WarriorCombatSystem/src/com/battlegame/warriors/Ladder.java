@@ -0,0 +1,522 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rangliste mit fortlaufenden, gewerteten Kämpfen.
+ *
+ * Jeder Krieger des Kaders trägt eine Elo-Wertungszahl, die nach jedem
+ * Kampf gegen einen Gegner ähnlicher Stärke angepasst wird. Neue Krieger
+ * sind vorläufig gewertet: in ihren ersten {@link #PROVISIONAL_GAMES}
+ * Kämpfen gilt der doppelte K-Faktor, damit sie schnell ihre Stärke finden.
+ *
+ * Für die Gegnersuche liegen alle Krieger in einem Histogramm über die
+ * Wertungszahl mit Fächern von {@link #BUCKET_WIDTH} Punkten. Ein Gegner
+ * wird zufällig aus dem eigenen Fach gezogen, bei leerem Fach aus dem
+ * nächstgelegenen; die Suche kostet daher unabhängig von der Größe des
+ * Kaders praktisch konstant Zeit. Ein Krieger wechselt nur dann das Fach,
+ * wenn seine Wertungszahl eine Fachgrenze überschreitet. Jedes Fach hat
+ * eine eigene Sperre, die Wertungszahlen selbst werden ohne Sperre atomar
+ * fortgeschrieben; viele Threads können also gleichzeitig Gegner suchen und
+ * Ergebnisse eintragen.
+ *
+ * {@link #play(long, long)} trägt Kämpfe auf mehreren Threads aus, jeweils
+ * blockweise als {@link FightBatch} auf der {@link BatchCombatEngine}.
+ *
+ * Instanzen sind threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see LadderEntry
+ * @see LadderResult
+ */
+public final class Ladder {
+
+    /** Anfangswertung jedes Kriegers. */
+    public static final double DEFAULT_RATING = 1_500.0;
+
+    /** Standard-K-Faktor: größte Änderung der Wertungszahl durch einen Kampf. */
+    public static final double DEFAULT_K_FACTOR = 24.0;
+
+    /** Anzahl der Kämpfe, in denen ein Krieger mit doppeltem K-Faktor gewertet wird. */
+    public static final int PROVISIONAL_GAMES = 20;
+
+    /** Breite eines Fachs im Histogramm der Gegnersuche in Wertungspunkten. */
+    public static final double BUCKET_WIDTH = 8.0;
+
+    /** Standardanzahl an Kämpfen je Batch in {@link #play(long, long)}. */
+    public static final int DEFAULT_CHUNK_SIZE = 1_024;
+
+    /** Wertungszahlen ab dieser Höhe teilen sich das oberste Fach. */
+    private static final double MAX_BUCKETED_RATING = 4_000.0;
+
+    /** Festkommafaktor der gespeicherten Wertungszahlen. */
+    private static final double SCALE = 1 << 20;
+
+    private final WarriorSpec[] warriors;
+    private final int workers;
+    private final double kFactor;
+    private final BatchCombatEngine engine = new BatchCombatEngine();
+
+    /** Wertungszahl je Krieger als Festkommazahl, siehe {@link #SCALE}. */
+    private final AtomicLongArray ratings;
+    private final AtomicIntegerArray games;
+
+    private final Bucket[] buckets;
+
+    /** Fach, in dem ein Krieger liegt; geschrieben nur unter der Sperre dieses Fachs. */
+    private final AtomicIntegerArray bucketOf;
+
+    /** Position eines Kriegers in seinem Fach; nur unter der Sperre des Fachs verwendet. */
+    private final int[] slot;
+
+    /**
+     * Erstellt eine Rangliste mit einem Thread je Prozessorkern.
+     *
+     * @param roster die Krieger; ihre Indizes sind die Kennungen in der Rangliste
+     * @throws IllegalArgumentException wenn roster null ist, null enthält oder
+     *                                  weniger als zwei Krieger hat
+     */
+    public Ladder(List<WarriorSpec> roster) {
+        this(roster, Runtime.getRuntime().availableProcessors(), DEFAULT_K_FACTOR);
+    }
+
+    /**
+     * Erstellt eine Rangliste.
+     *
+     * @param roster die Krieger; ihre Indizes sind die Kennungen in der Rangliste
+     * @param workers Anzahl der Threads in {@link #play(long, long)} (muss positiv sein)
+     * @param kFactor K-Faktor der Wertung (muss positiv sein)
+     * @throws IllegalArgumentException wenn roster null ist, null enthält oder
+     *                                  weniger als zwei Krieger hat, oder ein
+     *                                  Wert nicht positiv ist
+     */
+    public Ladder(List<WarriorSpec> roster, int workers, double kFactor) {
+        if (roster == null || roster.size() < 2) {
+            throw new IllegalArgumentException("Rangliste braucht mindestens zwei Krieger");
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Anzahl der Threads muss positiv sein");
+        }
+        if (!(kFactor > 0.0) || Double.isInfinite(kFactor)) {
+            throw new IllegalArgumentException("K-Faktor muss positiv sein");
+        }
+        this.warriors = roster.toArray(new WarriorSpec[0]);
+        for (WarriorSpec warrior : warriors) {
+            if (warrior == null) {
+                throw new IllegalArgumentException("Kader darf kein null enthalten");
+            }
+        }
+        this.workers = workers;
+        this.kFactor = kFactor;
+        int n = warriors.length;
+        ratings = new AtomicLongArray(n);
+        games = new AtomicIntegerArray(n);
+        bucketOf = new AtomicIntegerArray(n);
+        slot = new int[n];
+        buckets = new Bucket[(int) (MAX_BUCKETED_RATING / BUCKET_WIDTH)];
+        for (int b = 0; b < buckets.length; b++) {
+            buckets[b] = new Bucket();
+        }
+        long initial = Math.round(DEFAULT_RATING * SCALE);
+        int home = bucketIndex(initial);
+        buckets[home].members = new int[n];
+        for (int id = 0; id < n; id++) {
+            ratings.set(id, initial);
+            add(home, id);
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Krieger zurück.
+     *
+     * @return die Größe des Kaders
+     */
+    public int size() {
+        return warriors.length;
+    }
+
+    /**
+     * Gibt die Spezifikation eines Kriegers zurück.
+     *
+     * @param id Kennung des Kriegers
+     * @return die Spezifikation
+     * @throws IndexOutOfBoundsException wenn id ungültig ist
+     */
+    public WarriorSpec warrior(int id) {
+        return warriors[id];
+    }
+
+    /**
+     * Gibt die aktuelle Wertungszahl eines Kriegers zurück.
+     *
+     * @param id Kennung des Kriegers
+     * @return die Wertungszahl
+     * @throws IndexOutOfBoundsException wenn id ungültig ist
+     */
+    public double rating(int id) {
+        return ratings.get(id) / SCALE;
+    }
+
+    /**
+     * Gibt die Anzahl der gewerteten Kämpfe eines Kriegers zurück.
+     *
+     * @param id Kennung des Kriegers
+     * @return die Anzahl der Kämpfe
+     * @throws IndexOutOfBoundsException wenn id ungültig ist
+     */
+    public int games(int id) {
+        return games.get(id);
+    }
+
+    /**
+     * Sucht einen Gegner mit ähnlicher Wertungszahl.
+     *
+     * Gezogen wird zufällig aus dem Fach des Kriegers; ist dort kein anderer
+     * Krieger, wird abwechselnd in den Nachbarfächern gesucht, beginnend mit
+     * einer zufälligen Seite.
+     *
+     * @param id Kennung des Kriegers
+     * @param rng Zufallsquelle für die Auswahl
+     * @return Kennung des Gegners, oder -1 wenn keiner gefunden wurde
+     * @throws IllegalArgumentException wenn rng null ist
+     * @throws IndexOutOfBoundsException wenn id ungültig ist
+     */
+    public int findOpponent(int id, CombatRandom rng) {
+        if (rng == null) {
+            throw new IllegalArgumentException("Zufallsquelle darf nicht null sein");
+        }
+        int home = bucketIndex(ratings.get(id));
+        int direction = rng.nextDouble() < 0.5 ? -1 : 1;
+        for (int distance = 0; distance < buckets.length; distance++) {
+            int opponent = pick(home + direction * distance, id, rng);
+            if (opponent < 0 && distance > 0) {
+                opponent = pick(home - direction * distance, id, rng);
+            }
+            if (opponent >= 0) {
+                return opponent;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Trägt das Ergebnis eines Kampfes in die Wertung ein.
+     *
+     * Beide Krieger erhalten {@code K * (Ergebnis - Erwartung)} Punkte mit der
+     * Elo-Erwartung aus den Wertungszahlen vor dem Kampf, der Verlierer mit
+     * umgekehrtem Vorzeichen. Ein Unentschieden zählt einen halben Sieg.
+     *
+     * @param first Kennung des zuerst angreifenden Kriegers
+     * @param second Kennung des Gegners
+     * @param outcome {@link FightBatch#FIRST_WON}, {@link FightBatch#SECOND_WON}
+     *                oder {@link FightBatch#DRAW}
+     * @throws IllegalArgumentException wenn beide Kennungen gleich sind oder
+     *                                  outcome kein Endergebnis ist
+     * @throws IndexOutOfBoundsException wenn eine Kennung ungültig ist
+     */
+    public void record(int first, int second, int outcome) {
+        if (first == second) {
+            throw new IllegalArgumentException("Ein Krieger kann nicht gegen sich selbst kämpfen");
+        }
+        double score = switch (outcome) {
+            case FightBatch.FIRST_WON -> 1.0;
+            case FightBatch.SECOND_WON -> 0.0;
+            case FightBatch.DRAW -> 0.5;
+            default -> throw new IllegalArgumentException("Ungültiges Kampfergebnis: " + outcome);
+        };
+        long firstRating = ratings.get(first);
+        long secondRating = ratings.get(second);
+        double surprise = score - 1.0 / (1.0 + Math.pow(10.0, (secondRating - firstRating) / (400.0 * SCALE)));
+        ratings.getAndAdd(first, Math.round(kFactor(games.getAndIncrement(first)) * surprise * SCALE));
+        ratings.getAndAdd(second, -Math.round(kFactor(games.getAndIncrement(second)) * surprise * SCALE));
+        reindex(first);
+        reindex(second);
+    }
+
+    /**
+     * Gibt die bestplatzierten Krieger zurück.
+     *
+     * Durchsucht das Histogramm von oben, bis genügend Krieger gefunden sind,
+     * und sortiert nur diese. Während eines laufenden {@link #play(long, long)}
+     * ist das Ergebnis eine Momentaufnahme.
+     *
+     * @param count Anzahl der Plätze (darf nicht negativ sein)
+     * @return die Plätze nach absteigender Wertungszahl
+     * @throws IllegalArgumentException wenn count negativ ist
+     */
+    public List<LadderEntry> top(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Anzahl darf nicht negativ sein");
+        }
+        List<LadderEntry> entries = new ArrayList<>();
+        for (int b = buckets.length - 1; b >= 0 && entries.size() < count; b--) {
+            Bucket bucket = buckets[b];
+            synchronized (bucket) {
+                for (int i = 0; i < bucket.size; i++) {
+                    int id = bucket.members[i];
+                    entries.add(new LadderEntry(id, warriors[id], rating(id), games(id)));
+                }
+            }
+        }
+        entries.sort(Comparator.comparingDouble(LadderEntry::rating).reversed()
+                .thenComparingInt(LadderEntry::id));
+        return List.copyOf(entries.subList(0, Math.min(count, entries.size())));
+    }
+
+    /**
+     * Trägt gewertete Kämpfe aus.
+     *
+     * Für jeden Kampf wird ein zufälliger Herausforderer gezogen und über
+     * {@link #findOpponent(int, CombatRandom)} gepaart; Kampf Nummer {@code i}
+     * verwendet den Startwert {@link SplitMixRandom#streamSeed(long, long)
+     * streamSeed(seed, i)}. Mit einem Thread ist der Lauf reproduzierbar, mit
+     * mehreren hängt die Paarung von der zeitlichen Verzahnung ab.
+     *
+     * @param matches Anzahl der Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert
+     * @return Kennzahlen des Laufs
+     * @throws IllegalArgumentException wenn matches negativ ist
+     * @throws IllegalStateException wenn der aufrufende Thread unterbrochen wird
+     */
+    public LadderResult play(long matches, long seed) {
+        if (matches < 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe darf nicht negativ sein");
+        }
+        long start = System.nanoTime();
+        AtomicLong next = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Worker[] tasks = new Worker[workers];
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            tasks[w] = new Worker(matches, seed, w, next, failure);
+            threads[w] = new Thread(tasks[w], "ladder-worker-" + w);
+            threads[w].setDaemon(true);
+            threads[w].start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ranglisten-Lauf wurde unterbrochen", e);
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException e) {
+            throw e;
+        } else if (t instanceof Error e) {
+            throw e;
+        }
+
+        long firstWins = 0;
+        long secondWins = 0;
+        long draws = 0;
+        double gap = 0.0;
+        for (Worker task : tasks) {
+            firstWins += task.firstWins;
+            secondWins += task.secondWins;
+            draws += task.draws;
+            gap += task.ratingGap;
+        }
+        long played = firstWins + secondWins + draws;
+        return new LadderResult(played, firstWins, secondWins, draws, played == 0 ? 0.0 : gap / played,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Lässt die Krieger einer Kaderdatei gegeneinander antreten und zeigt die besten.
+     *
+     * @param args Kaderdatei, optional die Anzahl der Kämpfe und der Startwert
+     * @throws IOException wenn die Kaderdatei nicht gelesen werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Aufruf: Ladder <kader> [kämpfe] [startwert]");
+            return;
+        }
+        List<WarriorSpec> roster = new ArrayList<>();
+        try (RosterReader reader = new RosterReader(Paths.get(args[0]))) {
+            WarriorSpec spec;
+            while ((spec = reader.next()) != null) {
+                roster.add(spec);
+            }
+        }
+        Ladder ladder = new Ladder(roster);
+        long matches = args.length > 1 ? Long.parseLong(args[1]) : 100L * roster.size();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : SplitMixRandom.randomSeed();
+        System.out.println(ladder.play(matches, seed));
+        List<LadderEntry> top = ladder.top(10);
+        for (int i = 0; i < top.size(); i++) {
+            System.out.printf("%2d. %s%n", i + 1, top.get(i));
+        }
+    }
+
+    private double kFactor(int gamesBefore) {
+        return gamesBefore < PROVISIONAL_GAMES ? 2.0 * kFactor : kFactor;
+    }
+
+    private int bucketIndex(long rating) {
+        double index = rating / SCALE / BUCKET_WIDTH;
+        return index <= 0.0 ? 0 : (int) Math.min(index, buckets.length - 1);
+    }
+
+    /**
+     * Zieht einen zufälligen anderen Krieger aus einem Fach.
+     *
+     * @return Kennung des Kriegers, oder -1 wenn das Fach keinen anderen enthält
+     */
+    private int pick(int b, int id, CombatRandom rng) {
+        if (b < 0 || b >= buckets.length) {
+            return -1;
+        }
+        Bucket bucket = buckets[b];
+        synchronized (bucket) {
+            int size = bucket.size;
+            if (size == 0 || size == 1 && bucket.members[0] == id) {
+                return -1;
+            }
+            int i = (int) (rng.nextDouble() * size);
+            int member = bucket.members[i];
+            return member != id ? member : bucket.members[i + 1 < size ? i + 1 : 0];
+        }
+    }
+
+    /**
+     * Verschiebt einen Krieger in das Fach seiner aktuellen Wertungszahl.
+     *
+     * Nach jeder Verschiebung wird erneut geprüft: Ändert ein anderer Thread
+     * die Wertungszahl, während das Fach noch gewechselt wird, sieht
+     * mindestens einer der beiden Threads die neue Lage und korrigiert sie.
+     */
+    private void reindex(int id) {
+        while (true) {
+            int from = bucketOf.get(id);
+            int to = bucketIndex(ratings.get(id));
+            if (from == to) {
+                return;
+            }
+            // Sperren immer in aufsteigender Reihenfolge, damit sich zwei Threads nicht blockieren
+            Bucket lower = buckets[Math.min(from, to)];
+            Bucket upper = buckets[Math.max(from, to)];
+            synchronized (lower) {
+                synchronized (upper) {
+                    if (bucketOf.get(id) == from) {
+                        remove(from, id);
+                        add(to, id);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Fügt einen Krieger einem Fach hinzu; nur unter dessen Sperre. */
+    private void add(int b, int id) {
+        Bucket bucket = buckets[b];
+        if (bucket.size == bucket.members.length) {
+            bucket.members = Arrays.copyOf(bucket.members, 2 * bucket.members.length);
+        }
+        slot[id] = bucket.size;
+        bucket.members[bucket.size++] = id;
+        bucketOf.set(id, b);
+    }
+
+    /** Entfernt einen Krieger aus einem Fach; nur unter dessen Sperre. */
+    private void remove(int b, int id) {
+        Bucket bucket = buckets[b];
+        int last = bucket.members[--bucket.size];
+        bucket.members[slot[id]] = last;
+        slot[last] = slot[id];
+    }
+
+    /**
+     * Ein Fach des Histogramms; das Objekt selbst dient als Sperre.
+     */
+    private static final class Bucket {
+
+        int[] members = new int[16];
+        int size;
+    }
+
+    /**
+     * Trägt blockweise Kämpfe aus, bis alle vergeben sind.
+     */
+    private final class Worker implements Runnable {
+
+        private final long matches;
+        private final long seed;
+        private final AtomicLong next;
+        private final AtomicReference<Throwable> failure;
+        private final SplitMixRandom rng;
+        private final FightBatch batch = new FightBatch(DEFAULT_CHUNK_SIZE);
+        private final int[] first = new int[DEFAULT_CHUNK_SIZE];
+        private final int[] second = new int[DEFAULT_CHUNK_SIZE];
+        long firstWins;
+        long secondWins;
+        long draws;
+        double ratingGap;
+
+        Worker(long matches, long seed, int index, AtomicLong next, AtomicReference<Throwable> failure) {
+            this.matches = matches;
+            this.seed = seed;
+            this.next = next;
+            this.failure = failure;
+            // Negative Indizes: unabhängig von den Strömen der Kämpfe
+            this.rng = new SplitMixRandom(SplitMixRandom.streamSeed(seed, -2L - index));
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (failure.get() == null) {
+                    long from = next.getAndAdd(DEFAULT_CHUNK_SIZE);
+                    if (from >= matches) {
+                        return;
+                    }
+                    playChunk(from, (int) Math.min(DEFAULT_CHUNK_SIZE, matches - from));
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        private void playChunk(long from, int count) {
+            batch.clear();
+            for (int i = 0; i < count; i++) {
+                int challenger = (int) (rng.nextDouble() * warriors.length);
+                int opponent = findOpponent(challenger, rng);
+                if (opponent < 0) {
+                    // Nur denkbar, während alle anderen Krieger gerade das Fach wechseln
+                    opponent = challenger + 1 < warriors.length ? challenger + 1 : 0;
+                }
+                first[i] = challenger;
+                second[i] = opponent;
+                ratingGap += Math.abs(ratings.get(challenger) - ratings.get(opponent)) / SCALE;
+                batch.set(i, warriors[challenger], warriors[opponent], SplitMixRandom.streamSeed(seed, from + i));
+            }
+            engine.run(batch, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+            for (int i = 0; i < count; i++) {
+                int outcome = batch.outcome(i);
+                record(first[i], second[i], outcome);
+                if (outcome == FightBatch.FIRST_WON) {
+                    firstWins++;
+                } else if (outcome == FightBatch.SECOND_WON) {
+                    secondWins++;
+                } else {
+                    draws++;
+                }
+            }
+        }
+    }
+}
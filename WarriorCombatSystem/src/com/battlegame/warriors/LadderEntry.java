@@ -0,0 +1,27 @@
+package com.battlegame.warriors;
+
+/**
+ * Platzierung eines Kriegers auf der {@link Ladder}.
+ *
+ * @param id Index des Kriegers im Kader der Rangliste
+ * @param warrior Spezifikation des Kriegers
+ * @param rating aktuelle Wertungszahl
+ * @param games Anzahl der gewerteten Kämpfe
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Ladder#top(int)
+ */
+public record LadderEntry(int id, WarriorSpec warrior, double rating, int games) {
+
+    /**
+     * Gibt eine String-Repräsentation der Platzierung zurück.
+     *
+     * @return Name, Wertungszahl und Anzahl der Kämpfe
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (%.1f, %d Kämpfe)", warrior.name(), rating, games);
+    }
+}
@@ -0,0 +1,41 @@
+package com.battlegame.warriors;
+
+/**
+ * Ergebnis eines Laufs der {@link Ladder}.
+ *
+ * @param matches ausgetragene Kämpfe
+ * @param firstWins Siege des jeweils herausfordernden Kriegers
+ * @param secondWins Siege des jeweils zugelosten Gegners
+ * @param draws Kämpfe ohne Sieger
+ * @param meanRatingGap mittlerer Abstand der Wertungszahlen beider Gegner bei der Paarung
+ * @param elapsedNanos Dauer des Laufs in Nanosekunden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Ladder#play(long, long)
+ */
+public record LadderResult(long matches, long firstWins, long secondWins, long draws, double meanRatingGap,
+                           long elapsedNanos) {
+
+    /**
+     * Gibt den Durchsatz zurück.
+     *
+     * @return Kämpfe je Sekunde
+     */
+    public double matchesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : matches * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Ergebnisses zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("LadderResult{matches=%d, firstWins=%d, secondWins=%d, draws=%d, "
+                + "meanRatingGap=%.1f, %.0f ms, %.0f Kämpfe/s}", matches, firstWins, secondWins, draws,
+                meanRatingGap, elapsedNanos / 1e6, matchesPerSecond());
+    }
+}
@@ -0,0 +1,31 @@
+package com.battlegame.warriors;
+
+/**
+ * Ergebnis eines einzelnen Turnierkampfes.
+ *
+ * Die Krieger verweisen auf die ursprünglichen Teilnehmer; gekämpft wurde
+ * mit Kopien, deren Gesundheit nach dem Kampf verworfen wird.
+ *
+ * @param round Turnierrunde, beginnend bei 1
+ * @param match laufende Nummer des Kampfes im Turnier
+ * @param first der zuerst angreifende Teilnehmer
+ * @param second der zweite Teilnehmer
+ * @param winner der Sieger oder {@code null} bei Unentschieden
+ * @param rounds Anzahl der ausgeführten Angriffe
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Tournament
+ */
+public record MatchResult(int round, int match, Warrior first, Warrior second, Warrior winner, int rounds) {
+
+    /**
+     * Prüft, ob der Kampf unentschieden endete.
+     *
+     * @return {@code true} wenn es keinen Sieger gibt
+     */
+    public boolean isDraw() {
+        return winner == null;
+    }
+}
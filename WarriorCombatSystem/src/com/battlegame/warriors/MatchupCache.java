@@ -0,0 +1,504 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Dauerhafter Zwischenspeicher für Simulationsergebnisse von Paarungen.
+ *
+ * Die Ergebnisse liegen in einer Hashtabelle mit offener Adressierung
+ * (lineares Sondieren), die direkt als Datei in den Speicher eingeblendet
+ * wird. Ein neuer Prozess kann daher sofort nach dem Öffnen gespeicherte
+ * Siegquoten liefern, ohne die Tabelle aufzubauen oder zu deserialisieren.
+ *
+ * Schlüssel sind die Kampfwerte beider Krieger (Gesundheit, Angriffs- und
+ * Blockwert, Ausweichwahrscheinlichkeit) in Angriffsreihenfolge und die
+ * Obergrenze an Angriffen pro Kampf, mit der simuliert wurde; Namen
+ * spielen keine Rolle. Ein Ergebnis mit anderer Obergrenze gilt damit als
+ * andere Paarung. Ist die Kapazität erreicht, verdrängt ein neuer Eintrag
+ * den am längsten nicht verwendeten aus einer kleinen Stichprobe.
+ *
+ * Der Dateikopf enthält die Formatversion und {@link Battle#RULES_VERSION}.
+ * Passt eine der beiden nicht zur laufenden Version, wird die Datei beim
+ * Öffnen leer neu angelegt. Die Kapazität wird beim Anlegen der Datei
+ * festgelegt; wer eine bestehende Datei mit einer anderen Kapazität öffnet,
+ * erhält eine {@link IllegalArgumentException}.
+ *
+ * Alle Werte sind Big-Endian. Der Dateikopf besteht aus Magic (int),
+ * Version (short, short), Regelversion, Anzahl der Plätze, Kapazität und
+ * Anzahl der Einträge (je int) sowie der Zugriffsuhr (long). Jeder Platz
+ * enthält Kennung und Zugriffszeit (je long), die Kampfwerte beider Krieger,
+ * die Felder eines {@link SimulationResult} und die Obergrenze an Angriffen
+ * (int).
+ *
+ * Eine Datei kann nur von einem Prozess gleichzeitig geöffnet werden.
+ * Innerhalb des Prozesses ist die Klasse threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see SimulationResult
+ */
+public final class MatchupCache implements AutoCloseable {
+
+    /** Standardkapazität in Einträgen. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Größte Kapazität, damit die Datei in einen einzigen Puffer passt. */
+    public static final int MAX_CAPACITY = 1 << 22;
+
+    /** Kennung am Dateianfang ("WCSM"). */
+    private static final int MAGIC = 0x5743534D;
+
+    /** Version des Dateiaufbaus. */
+    private static final short VERSION = 2;
+
+    private static final int RULES = 8;
+    private static final int SLOTS = 12;
+    private static final int CAPACITY = 16;
+    private static final int SIZE = 20;
+    private static final int CLOCK = 24;
+    private static final int FILE_HEADER = 32;
+
+    /** Abstände innerhalb eines Platzes. */
+    private static final int TAG = 0;
+    private static final int STAMP = 8;
+    private static final int FIRST = 16;
+    private static final int SECOND = 36;
+    private static final int RESULT = 56;
+    private static final int MAX_ROUNDS = 140;
+    private static final int SLOT = 144;
+
+    /** Abstände innerhalb der Kampfwerte eines Kriegers. */
+    private static final int HEALTH = 0;
+    private static final int ATTK_MAX = 4;
+    private static final int BLOCK_MAX = 8;
+    private static final int DODGE = 12;
+
+    /** Anzahl der Einträge, unter denen der älteste verdrängt wird. */
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer map;
+    private final int mask;
+    private final int capacity;
+    private int size;
+    private long clock;
+
+    /**
+     * Öffnet den Zwischenspeicher in einer Datei mit ihrer gespeicherten
+     * Kapazität oder legt ihn mit {@link #DEFAULT_CAPACITY} an.
+     *
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht geöffnet werden kann, bereits
+     *                     verwendet wird oder kein Zwischenspeicher ist
+     * @throws IllegalArgumentException wenn file null ist
+     */
+    public MatchupCache(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Öffnet den Zwischenspeicher in einer Datei oder legt ihn an.
+     *
+     * @param file die Datei
+     * @param capacity maximale Anzahl an Einträgen (zwischen 1 und
+     *                 {@link #MAX_CAPACITY}); eine bestehende Datei muss
+     *                 genau diese Kapazität haben
+     * @throws IOException wenn die Datei nicht geöffnet werden kann, bereits
+     *                     verwendet wird oder kein Zwischenspeicher ist
+     * @throws IllegalArgumentException wenn file null oder capacity ungültig
+     *                                  ist oder nicht zur bestehenden Datei passt
+     */
+    public MatchupCache(Path file, int capacity) throws IOException {
+        this(file, capacity, true);
+    }
+
+    private MatchupCache(Path file, int capacity, boolean exact) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Kapazität muss zwischen 1 und " + MAX_CAPACITY + " liegen");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock acquired;
+            try {
+                acquired = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                acquired = null;
+            }
+            lock = acquired;
+            if (lock == null) {
+                throw new IOException("Zwischenspeicher wird bereits von einem anderen Prozess verwendet: " + file);
+            }
+            // Veraltete Dateien werden unabhängig von ihrem Aufbau neu angelegt
+            if (channel.size() > 0 && !checkFileHeader(channel)) {
+                channel.truncate(0);
+            }
+            int slots;
+            boolean fresh = channel.size() == 0;
+            if (fresh) {
+                // Füllgrad höchstens 3/4, mindestens ein Platz bleibt frei
+                slots = Integer.highestOneBit((capacity + capacity / 3 + 1) * 2 - 1);
+            } else {
+                slots = readInt(channel, SLOTS);
+                int stored = readInt(channel, CAPACITY);
+                if (exact && stored != capacity) {
+                    throw new IllegalArgumentException("Zwischenspeicher-Datei hat die Kapazität " + stored
+                            + ", nicht " + capacity);
+                }
+                capacity = stored;
+            }
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER + (long) slots * SLOT);
+            mask = slots - 1;
+            this.capacity = capacity;
+            if (fresh) {
+                map.putInt(0, MAGIC).putShort(4, VERSION).putShort(6, (short) 0)
+                        .putInt(RULES, Battle.RULES_VERSION).putInt(SLOTS, slots).putInt(CAPACITY, capacity);
+                clearSlots();
+            } else {
+                size = map.getInt(SIZE);
+                clock = map.getLong(CLOCK);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Prüft den Dateikopf einer bestehenden Datei.
+     *
+     * @return {@code true}, wenn Format- und Regelversion aktuell sind
+     * @throws IOException wenn die Datei kein oder ein beschädigter Zwischenspeicher ist
+     */
+    private static boolean checkFileHeader(FileChannel channel) throws IOException {
+        if (channel.size() < FILE_HEADER || readInt(channel, 0) != MAGIC) {
+            throw new IOException("Keine Zwischenspeicher-Datei");
+        }
+        if (readInt(channel, 4) >>> 16 != VERSION || readInt(channel, RULES) != Battle.RULES_VERSION) {
+            return false;
+        }
+        int slots = readInt(channel, SLOTS);
+        int capacity = readInt(channel, CAPACITY);
+        if (slots <= capacity || Integer.bitCount(slots) != 1 || capacity <= 0
+                || channel.size() != FILE_HEADER + (long) slots * SLOT) {
+            throw new IOException("Beschädigte Zwischenspeicher-Datei");
+        }
+        return true;
+    }
+
+    private static int readInt(FileChannel channel, int position) throws IOException {
+        ByteBuffer value = ByteBuffer.allocate(Integer.BYTES);
+        while (value.hasRemaining()) {
+            if (channel.read(value, position + value.position()) < 0) {
+                throw new IOException("Unerwartetes Dateiende");
+            }
+        }
+        return value.getInt(0);
+    }
+
+    /**
+     * Gibt das gespeicherte Ergebnis einer Paarung mit
+     * {@link MonteCarloSimulator#DEFAULT_MAX_ROUNDS} Angriffen pro Kampf zurück.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @return das Ergebnis oder {@code null}, wenn keines gespeichert ist
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist
+     */
+    public SimulationResult get(WarriorSpec first, WarriorSpec second) {
+        return get(first, second, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * Gibt das gespeicherte Ergebnis einer Paarung zurück.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param maxRounds Obergrenze an Angriffen pro Kampf, mit der simuliert wurde
+     * @return das Ergebnis oder {@code null}, wenn keines gespeichert ist
+     * @throws IllegalArgumentException wenn eine Spezifikation null oder
+     *                                  maxRounds nicht positiv ist
+     */
+    public synchronized SimulationResult get(WarriorSpec first, WarriorSpec second, int maxRounds) {
+        int slot = find(first, second, maxRounds, tag(first, second, maxRounds));
+        if (slot < 0) {
+            return null;
+        }
+        int base = offset(slot);
+        map.putLong(base + STAMP, ++clock);
+        int r = base + RESULT;
+        return new SimulationResult(map.getLong(r), map.getLong(r + 8), map.getLong(r + 16),
+                map.getLong(r + 24), map.getLong(r + 32), map.getLong(r + 40), map.getLong(r + 48),
+                map.getLong(r + 56), map.getLong(r + 64), map.getLong(r + 72), map.getInt(r + 80));
+    }
+
+    /**
+     * Speichert das Ergebnis einer Paarung mit
+     * {@link MonteCarloSimulator#DEFAULT_MAX_ROUNDS} Angriffen pro Kampf.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param result das Ergebnis
+     * @throws IllegalArgumentException wenn ein Parameter null ist
+     * @see #put(WarriorSpec, WarriorSpec, int, SimulationResult)
+     */
+    public void put(WarriorSpec first, WarriorSpec second, SimulationResult result) {
+        put(first, second, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, result);
+    }
+
+    /**
+     * Speichert das Ergebnis einer Paarung.
+     *
+     * Ein vorhandenes Ergebnis wird nur ersetzt, wenn das neue mindestens
+     * ebenso viele Kämpfe umfasst; ein genaueres Ergebnis geht so nie
+     * verloren. Ist die Kapazität erreicht, wird ein selten verwendeter
+     * Eintrag verdrängt.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param maxRounds Obergrenze an Angriffen pro Kampf, mit der simuliert wurde
+     * @param result das Ergebnis
+     * @throws IllegalArgumentException wenn ein Parameter null oder maxRounds
+     *                                  nicht positiv ist
+     */
+    public synchronized void put(WarriorSpec first, WarriorSpec second, int maxRounds, SimulationResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Ergebnis darf nicht null sein");
+        }
+        long tag = tag(first, second, maxRounds);
+        int slot = find(first, second, maxRounds, tag);
+        if (slot < 0) {
+            if (size >= capacity) {
+                remove(oldestSample(tag));
+            }
+            slot = (int) tag & mask;
+            while (map.getLong(offset(slot) + TAG) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            int base = offset(slot);
+            putStats(base + FIRST, first);
+            putStats(base + SECOND, second);
+            map.putInt(base + MAX_ROUNDS, maxRounds);
+            writeResult(base, result);
+            // Kennung zuletzt, damit ein halb geschriebener Platz leer bleibt
+            map.putLong(base + TAG, tag);
+            map.putInt(SIZE, ++size);
+        } else if (result.fights() >= map.getLong(offset(slot) + RESULT)) {
+            writeResult(offset(slot), result);
+        } else {
+            map.putLong(offset(slot) + STAMP, ++clock);
+        }
+    }
+
+    /**
+     * Liefert ein gespeichertes Ergebnis mit mindestens {@code fights}
+     * Kämpfen oder simuliert die Paarung und speichert das neue Ergebnis.
+     *
+     * Gespeicherte Ergebnisse gelten nur, wenn sie mit derselben
+     * {@link MonteCarloSimulator#maxRounds() Obergrenze an Angriffen} wie
+     * die des Simulators entstanden sind.
+     *
+     * @param simulator der Simulator für fehlende Ergebnisse
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Mindestanzahl an Kämpfen (darf nicht negativ sein)
+     * @return das gespeicherte oder neu simulierte Ergebnis
+     * @throws IllegalArgumentException wenn ein Parameter null oder fights negativ ist
+     */
+    public SimulationResult simulate(MonteCarloSimulator simulator, WarriorSpec first, WarriorSpec second,
+                                     long fights) {
+        if (simulator == null) {
+            throw new IllegalArgumentException("Simulator darf nicht null sein");
+        }
+        SimulationResult cached = get(first, second, simulator.maxRounds());
+        if (cached != null && cached.fights() >= fights) {
+            return cached;
+        }
+        SimulationResult result = simulator.simulate(first, second, fights);
+        put(first, second, simulator.maxRounds(), result);
+        return result;
+    }
+
+    /**
+     * Gibt die Anzahl der gespeicherten Ergebnisse zurück.
+     *
+     * @return die Anzahl der Einträge
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gibt die Kapazität zurück.
+     *
+     * @return die maximale Anzahl an Einträgen
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Verwirft alle gespeicherten Ergebnisse.
+     */
+    public synchronized void clear() {
+        clearSlots();
+    }
+
+    /**
+     * Schreibt alle Änderungen auf den Datenträger.
+     */
+    public synchronized void force() {
+        map.putLong(CLOCK, clock);
+        map.force();
+    }
+
+    /**
+     * Schreibt alle Änderungen auf den Datenträger und schließt die Datei.
+     *
+     * @throws IOException wenn das Schließen fehlschlägt
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        force();
+        lock.release();
+        channel.close();
+    }
+
+    private void clearSlots() {
+        for (int slot = 0; slot <= mask; slot++) {
+            map.putLong(offset(slot) + TAG, 0L);
+        }
+        size = 0;
+        clock = 0;
+        map.putInt(SIZE, 0).putLong(CLOCK, 0L);
+    }
+
+    /**
+     * Sucht den Platz einer Paarung.
+     *
+     * @return der Platz oder -1
+     */
+    private int find(WarriorSpec first, WarriorSpec second, int maxRounds, long tag) {
+        for (int slot = (int) tag & mask; ; slot = (slot + 1) & mask) {
+            int base = offset(slot);
+            long stored = map.getLong(base + TAG);
+            if (stored == 0) {
+                return -1;
+            }
+            if (stored == tag && sameStats(base + FIRST, first) && sameStats(base + SECOND, second)
+                    && map.getInt(base + MAX_ROUNDS) == maxRounds) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Wählt aus einer Stichprobe belegter Plätze den am längsten nicht verwendeten.
+     */
+    private int oldestSample(long seed) {
+        int oldest = -1;
+        long oldestStamp = Long.MAX_VALUE;
+        long s = seed;
+        for (int found = 0; found < EVICTION_SAMPLE; ) {
+            s = SplitMixRandom.streamSeed(s, clock);
+            int slot = (int) s & mask;
+            // Zum nächsten belegten Platz weitergehen; bei vollem Speicher gibt es einen
+            while (map.getLong(offset(slot) + TAG) == 0) {
+                slot = (slot + 1) & mask;
+            }
+            long stamp = map.getLong(offset(slot) + STAMP);
+            if (stamp < oldestStamp) {
+                oldestStamp = stamp;
+                oldest = slot;
+            }
+            found++;
+        }
+        return oldest;
+    }
+
+    /**
+     * Entfernt einen Eintrag und rückt nachfolgende Einträge derselben
+     * Sondierungskette nach, sodass keine Grabsteine nötig sind.
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            long tag = map.getLong(offset(next) + TAG);
+            if (tag == 0) {
+                break;
+            }
+            int home = (int) tag & mask;
+            // Darf der Eintrag in das Loch, ohne vor seinen Heimatplatz zu rutschen?
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                map.put(offset(hole), map, offset(next), SLOT);
+                hole = next;
+            }
+        }
+        map.putLong(offset(hole) + TAG, 0L);
+        map.putInt(SIZE, --size);
+    }
+
+    private void writeResult(int base, SimulationResult result) {
+        map.putLong(base + STAMP, ++clock);
+        int r = base + RESULT;
+        map.putLong(r, result.fights()).putLong(r + 8, result.firstWins()).putLong(r + 16, result.secondWins())
+                .putLong(r + 24, result.draws()).putLong(r + 32, result.rounds())
+                .putLong(r + 40, result.roundsSquared()).putLong(r + 48, result.firstHits())
+                .putLong(r + 56, result.firstDamage()).putLong(r + 64, result.secondHits())
+                .putLong(r + 72, result.secondDamage()).putInt(r + 80, result.maxHit());
+    }
+
+    private void putStats(int at, WarriorSpec spec) {
+        map.putInt(at + HEALTH, spec.health()).putInt(at + ATTK_MAX, spec.attkMax())
+                .putInt(at + BLOCK_MAX, spec.blockMax())
+                .putLong(at + DODGE, Double.doubleToLongBits(spec.dodgePercent()));
+    }
+
+    private boolean sameStats(int at, WarriorSpec spec) {
+        return map.getInt(at + HEALTH) == spec.health() && map.getInt(at + ATTK_MAX) == spec.attkMax()
+                && map.getInt(at + BLOCK_MAX) == spec.blockMax()
+                && map.getLong(at + DODGE) == Double.doubleToLongBits(spec.dodgePercent());
+    }
+
+    private static int offset(int slot) {
+        return FILE_HEADER + slot * SLOT;
+    }
+
+    /**
+     * Hashwert einer Paarung, nie 0, damit 0 einen leeren Platz markiert.
+     */
+    private static long tag(WarriorSpec first, WarriorSpec second, int maxRounds) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        long h = maxRounds;
+        for (WarriorSpec spec : new WarriorSpec[] {first, second}) {
+            h = SplitMixRandom.streamSeed(h, spec.health());
+            h = SplitMixRandom.streamSeed(h, spec.attkMax());
+            h = SplitMixRandom.streamSeed(h, spec.blockMax());
+            h = SplitMixRandom.streamSeed(h, Double.doubleToLongBits(spec.dodgePercent()));
+        }
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,31 @@
+package com.battlegame.warriors;
+
+/**
+ * Exakte Gewinnwahrscheinlichkeiten einer Paarung.
+ *
+ * Eine Runde bezeichnet wie in {@link SimulationResult} einen einzelnen Angriff.
+ *
+ * @param firstWinProbability Wahrscheinlichkeit, dass der erste Krieger gewinnt
+ * @param secondWinProbability Wahrscheinlichkeit, dass der zweite Krieger gewinnt
+ * @param drawProbability Wahrscheinlichkeit, dass keiner der beiden je Schaden verursacht
+ * @param expectedRounds erwartete Anzahl an Angriffen, unendlich bei sicherem Unentschieden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MatchupSolver
+ */
+public record MatchupOdds(double firstWinProbability, double secondWinProbability,
+                          double drawProbability, double expectedRounds) {
+
+    /**
+     * Gibt eine String-Repräsentation der Wahrscheinlichkeiten zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("MatchupOdds{firstWin=%.6f, secondWin=%.6f, draw=%.6f, expectedRounds=%.3f}",
+                firstWinProbability, secondWinProbability, drawProbability, expectedRounds);
+    }
+}
@@ -0,0 +1,249 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exakte Berechnung von Gewinnwahrscheinlichkeiten per dynamischer Programmierung.
+ *
+ * Ein Kampf ist eine Markow-Kette über die Zustände (Gesundheit des ersten
+ * Kriegers, Gesundheit des zweiten Kriegers, wer angreift). Mit den exakten
+ * {@link DamageDistribution Schadensverteilungen} beider Richtungen lassen
+ * sich Gewinnwahrscheinlichkeit und erwartete Kampflänge für jeden Zustand
+ * aus Zuständen mit geringerer Gesundheit berechnen. Angriffe ohne Schaden
+ * erzeugen eine Schleife zwischen den beiden Zügen desselben Zustands, die
+ * geschlossen aufgelöst wird.
+ *
+ * Die Tabelle einer Paarung hängt nur von Angriffs-, Block- und Ausweichwerten
+ * ab. Sie wird zeilenweise (eine Zeile je Gesundheit des ersten Kriegers)
+ * aufgebaut, zwischengespeichert und für alle späteren Anfragen mit gleicher
+ * oder geringerer Gesundheit wiederverwendet; nur fehlende Zeilen werden
+ * ergänzt. Eine Tabelle für 800 gegen 800 Gesundheit belegt rund 20 MB;
+ * gespeichert werden daher höchstens {@code capacity} Tabellen, die am
+ * längsten nicht verwendeten werden verworfen.
+ *
+ * Die Klasse ist threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MatchupOdds
+ * @see DamageDistribution
+ */
+public final class MatchupSolver {
+
+    /** Standardkapazität in Tabellen. */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final int capacity;
+
+    /** Tabellen je Paarung, unabhängig von der Startgesundheit; nur unter der Sperre verwendet. */
+    private final LinkedHashMap<Key, Table> tables;
+
+    /**
+     * Erstellt einen Solver, der bis zu {@link #DEFAULT_CAPACITY} Tabellen speichert.
+     */
+    public MatchupSolver() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Erstellt einen Solver mit der angegebenen Kapazität.
+     *
+     * @param capacity maximale Anzahl an gespeicherten Tabellen (muss positiv sein)
+     * @throws IllegalArgumentException wenn capacity nicht positiv ist
+     */
+    public MatchupSolver(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Kapazität muss positiv sein");
+        }
+        this.capacity = capacity;
+        this.tables = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Table> eldest) {
+                return size() > MatchupSolver.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Berechnet die exakten Gewinnwahrscheinlichkeiten einer Paarung.
+     *
+     * Wie in {@link BattleEngine#startFight(Warrior, Warrior)} greift
+     * {@code first} zuerst an; eine Obergrenze an Angriffen gibt es nicht.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @return die exakten Wahrscheinlichkeiten und die erwartete Kampflänge
+     * @throws IllegalArgumentException wenn eine Spezifikation null ist
+     */
+    public MatchupOdds solve(WarriorSpec first, WarriorSpec second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        Key key = new Key(first.attkMax(), first.blockMax(), first.dodgePercent(),
+                second.attkMax(), second.blockMax(), second.dodgePercent());
+        Table table;
+        synchronized (tables) {
+            // Die Zeilen entstehen erst in odds(), außerhalb dieser Sperre
+            table = tables.computeIfAbsent(key,
+                    k -> new Table(DamageDistribution.of(first, second), DamageDistribution.of(second, first)));
+        }
+        return table.odds(first.health(), second.health());
+    }
+
+    /**
+     * Gibt die Anzahl der gespeicherten Tabellen zurück.
+     *
+     * @return die Anzahl der Tabellen
+     */
+    public int size() {
+        synchronized (tables) {
+            return tables.size();
+        }
+    }
+
+    /**
+     * Gibt die Kapazität zurück.
+     *
+     * @return die maximale Anzahl an Tabellen
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Verwirft alle zwischengespeicherten Tabellen.
+     */
+    public void clear() {
+        synchronized (tables) {
+            tables.clear();
+        }
+    }
+
+    /**
+     * Schlüssel einer Paarung ohne Gesundheitswerte.
+     */
+    private record Key(int firstAttkMax, int firstBlockMax, double firstDodge,
+                       int secondAttkMax, int secondBlockMax, double secondDodge) {
+    }
+
+    /**
+     * Zeile der Tabelle für eine feste Gesundheit des ersten Kriegers.
+     *
+     * Index jeder Spalte ist die Gesundheit des zweiten Kriegers.
+     *
+     * @param f Siegwahrscheinlichkeit des ersten Kriegers, wenn er angreift
+     * @param g Siegwahrscheinlichkeit des ersten Kriegers, wenn der zweite angreift
+     * @param ef erwartete restliche Angriffe, wenn der erste angreift
+     * @param eg erwartete restliche Angriffe, wenn der zweite angreift
+     */
+    private record Row(double[] f, double[] g, double[] ef, double[] eg) {
+    }
+
+    /**
+     * DP-Tabelle einer Paarung, die bei Bedarf wächst.
+     */
+    private static final class Table {
+
+        /** Schadensverteilung des ersten gegen den zweiten Krieger. */
+        private final double[] p;
+
+        /** Schadensverteilung des zweiten gegen den ersten Krieger. */
+        private final double[] q;
+
+        /** tail[b] = Wahrscheinlichkeit, mit einem Angriff mindestens b Schaden zu verursachen. */
+        private final double[] tail;
+
+        /**
+         * Kann keiner der beiden je Schaden verursachen, endet jeder Kampf
+         * unentschieden; das gilt auch bei längeren Verteilungen, etwa wenn
+         * beide immer ausweichen.
+         */
+        private final boolean stalemate;
+
+        /** Zeilen je Gesundheit des ersten Kriegers; Zeile 0 ist unbenutzt. */
+        private final List<Row> rows = new ArrayList<>();
+
+        /** Größte berechnete Gesundheit des zweiten Kriegers. */
+        private int width;
+
+        Table(DamageDistribution firstToSecond, DamageDistribution secondToFirst) {
+            p = firstToSecond.toArray();
+            q = secondToFirst.toArray();
+            stalemate = p[0] == 1.0 && q[0] == 1.0;
+            tail = new double[p.length + 1];
+            for (int d = p.length - 1; d >= 1; d--) {
+                tail[d] = tail[d + 1] + p[d];
+            }
+        }
+
+        synchronized MatchupOdds odds(int firstHealth, int secondHealth) {
+            if (stalemate) {
+                return new MatchupOdds(0.0, 0.0, 1.0, Double.POSITIVE_INFINITY);
+            }
+            if (secondHealth > width) {
+                // Breitere Zeilen erfordern einen Neuaufbau; großzügig wachsen
+                width = Math.max(secondHealth, width + width / 2);
+                rows.clear();
+            }
+            if (rows.isEmpty()) {
+                rows.add(null);
+            }
+            while (rows.size() <= firstHealth) {
+                rows.add(computeRow(rows.size()));
+            }
+            Row row = rows.get(firstHealth);
+            // Rundungsfehler dürfen die Wahrscheinlichkeiten nicht aus [0, 1] schieben
+            double firstWins = Math.min(1.0, Math.max(0.0, row.f[secondHealth]));
+            return new MatchupOdds(firstWins, 1.0 - firstWins, 0.0, row.ef[secondHealth]);
+        }
+
+        /**
+         * Berechnet die Zeile für Gesundheit {@code a} des ersten Kriegers aus den vorherigen Zeilen.
+         */
+        private Row computeRow(int a) {
+            double p0 = p[0];
+            double q0 = q[0];
+            double denom = 1.0 - p0 * q0;
+
+            // Beiträge der Angriffe des zweiten Kriegers: führen in frühere Zeilen
+            double[] rg = new double[width + 1];
+            double[] sg = new double[width + 1];
+            int maxQ = Math.min(a - 1, q.length - 1);
+            for (int d = 1; d <= maxQ; d++) {
+                double qd = q[d];
+                if (qd == 0.0) {
+                    continue;
+                }
+                Row prev = rows.get(a - d);
+                for (int b = 1; b <= width; b++) {
+                    rg[b] += qd * prev.f[b];
+                    sg[b] += qd * prev.ef[b];
+                }
+            }
+
+            // Beiträge der Angriffe des ersten Kriegers: führen in frühere Spalten derselben Zeile
+            double[] f = new double[width + 1];
+            double[] g = new double[width + 1];
+            double[] ef = new double[width + 1];
+            double[] eg = new double[width + 1];
+            for (int b = 1; b <= width; b++) {
+                double rf = b < tail.length ? tail[b] : 0.0;
+                double sf = 0.0;
+                int maxP = Math.min(b - 1, p.length - 1);
+                for (int d = 1; d <= maxP; d++) {
+                    rf += p[d] * g[b - d];
+                    sf += p[d] * eg[b - d];
+                }
+                f[b] = (rf + p0 * rg[b]) / denom;
+                g[b] = q0 * f[b] + rg[b];
+                ef[b] = (1.0 + sf + p0 * (1.0 + sg[b])) / denom;
+                eg[b] = 1.0 + q0 * ef[b] + sg[b];
+            }
+            return new Row(f, g, ef, eg);
+        }
+    }
+}
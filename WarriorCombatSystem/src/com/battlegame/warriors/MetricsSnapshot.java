@@ -0,0 +1,76 @@
+package com.battlegame.warriors;
+
+/**
+ * Unveränderliche Momentaufnahme der {@link CombatMetrics}.
+ *
+ * Eine Runde bezeichnet wie in {@link SimulationResult} einen einzelnen Angriff.
+ *
+ * @param fights Anzahl der beendeten Kämpfe
+ * @param draws davon ohne Sieger
+ * @param attacks Anzahl der Angriffe
+ * @param hits Angriffe mit positivem Schaden
+ * @param dodges Angriffe, denen ausgewichen wurde
+ * @param dodgeChances Angriffe auf ausweichfähige Krieger
+ * @param totalDamage Summe des angewendeten Schadens
+ * @param damage Verteilung des Schadens je Angriff
+ * @param rounds Verteilung der Angriffe je Kampf
+ * @param fightNanos Verteilung der Kampfdauer in Nanosekunden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatMetrics
+ */
+public record MetricsSnapshot(long fights, long draws, long attacks, long hits, long dodges,
+                              long dodgeChances, long totalDamage, HistogramSnapshot damage,
+                              HistogramSnapshot rounds, HistogramSnapshot fightNanos) {
+
+    /**
+     * Gibt den Anteil der Angriffe mit positivem Schaden zurück.
+     *
+     * @return die Trefferquote oder 0 ohne Angriffe
+     */
+    public double hitRate() {
+        return attacks == 0 ? 0.0 : (double) hits / attacks;
+    }
+
+    /**
+     * Gibt den Anteil der Angriffe auf ausweichfähige Krieger zurück, denen ausgewichen wurde.
+     *
+     * @return die Ausweichquote oder 0 ohne solche Angriffe
+     */
+    public double dodgeRate() {
+        return dodgeChances == 0 ? 0.0 : (double) dodges / dodgeChances;
+    }
+
+    /**
+     * Gibt den exakten mittleren Schaden je Angriff zurück.
+     *
+     * @return der mittlere Schaden oder 0 ohne Angriffe
+     */
+    public double meanDamage() {
+        return attacks == 0 ? 0.0 : (double) totalDamage / attacks;
+    }
+
+    /**
+     * Gibt die exakte mittlere Anzahl an Angriffen je Kampf zurück.
+     *
+     * @return die mittlere Kampflänge oder 0 ohne Kämpfe
+     */
+    public double meanRounds() {
+        return fights == 0 ? 0.0 : (double) attacks / fights;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation der Kennzahlen zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("MetricsSnapshot{fights=%d, draws=%d, attacks=%d, hitRate=%.4f, dodgeRate=%.4f, "
+                        + "meanDamage=%.3f, meanRounds=%.3f, damage=%s, rounds=%s, fightNanos=%s}",
+                fights, draws, attacks, hitRate(), dodgeRate(), meanDamage(), meanRounds(),
+                damage, rounds, fightNanos);
+    }
+}
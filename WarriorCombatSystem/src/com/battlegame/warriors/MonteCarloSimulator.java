@@ -0,0 +1,389 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallele Monte-Carlo-Simulation von Kämpfen zur Bestimmung von Siegquoten.
+ *
+ * Der Simulator führt eine große Anzahl unabhängiger Kämpfe zwischen zwei
+ * {@link WarriorSpec Spezifikationen} aus und fasst die Ergebnisse zu einem
+ * {@link SimulationResult} zusammen. Die Kämpfe werden per Fork/Join rekursiv
+ * auf alle Kerne verteilt; jeder Teilauftrag sammelt seine Statistik lokal,
+ * die Teilergebnisse werden erst beim Zusammenführen addiert.
+ *
+ * Jeder Kampf erzeugt eigene Warrior-Objekte über {@link WarriorSpec#newWarrior()},
+ * sodass kein Thread jemals das veränderliche {@link Warrior#health}-Feld eines
+ * anderen Kampfes sieht. Gekämpft wird mit {@link BattleEngine#HEADLESS};
+ * jeder Kampf erhält einen eigenen, aus dem Startwert der Simulation
+ * abgeleiteten Zufallsstrom.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see SimulationResult
+ * @see BattleEngine
+ */
+public final class MonteCarloSimulator {
+
+    /**
+     * Standard-Obergrenze für Angriffe pro Kampf, danach gilt der Kampf als unentschieden.
+     */
+    public static final int DEFAULT_MAX_ROUNDS = 10_000;
+
+    /**
+     * Mindestanzahl an Kämpfen pro Teilauftrag, unterhalb derer nicht weiter geteilt wird.
+     */
+    private static final long MIN_CHUNK = 1_024;
+
+    /**
+     * Standardabstand zwischen zwei Checkpoints in Kämpfen, einige Sekunden Rechenzeit.
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 1L << 22;
+
+    /** Pool, auf dem die Teilaufträge ausgeführt werden. */
+    private final ForkJoinPool pool;
+
+    /** Obergrenze für Angriffe pro Kampf. */
+    private final int maxRounds;
+
+    /**
+     * Erstellt einen Simulator auf dem gemeinsamen Fork/Join-Pool.
+     */
+    public MonteCarloSimulator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * Erstellt einen Simulator mit eigenem Pool und eigener Angriffsgrenze.
+     *
+     * @param pool Pool, auf dem die Kämpfe ausgeführt werden
+     * @param maxRounds maximale Anzahl an Angriffen pro Kampf (muss positiv sein)
+     * @throws IllegalArgumentException wenn pool null oder maxRounds nicht positiv ist
+     */
+    public MonteCarloSimulator(ForkJoinPool pool, int maxRounds) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool darf nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        this.pool = pool;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Gibt die Obergrenze an Angriffen pro Kampf zurück.
+     *
+     * @return die maximale Anzahl an Angriffen pro Kampf
+     */
+    public int maxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * Simuliert die angegebene Anzahl an Kämpfen zwischen zwei Kriegern
+     * mit einem zufälligen Startwert.
+     *
+     * In jedem Kampf greift {@code first} zuerst an.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der zu simulierenden Kämpfe (darf nicht negativ sein)
+     * @return das zusammengefasste Ergebnis aller Kämpfe
+     * @throws IllegalArgumentException wenn eine Spezifikation null oder fights negativ ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights) {
+        return simulate(first, second, fights, SplitMixRandom.randomSeed());
+    }
+
+    /**
+     * Simuliert die angegebene Anzahl an Kämpfen mit festem Startwert.
+     *
+     * Kampf Nummer {@code i} verwendet den Startwert
+     * {@link SplitMixRandom#streamSeed(long, long) streamSeed(seed, i)}. Das
+     * Ergebnis ist daher für denselben Startwert unabhängig von der Anzahl der
+     * Threads immer identisch, und jeder einzelne Kampf lässt sich nachspielen.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der zu simulierenden Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert der Simulation
+     * @return das zusammengefasste Ergebnis aller Kämpfe
+     * @throws IllegalArgumentException wenn eine Spezifikation null oder fights negativ ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights, long seed) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        if (fights < 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe darf nicht negativ sein");
+        }
+        if (fights == 0) {
+            return SimulationResult.EMPTY;
+        }
+        long chunk = Math.max(MIN_CHUNK, fights / (pool.getParallelism() * 8L));
+        return pool.invoke(new FightRange(first, second, seed, 0, fights, chunk, maxRounds));
+    }
+
+    /**
+     * Simuliert nur die Kämpfe {@code from} bis ausschließlich {@code to}.
+     *
+     * Die Kämpfe verwenden dieselben Startwerte wie in
+     * {@link #simulate(WarriorSpec, WarriorSpec, long, long)}; die Ergebnisse
+     * lückenloser Bereiche ergeben über {@link SimulationResult#merge}
+     * bitgenau das Gesamtergebnis. Die Parameter prüft der Aufrufer.
+     */
+    SimulationResult simulateRange(WarriorSpec first, WarriorSpec second, long seed, long from, long to) {
+        if (from >= to) {
+            return SimulationResult.EMPTY;
+        }
+        long chunk = Math.max(MIN_CHUNK, (to - from) / (pool.getParallelism() * 8L));
+        return pool.invoke(new FightRange(first, second, seed, from, to, chunk, maxRounds));
+    }
+
+    /**
+     * Simuliert Kämpfe mit festem Startwert und sichert den Fortschritt in
+     * einer Checkpoint-Datei.
+     *
+     * Entspricht {@link #simulate(WarriorSpec, WarriorSpec, long, long, Path, long)}
+     * mit {@link #DEFAULT_CHECKPOINT_INTERVAL}.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der zu simulierenden Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert der Simulation
+     * @param checkpoint die Checkpoint-Datei
+     * @return das zusammengefasste Ergebnis aller Kämpfe
+     * @throws IOException wenn die Checkpoint-Datei nicht verwendet werden kann
+     * @throws IllegalArgumentException wenn eine Spezifikation oder checkpoint null
+     *                                  oder fights negativ ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights, long seed,
+                                     Path checkpoint) throws IOException {
+        return simulate(first, second, fights, seed, checkpoint, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Simuliert Kämpfe mit festem Startwert und sichert den Fortschritt in
+     * einer Checkpoint-Datei.
+     *
+     * Die Kämpfe laufen in Abschnitten zu {@code interval} Kämpfen; nach
+     * jedem Abschnitt wird dessen Teilergebnis an das {@link CheckpointLog}
+     * angehängt, während der nächste Abschnitt bereits rechnet. Enthält die
+     * Datei Abschnitte eines abgebrochenen Laufs mit denselben Parametern,
+     * setzt die Simulation hinter dem letzten gesicherten Abschnitt fort; nur
+     * die Kämpfe der beim Abbruch laufenden Abschnitte werden wiederholt. Da
+     * Kampf {@code i} immer den Startwert {@code streamSeed(seed, i)}
+     * verwendet, ist das Ergebnis bitgenau dasselbe wie das von
+     * {@link #simulate(WarriorSpec, WarriorSpec, long, long)}. Ein bereits
+     * abgeschlossener Lauf liefert sein Ergebnis sofort aus der Datei.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der zu simulierenden Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert der Simulation
+     * @param checkpoint die Checkpoint-Datei
+     * @param interval Kämpfe je Abschnitt (muss positiv sein)
+     * @return das zusammengefasste Ergebnis aller Kämpfe
+     * @throws IOException wenn die Checkpoint-Datei nicht verwendet werden kann
+     *                     oder zu einem anderen Lauf gehört
+     * @throws IllegalArgumentException wenn eine Spezifikation oder checkpoint null,
+     *                                  fights negativ oder interval nicht positiv ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights, long seed,
+                                     Path checkpoint, long interval) throws IOException {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        if (fights < 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe darf nicht negativ sein");
+        }
+        if (checkpoint == null) {
+            throw new IllegalArgumentException("Checkpoint-Datei darf nicht null sein");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Abstand der Checkpoints muss positiv sein");
+        }
+        try (CheckpointLog log = new CheckpointLog(checkpoint, runKey(first, second, fights, seed))) {
+            SimulationResult total = SimulationResult.EMPTY;
+            long done = 0;
+            for (ByteBuffer record : log.records()) {
+                long from = record.getLong();
+                long to = record.getLong();
+                if (from != done || to <= from || to > fights) {
+                    throw new IOException("Checkpoint-Datei enthält keinen lückenlosen Fortschritt");
+                }
+                total = total.merge(SimulationResult.readFrom(record));
+                done = to;
+            }
+
+            // Teilaufträge wie ohne Checkpoints, aber jeder Abschnitt verteilt sich auf alle Threads
+            int parallelism = pool.getParallelism();
+            long chunk = Math.max(MIN_CHUNK, Math.min(fights / (parallelism * 8L), interval / parallelism));
+            ByteBuffer record = ByteBuffer.allocate(2 * Long.BYTES + SimulationResult.BYTES);
+            FightRange current = segment(first, second, seed, done, fights, interval, chunk);
+            FightRange next = null;
+            try {
+                while (current != null) {
+                    // Der nächste Abschnitt rechnet bereits, während der aktuelle ausläuft
+                    next = segment(first, second, seed, current.to, fights, interval, chunk);
+                    SimulationResult part = current.join();
+                    record.clear();
+                    record.putLong(current.from).putLong(current.to);
+                    part.writeTo(record);
+                    log.append(record.flip());
+                    total = total.merge(part);
+                    current = next;
+                }
+            } catch (RuntimeException e) {
+                // Vorab gestartete Abschnitte nicht weiterrechnen lassen
+                if (current != null) {
+                    current.cancel(true);
+                }
+                if (next != null) {
+                    next.cancel(true);
+                }
+                throw e;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Startet den Abschnitt ab {@code from} auf dem Pool.
+     *
+     * @return der laufende Abschnitt oder {@code null}, wenn alle Kämpfe vergeben sind
+     */
+    private FightRange segment(WarriorSpec first, WarriorSpec second, long seed, long from, long fights,
+                               long interval, long chunk) {
+        if (from >= fights) {
+            return null;
+        }
+        FightRange range = new FightRange(first, second, seed, from, Math.min(fights, from + interval),
+                chunk, maxRounds);
+        pool.execute(range);
+        return range;
+    }
+
+    /**
+     * Schlüssel eines Laufs über alle Werte, die sein Ergebnis bestimmen.
+     */
+    private long runKey(WarriorSpec first, WarriorSpec second, long fights, long seed) {
+        long h = SplitMixRandom.streamSeed(seed, fights);
+        h = SplitMixRandom.streamSeed(h, maxRounds);
+        for (WarriorSpec spec : new WarriorSpec[] {first, second}) {
+            h = SplitMixRandom.streamSeed(h, spec.health());
+            h = SplitMixRandom.streamSeed(h, spec.attkMax());
+            h = SplitMixRandom.streamSeed(h, spec.blockMax());
+            h = SplitMixRandom.streamSeed(h, Double.doubleToLongBits(spec.dodgePercent()));
+        }
+        return h;
+    }
+
+    /**
+     * Teilauftrag über einen zusammenhängenden Bereich von Kämpfen.
+     */
+    private static final class FightRange extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FightRange root;
+        private final WarriorSpec first;
+        private final WarriorSpec second;
+        private final long seed;
+        private final long from;
+        private final long to;
+        private final long chunk;
+        private final int maxRounds;
+
+        FightRange(WarriorSpec first, WarriorSpec second, long seed,
+                   long from, long to, long chunk, int maxRounds) {
+            this(null, first, second, seed, from, to, chunk, maxRounds);
+        }
+
+        private FightRange(FightRange root, WarriorSpec first, WarriorSpec second, long seed,
+                           long from, long to, long chunk, int maxRounds) {
+            this.root = root == null ? this : root;
+            this.first = first;
+            this.second = second;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.maxRounds = maxRounds;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            // Ein abgebrochener Abschnitt verwirft sein Ergebnis; Teilaufträge enden sofort
+            if (root.isCancelled()) {
+                return SimulationResult.EMPTY;
+            }
+            if (to - from <= chunk) {
+                return runSequentially();
+            }
+            long mid = from + (to - from) / 2;
+            FightRange left = new FightRange(root, first, second, seed, from, mid, chunk, maxRounds);
+            FightRange right = new FightRange(root, first, second, seed, mid, to, chunk, maxRounds);
+            left.fork();
+            SimulationResult rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private SimulationResult runSequentially() {
+            Accumulator acc = new Accumulator();
+            SplitMixRandom rng = new SplitMixRandom(0);
+            try {
+                for (long i = from; i < to; i++) {
+                    rng.setState(SplitMixRandom.streamSeed(seed, i));
+                    acc.fight(first.newWarrior(), second.newWarrior(), maxRounds, rng);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Simulation wurde unterbrochen", e);
+            }
+            return acc.toResult();
+        }
+    }
+
+    /**
+     * Sammelt die Statistik eines Teilauftrags.
+     *
+     * Treffer und Schaden zählt die Engine direkt mit, sodass die Kämpfe
+     * ohne {@link BattleReporter} auf dem schnellen Pfad der Engine laufen.
+     * Jede Instanz wird nur von einem Thread verwendet.
+     */
+    private static final class Accumulator {
+
+        private final BattleEngine.Tally tally = new BattleEngine.Tally();
+        private long fights;
+        private long firstWins;
+        private long secondWins;
+        private long draws;
+        private long rounds;
+        private long roundsSquared;
+
+        void fight(Warrior first, Warrior second, int maxRounds, CombatRandom rng) throws InterruptedException {
+            Warrior winner = BattleEngine.HEADLESS.tallyFight(first, second, maxRounds, rng, tally);
+            if (winner == null) {
+                draws++;
+            } else if (winner == first) {
+                firstWins++;
+            } else {
+                secondWins++;
+            }
+            fights++;
+            rounds += tally.rounds;
+            roundsSquared += (long) tally.rounds * tally.rounds;
+        }
+
+        SimulationResult toResult() {
+            return new SimulationResult(fights, firstWins, secondWins, draws, rounds, roundsSquared,
+                    tally.firstHits, tally.firstDamage, tally.secondHits, tally.secondDamage, tally.maxHit);
+        }
+    }
+}
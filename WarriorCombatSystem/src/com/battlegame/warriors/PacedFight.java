@@ -0,0 +1,151 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ein getakteter Kampf im {@link PacedFightScheduler}.
+ *
+ * Der Kampf ist ein Zustandsautomat: Jeder Aufruf von {@link #step()} führt
+ * genau einen Schritt aus, den der Scheduler im Takt der Pause auslöst. Die
+ * Schritte und ihre Meldungen entsprechen
+ * {@link BattleEngine#startFight(Warrior, Warrior, int, CombatRandom)} mit
+ * schlafender Taktung: ein Angriff je Schritt, der Tod des Verlierers wird
+ * wie dort erst nach der folgenden Pause gemeldet.
+ *
+ * Instanzen sind threadsicher; die Schritte laufen auf einem Thread des
+ * Schedulers. Schritt und Abbruch schließen sich gegenseitig aus.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see PacedFightScheduler
+ */
+public final class PacedFight {
+
+    private final Warrior first;
+    private final Warrior second;
+    private final BattleEngine engine;
+    private final BattleReporter reporter;
+    private final int maxRounds;
+    private final CombatRandom rng;
+    private final CompletableFuture<Warrior> result = new CompletableFuture<>();
+    private volatile int rounds;
+
+    /** Sieger des letzten Angriffs, dessen Tod im nächsten Schritt gemeldet wird. */
+    private Warrior victor;
+
+    PacedFight(Warrior first, Warrior second, BattleEngine engine, int maxRounds, CombatRandom rng) {
+        this.first = first;
+        this.second = second;
+        this.engine = engine;
+        this.reporter = engine.getReporter();
+        this.maxRounds = maxRounds;
+        this.rng = rng;
+    }
+
+    /**
+     * Gibt den zuerst angreifenden Krieger zurück.
+     *
+     * @return der erste Krieger
+     */
+    public Warrior first() {
+        return first;
+    }
+
+    /**
+     * Gibt den zweiten Krieger zurück.
+     *
+     * @return der zweite Krieger
+     */
+    public Warrior second() {
+        return second;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher ausgeführten Angriffe zurück.
+     *
+     * @return die Anzahl der Angriffe
+     */
+    public int rounds() {
+        return rounds;
+    }
+
+    /**
+     * Gibt das Ergebnis des Kampfes zurück.
+     *
+     * Wird mit dem Sieger abgeschlossen, mit {@code null} bei Unentschieden
+     * oder mit einer {@link java.util.concurrent.CancellationException}, wenn
+     * der Kampf abgebrochen wurde. Abgebrochen wird der Kampf über
+     * {@link #cancel()}, nicht über das Future.
+     *
+     * @return das Ergebnis als Future
+     */
+    public CompletableFuture<Warrior> result() {
+        return result;
+    }
+
+    /**
+     * Prüft, ob der Kampf beendet oder abgebrochen ist.
+     *
+     * @return {@code true} wenn kein weiterer Schritt folgt
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /**
+     * Bricht den Kampf ab.
+     *
+     * Ein gerade laufender Angriff wird noch zu Ende geführt; der Aufruf
+     * wartet darauf. Nach der Rückkehr beginnt kein weiterer Angriff.
+     *
+     * @return {@code true} wenn der Kampf durch diesen Aufruf abgebrochen wurde
+     */
+    public synchronized boolean cancel() {
+        return result.cancel(false);
+    }
+
+    /**
+     * Meldet den Beginn des Kampfes.
+     */
+    void start() {
+        reporter.fightStarted(first, second);
+    }
+
+    /**
+     * Führt den nächsten Schritt aus.
+     *
+     * @return {@code true} wenn ein weiterer Schritt folgt
+     */
+    synchronized boolean step() {
+        if (result.isDone()) {
+            return false;
+        }
+        if (victor != null) {
+            Warrior loser = victor == first ? second : first;
+            reporter.died(loser, victor);
+            reporter.fightEnded(victor, loser, rounds);
+            result.complete(victor);
+            return false;
+        }
+        if (rounds == maxRounds) {
+            reporter.fightDrawn(first, second, rounds);
+            result.complete(null);
+            return false;
+        }
+        Warrior attacker = (rounds & 1) == 0 ? first : second;
+        Warrior defender = attacker == first ? second : first;
+        rounds++;
+        if (engine.hit(attacker, defender, rng) == AttackOutcome.GAME_OVER) {
+            victor = attacker;
+        }
+        return true;
+    }
+
+    /**
+     * Schließt den Kampf mit einem Fehler ab.
+     */
+    void fail(Throwable t) {
+        result.completeExceptionally(t);
+    }
+}
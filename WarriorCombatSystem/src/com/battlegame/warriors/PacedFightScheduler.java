@@ -0,0 +1,317 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Führt viele getaktete Kämpfe auf wenigen Threads aus.
+ *
+ * {@link BattlePacer#sleeping(long)} hält für jeden Kampf einen Thread für
+ * die gesamte Kampfdauer schlafend fest. Dieser Scheduler zerlegt jeden Kampf
+ * stattdessen in Schritte ({@link PacedFight}) und verteilt die Kämpfe auf
+ * wenige Träger-Threads. Jeder Träger führt ein {@link TimingWheel} mit
+ * Zügen von einer Millisekunde, schläft bis zum nächsten Zug, in dem das Rad
+ * etwas zu tun hat, holt die verstrichenen Züge nach und führt dabei die
+ * fälligen Schritte aus; ein Schritt plant den nächsten eine Pause später
+ * ein. Die Zeitpunkte werden aus dem Startzeitpunkt berechnet, nicht aus der
+ * Dauer der Schritte; ein verspäteter Zug verschiebt daher keine späteren.
+ * Ohne Kämpfe schläft ein Träger, bis ein neuer Kampf eintrifft.
+ *
+ * Die Meldungen der {@link BattleReporter Berichterstattung} laufen auf den
+ * Träger-Threads; eine von mehreren Kämpfen gemeinsam genutzte
+ * Berichterstattung muss daher threadsicher sein.
+ *
+ * Instanzen sind threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see PacedFight
+ * @see BattleEngine#INTERACTIVE
+ */
+public final class PacedFightScheduler implements AutoCloseable {
+
+    /** Standardpause zwischen zwei Angriffen, wie bei {@link BattleEngine#INTERACTIVE}. */
+    public static final long DEFAULT_PACE_MILLIS = 1_500;
+
+    /** Dauer eines Zuges der Zeiträder. */
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Carrier[] carriers;
+    private final long paceTicks;
+    private final AtomicInteger nextCarrier = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Erstellt einen Scheduler mit bis zu vier Träger-Threads und der
+     * Standardpause.
+     */
+    public PacedFightScheduler() {
+        this(Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_PACE_MILLIS);
+    }
+
+    /**
+     * Erstellt einen Scheduler.
+     *
+     * @param carrierThreads Anzahl der Träger-Threads (muss positiv sein)
+     * @param paceMillis Pause zwischen zwei Angriffen in Millisekunden (muss positiv sein)
+     * @throws IllegalArgumentException wenn ein Wert nicht positiv ist
+     */
+    public PacedFightScheduler(int carrierThreads, long paceMillis) {
+        if (carrierThreads <= 0) {
+            throw new IllegalArgumentException("Anzahl der Threads muss positiv sein");
+        }
+        if (paceMillis <= 0) {
+            throw new IllegalArgumentException("Pause muss positiv sein");
+        }
+        this.paceTicks = paceMillis;
+        this.carriers = new Carrier[carrierThreads];
+        for (int i = 0; i < carrierThreads; i++) {
+            carriers[i] = new Carrier("paced-fight-carrier-" + i);
+        }
+        for (Carrier carrier : carriers) {
+            carrier.thread.start();
+        }
+    }
+
+    /**
+     * Startet einen Kampf mit Konsolenausgabe wie {@link Battle#startFight(Warrior, Warrior)}.
+     *
+     * @param w1 der erste Krieger
+     * @param w2 der zweite Krieger
+     * @return der laufende Kampf
+     * @throws IllegalArgumentException wenn einer der Parameter null ist
+     * @throws IllegalStateException wenn der Scheduler geschlossen ist
+     */
+    public PacedFight submit(Warrior w1, Warrior w2) {
+        return submit(w1, w2, BattleEngine.INTERACTIVE, Integer.MAX_VALUE,
+                CombatRandom.seeded(SplitMixRandom.randomSeed()));
+    }
+
+    /**
+     * Startet einen Kampf.
+     *
+     * Von der Engine werden Berichterstattung und Schadensregeln übernommen;
+     * ihre Taktung wird nicht verwendet, den Takt gibt dieser Scheduler vor.
+     * Der erste Angriff erfolgt im nächsten Zug.
+     *
+     * @param w1 der erste Krieger
+     * @param w2 der zweite Krieger
+     * @param engine Berichterstattung und Schadensregeln des Kampfes
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @param rng die Zufallsquelle für alle Würfe; wird nur von diesem Kampf verwendet
+     * @return der laufende Kampf
+     * @throws IllegalArgumentException wenn ein Parameter null oder
+     *                                  maxRounds nicht positiv ist
+     * @throws IllegalStateException wenn der Scheduler geschlossen ist
+     */
+    public PacedFight submit(Warrior w1, Warrior w2, BattleEngine engine, int maxRounds, CombatRandom rng) {
+        if (w1 == null || w2 == null) {
+            throw new IllegalArgumentException("Warrior-Objekte dürfen nicht null sein");
+        }
+        if (engine == null || rng == null) {
+            throw new IllegalArgumentException("Engine und Zufallsquelle dürfen nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        if (closed) {
+            throw new IllegalStateException("Scheduler ist geschlossen");
+        }
+        PacedFight fight = new PacedFight(w1, w2, engine, maxRounds, rng);
+        active.incrementAndGet();
+        Carrier carrier = carriers[Math.floorMod(nextCarrier.getAndIncrement(), carriers.length)];
+        carrier.inbox.add(fight);
+        if (closed && carrier.inbox.remove(fight)) {
+            // Der Träger hat seine Warteschlange bereits geleert
+            active.decrementAndGet();
+            throw new IllegalStateException("Scheduler ist geschlossen");
+        }
+        LockSupport.unpark(carrier.thread);
+        return fight;
+    }
+
+    /**
+     * Gibt die Anzahl der laufenden Kämpfe zurück.
+     *
+     * @return Kämpfe, die eingereicht und noch nicht vom Scheduler entfernt wurden
+     */
+    public int activeFights() {
+        return active.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Träger-Threads zurück.
+     *
+     * @return die Anzahl der Threads
+     */
+    public int carrierThreads() {
+        return carriers.length;
+    }
+
+    /**
+     * Bricht alle laufenden Kämpfe ab und beendet die Träger-Threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Carrier carrier : carriers) {
+            LockSupport.unpark(carrier.thread);
+        }
+        boolean interrupted = false;
+        for (Carrier carrier : carriers) {
+            while (true) {
+                try {
+                    carrier.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ein Träger-Thread mit eigenem Zeitrad.
+     *
+     * Neue Kämpfe kommen über die Warteschlange {@code inbox}; Zeitrad und
+     * Kampftabelle verwendet nur der Träger selbst.
+     */
+    private final class Carrier implements Runnable {
+
+        final Thread thread;
+        final ConcurrentLinkedQueue<PacedFight> inbox = new ConcurrentLinkedQueue<>();
+        private final TimingWheel wheel = new TimingWheel(64);
+        private PacedFight[] fights = new PacedFight[64];
+        private int[] free = new int[64];
+        private int freeCount;
+        private int used;
+
+        Carrier(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            // Zug t ist fällig bei origin + t * TICK_NANOS
+            long origin = System.nanoTime();
+            while (!closed) {
+                // Verstrichene Züge nachholen, bevor neue Kämpfe eingeplant werden
+                long elapsed = (System.nanoTime() - origin) / TICK_NANOS;
+                while (wheel.size() > 0 && wheel.now() < elapsed) {
+                    for (int id = wheel.advance(); id >= 0; ) {
+                        int following = wheel.nextExpired(id);
+                        step(id);
+                        id = following;
+                    }
+                }
+                if (wheel.size() == 0) {
+                    if (inbox.isEmpty() && !closed) {
+                        LockSupport.park(this);
+                    }
+                    // Die Zeit des leeren Rades ruht; der nächste Zug folgt sofort
+                    origin = System.nanoTime() - wheel.now() * TICK_NANOS;
+                }
+                admit();
+                if (wheel.size() > 0) {
+                    // Bis zum nächsten belegten Zug schlafen; neue Kämpfe wecken früher
+                    long wait = origin + wheel.nextTick() * TICK_NANOS - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(this, wait);
+                    }
+                }
+            }
+            shutDown();
+        }
+
+        /**
+         * Übernimmt neue Kämpfe; ihr erster Angriff erfolgt im nächsten Zug.
+         */
+        private void admit() {
+            PacedFight fight;
+            while ((fight = inbox.poll()) != null) {
+                if (fight.isDone()) {
+                    // Vor dem ersten Angriff abgebrochen
+                    active.decrementAndGet();
+                    continue;
+                }
+                int id = allocate(fight);
+                try {
+                    fight.start();
+                    wheel.schedule(id, wheel.now() + 1);
+                } catch (RuntimeException e) {
+                    fight.fail(e);
+                    release(id);
+                }
+            }
+        }
+
+        private void step(int id) {
+            PacedFight fight = fights[id];
+            boolean running;
+            try {
+                running = fight.step();
+            } catch (RuntimeException e) {
+                fight.fail(e);
+                running = false;
+            }
+            if (running) {
+                wheel.schedule(id, wheel.now() + paceTicks);
+            } else {
+                release(id);
+            }
+        }
+
+        private int allocate(PacedFight fight) {
+            int id;
+            if (freeCount > 0) {
+                id = free[--freeCount];
+            } else {
+                id = used++;
+                if (id == fights.length) {
+                    fights = Arrays.copyOf(fights, 2 * id);
+                    free = Arrays.copyOf(free, 2 * id);
+                }
+                wheel.ensureCapacity(used);
+            }
+            fights[id] = fight;
+            return id;
+        }
+
+        private void release(int id) {
+            fights[id] = null;
+            free[freeCount++] = id;
+            active.decrementAndGet();
+        }
+
+        private void shutDown() {
+            List<PacedFight> remaining = new ArrayList<>();
+            for (int id = 0; id < used; id++) {
+                if (fights[id] != null) {
+                    remaining.add(fights[id]);
+                    wheel.cancel(id);
+                    release(id);
+                }
+            }
+            PacedFight fight;
+            while ((fight = inbox.poll()) != null) {
+                remaining.add(fight);
+                active.decrementAndGet();
+            }
+            for (PacedFight unfinished : remaining) {
+                unfinished.fail(new CancellationException("Scheduler wurde geschlossen"));
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.battlegame.warriors;
+
+/**
+ * Ergebnis eines Laufs der {@link FightPipeline}.
+ *
+ * @param warriors gelesene Krieger
+ * @param fights ausgetragene Kämpfe
+ * @param firstWins Siege des jeweils zuerst angreifenden Kriegers
+ * @param secondWins Siege des jeweils zweiten Kriegers
+ * @param draws Kämpfe ohne Sieger
+ * @param elapsedNanos Dauer des Laufs in Nanosekunden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see FightPipeline
+ */
+public record PipelineResult(long warriors, long fights, long firstWins, long secondWins, long draws,
+                             long elapsedNanos) {
+
+    /**
+     * Gibt zurück, ob ein Krieger ohne Gegner übrig blieb.
+     *
+     * @return {@code true} bei einer ungeraden Anzahl an Kriegern
+     */
+    public boolean hasUnpaired() {
+        return warriors > 2 * fights;
+    }
+
+    /**
+     * Gibt den Durchsatz zurück.
+     *
+     * @return Kämpfe je Sekunde
+     */
+    public double fightsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : fights * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Ergebnisses zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("PipelineResult{warriors=%d, fights=%d, firstWins=%d, secondWins=%d, draws=%d, "
+                + "%.0f ms, %.0f Kämpfe/s}", warriors, fights, firstWins, secondWins, draws,
+                elapsedNanos / 1e6, fightsPerSecond());
+    }
+}
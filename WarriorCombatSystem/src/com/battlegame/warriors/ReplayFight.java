@@ -0,0 +1,239 @@
+package com.battlegame.warriors;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sicht auf einen aufgezeichneten Kampf in einer Wiederholungsdatei.
+ *
+ * Alle Werte werden bei jedem Zugriff direkt aus der eingeblendeten Datei
+ * gelesen. Die Sicht gehört zu einem {@link ReplayReader} und ist nur bis
+ * zum nächsten Aufruf von {@link ReplayReader#next()} gültig.
+ *
+ * Ein Kampf kann auf zwei Arten wiedergegeben werden:
+ * {@link #replay(BattleReporter)} wendet die aufgezeichneten Angriffe ohne
+ * Würfeln auf neue Krieger an, {@link #resimulate()} trägt den Kampf mit dem
+ * gespeicherten Startwert erneut aus und vergleicht ihn mit der Aufzeichnung.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ReplayReader
+ */
+public final class ReplayFight {
+
+    private ByteBuffer data;
+    private int base;
+    private int rounds;
+    private int roundsOffset;
+
+    ReplayFight() {
+    }
+
+    void wrap(ByteBuffer data, int base) {
+        this.data = data;
+        this.base = base;
+        this.rounds = data.getInt(base + ReplayFormat.ROUNDS);
+        this.roundsOffset = base + ReplayFormat.FIGHT_HEADER
+                + nameLength(ReplayFormat.FIRST_NAME_LENGTH) + nameLength(ReplayFormat.SECOND_NAME_LENGTH);
+    }
+
+    /**
+     * Gibt den Startwert des Zufallsstroms zurück.
+     *
+     * @return der Startwert des {@link SplitMixRandom}
+     */
+    public long seed() {
+        return data.getLong(base + ReplayFormat.SEED);
+    }
+
+    /**
+     * Gibt die Anzahl der Angriffe zurück.
+     *
+     * @return die Anzahl der aufgezeichneten Angriffe
+     */
+    public int rounds() {
+        return rounds;
+    }
+
+    /**
+     * Gibt das Ergebnis des Kampfes zurück.
+     *
+     * @return {@link FightBatch#FIRST_WON}, {@link FightBatch#SECOND_WON} oder {@link FightBatch#DRAW}
+     */
+    public int outcome() {
+        return data.get(base + ReplayFormat.OUTCOME);
+    }
+
+    /**
+     * Gibt die Startwerte des zuerst angreifenden Kriegers zurück.
+     *
+     * @return die Spezifikation des ersten Kriegers
+     */
+    public WarriorSpec first() {
+        return spec(ReplayFormat.FIRST_STATS, base + ReplayFormat.FIGHT_HEADER,
+                nameLength(ReplayFormat.FIRST_NAME_LENGTH));
+    }
+
+    /**
+     * Gibt die Startwerte des zweiten Kriegers zurück.
+     *
+     * @return die Spezifikation des zweiten Kriegers
+     */
+    public WarriorSpec second() {
+        return spec(ReplayFormat.SECOND_STATS,
+                base + ReplayFormat.FIGHT_HEADER + nameLength(ReplayFormat.FIRST_NAME_LENGTH),
+                nameLength(ReplayFormat.SECOND_NAME_LENGTH));
+    }
+
+    /**
+     * Gibt den Angriffswert eines Angriffs zurück.
+     *
+     * @param round Index des Angriffs, beginnend bei 0
+     * @return der gewürfelte Angriffswert
+     * @throws IndexOutOfBoundsException wenn round außerhalb des Kampfes liegt
+     */
+    public int attack(int round) {
+        return ReplayFormat.attack(round(round));
+    }
+
+    /**
+     * Gibt den Blockwert eines Angriffs zurück.
+     *
+     * @param round Index des Angriffs, beginnend bei 0
+     * @return der gewürfelte Blockwert bzw. {@link DodgeWarrior#DODGE_BLOCK} bei einem Ausweichen
+     * @throws IndexOutOfBoundsException wenn round außerhalb des Kampfes liegt
+     */
+    public int block(int round) {
+        return ReplayFormat.block(round(round));
+    }
+
+    /**
+     * Prüft, ob der Verteidiger einem Angriff ausgewichen ist.
+     *
+     * @param round Index des Angriffs, beginnend bei 0
+     * @return {@code true} bei einem Ausweichen
+     * @throws IndexOutOfBoundsException wenn round außerhalb des Kampfes liegt
+     */
+    public boolean dodged(int round) {
+        return ReplayFormat.dodged(round(round));
+    }
+
+    /**
+     * Gibt den Schaden eines Angriffs zurück.
+     *
+     * @param round Index des Angriffs, beginnend bei 0
+     * @return der angewendete Schaden (nie negativ)
+     * @throws IndexOutOfBoundsException wenn round außerhalb des Kampfes liegt
+     */
+    public int damage(int round) {
+        return ReplayFormat.damage(round(round));
+    }
+
+    /**
+     * Gibt den Kampf ohne Würfeln wieder.
+     *
+     * Die aufgezeichneten Angriffe werden in ihrer Reihenfolge auf neue
+     * Krieger angewendet; der Gesundheitsverlauf beider Krieger und alle
+     * Aufrufe an {@code reporter} entsprechen exakt dem ursprünglichen Kampf.
+     *
+     * @param reporter Empfänger der Kampfereignisse
+     * @return der siegreiche Krieger oder {@code null} bei einem Unentschieden
+     * @throws IllegalArgumentException wenn reporter null ist
+     */
+    public Warrior replay(BattleReporter reporter) {
+        if (reporter == null) {
+            throw new IllegalArgumentException("Berichterstattung darf nicht null sein");
+        }
+        Warrior w1 = first().newWarrior();
+        Warrior w2 = second().newWarrior();
+        reporter.fightStarted(w1, w2);
+        for (int i = 0; i < rounds; i++) {
+            Warrior attacker = (i & 1) == 0 ? w1 : w2;
+            Warrior defender = attacker == w1 ? w2 : w1;
+            long round = round(i);
+            if (ReplayFormat.dodged(round)) {
+                reporter.dodged(defender);
+            }
+            int damage = ReplayFormat.damage(round);
+            defender.health = defender.health - damage;
+            reporter.attacked(attacker, defender, ReplayFormat.attack(round), ReplayFormat.block(round), damage);
+            if (defender.health <= 0) {
+                reporter.died(defender, attacker);
+                reporter.fightEnded(attacker, defender, i + 1);
+                return attacker;
+            }
+        }
+        reporter.fightDrawn(w1, w2, rounds);
+        return null;
+    }
+
+    /**
+     * Trägt den Kampf mit dem gespeicherten Startwert erneut aus und
+     * vergleicht jeden Angriff mit der Aufzeichnung.
+     *
+     * @return {@code true} wenn alle Würfe und das Ergebnis übereinstimmen
+     */
+    public boolean resimulate() {
+        Verifier verifier = new Verifier();
+        Warrior w1 = first().newWarrior();
+        Warrior w2 = second().newWarrior();
+        Warrior winner;
+        try {
+            winner = BattleEngine.HEADLESS.withReporter(verifier)
+                    .startFight(w1, w2, Math.max(1, rounds), new SplitMixRandom(seed()));
+        } catch (InterruptedException e) {
+            // Ohne Taktung kann nicht unterbrochen werden
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Wiedergabe wurde unterbrochen", e);
+        }
+        int outcome = winner == null ? FightBatch.DRAW : winner == w1 ? FightBatch.FIRST_WON : FightBatch.SECOND_WON;
+        return verifier.matches && verifier.count == rounds && outcome == outcome();
+    }
+
+    private long round(int round) {
+        if (round < 0 || round >= rounds) {
+            throw new IndexOutOfBoundsException("Angriff " + round + " außerhalb von 0 bis " + rounds);
+        }
+        return data.getLong(roundsOffset + round * ReplayFormat.ROUND);
+    }
+
+    private int nameLength(int offset) {
+        return Short.toUnsignedInt(data.getShort(base + offset));
+    }
+
+    private WarriorSpec spec(int stats, int nameOffset, int nameLength) {
+        byte[] name = new byte[nameLength];
+        data.get(nameOffset, name);
+        int offset = base + stats;
+        return new WarriorSpec(new String(name, StandardCharsets.UTF_8),
+                data.getInt(offset + ReplayFormat.HEALTH),
+                data.getInt(offset + ReplayFormat.ATTK_MAX),
+                data.getInt(offset + ReplayFormat.BLOCK_MAX),
+                data.getDouble(offset + ReplayFormat.DODGE));
+    }
+
+    /**
+     * Vergleicht einen erneut ausgetragenen Kampf mit der Aufzeichnung.
+     */
+    private final class Verifier implements BattleReporter {
+
+        private int count;
+        private boolean dodged;
+        private boolean matches = true;
+
+        @Override
+        public void dodged(Warrior defender) {
+            dodged = true;
+        }
+
+        @Override
+        public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+            if (count >= rounds || round(count) != ReplayFormat.pack(attack, block, dodged)) {
+                matches = false;
+            }
+            count++;
+            dodged = false;
+        }
+    }
+}
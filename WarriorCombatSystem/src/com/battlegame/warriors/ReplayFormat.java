@@ -0,0 +1,88 @@
+package com.battlegame.warriors;
+
+/**
+ * Aufbau des binären Wiederholungsformats.
+ *
+ * Eine Datei beginnt mit einem Dateikopf (Magic, Version) und enthält danach
+ * beliebig viele Kämpfe hintereinander. Alle Werte sind Big-Endian.
+ *
+ * Ein Kampf besteht aus
+ * <ul>
+ *   <li>der Gesamtlänge des Kampfes in Bytes (int),</li>
+ *   <li>dem Startwert des {@link SplitMixRandom} (long),</li>
+ *   <li>der Anzahl der Angriffe (int) und dem Ergebnis (byte, wie {@link FightBatch#FIRST_WON} usw.),</li>
+ *   <li>den Längen beider Namen in UTF-8 (je short),</li>
+ *   <li>Gesundheit, Angriffs- und Blockwert (je int) und Ausweichwahrscheinlichkeit
+ *       (double) beider Krieger,</li>
+ *   <li>beiden Namen und</li>
+ *   <li>einem gepackten long je Angriff: Angriffswert in den oberen 32 Bit,
+ *       Blockwert in den unteren 31 Bit und das Ausweich-Bit dazwischen.</li>
+ * </ul>
+ * Der Schaden eines Angriffs ist nicht gespeichert, sondern ergibt sich wie in
+ * der {@link BattleEngine} aus {@code max(0, Angriff - Block)}; bei einem
+ * Ausweichen ist der Block {@link DodgeWarrior#DODGE_BLOCK}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ReplayWriter
+ * @see ReplayReader
+ */
+final class ReplayFormat {
+
+    /** Kennung am Dateianfang ("WCSR"). */
+    static final int MAGIC = 0x57435352;
+
+    /** Version des Formats. */
+    static final short VERSION = 1;
+
+    /** Länge des Dateikopfs in Bytes. */
+    static final int FILE_HEADER = 8;
+
+    static final int LENGTH = 0;
+    static final int SEED = 4;
+    static final int ROUNDS = 12;
+    static final int OUTCOME = 16;
+    static final int FIRST_NAME_LENGTH = 18;
+    static final int SECOND_NAME_LENGTH = 20;
+    static final int FIRST_STATS = 22;
+    static final int SECOND_STATS = 42;
+
+    /** Abstand der Werte innerhalb eines Stat-Blocks. */
+    static final int HEALTH = 0;
+    static final int ATTK_MAX = 4;
+    static final int BLOCK_MAX = 8;
+    static final int DODGE = 12;
+
+    /** Länge des festen Teils eines Kampfkopfs; danach folgen die Namen. */
+    static final int FIGHT_HEADER = 62;
+
+    /** Länge eines Angriffsdatensatzes. */
+    static final int ROUND = Long.BYTES;
+
+    /** Ausweich-Bit eines Angriffsdatensatzes. */
+    static final long DODGE_BIT = 1L << 31;
+
+    private ReplayFormat() {
+    }
+
+    static long pack(int attack, int block, boolean dodged) {
+        return ((long) attack << 32) | (dodged ? DODGE_BIT : block);
+    }
+
+    static int attack(long round) {
+        return (int) (round >>> 32);
+    }
+
+    static boolean dodged(long round) {
+        return (round & DODGE_BIT) != 0;
+    }
+
+    static int block(long round) {
+        return dodged(round) ? DodgeWarrior.DODGE_BLOCK : (int) (round & (DODGE_BIT - 1));
+    }
+
+    static int damage(long round) {
+        return Math.max(0, attack(round) - block(round));
+    }
+}
@@ -0,0 +1,164 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Liest Wiederholungsdateien über eine speicherabgebildete Datei.
+ *
+ * Die Datei wird abschnittsweise per {@link FileChannel#map} eingeblendet und
+ * direkt aus dem Seitencache gelesen, ohne Kämpfe in Objekte zu kopieren.
+ * {@link #next()} liefert dazu immer dasselbe {@link ReplayFight}-Objekt, das
+ * auf den jeweils aktuellen Kampf zeigt.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ReplayWriter
+ * @see ReplayFight
+ */
+public final class ReplayReader implements AutoCloseable {
+
+    /** Standardgröße eines eingeblendeten Abschnitts in Bytes. */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private final ReplayFight fight = new ReplayFight();
+
+    /** Aktuell eingeblendeter Abschnitt und seine Position in der Datei. */
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /** Dateiposition des nächsten Kampfes. */
+    private long position = ReplayFormat.FILE_HEADER;
+
+    /**
+     * Öffnet eine Wiederholungsdatei.
+     *
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder
+     *                     keine Wiederholungsdatei ist
+     */
+    public ReplayReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Öffnet eine Wiederholungsdatei mit der angegebenen Abschnittsgröße.
+     *
+     * @param file die Datei
+     * @param windowSize Größe eines eingeblendeten Abschnitts in Bytes (mindestens 4096)
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder
+     *                     keine Wiederholungsdatei ist
+     * @throws IllegalArgumentException wenn file null oder windowSize zu klein ist
+     */
+    public ReplayReader(Path file, int windowSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        if (windowSize < 4096) {
+            throw new IllegalArgumentException("Abschnitt muss mindestens 4096 Bytes groß sein");
+        }
+        this.windowSize = windowSize;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            checkFileHeader(channel);
+            size = channel.size();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Prüft Kennung und Version am Anfang einer Wiederholungsdatei.
+     */
+    static void checkFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ReplayFormat.FILE_HEADER);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Keine Wiederholungsdatei: Dateikopf fehlt");
+            }
+        }
+        header.flip();
+        if (header.getInt() != ReplayFormat.MAGIC) {
+            throw new IOException("Keine Wiederholungsdatei: falsche Kennung");
+        }
+        short version = header.getShort();
+        if (version != ReplayFormat.VERSION) {
+            throw new IOException("Nicht unterstützte Version der Wiederholungsdatei: " + version);
+        }
+    }
+
+    /**
+     * Springt zum nächsten Kampf.
+     *
+     * Das zurückgegebene Objekt wird beim nächsten Aufruf wiederverwendet.
+     *
+     * @return eine Sicht auf den nächsten Kampf oder {@code null} am Dateiende
+     * @throws UncheckedIOException wenn die Datei nicht gelesen werden kann
+     *                              oder ein Kampf abgeschnitten ist
+     */
+    public ReplayFight next() {
+        if (position >= size) {
+            return null;
+        }
+        try {
+            if (size - position < ReplayFormat.LENGTH + Integer.BYTES) {
+                throw new IOException("Beschädigter Kampf an Position " + position);
+            }
+            map(position, ReplayFormat.LENGTH + Integer.BYTES);
+            int length = window.getInt((int) (position - windowStart) + ReplayFormat.LENGTH);
+            if (length < ReplayFormat.FIGHT_HEADER || position + length > size) {
+                throw new IOException("Beschädigter Kampf an Position " + position);
+            }
+            map(position, length);
+            fight.wrap(window, (int) (position - windowStart));
+            position += length;
+            return fight;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Springt an den Anfang der Datei zurück.
+     */
+    public void rewind() {
+        position = ReplayFormat.FILE_HEADER;
+    }
+
+    /**
+     * Schließt die Datei.
+     *
+     * Sichten auf Kämpfe dürfen danach nicht mehr verwendet werden.
+     *
+     * @throws IOException wenn das Schließen fehlschlägt
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Blendet einen Abschnitt ein, der [start, start + length) enthält.
+     */
+    private void map(long start, int length) throws IOException {
+        if (window != null && start >= windowStart && start + length <= windowStart + window.limit()) {
+            return;
+        }
+        long mapped = Math.min(size - start, Math.max(length, windowSize));
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, mapped);
+        windowStart = start;
+    }
+}
@@ -0,0 +1,256 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Zeichnet Kämpfe im binären {@link ReplayFormat Wiederholungsformat} auf.
+ *
+ * Jeder Kampf wird mit einem eigenen {@link SplitMixRandom} ausgetragen und
+ * dabei Angriff für Angriff mitgeschrieben. Die Datensätze sammeln sich in
+ * einem direkten Puffer, der erst beim Überlauf bzw. bei {@link #flush()}
+ * oder {@link #close()} in einem Stück an den {@link FileChannel} angehängt
+ * wird. Außer dem gelegentlichen Vergrößern des Angriffspuffers erzeugt das
+ * Aufzeichnen keine Objekte pro Angriff.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ReplayReader
+ */
+public final class ReplayWriter implements AutoCloseable {
+
+    /** Standardgröße des Schreibpuffers in Bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final Recorder recorder = new Recorder();
+    private final BattleEngine engine = BattleEngine.HEADLESS.withReporter(recorder);
+    private final SplitMixRandom rng = new SplitMixRandom(0L);
+    private long fights;
+
+    /**
+     * Legt eine Wiederholungsdatei an bzw. hängt an eine bestehende an.
+     *
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht geöffnet werden kann oder
+     *                     keine Wiederholungsdatei ist
+     */
+    public ReplayWriter(Path file) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Legt eine Wiederholungsdatei an bzw. hängt an eine bestehende an.
+     *
+     * @param file die Datei
+     * @param bufferSize Größe des Schreibpuffers in Bytes (mindestens 4096)
+     * @throws IOException wenn die Datei nicht geöffnet werden kann oder
+     *                     keine Wiederholungsdatei ist
+     * @throws IllegalArgumentException wenn file null oder bufferSize zu klein ist
+     */
+    public ReplayWriter(Path file, int bufferSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        if (bufferSize < 4096) {
+            throw new IllegalArgumentException("Puffer muss mindestens 4096 Bytes groß sein");
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                buffer.putInt(ReplayFormat.MAGIC).putShort(ReplayFormat.VERSION).putShort((short) 0);
+            } else {
+                ReplayReader.checkFileHeader(channel);
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Trägt einen Kampf aus und zeichnet ihn auf.
+     *
+     * Der Kampf verläuft exakt wie
+     * {@code BattleEngine.HEADLESS.startFight(first.newWarrior(), second.newWarrior(),
+     * maxRounds, new SplitMixRandom(seed))}.
+     *
+     * @param first Spezifikation des zuerst angreifenden Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param seed Startwert des Zufallsstroms
+     * @param maxRounds maximale Anzahl an Angriffen (muss positiv sein)
+     * @return der siegreiche Krieger oder {@code null} bei einem Unentschieden
+     * @throws IllegalArgumentException wenn eine Spezifikation null, ein Name länger als
+     *                                  65535 Bytes oder maxRounds nicht positiv ist
+     * @throws UncheckedIOException wenn das Schreiben fehlschlägt
+     */
+    public Warrior record(WarriorSpec first, WarriorSpec second, long seed, int maxRounds) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("Maximale Anzahl an Angriffen muss positiv sein");
+        }
+        byte[] firstName = name(first);
+        byte[] secondName = name(second);
+        Warrior w1 = first.newWarrior();
+        Warrior w2 = second.newWarrior();
+        rng.setState(seed);
+        Warrior winner;
+        try {
+            winner = engine.startFight(w1, w2, maxRounds, rng);
+        } catch (InterruptedException e) {
+            // Ohne Taktung kann nicht unterbrochen werden
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Aufzeichnung wurde unterbrochen", e);
+        }
+        int outcome = winner == null ? FightBatch.DRAW : winner == w1 ? FightBatch.FIRST_WON : FightBatch.SECOND_WON;
+        try {
+            write(first, firstName, second, secondName, seed, outcome);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        fights++;
+        return winner;
+    }
+
+    /**
+     * Gibt die Anzahl der von diesem Writer aufgezeichneten Kämpfe zurück.
+     *
+     * @return die Anzahl der Kämpfe
+     */
+    public long fights() {
+        return fights;
+    }
+
+    /**
+     * Schreibt alle gepufferten Kämpfe in die Datei.
+     *
+     * @throws IOException wenn das Schreiben fehlschlägt
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Schreibt alle gepufferten Kämpfe und schließt die Datei.
+     *
+     * @throws IOException wenn das Schreiben fehlschlägt
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void write(WarriorSpec first, byte[] firstName, WarriorSpec second, byte[] secondName,
+                       long seed, int outcome) throws IOException {
+        int rounds = recorder.count;
+        long length = ReplayFormat.FIGHT_HEADER + firstName.length + secondName.length
+                + (long) rounds * ReplayFormat.ROUND;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Kampf ist zu lang für das Wiederholungsformat");
+        }
+        ensure(ReplayFormat.FIGHT_HEADER);
+        buffer.putInt((int) length)
+                .putLong(seed)
+                .putInt(rounds)
+                .put((byte) outcome)
+                .put((byte) 0)
+                .putShort((short) firstName.length)
+                .putShort((short) secondName.length);
+        putStats(first);
+        putStats(second);
+        putBytes(firstName);
+        putBytes(secondName);
+        long[] data = recorder.rounds;
+        for (int i = 0; i < rounds; i++) {
+            ensure(ReplayFormat.ROUND);
+            buffer.putLong(data[i]);
+        }
+    }
+
+    private void putStats(WarriorSpec spec) {
+        buffer.putInt(spec.health())
+                .putInt(spec.attkMax())
+                .putInt(spec.blockMax())
+                .putDouble(spec.dodgePercent());
+    }
+
+    private static byte[] name(WarriorSpec spec) {
+        byte[] bytes = spec.name().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name ist zu lang für das Wiederholungsformat");
+        }
+        return bytes;
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+        } else {
+            // Größer als der ganze Puffer: direkt schreiben
+            ByteBuffer direct = ByteBuffer.wrap(bytes);
+            while (direct.hasRemaining()) {
+                channel.write(direct);
+            }
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Sammelt die Angriffe des laufenden Kampfes.
+     */
+    private static final class Recorder implements BattleReporter {
+
+        private long[] rounds = new long[256];
+        private int count;
+        private boolean dodged;
+
+        @Override
+        public void fightStarted(Warrior first, Warrior second) {
+            count = 0;
+            dodged = false;
+        }
+
+        @Override
+        public void dodged(Warrior defender) {
+            dodged = true;
+        }
+
+        @Override
+        public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+            if (count == rounds.length) {
+                rounds = Arrays.copyOf(rounds, count * 2);
+            }
+            rounds[count++] = ReplayFormat.pack(attack, block, dodged);
+            dodged = false;
+        }
+    }
+}
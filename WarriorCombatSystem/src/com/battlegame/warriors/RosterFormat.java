@@ -0,0 +1,51 @@
+package com.battlegame.warriors;
+
+/**
+ * Aufbau der Kaderdateien.
+ *
+ * Ein Kader ist eine Folge von Kriegern in einer von zwei Formen:
+ * <ul>
+ *   <li>als Text mit einer Zeile {@code Name,Gesundheit,Angriff,Block[,Ausweichen]}
+ *       je Krieger (UTF-8); leere Zeilen und Zeilen, die mit {@code #} beginnen,
+ *       werden übersprungen, oder</li>
+ *   <li>kompakt binär: ein Dateikopf (Magic, Version, ein reserviertes
+ *       Feld mit dem Wert 0) und danach je Krieger die Länge des Namens
+ *       in UTF-8 (byte), der Name, Gesundheit, Angriffs- und Blockwert
+ *       (je int) und nur bei gesetztem
+ *       {@link #DODGE_FLAG} im Längenbyte die Ausweichwahrscheinlichkeit
+ *       (double). Alle Werte sind Big-Endian.</li>
+ * </ul>
+ * Beide Formen beschreiben dieselben Werte wie {@link WarriorSpec}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see RosterReader
+ * @see RosterWriter
+ */
+final class RosterFormat {
+
+    /** Kennung am Anfang einer binären Kaderdatei ("WCSK"). */
+    static final int MAGIC = 0x5743534B;
+
+    /** Version des binären Formats. */
+    static final short VERSION = 1;
+
+    /** Länge des Dateikopfs in Bytes. */
+    static final int FILE_HEADER = 8;
+
+    /** Länge der Werte eines Kriegers hinter dem Namen, ohne Ausweichwahrscheinlichkeit. */
+    static final int STATS = 3 * Integer.BYTES;
+
+    /** Bit im Längenbyte: dem Eintrag folgt eine Ausweichwahrscheinlichkeit. */
+    static final int DODGE_FLAG = 0x80;
+
+    /** Größte Länge eines Namens in UTF-8-Bytes. */
+    static final int MAX_NAME_LENGTH = 127;
+
+    /** Größte Länge eines binären Eintrags. */
+    static final int MAX_RECORD = 1 + MAX_NAME_LENGTH + STATS + Double.BYTES;
+
+    private RosterFormat() {
+    }
+}
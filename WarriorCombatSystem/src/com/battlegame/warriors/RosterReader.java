@@ -0,0 +1,310 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Liest Krieger fortlaufend aus einer Kaderdatei.
+ *
+ * Die Form der Datei (Text oder kompakt binär, siehe {@link RosterFormat})
+ * wird am Dateikopf erkannt. Die Datei wird abschnittsweise über einen
+ * {@link FileChannel} in einen direkten Puffer fester Größe gelesen und
+ * direkt im Puffer zerlegt; der Speicherbedarf hängt daher nicht von der
+ * Größe der Datei ab.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see RosterWriter
+ * @see FightPipeline
+ */
+public final class RosterReader implements AutoCloseable {
+
+    /** Standardgröße des Lesepuffers in Bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean binary;
+    private final int[] fieldStart = new int[5];
+    private final int[] fieldEnd = new int[5];
+    private byte[] scratch = new byte[RosterFormat.MAX_NAME_LENGTH];
+    private boolean endOfFile;
+    private long line;
+    private long count;
+
+    /**
+     * Öffnet eine Kaderdatei.
+     *
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht geöffnet werden kann oder
+     *                     eine nicht unterstützte Version hat
+     */
+    public RosterReader(Path file) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Öffnet eine Kaderdatei.
+     *
+     * @param file die Datei
+     * @param bufferSize Größe des Lesepuffers in Bytes (mindestens 4096); eine
+     *                   Textzeile darf nicht länger als der Puffer sein
+     * @throws IOException wenn die Datei nicht geöffnet werden kann oder
+     *                     eine nicht unterstützte Version hat
+     * @throws IllegalArgumentException wenn file null oder bufferSize zu klein ist
+     */
+    public RosterReader(Path file, int bufferSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        if (bufferSize < 4096) {
+            throw new IllegalArgumentException("Puffer muss mindestens 4096 Bytes groß sein");
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.limit(0);
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            binary = fill(RosterFormat.FILE_HEADER) && isBinaryHeader(buffer, buffer.position());
+            if (binary) {
+                buffer.getInt();
+                short version = buffer.getShort();
+                buffer.getShort();
+                if (version != RosterFormat.VERSION) {
+                    throw new IOException("Nicht unterstützte Version der Kaderdatei: " + version);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Prüft, ob an der Stelle ein binärer Dateikopf steht.
+     *
+     * Neben der Kennung werden das obere Byte der Version und das
+     * reservierte Feld geprüft: beide sind im binären Kopf 0, während eine
+     * Textdatei keine Nullbytes enthält. Ein Textkader, dessen erster Name
+     * mit "WCSK" beginnt, wird so nicht für binär gehalten.
+     */
+    private static boolean isBinaryHeader(ByteBuffer buffer, int at) {
+        return buffer.getInt(at) == RosterFormat.MAGIC
+                && buffer.get(at + Integer.BYTES) == 0
+                && buffer.getShort(at + Integer.BYTES + Short.BYTES) == 0;
+    }
+
+    /**
+     * Prüft, ob die Datei in der kompakten binären Form vorliegt.
+     *
+     * @return {@code true} für die binäre Form, {@code false} für Text
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher gelesenen Krieger zurück.
+     *
+     * @return die Anzahl der Krieger
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Liest den nächsten Krieger.
+     *
+     * @return der nächste Krieger oder {@code null} am Ende der Datei
+     * @throws IOException wenn das Lesen fehlschlägt oder ein Eintrag ungültig ist
+     */
+    public WarriorSpec next() throws IOException {
+        WarriorSpec spec = binary ? nextBinary() : nextText();
+        if (spec != null) {
+            count++;
+        }
+        return spec;
+    }
+
+    /**
+     * Schließt die Datei.
+     *
+     * @throws IOException wenn das Schließen fehlschlägt
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private WarriorSpec nextBinary() throws IOException {
+        if (!fill(1)) {
+            return null;
+        }
+        int lengthByte = buffer.get(buffer.position()) & 0xFF;
+        boolean dodges = (lengthByte & RosterFormat.DODGE_FLAG) != 0;
+        int nameLength = lengthByte & ~RosterFormat.DODGE_FLAG;
+        if (!fill(1 + nameLength + RosterFormat.STATS + (dodges ? Double.BYTES : 0))) {
+            throw new IOException("Unvollständiger Eintrag am Ende der Kaderdatei");
+        }
+        buffer.get();
+        buffer.get(scratch, 0, nameLength);
+        String name = new String(scratch, 0, nameLength, StandardCharsets.UTF_8);
+        int health = buffer.getInt();
+        int attkMax = buffer.getInt();
+        int blockMax = buffer.getInt();
+        double dodge = dodges ? buffer.getDouble() : 0.0;
+        try {
+            return new WarriorSpec(name, health, attkMax, blockMax, dodge);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ungültiger Krieger Nr. " + (count + 1) + ": " + e.getMessage());
+        }
+    }
+
+    private WarriorSpec nextText() throws IOException {
+        while (true) {
+            int end = lineEnd();
+            if (end < 0) {
+                return null;
+            }
+            line++;
+            int start = buffer.position();
+            int stop = end;
+            buffer.position(end < buffer.limit() ? end + 1 : end);
+            if (stop > start && buffer.get(stop - 1) == '\r') {
+                stop--;
+            }
+            while (start < stop && buffer.get(start) <= ' ') {
+                start++;
+            }
+            if (start < stop && buffer.get(start) != '#') {
+                return parse(start, stop);
+            }
+        }
+    }
+
+    /**
+     * Sucht das Ende der nächsten Zeile und lädt dafür bei Bedarf nach.
+     *
+     * @return Index des Zeilenumbruchs, {@code limit()} für eine letzte Zeile
+     *         ohne Umbruch oder -1 am Ende der Datei
+     */
+    private int lineEnd() throws IOException {
+        int from = buffer.position();
+        while (true) {
+            for (int i = from; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (endOfFile) {
+                return buffer.hasRemaining() ? buffer.limit() : -1;
+            }
+            int scanned = buffer.remaining();
+            if (scanned == buffer.capacity()) {
+                throw new IOException("Zeile " + (line + 1) + " ist länger als der Lesepuffer");
+            }
+            fill(scanned + 1);
+            from = buffer.position() + scanned;
+        }
+    }
+
+    /**
+     * Zerlegt eine Zeile {@code Name,Gesundheit,Angriff,Block[,Ausweichen]}.
+     */
+    private WarriorSpec parse(int start, int stop) throws IOException {
+        int fields = 0;
+        fieldStart[0] = start;
+        for (int i = start; i < stop; i++) {
+            if (buffer.get(i) == ',') {
+                if (fields == 4) {
+                    throw malformed();
+                }
+                fieldEnd[fields++] = i;
+                fieldStart[fields] = i + 1;
+            }
+        }
+        fieldEnd[fields++] = stop;
+        if (fields < 4) {
+            throw malformed();
+        }
+        String name = text(0);
+        int health = number(1);
+        int attkMax = number(2);
+        int blockMax = number(3);
+        double dodge = 0.0;
+        if (fields == 5) {
+            try {
+                dodge = Double.parseDouble(text(4).trim());
+            } catch (NumberFormatException e) {
+                throw malformed();
+            }
+        }
+        try {
+            return new WarriorSpec(name, health, attkMax, blockMax, dodge);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Zeile " + line + ": " + e.getMessage());
+        }
+    }
+
+    private String text(int field) {
+        int length = fieldEnd[field] - fieldStart[field];
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+        }
+        buffer.get(fieldStart[field], scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int number(int field) throws IOException {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        while (i < end && buffer.get(i) == ' ') {
+            i++;
+        }
+        while (end > i && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        if (i == end) {
+            throw malformed();
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed();
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw malformed();
+            }
+        }
+        return (int) value;
+    }
+
+    private IOException malformed() {
+        return new IOException("Ungültige Zeile " + line + ": erwartet Name,Gesundheit,Angriff,Block[,Ausweichen]");
+    }
+
+    /**
+     * Lädt nach, bis mindestens {@code needed} Bytes im Puffer stehen oder die
+     * Datei zu Ende ist.
+     *
+     * @return {@code true} wenn genügend Bytes vorhanden sind
+     */
+    private boolean fill(int needed) throws IOException {
+        while (buffer.remaining() < needed && !endOfFile) {
+            buffer.compact();
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+            }
+            buffer.flip();
+        }
+        return buffer.remaining() >= needed;
+    }
+}
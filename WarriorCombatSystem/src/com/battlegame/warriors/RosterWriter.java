@@ -0,0 +1,138 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Schreibt Krieger in der kompakten binären Form einer Kaderdatei.
+ *
+ * Die Einträge sammeln sich in einem direkten Puffer und werden erst bei
+ * dessen Überlauf bzw. bei {@link #flush()} oder {@link #close()} an den
+ * {@link FileChannel} übergeben. Eine bestehende Datei wird überschrieben.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see RosterReader
+ * @see RosterFormat
+ */
+public final class RosterWriter implements AutoCloseable {
+
+    /** Standardgröße des Schreibpuffers in Bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long count;
+
+    /**
+     * Legt eine binäre Kaderdatei an.
+     *
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht angelegt werden kann
+     */
+    public RosterWriter(Path file) throws IOException {
+        this(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Legt eine binäre Kaderdatei an.
+     *
+     * @param file die Datei
+     * @param bufferSize Größe des Schreibpuffers in Bytes (mindestens 4096)
+     * @throws IOException wenn die Datei nicht angelegt werden kann
+     * @throws IllegalArgumentException wenn file null oder bufferSize zu klein ist
+     */
+    public RosterWriter(Path file, int bufferSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Datei darf nicht null sein");
+        }
+        if (bufferSize < 4096) {
+            throw new IllegalArgumentException("Puffer muss mindestens 4096 Bytes groß sein");
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        buffer.putInt(RosterFormat.MAGIC).putShort(RosterFormat.VERSION).putShort((short) 0);
+    }
+
+    /**
+     * Hängt einen Krieger an.
+     *
+     * @param spec der Krieger
+     * @throws IOException wenn das Schreiben fehlschlägt
+     * @throws IllegalArgumentException wenn spec null ist oder der Name länger als
+     *                                  127 Bytes in UTF-8 ist, ein Komma oder einen
+     *                                  Zeilenumbruch enthält
+     */
+    public void write(WarriorSpec spec) throws IOException {
+        if (spec == null) {
+            throw new IllegalArgumentException("Spezifikation darf nicht null sein");
+        }
+        byte[] name = spec.name().getBytes(StandardCharsets.UTF_8);
+        if (name.length > RosterFormat.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Name ist zu lang für eine Kaderdatei: " + spec.name());
+        }
+        for (byte b : name) {
+            if (b == ',' || b == '\n' || b == '\r') {
+                // Sonst ließe sich der Krieger nicht als Textzeile darstellen
+                throw new IllegalArgumentException("Name darf weder Komma noch Zeilenumbruch enthalten: "
+                        + spec.name());
+            }
+        }
+        if (buffer.remaining() < RosterFormat.MAX_RECORD) {
+            flush();
+        }
+        buffer.put((byte) (name.length | (spec.canDodge() ? RosterFormat.DODGE_FLAG : 0)))
+                .put(name)
+                .putInt(spec.health())
+                .putInt(spec.attkMax())
+                .putInt(spec.blockMax());
+        if (spec.canDodge()) {
+            buffer.putDouble(spec.dodgePercent());
+        }
+        count++;
+    }
+
+    /**
+     * Gibt die Anzahl der geschriebenen Krieger zurück.
+     *
+     * @return die Anzahl der Krieger
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Schreibt alle gepufferten Einträge in die Datei.
+     *
+     * @throws IOException wenn das Schreiben fehlschlägt
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Schreibt alle gepufferten Einträge und schließt die Datei.
+     *
+     * @throws IOException wenn das Schreiben fehlschlägt
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.battlegame.warriors;
+
+/**
+ * Unveränderliche Momentaufnahme der Kennzahlen eines {@link BattleService}.
+ *
+ * @param fights beantwortete Kampfanfragen
+ * @param simulations beantwortete Simulationsanfragen
+ * @param rejected wegen Überlast abgewiesene Anfragen
+ * @param batches Anzahl der an die Engine übergebenen Kampf-Batches
+ * @param uptimeNanos Laufzeit des Dienstes in Nanosekunden
+ * @param latencyNanos Verteilung der Antwortzeiten aller beantworteten Anfragen
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BattleService
+ */
+public record ServiceStats(long fights, long simulations, long rejected, long batches,
+                           long uptimeNanos, HistogramSnapshot latencyNanos) {
+
+    /**
+     * Gibt den Durchsatz zurück.
+     *
+     * @return beantwortete Anfragen je Sekunde seit dem Start
+     */
+    public double throughput() {
+        return uptimeNanos == 0 ? 0.0 : (fights + simulations) * 1e9 / uptimeNanos;
+    }
+
+    /**
+     * Gibt die mittlere Anzahl an Kämpfen je Batch zurück.
+     *
+     * @return Kampfanfragen je Batch, 0 ohne Batches
+     */
+    public double meanBatchSize() {
+        return batches == 0 ? 0.0 : (double) fights / batches;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation der Kennzahlen zurück.
+     *
+     * @return formatierte Zusammenfassung mit Latenz-Perzentilen in Mikrosekunden
+     */
+    @Override
+    public String toString() {
+        return String.format("ServiceStats{fights=%d, simulations=%d, rejected=%d, batches=%d, "
+                + "meanBatch=%.1f, throughput=%.0f/s, p50=%dµs, p99=%dµs, p999=%dµs, max=%dµs}",
+                fights, simulations, rejected, batches, meanBatchSize(), throughput(),
+                latencyNanos.percentile(0.5) / 1_000, latencyNanos.percentile(0.99) / 1_000,
+                latencyNanos.percentile(0.999) / 1_000, latencyNanos.max() / 1_000);
+    }
+}
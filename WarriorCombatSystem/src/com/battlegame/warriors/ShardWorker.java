@@ -0,0 +1,113 @@
+package com.battlegame.warriors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Arbeitsprozess einer {@link ShardedSimulation}.
+ *
+ * Der Prozess liest Aufträge von der Standardeingabe und schreibt die
+ * Ergebnisse auf die Standardausgabe; beides in Big-Endian über
+ * {@link DataInputStream}/{@link DataOutputStream}. Nach dem Start meldet er
+ * Kennung, Protokollversion und {@link Battle#RULES_VERSION}, damit der
+ * Koordinator keinen Prozess mit anderen Kampfregeln verwendet. Danach
+ * folgen beliebig viele Aufträge:
+ * <ul>
+ *   <li>Auftrag: Nummer (long), beide Krieger (Name als UTF, Gesundheit,
+ *       Angriff, Block als int, Ausweichen als double), Startwert, erster
+ *       und letzter Kampf exklusiv (je long)</li>
+ *   <li>Antwort: Nummer (long) und das {@link SimulationResult} der Kämpfe</li>
+ * </ul>
+ * Am Ende der Eingabe beendet sich der Prozess. Alle übrigen Ausgaben gehen
+ * auf die Fehlerausgabe.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ShardedSimulation
+ */
+public final class ShardWorker {
+
+    /** Kennung am Anfang der Ausgabe eines Arbeitsprozesses ("WCSW"). */
+    static final int MAGIC = 0x57435357;
+
+    /** Version des Protokolls. */
+    static final short VERSION = 1;
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Bearbeitet Aufträge, bis die Standardeingabe endet.
+     *
+     * @param args nicht verwendet
+     * @throws IOException wenn die Verbindung zum Koordinator abbricht
+     */
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // Die Standardausgabe gehört dem Protokoll
+        System.setOut(System.err);
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(Battle.RULES_VERSION);
+        out.flush();
+
+        MonteCarloSimulator simulator = new MonteCarloSimulator();
+        ByteBuffer result = ByteBuffer.allocate(SimulationResult.BYTES);
+        while (true) {
+            long id;
+            try {
+                id = in.readLong();
+            } catch (EOFException e) {
+                return;
+            }
+            WarriorSpec first = readSpec(in);
+            WarriorSpec second = readSpec(in);
+            long seed = in.readLong();
+            long from = in.readLong();
+            long to = in.readLong();
+            if (from < 0 || to < from) {
+                throw new IOException("Ungültiger Bereich in Auftrag " + id + ": " + from + " bis " + to);
+            }
+            result.clear();
+            simulator.simulateRange(first, second, seed, from, to).writeTo(result);
+            out.writeLong(id);
+            out.write(result.array());
+            out.flush();
+        }
+    }
+
+    /**
+     * Schreibt einen Krieger in der Form, die {@link #readSpec(DataInputStream)} liest.
+     */
+    static void writeSpec(DataOutputStream out, WarriorSpec spec) throws IOException {
+        out.writeUTF(spec.name());
+        out.writeInt(spec.health());
+        out.writeInt(spec.attkMax());
+        out.writeInt(spec.blockMax());
+        out.writeDouble(spec.dodgePercent());
+    }
+
+    private static WarriorSpec readSpec(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        int health = in.readInt();
+        int attkMax = in.readInt();
+        int blockMax = in.readInt();
+        double dodge = in.readDouble();
+        try {
+            return new WarriorSpec(name, health, attkMax, blockMax, dodge);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ungültiger Krieger im Auftrag: " + e.getMessage());
+        }
+    }
+}
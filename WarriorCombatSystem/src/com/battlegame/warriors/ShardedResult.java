@@ -0,0 +1,53 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Laufs der {@link ShardedSimulation}.
+ *
+ * @param results Ergebnis je Paarung, in der Reihenfolge der Paarungen
+ * @param shards Anzahl der Teilaufträge
+ * @param retries Anzahl der Teilaufträge, die nach einem Fehler eines
+ *                Arbeitsprozesses wiederholt wurden
+ * @param elapsedNanos Dauer des Laufs in Nanosekunden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ShardedSimulation
+ */
+public record ShardedResult(List<SimulationResult> results, int shards, int retries, long elapsedNanos) {
+
+    /**
+     * Gibt die Gesamtzahl der simulierten Kämpfe zurück.
+     *
+     * @return Kämpfe über alle Paarungen
+     */
+    public long fights() {
+        long fights = 0;
+        for (SimulationResult result : results) {
+            fights += result.fights();
+        }
+        return fights;
+    }
+
+    /**
+     * Gibt den Durchsatz zurück.
+     *
+     * @return Kämpfe je Sekunde
+     */
+    public double fightsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : fights() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Ergebnisses zurück.
+     *
+     * @return formatierte Zusammenfassung ohne die Einzelergebnisse
+     */
+    @Override
+    public String toString() {
+        return String.format("ShardedResult{matchups=%d, fights=%d, shards=%d, retries=%d, %.0f ms, %.0f Kämpfe/s}",
+                results.size(), fights(), shards, retries, elapsedNanos / 1e6, fightsPerSecond());
+    }
+}
@@ -0,0 +1,489 @@
+package com.battlegame.warriors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verteilt Monte-Carlo-Simulationen auf mehrere lokale JVM-Prozesse.
+ *
+ * Ein Lauf besteht aus Paarungen, die jeweils dieselbe Anzahl an Kämpfen mit
+ * demselben Startwert simulieren. Die Kämpfe jeder Paarung werden in
+ * zusammenhängende Teilaufträge (Shards) zu höchstens {@code shardFights}
+ * Kämpfen zerlegt. Jeder Arbeitsprozess ({@link ShardWorker}) ist über
+ * Standardein- und -ausgabe mit einem eigenen Thread des Koordinators
+ * verbunden, der Teilaufträge aus einer gemeinsamen Warteschlange holt.
+ *
+ * Kampf {@code i} einer Paarung verwendet unabhängig von seinem Teilauftrag
+ * den Startwert {@code streamSeed(seed, i)}, und die Teilergebnisse werden
+ * über {@link SimulationResult#merge} addiert. Das Ergebnis einer Paarung
+ * ist daher bitgenau dasselbe wie das von
+ * {@link MonteCarloSimulator#simulate(WarriorSpec, WarriorSpec, long, long)}
+ * in einem einzigen Prozess, unabhängig von Prozessanzahl, Shardgröße und
+ * Wiederholungen.
+ *
+ * Bricht ein Arbeitsprozess ab, antwortet er fehlerhaft oder überschreitet
+ * er die Zeitgrenze eines Teilauftrags, wird er beendet und neu gestartet;
+ * der Teilauftrag kommt zurück in die Warteschlange. Erst wenn ein
+ * Teilauftrag {@code maxAttempts}-mal gescheitert ist, schlägt der Lauf fehl.
+ *
+ * Instanzen sind unveränderlich; jeder Lauf startet eigene Prozesse.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see ShardWorker
+ * @see ShardedResult
+ */
+public final class ShardedSimulation {
+
+    /** Standardgröße eines Teilauftrags in Kämpfen. */
+    public static final long DEFAULT_SHARD_FIGHTS = 1L << 22;
+
+    /** Standardanzahl an Versuchen je Teilauftrag. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Standard-Zeitgrenze eines Teilauftrags in Millisekunden. */
+    public static final long DEFAULT_SHARD_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /** Wartezeit, nach der ein untätiger Koordinator-Thread auf Ende oder Abbruch prüft. */
+    private static final long POLL_MILLIS = 100;
+
+    private final int workers;
+    private final long shardFights;
+    private final int maxAttempts;
+    private final long timeoutNanos;
+    private final List<String> workerCommand;
+
+    /**
+     * Erstellt einen Koordinator mit Standardwerten und
+     * {@link #defaultCommand(int)} als Arbeitsprozess.
+     *
+     * @param workers Anzahl der Arbeitsprozesse (muss positiv sein)
+     * @throws IllegalArgumentException wenn workers nicht positiv ist
+     */
+    public ShardedSimulation(int workers) {
+        this(workers, DEFAULT_SHARD_FIGHTS, DEFAULT_MAX_ATTEMPTS, DEFAULT_SHARD_TIMEOUT_MILLIS,
+                defaultCommand(Math.max(1, workers)));
+    }
+
+    /**
+     * Erstellt einen Koordinator.
+     *
+     * @param workers Anzahl der Arbeitsprozesse (muss positiv sein)
+     * @param shardFights höchstens so viele Kämpfe je Teilauftrag (muss positiv sein)
+     * @param maxAttempts Versuche je Teilauftrag (muss positiv sein)
+     * @param shardTimeoutMillis Zeitgrenze eines Teilauftrags in Millisekunden (muss positiv sein)
+     * @param workerCommand Befehlszeile, die einen {@link ShardWorker} startet
+     * @throws IllegalArgumentException wenn ein Wert nicht positiv oder
+     *                                  workerCommand null oder leer ist
+     */
+    public ShardedSimulation(int workers, long shardFights, int maxAttempts, long shardTimeoutMillis,
+                             List<String> workerCommand) {
+        if (workers <= 0 || shardFights <= 0 || maxAttempts <= 0 || shardTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Prozesse, Shardgröße, Versuche und Zeitgrenze müssen positiv sein");
+        }
+        if (workerCommand == null || workerCommand.isEmpty()) {
+            throw new IllegalArgumentException("Befehl des Arbeitsprozesses darf nicht leer sein");
+        }
+        this.workers = workers;
+        this.shardFights = shardFights;
+        this.maxAttempts = maxAttempts;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(shardTimeoutMillis);
+        this.workerCommand = List.copyOf(workerCommand);
+    }
+
+    /**
+     * Gibt die Befehlszeile zurück, die einen {@link ShardWorker} mit der
+     * Java-Installation und dem Klassen- bzw. Modulpfad dieses Prozesses
+     * startet.
+     *
+     * Die Kerne werden gleichmäßig auf die Arbeitsprozesse verteilt. Eigene
+     * JVM-Optionen lassen sich vor dem Klassennamen einfügen.
+     *
+     * @param workers Anzahl der Arbeitsprozesse (muss positiv sein)
+     * @return veränderliche Liste der Argumente
+     * @throws IllegalArgumentException wenn workers nicht positiv ist
+     */
+    public static List<String> defaultCommand(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Anzahl der Prozesse muss positiv sein");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+        command.add("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + parallelism);
+        Module module = ShardWorker.class.getModule();
+        String modulePath = System.getProperty("jdk.module.path");
+        if (module.isNamed() && modulePath != null) {
+            command.add("--module-path");
+            command.add(modulePath);
+            command.add("--module");
+            command.add(module.getName() + "/" + ShardWorker.class.getName());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ShardWorker.class.getName());
+        }
+        return command;
+    }
+
+    /**
+     * Simuliert eine Paarung verteilt.
+     *
+     * @param first Spezifikation des ersten Kriegers
+     * @param second Spezifikation des zweiten Kriegers
+     * @param fights Anzahl der Kämpfe (darf nicht negativ sein)
+     * @param seed Basis-Startwert
+     * @return dasselbe Ergebnis wie {@link MonteCarloSimulator#simulate(WarriorSpec, WarriorSpec, long, long)}
+     * @throws IOException wenn ein Teilauftrag endgültig scheitert
+     * @throws IllegalArgumentException wenn eine Spezifikation null oder fights negativ ist
+     */
+    public SimulationResult simulate(WarriorSpec first, WarriorSpec second, long fights, long seed)
+            throws IOException {
+        return simulate(List.of(nonNull(first)), List.of(nonNull(second)), fights, seed).results().get(0);
+    }
+
+    /**
+     * Simuliert jeden Kandidaten eines Rasters gegen einen festen Gegner.
+     *
+     * @param space das Raster der Kandidaten; Kandidat {@code i} ist Paarung {@code i}
+     * @param opponent der Gegner, der jeweils als Zweiter angreift
+     * @param fights Kämpfe je Kandidat (darf nicht negativ sein)
+     * @param seed Basis-Startwert
+     * @return die Ergebnisse in der Reihenfolge von {@link TuningSpace#candidate(int)}
+     * @throws IOException wenn ein Teilauftrag endgültig scheitert
+     * @throws IllegalArgumentException wenn space oder opponent null oder fights negativ ist
+     */
+    public ShardedResult simulate(TuningSpace space, WarriorSpec opponent, long fights, long seed)
+            throws IOException {
+        if (space == null) {
+            throw new IllegalArgumentException("Raster darf nicht null sein");
+        }
+        List<WarriorSpec> candidates = new ArrayList<>(space.size());
+        for (int i = 0; i < space.size(); i++) {
+            candidates.add(space.candidate(i));
+        }
+        return simulate(candidates, Collections.nCopies(candidates.size(), nonNull(opponent)), fights, seed);
+    }
+
+    /**
+     * Simuliert mehrere Paarungen verteilt.
+     *
+     * Paarung {@code i} ist {@code firsts.get(i)} gegen {@code seconds.get(i)}.
+     *
+     * @param firsts die zuerst angreifenden Krieger
+     * @param seconds ihre Gegner
+     * @param fights Kämpfe je Paarung (darf nicht negativ sein)
+     * @param seed Basis-Startwert aller Paarungen
+     * @return die Ergebnisse je Paarung und Kennzahlen des Laufs
+     * @throws IOException wenn ein Teilauftrag endgültig scheitert
+     * @throws InterruptedIOException wenn der aufrufende Thread unterbrochen wird
+     * @throws IllegalArgumentException wenn eine Liste null ist oder null enthält,
+     *                                  beide unterschiedlich lang sind oder
+     *                                  fights negativ ist
+     */
+    public ShardedResult simulate(List<WarriorSpec> firsts, List<WarriorSpec> seconds, long fights, long seed)
+            throws IOException {
+        if (firsts == null || seconds == null || firsts.size() != seconds.size()) {
+            throw new IllegalArgumentException("Beide Listen müssen gleich lang sein");
+        }
+        for (int i = 0; i < firsts.size(); i++) {
+            nonNull(firsts.get(i));
+            nonNull(seconds.get(i));
+        }
+        if (fights < 0) {
+            throw new IllegalArgumentException("Anzahl der Kämpfe darf nicht negativ sein");
+        }
+        return new Run(List.copyOf(firsts), List.copyOf(seconds), fights, seed).execute();
+    }
+
+    private static WarriorSpec nonNull(WarriorSpec spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("Spezifikationen dürfen nicht null sein");
+        }
+        return spec;
+    }
+
+    /**
+     * Ein Teilauftrag: Kämpfe {@code from} bis ausschließlich {@code to} einer Paarung.
+     */
+    private static final class Shard {
+
+        final int matchup;
+        final long from;
+        final long to;
+        int attempts;
+
+        Shard(int matchup, long from, long to) {
+            this.matchup = matchup;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Zustand eines einzelnen Laufs.
+     */
+    private final class Run {
+
+        private final List<WarriorSpec> firsts;
+        private final List<WarriorSpec> seconds;
+        private final long seed;
+        private final LinkedBlockingDeque<Shard> pending = new LinkedBlockingDeque<>();
+        private final SimulationResult[] results;
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+        private final AtomicLong nextRequest = new AtomicLong();
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+        private final WorkerProcess[] processes = new WorkerProcess[workers];
+        private final int shards;
+        private volatile boolean finished;
+
+        Run(List<WarriorSpec> firsts, List<WarriorSpec> seconds, long fights, long seed) {
+            this.firsts = firsts;
+            this.seconds = seconds;
+            this.seed = seed;
+            results = new SimulationResult[firsts.size()];
+            Arrays.fill(results, SimulationResult.EMPTY);
+            for (int m = 0; m < results.length; m++) {
+                for (long from = 0; from < fights; from += shardFights) {
+                    pending.add(new Shard(m, from, Math.min(fights, from + shardFights)));
+                }
+            }
+            shards = pending.size();
+            remaining.set(shards);
+        }
+
+        ShardedResult execute() throws IOException {
+            long start = System.nanoTime();
+            if (shards > 0) {
+                int threads = Math.min(workers, shards);
+                Thread[] coordinators = new Thread[threads];
+                for (int w = 0; w < threads; w++) {
+                    processes[w] = new WorkerProcess();
+                    WorkerProcess process = processes[w];
+                    coordinators[w] = new Thread(() -> coordinate(process), "shard-coordinator-" + w);
+                    coordinators[w].setDaemon(true);
+                    coordinators[w].start();
+                }
+                Thread watchdog = new Thread(this::watch, "shard-watchdog");
+                watchdog.setDaemon(true);
+                watchdog.start();
+                try {
+                    for (Thread thread : coordinators) {
+                        thread.join();
+                    }
+                } catch (InterruptedException e) {
+                    fail(new InterruptedIOException("Verteilte Simulation wurde unterbrochen"));
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished = true;
+                }
+                IOException e = failure.get();
+                if (e != null) {
+                    throw e;
+                }
+            }
+            return new ShardedResult(List.of(results), shards, retries.get(), System.nanoTime() - start);
+        }
+
+        /**
+         * Holt Teilaufträge für einen Arbeitsprozess, bis alle erledigt sind.
+         */
+        private void coordinate(WorkerProcess process) {
+            try {
+                while (failure.get() == null) {
+                    Shard shard = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (shard == null) {
+                        if (remaining.get() == 0) {
+                            return;
+                        }
+                        continue;
+                    }
+                    SimulationResult part;
+                    try {
+                        part = process.run(shard);
+                    } catch (IOException e) {
+                        process.destroy();
+                        if (++shard.attempts >= maxAttempts) {
+                            fail(new IOException("Teilauftrag mit Kämpfen " + shard.from + " bis " + shard.to
+                                    + " ist " + shard.attempts + "-mal gescheitert", e));
+                        } else {
+                            retries.incrementAndGet();
+                            pending.addFirst(shard);
+                        }
+                        continue;
+                    }
+                    synchronized (results) {
+                        results[shard.matchup] = results[shard.matchup].merge(part);
+                    }
+                    remaining.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                fail(new InterruptedIOException("Verteilte Simulation wurde unterbrochen"));
+            } catch (RuntimeException | Error e) {
+                fail(new IOException("Koordinator ist ausgefallen", e));
+            } finally {
+                process.close();
+            }
+        }
+
+        /**
+         * Beendet Arbeitsprozesse, deren Teilauftrag die Zeitgrenze überschreitet.
+         */
+        private void watch() {
+            while (!finished) {
+                long now = System.nanoTime();
+                for (WorkerProcess process : processes) {
+                    if (process != null) {
+                        process.killIfOverdue(now);
+                    }
+                }
+                try {
+                    Thread.sleep(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void fail(IOException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        /**
+         * Verbindung zu einem Arbeitsprozess; nur von seinem Koordinator-Thread
+         * verwendet, abgesehen von {@link #killIfOverdue(long)}.
+         */
+        private final class WorkerProcess {
+
+            private volatile Process process;
+
+            /** Nummer der laufenden Anfrage; wird mit {@link #deadline} unter der Sperre gesetzt. */
+            private long runningRequest;
+
+            /** Zeitpunkt, bis zu dem die laufende Anfrage beantwortet sein muss; 0 ohne Anfrage. */
+            private long deadline;
+
+            /** Nummer der Anfrage, deren Arbeitsprozess wegen Zeitüberschreitung beendet wurde, sonst -1. */
+            private volatile long overdueRequest = -1;
+            private DataOutputStream out;
+            private DataInputStream in;
+            private final ByteBuffer response = ByteBuffer.allocate(SimulationResult.BYTES);
+
+            SimulationResult run(Shard shard) throws IOException {
+                long id = nextRequest.getAndIncrement();
+                synchronized (this) {
+                    runningRequest = id;
+                    deadline = System.nanoTime() + timeoutNanos;
+                }
+                try {
+                    if (process == null) {
+                        start();
+                    }
+                    out.writeLong(id);
+                    ShardWorker.writeSpec(out, firsts.get(shard.matchup));
+                    ShardWorker.writeSpec(out, seconds.get(shard.matchup));
+                    out.writeLong(seed);
+                    out.writeLong(shard.from);
+                    out.writeLong(shard.to);
+                    out.flush();
+                    long answered = in.readLong();
+                    in.readFully(response.array());
+                    SimulationResult part = SimulationResult.readFrom(response.clear());
+                    if (answered != id || part.fights() != shard.to - shard.from) {
+                        throw new IOException("Ungültige Antwort des Arbeitsprozesses auf Auftrag " + id);
+                    }
+                    return part;
+                } catch (IOException e) {
+                    if (overdueRequest == id) {
+                        throw new IOException("Arbeitsprozess hat die Zeitgrenze überschritten", e);
+                    }
+                    throw e;
+                } finally {
+                    synchronized (this) {
+                        deadline = 0;
+                    }
+                }
+            }
+
+            private void start() throws IOException {
+                Process started = new ProcessBuilder(workerCommand)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                process = started;
+                out = new DataOutputStream(new BufferedOutputStream(started.getOutputStream()));
+                in = new DataInputStream(new BufferedInputStream(started.getInputStream()));
+                int magic = in.readInt();
+                short version = in.readShort();
+                int rules = in.readInt();
+                if (magic != ShardWorker.MAGIC || version != ShardWorker.VERSION) {
+                    throw new IOException("Arbeitsprozess spricht ein anderes Protokoll");
+                }
+                if (rules != Battle.RULES_VERSION) {
+                    throw new IOException("Arbeitsprozess verwendet andere Kampfregeln: Version " + rules);
+                }
+            }
+
+            /**
+             * Beendet den Arbeitsprozess, wenn die laufende Anfrage ihre Zeitgrenze
+             * überschritten hat.
+             *
+             * Zeitgrenze und Anfrage werden unter derselben Sperre gelesen, unter
+             * der {@link #run(Shard)} sie setzt und löscht; eine bereits
+             * beantwortete Anfrage kann daher nicht den Prozess treffen, der schon
+             * den nächsten Teilauftrag rechnet.
+             */
+            synchronized void killIfOverdue(long now) {
+                Process current = process;
+                if (deadline != 0 && now - deadline > 0 && current != null) {
+                    overdueRequest = runningRequest;
+                    current.destroyForcibly();
+                }
+            }
+
+            void destroy() {
+                Process current = process;
+                process = null;
+                if (current != null) {
+                    current.destroyForcibly();
+                }
+            }
+
+            void close() {
+                Process current = process;
+                process = null;
+                if (current == null) {
+                    return;
+                }
+                try {
+                    // Ende der Eingabe beendet den Arbeitsprozess regulär
+                    out.close();
+                    if (!current.waitFor(1, TimeUnit.SECONDS)) {
+                        current.destroyForcibly();
+                    }
+                } catch (IOException e) {
+                    current.destroyForcibly();
+                } catch (InterruptedException e) {
+                    current.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
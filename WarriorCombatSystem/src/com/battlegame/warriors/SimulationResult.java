@@ -0,0 +1,196 @@
+package com.battlegame.warriors;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unveränderliches Ergebnis einer Serie simulierter Kämpfe.
+ *
+ * Alle Felder sind ganzzahlige Summen oder Zähler. Teilergebnisse lassen
+ * sich daher mit {@link #merge(SimulationResult)} exakt zusammenführen,
+ * unabhängig davon, in wie viele Teile die Simulation zerlegt wurde.
+ * Abgeleitete Größen wie Siegquoten oder Mittelwerte werden erst bei
+ * Bedarf berechnet.
+ *
+ * Eine Runde bezeichnet hier einen einzelnen Angriff.
+ *
+ * @param fights Anzahl der simulierten Kämpfe
+ * @param firstWins Siege des ersten Kriegers
+ * @param secondWins Siege des zweiten Kriegers
+ * @param draws Kämpfe, die die maximale Anzahl an Angriffen erreicht haben
+ * @param rounds Summe der Angriffe über alle Kämpfe
+ * @param roundsSquared Summe der quadrierten Angriffszahlen je Kampf
+ * @param firstHits Angriffe des ersten Kriegers
+ * @param firstDamage vom ersten Krieger insgesamt verursachter Schaden
+ * @param secondHits Angriffe des zweiten Kriegers
+ * @param secondDamage vom zweiten Krieger insgesamt verursachter Schaden
+ * @param maxHit höchster Schaden eines einzelnen Angriffs
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see MonteCarloSimulator
+ */
+public record SimulationResult(long fights, long firstWins, long secondWins, long draws,
+                               long rounds, long roundsSquared,
+                               long firstHits, long firstDamage,
+                               long secondHits, long secondDamage,
+                               int maxHit) {
+
+    /** Leeres Ergebnis ohne Kämpfe, neutrales Element für {@link #merge(SimulationResult)}. */
+    public static final SimulationResult EMPTY = new SimulationResult(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /** Länge der binären Form in Bytes, siehe {@link #writeTo(ByteBuffer)}. */
+    static final int BYTES = 10 * Long.BYTES + Integer.BYTES;
+
+    /**
+     * Führt dieses Ergebnis mit einem weiteren Teilergebnis zusammen.
+     *
+     * @param other das zweite Teilergebnis
+     * @return die Summe beider Ergebnisse
+     * @throws IllegalArgumentException wenn other null ist
+     */
+    public SimulationResult merge(SimulationResult other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Ergebnis darf nicht null sein");
+        }
+        return new SimulationResult(fights + other.fights,
+                firstWins + other.firstWins,
+                secondWins + other.secondWins,
+                draws + other.draws,
+                rounds + other.rounds,
+                roundsSquared + other.roundsSquared,
+                firstHits + other.firstHits,
+                firstDamage + other.firstDamage,
+                secondHits + other.secondHits,
+                secondDamage + other.secondDamage,
+                Math.max(maxHit, other.maxHit));
+    }
+
+    /**
+     * Schreibt alle Zähler an die aktuelle Position des Puffers.
+     *
+     * @param buffer der Zielpuffer mit mindestens {@link #BYTES} freien Bytes
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(fights).putLong(firstWins).putLong(secondWins).putLong(draws)
+                .putLong(rounds).putLong(roundsSquared).putLong(firstHits).putLong(firstDamage)
+                .putLong(secondHits).putLong(secondDamage).putInt(maxHit);
+    }
+
+    /**
+     * Liest ein mit {@link #writeTo(ByteBuffer)} geschriebenes Ergebnis.
+     *
+     * @param buffer der Quellpuffer, positioniert auf dem Ergebnis
+     * @return das gelesene Ergebnis
+     */
+    static SimulationResult readFrom(ByteBuffer buffer) {
+        return new SimulationResult(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                buffer.getLong(), buffer.getLong(), buffer.getInt());
+    }
+
+    /**
+     * Gibt die Siegquote des ersten Kriegers zurück.
+     *
+     * @return Anteil der Kämpfe, die der erste Krieger gewonnen hat
+     */
+    public double firstWinRate() {
+        return ratio(firstWins, fights);
+    }
+
+    /**
+     * Gibt die Siegquote des zweiten Kriegers zurück.
+     *
+     * @return Anteil der Kämpfe, die der zweite Krieger gewonnen hat
+     */
+    public double secondWinRate() {
+        return ratio(secondWins, fights);
+    }
+
+    /**
+     * Gibt den Anteil unentschiedener Kämpfe zurück.
+     *
+     * @return Anteil der Kämpfe ohne Sieger
+     */
+    public double drawRate() {
+        return ratio(draws, fights);
+    }
+
+    /**
+     * Gibt die mittlere Anzahl an Angriffen pro Kampf zurück.
+     *
+     * @return mittlere Kampflänge in Angriffen
+     */
+    public double meanRounds() {
+        return ratio(rounds, fights);
+    }
+
+    /**
+     * Gibt die Standardabweichung der Kampflänge zurück.
+     *
+     * @return Standardabweichung der Angriffe pro Kampf
+     */
+    public double roundsStdDev() {
+        if (fights == 0) {
+            return 0.0;
+        }
+        double mean = meanRounds();
+        return Math.sqrt(Math.max(0.0, (double) roundsSquared / fights - mean * mean));
+    }
+
+    /**
+     * Gibt den mittleren Schaden pro Angriff des ersten Kriegers zurück.
+     *
+     * @return mittlerer Schaden pro Angriff, Ausweichen und Blocken eingeschlossen
+     */
+    public double firstDamagePerHit() {
+        return ratio(firstDamage, firstHits);
+    }
+
+    /**
+     * Gibt den mittleren Schaden pro Angriff des zweiten Kriegers zurück.
+     *
+     * @return mittlerer Schaden pro Angriff, Ausweichen und Blocken eingeschlossen
+     */
+    public double secondDamagePerHit() {
+        return ratio(secondDamage, secondHits);
+    }
+
+    /**
+     * Gibt den mittleren Schaden pro Kampf des ersten Kriegers zurück.
+     *
+     * @return mittlerer verursachter Schaden pro Kampf
+     */
+    public double firstDamagePerFight() {
+        return ratio(firstDamage, fights);
+    }
+
+    /**
+     * Gibt den mittleren Schaden pro Kampf des zweiten Kriegers zurück.
+     *
+     * @return mittlerer verursachter Schaden pro Kampf
+     */
+    public double secondDamagePerFight() {
+        return ratio(secondDamage, fights);
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Ergebnisses zurück.
+     *
+     * @return formatierte Zusammenfassung mit Quoten und Mittelwerten
+     */
+    @Override
+    public String toString() {
+        return String.format("SimulationResult{fights=%d, firstWinRate=%.4f, secondWinRate=%.4f, drawRate=%.4f, "
+                + "meanRounds=%.2f, firstDamagePerHit=%.2f, secondDamagePerHit=%.2f, maxHit=%d}",
+                fights, firstWinRate(), secondWinRate(), drawRate(),
+                meanRounds(), firstDamagePerHit(), secondDamagePerHit(), maxHit);
+    }
+
+    /**
+     * Dividiert zwei Zähler und liefert 0 bei leerem Nenner.
+     */
+    private static double ratio(long numerator, long denominator) {
+        return denominator == 0 ? 0.0 : (double) numerator / denominator;
+    }
+}
@@ -0,0 +1,136 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schneller, teilbarer Zufallsgenerator nach dem SplitMix64-Verfahren.
+ *
+ * Der gesamte Zustand besteht aus einem einzigen {@code long}. Dadurch ist der
+ * Generator billig zu erzeugen, lässt sich mit {@link #getState()} und
+ * {@link #setState(long)} exakt sichern und wiederherstellen und kann mit
+ * {@link #streamSeed(long, long)} für jeden Kampf einer Simulation einen
+ * eigenen, unabhängigen Startwert ableiten. Das Verfahren entspricht dem von
+ * {@link java.util.SplittableRandom}, dessen Zustand aber nicht zugänglich ist.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see CombatRandom
+ */
+public final class SplitMixRandom implements CombatRandom {
+
+    /** Schrittweite des Generators (ungerade, goldener Schnitt). */
+    static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** Quelle für die Startwerte der Thread-eigenen Generatoren. */
+    private static final AtomicLong SEED_SOURCE =
+            new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    /** Thread-eigene Generatoren für {@link CombatRandom#current()}. */
+    private static final ThreadLocal<SplitMixRandom> CURRENT =
+            ThreadLocal.withInitial(() -> new SplitMixRandom(randomSeed()));
+
+    /** Aktueller Zustand des Generators. */
+    private long state;
+
+    /**
+     * Erstellt einen Generator mit dem angegebenen Startwert.
+     *
+     * @param seed der Startwert
+     */
+    public SplitMixRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Gibt den Generator des aktuellen Threads zurück.
+     *
+     * @return der Thread-eigene Generator
+     */
+    static SplitMixRandom current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Liefert einen nicht reproduzierbaren Startwert.
+     *
+     * @return ein neuer, zufälliger Startwert
+     */
+    public static long randomSeed() {
+        return mix64(SEED_SOURCE.getAndAdd(GAMMA));
+    }
+
+    /**
+     * Leitet den Startwert des Kampfes mit dem angegebenen Index ab.
+     *
+     * Der Startwert hängt nur vom Basis-Startwert und dem Index ab. Eine
+     * Simulation liefert daher unabhängig von der Aufteilung auf Threads oder
+     * Prozesse dieselben Kämpfe, und jeder einzelne Kampf lässt sich mit
+     * {@code new SplitMixRandom(streamSeed(seed, index))} nachspielen.
+     *
+     * @param seed der Basis-Startwert der Simulation
+     * @param index der Index des Kampfes
+     * @return der Startwert des Kampfes
+     */
+    public static long streamSeed(long seed, long index) {
+        return mix64(seed + GAMMA * (index + 1));
+    }
+
+    /**
+     * Liefert die nächste 64-Bit-Zufallszahl.
+     *
+     * @return die nächste Zufallszahl
+     */
+    public long nextLong() {
+        return mix64(state += GAMMA);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Erzeugt einen neuen, unabhängigen Generator aus diesem Generator.
+     *
+     * @return der abgespaltene Generator
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(nextLong());
+    }
+
+    /**
+     * Gibt den aktuellen Zustand zurück.
+     *
+     * @return der Zustand, aus dem der Generator exakt fortgesetzt werden kann
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Setzt den Zustand des Generators.
+     *
+     * Ein neuer Startwert oder ein zuvor mit {@link #getState()} gesicherter
+     * Zustand; der Generator setzt danach exakt an dieser Stelle fort.
+     *
+     * @param state der neue Zustand
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * Mischfunktion von SplitMix64 (Variante 13 nach Stafford).
+     *
+     * @param z der zu mischende Wert
+     * @return der gemischte Wert
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,28 @@
+package com.battlegame.warriors;
+
+/**
+ * Platzierung eines Teilnehmers in der Turniertabelle.
+ *
+ * Ein Sieg zählt drei Punkte, ein Unentschieden einen Punkt.
+ *
+ * @param entrant der Teilnehmer
+ * @param wins Anzahl der Siege
+ * @param losses Anzahl der Niederlagen
+ * @param draws Anzahl der Unentschieden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Tournament
+ */
+public record Standing(Warrior entrant, int wins, int losses, int draws) {
+
+    /**
+     * Gibt die Punktzahl des Teilnehmers zurück.
+     *
+     * @return drei Punkte je Sieg und einen Punkt je Unentschieden
+     */
+    public int points() {
+        return 3 * wins + draws;
+    }
+}
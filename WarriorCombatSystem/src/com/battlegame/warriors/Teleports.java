@@ -32,6 +32,19 @@ public interface Teleports {
      *         z.B. "Teleports Away" bei Erfolg oder "Fails at Teleporting" bei Misserfolg
      */
     String teleport();
+
+    /**
+     * Prüft, ob diese Fähigkeit einen Krieger tatsächlich versetzt.
+     *
+     * Wird von der {@link Arena} abgefragt, um einen Krieger neben seinen
+     * Gegner zu versetzen. Die Standardimplementierung versetzt nicht.
+     *
+     * @return {@code true} wenn der Krieger seine Position wechseln kann
+     * @since 4.0
+     */
+    default boolean relocates() {
+        return false;
+    }
 }
 
 /**
@@ -50,6 +63,13 @@ public interface Teleports {
  */
 class CanTeleport implements Teleports {
 
+    /**
+     * Gemeinsam genutzte Instanz; die Klasse besitzt keinen Zustand.
+     *
+     * @since 4.0
+     */
+    static final CanTeleport INSTANCE = new CanTeleport();
+
     /**
      * Führt eine erfolgreiche Teleportation durch.
      * 
@@ -63,6 +83,16 @@ class CanTeleport implements Teleports {
     public String teleport() {
         return "Teleports Away";
     }
+
+    /**
+     * Ein erfolgreich teleportierender Krieger wechselt tatsächlich seine Position.
+     *
+     * @return immer {@code true}
+     */
+    @Override
+    public boolean relocates() {
+        return true;
+    }
 }
 
 /**
@@ -0,0 +1,238 @@
+package com.battlegame.warriors;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchisches Zeitrad für Zeitpunkte in ganzzahligen Zügen.
+ *
+ * Vier Ebenen mit je 64 Fächern decken 2^24 Züge ab; Ebene {@code L} fasst
+ * in jedem Fach 64^L Züge zusammen. Einträge werden über ihre Nummer
+ * angesprochen und liegen in doppelt verketteten Listen in Arrays, wie die
+ * Zellen der {@link Arena}. Einplanen und Entfernen kosten damit O(1),
+ * ebenso jeder Zug, abgesehen vom Umhängen eines Fachs beim Übergang auf
+ * eine höhere Ebene, das jeder Eintrag höchstens einmal je Ebene erfährt.
+ * Weiter entfernte Zeitpunkte werden im obersten Fach geparkt und beim
+ * Umhängen neu eingeordnet.
+ *
+ * Die Nummern vergibt der Aufrufer; {@link #ensureCapacity(int)} muss vorher
+ * genügend Platz geschaffen haben.
+ *
+ * Instanzen sind nicht threadsicher.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see EffectScheduler
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /** Größter Abstand, der ohne erneutes Einordnen abgebildet wird. */
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /** Erster Eintrag je Fach, -1 für ein leeres Fach. */
+    private final int[] heads = new int[LEVELS * SLOTS];
+
+    private long[] deadline;
+    private int[] next;
+    private int[] prev;
+
+    /** Fach eines Eintrags, -1 wenn er nicht eingeplant ist. */
+    private int[] bucket;
+
+    private long now;
+    private int size;
+
+    /**
+     * Erstellt ein leeres Zeitrad zum Zeitpunkt 0.
+     *
+     * @param capacity anfängliche Anzahl an Eintragsnummern
+     */
+    TimingWheel(int capacity) {
+        Arrays.fill(heads, -1);
+        deadline = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        bucket = new int[capacity];
+        Arrays.fill(bucket, -1);
+    }
+
+    /**
+     * Vergrößert die Eintragstabellen auf mindestens {@code capacity} Nummern.
+     */
+    void ensureCapacity(int capacity) {
+        int old = bucket.length;
+        if (capacity <= old) {
+            return;
+        }
+        int grown = Math.max(capacity, old * 2);
+        deadline = Arrays.copyOf(deadline, grown);
+        next = Arrays.copyOf(next, grown);
+        prev = Arrays.copyOf(prev, grown);
+        bucket = Arrays.copyOf(bucket, grown);
+        Arrays.fill(bucket, old, grown, -1);
+    }
+
+    /** Aktueller Zeitpunkt in Zügen. */
+    long now() {
+        return now;
+    }
+
+    /** Anzahl der eingeplanten Einträge. */
+    int size() {
+        return size;
+    }
+
+    /** Prüft, ob der Eintrag eingeplant ist. */
+    boolean isScheduled(int id) {
+        return bucket[id] >= 0;
+    }
+
+    /**
+     * Plant einen Eintrag für den angegebenen, künftigen Zeitpunkt ein.
+     *
+     * @throws IllegalArgumentException wenn der Zeitpunkt nicht in der Zukunft liegt
+     * @throws IllegalStateException wenn der Eintrag bereits eingeplant ist
+     */
+    void schedule(int id, long when) {
+        if (when <= now) {
+            throw new IllegalArgumentException("Zeitpunkt muss in der Zukunft liegen");
+        }
+        if (bucket[id] >= 0) {
+            throw new IllegalStateException("Eintrag ist bereits eingeplant");
+        }
+        deadline[id] = when;
+        place(id);
+        size++;
+    }
+
+    /**
+     * Entfernt einen eingeplanten Eintrag.
+     *
+     * @return {@code false} wenn der Eintrag nicht eingeplant war
+     */
+    boolean cancel(int id) {
+        if (bucket[id] < 0) {
+            return false;
+        }
+        unlink(id);
+        size--;
+        return true;
+    }
+
+    /**
+     * Rückt um einen Zug vor und entnimmt alle jetzt fälligen Einträge.
+     *
+     * Die fälligen Einträge bilden eine Kette, die mit {@link #nextExpired(int)}
+     * durchlaufen wird. Der Nachfolger muss gelesen werden, bevor ein Eintrag
+     * der Kette erneut eingeplant wird.
+     *
+     * @return der erste fällige Eintrag oder -1
+     */
+    int advance() {
+        now++;
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((now & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+            cascade(level * SLOTS + (int) (now >>> shift & SLOT_MASK));
+        }
+        int slot = (int) (now & SLOT_MASK);
+        int head = heads[slot];
+        heads[slot] = -1;
+        for (int id = head; id >= 0; id = next[id]) {
+            bucket[id] = -1;
+            size--;
+        }
+        return head;
+    }
+
+    /**
+     * Gibt den nächsten Zug zurück, in dem {@link #advance()} etwas zu tun hat.
+     *
+     * Das ist der nächste Zug mit einem belegten Fach der untersten Ebene
+     * oder, falls früher, der Zug, in dem ein belegtes Fach einer höheren
+     * Ebene umgehängt wird. Alle Züge davor sind leer; der Aufrufer kann bis
+     * dahin schlafen, muss sie aber dennoch mit {@link #advance()} durchlaufen.
+     *
+     * @return der Zeitpunkt in Zügen, {@link Long#MAX_VALUE} ohne Einträge
+     */
+    long nextTick() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        long best = Long.MAX_VALUE;
+        // Unterste Ebene: Fälligkeiten liegen höchstens SLOTS - 1 Züge voraus
+        for (int k = 1; k < SLOTS; k++) {
+            if (heads[(int) (now + k & SLOT_MASK)] >= 0) {
+                best = now + k;
+                break;
+            }
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long boundary = ((now >>> shift) + 1) << shift;
+            for (int k = 0; k < SLOTS && boundary < best; k++, boundary += 1L << shift) {
+                if (heads[level * SLOTS + (int) (boundary >>> shift & SLOT_MASK)] >= 0) {
+                    best = boundary;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Nachfolger eines Eintrags in der Kette aus {@link #advance()}, oder -1. */
+    int nextExpired(int id) {
+        return next[id];
+    }
+
+    private void cascade(int index) {
+        int id = heads[index];
+        heads[index] = -1;
+        while (id >= 0) {
+            int following = next[id];
+            place(id);
+            id = following;
+        }
+    }
+
+    private void place(int id) {
+        long when = deadline[id];
+        long delta = when - now;
+        if (delta >= SPAN) {
+            // Parken: beim Umhängen des obersten Fachs erneut einordnen
+            when = now + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = delta < SLOTS ? 0 : (63 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS;
+        int index = level * SLOTS + (int) (when >>> (SLOT_BITS * level) & SLOT_MASK);
+        int first = heads[index];
+        next[id] = first;
+        prev[id] = -1;
+        if (first >= 0) {
+            prev[first] = id;
+        }
+        heads[index] = id;
+        bucket[id] = index;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id];
+        int n = next[id];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[bucket[id]] = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        }
+        bucket[id] = -1;
+    }
+}
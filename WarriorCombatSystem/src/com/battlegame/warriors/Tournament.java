@@ -0,0 +1,451 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Paralleler Turnierplaner für beliebig viele Krieger.
+ *
+ * Unterstützt werden Jeder-gegen-jeden-Turniere ({@link #roundRobin(List, int)})
+ * und K.-o.-Turniere ({@link #knockout(List)}). Voneinander unabhängige Kämpfe
+ * laufen gleichzeitig auf dem Executor des Turniers, standardmäßig auf
+ * virtuellen Threads. Im K.-o.-Turnier startet ein Kampf erst, wenn beide
+ * vorangehenden Kämpfe des Turnierbaums entschieden sind.
+ *
+ * Jeder Kampf kämpft mit eigenen Kopien der Teilnehmer
+ * ({@link WarriorSpec#of(Warrior)}), sodass derselbe Krieger gleichzeitig in
+ * mehreren Kämpfen antreten kann, ohne dass seine Gesundheit verändert wird.
+ * Die Kopien entstehen über {@link WarriorSpec#newWarrior()}: Teilnehmer
+ * werden auf ihre Kampfwerte reduziert und kämpfen als {@link Warrior} bzw.
+ * {@link DodgeWarrior}; überschriebenes Verhalten anderer Unterklassen
+ * wirkt im Turnier nicht. In den Ergebnissen erscheinen die Teilnehmer
+ * selbst.
+ * Jeder Kampf erhält einen aus dem Turnier-Startwert abgeleiteten
+ * Zufallsstrom; dasselbe Turnier mit demselben Startwert liefert daher
+ * unabhängig von der Ausführungsreihenfolge dasselbe Ergebnis.
+ *
+ * Lange Turniere lassen sich mit einer Checkpoint-Datei austragen
+ * ({@link #roundRobin(List, int, Path)}, {@link #knockout(List, Path)}):
+ * Jeder entschiedene Kampf wird im {@link CheckpointLog} festgehalten, und
+ * ein abgebrochenes Turnier setzt beim nächsten Aufruf mit den noch offenen
+ * Kämpfen fort.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see TournamentResult
+ */
+public final class Tournament implements AutoCloseable {
+
+    /** Executor, auf dem die Kämpfe laufen. */
+    private final ExecutorService executor;
+
+    /** Ob das Turnier den Executor selbst erzeugt hat und beim Schließen beendet. */
+    private final boolean ownsExecutor;
+
+    /** Basis-Startwert für die Zufallsströme der Kämpfe. */
+    private final long seed;
+
+    /** Obergrenze für Angriffe pro Kampf. */
+    private final int maxRounds;
+
+    /**
+     * Erstellt ein Turnier, dessen Kämpfe auf einem vorgegebenen Executor laufen.
+     *
+     * Der Executor wird beim Schließen des Turniers nicht beendet; für eine
+     * begrenzte Parallelität eignet sich z.B. ein fester Thread-Pool.
+     *
+     * @param executor Executor für die Kämpfe
+     * @param seed Basis-Startwert für die Zufallsströme der Kämpfe
+     * @throws IllegalArgumentException wenn executor null ist
+     */
+    public Tournament(ExecutorService executor, long seed) {
+        this(executor, false, seed);
+    }
+
+    private Tournament(ExecutorService executor, boolean ownsExecutor, long seed) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor darf nicht null sein");
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.seed = seed;
+        this.maxRounds = MonteCarloSimulator.DEFAULT_MAX_ROUNDS;
+    }
+
+    /**
+     * Erstellt ein Turnier, das jeden Kampf auf einem eigenen virtuellen Thread ausführt.
+     *
+     * @param seed Basis-Startwert für die Zufallsströme der Kämpfe
+     * @return das neue Turnier, das beim Schließen seinen Executor beendet
+     */
+    public static Tournament onVirtualThreads(long seed) {
+        return new Tournament(Executors.newVirtualThreadPerTaskExecutor(), true, seed);
+    }
+
+    /**
+     * Trägt ein Turnier jeder gegen jeden aus.
+     *
+     * Jede Paarung wird {@code legs}-mal gespielt, wobei der erste Angreifer
+     * von Durchgang zu Durchgang wechselt. Alle Kämpfe sind voneinander
+     * unabhängig und laufen gleichzeitig.
+     *
+     * @param entrants die Teilnehmer (mindestens zwei, alle mit positiver Gesundheit)
+     * @param legs Anzahl der Durchgänge je Paarung (muss positiv sein)
+     * @return alle Kämpfe und die Tabelle
+     * @throws IllegalArgumentException wenn die Teilnehmerliste ungültig oder legs nicht positiv ist
+     */
+    public TournamentResult roundRobin(List<? extends Warrior> entrants, int legs) {
+        List<WarriorSpec> specs = validate(entrants);
+        if (legs <= 0) {
+            throw new IllegalArgumentException("Anzahl der Durchgänge muss positiv sein");
+        }
+        return roundRobin(entrants, specs, legs, Progress.NONE);
+    }
+
+    /**
+     * Trägt ein Turnier jeder gegen jeden aus und sichert jeden entschiedenen
+     * Kampf in einer Checkpoint-Datei.
+     *
+     * Enthält die Datei Kämpfe eines abgebrochenen Turniers mit denselben
+     * Teilnehmern, Durchgängen und demselben Startwert, werden nur die noch
+     * offenen Kämpfe ausgetragen. Das Ergebnis ist dasselbe wie ohne
+     * Unterbrechung.
+     *
+     * @param entrants die Teilnehmer (mindestens zwei, alle mit positiver Gesundheit)
+     * @param legs Anzahl der Durchgänge je Paarung (muss positiv sein)
+     * @param checkpoint die Checkpoint-Datei
+     * @return alle Kämpfe und die Tabelle
+     * @throws IOException wenn die Checkpoint-Datei nicht verwendet werden kann
+     *                     oder zu einem anderen Turnier gehört
+     * @throws IllegalArgumentException wenn die Teilnehmerliste ungültig, legs nicht
+     *                                  positiv oder checkpoint null ist
+     */
+    public TournamentResult roundRobin(List<? extends Warrior> entrants, int legs, Path checkpoint)
+            throws IOException {
+        List<WarriorSpec> specs = validate(entrants);
+        if (legs <= 0) {
+            throw new IllegalArgumentException("Anzahl der Durchgänge muss positiv sein");
+        }
+        if (checkpoint == null) {
+            throw new IllegalArgumentException("Checkpoint-Datei darf nicht null sein");
+        }
+        try (CheckpointLog log = new CheckpointLog(checkpoint, runKey(specs, legs))) {
+            return roundRobin(entrants, specs, legs, Progress.resume(log));
+        }
+    }
+
+    private TournamentResult roundRobin(List<? extends Warrior> entrants, List<WarriorSpec> specs, int legs,
+                                        Progress progress) {
+
+        int n = specs.size();
+        Tally tally = new Tally(n);
+        List<CompletableFuture<MatchResult>> futures = new ArrayList<>();
+        int match = 0;
+        for (int leg = 0; leg < legs; leg++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int first = leg % 2 == 0 ? i : j;
+                    int second = leg % 2 == 0 ? j : i;
+                    int round = leg + 1;
+                    int id = match++;
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> play(round, id, entrants, specs, first, second, false, tally, progress)
+                                    .result(),
+                            executor));
+                }
+            }
+        }
+
+        List<MatchResult> matches = new ArrayList<>(futures.size());
+        for (CompletableFuture<MatchResult> future : futures) {
+            matches.add(join(future));
+        }
+        return new TournamentResult(matches, tally.standings(entrants));
+    }
+
+    /**
+     * Trägt ein K.-o.-Turnier aus.
+     *
+     * Die Reihenfolge der Teilnehmerliste gilt als Setzliste: In der ersten
+     * Runde trifft der Erstgesetzte auf den Letztgesetzten, und die
+     * Bestgesetzten können erst in späten Runden aufeinandertreffen. Ist die
+     * Teilnehmerzahl keine Zweierpotenz, erhalten die Bestgesetzten ein
+     * Freilos. Endet ein Kampf unentschieden, kommt der Teilnehmer mit dem
+     * größeren Anteil verbliebener Gesundheit weiter, bei Gleichstand der
+     * besser gesetzte.
+     *
+     * @param entrants die Teilnehmer in Setzreihenfolge (mindestens zwei)
+     * @return alle Kämpfe und die Tabelle, Sieger zuerst
+     * @throws IllegalArgumentException wenn die Teilnehmerliste ungültig ist
+     */
+    public TournamentResult knockout(List<? extends Warrior> entrants) {
+        return knockout(entrants, validate(entrants), Progress.NONE);
+    }
+
+    /**
+     * Trägt ein K.-o.-Turnier aus und sichert jeden entschiedenen Kampf in
+     * einer Checkpoint-Datei.
+     *
+     * Wie {@link #knockout(List)}; enthält die Datei Kämpfe eines
+     * abgebrochenen Turniers mit denselben Teilnehmern und demselben
+     * Startwert, werden nur die noch offenen Kämpfe ausgetragen.
+     *
+     * @param entrants die Teilnehmer in Setzreihenfolge (mindestens zwei)
+     * @param checkpoint die Checkpoint-Datei
+     * @return alle Kämpfe und die Tabelle, Sieger zuerst
+     * @throws IOException wenn die Checkpoint-Datei nicht verwendet werden kann
+     *                     oder zu einem anderen Turnier gehört
+     * @throws IllegalArgumentException wenn die Teilnehmerliste ungültig oder checkpoint null ist
+     */
+    public TournamentResult knockout(List<? extends Warrior> entrants, Path checkpoint) throws IOException {
+        List<WarriorSpec> specs = validate(entrants);
+        if (checkpoint == null) {
+            throw new IllegalArgumentException("Checkpoint-Datei darf nicht null sein");
+        }
+        try (CheckpointLog log = new CheckpointLog(checkpoint, runKey(specs, 0))) {
+            return knockout(entrants, specs, Progress.resume(log));
+        }
+    }
+
+    private TournamentResult knockout(List<? extends Warrior> entrants, List<WarriorSpec> specs,
+                                      Progress progress) {
+        int n = specs.size();
+        int size = Integer.highestOneBit(n - 1) << 1;
+
+        // Setzliste auf die Plätze des Turnierbaums verteilen (1 gegen size, 2 gegen size-1, ...)
+        int[] order = {0};
+        while (order.length < size) {
+            int[] next = new int[order.length * 2];
+            for (int k = 0; k < order.length; k++) {
+                next[2 * k] = order[k];
+                next[2 * k + 1] = order.length * 2 - 1 - order[k];
+            }
+            order = next;
+        }
+
+        List<CompletableFuture<Integer>> slots = new ArrayList<>(size);
+        for (int seedIndex : order) {
+            slots.add(CompletableFuture.completedFuture(seedIndex < n ? seedIndex : -1));
+        }
+
+        Tally tally = new Tally(n);
+        ConcurrentLinkedQueue<MatchResult> played = new ConcurrentLinkedQueue<>();
+        int round = 1;
+        int match = 0;
+        while (slots.size() > 1) {
+            List<CompletableFuture<Integer>> next = new ArrayList<>(slots.size() / 2);
+            for (int k = 0; k < slots.size(); k += 2) {
+                int r = round;
+                int id = match++;
+                next.add(slots.get(k).thenCombineAsync(slots.get(k + 1), (a, b) -> {
+                    if (a < 0 || b < 0) {
+                        return Math.max(a, b); // Freilos
+                    }
+                    Played result = play(r, id, entrants, specs, a, b, true, tally, progress);
+                    played.add(result.result());
+                    return result.winner();
+                }, executor));
+            }
+            slots = next;
+            round++;
+        }
+        join(slots.get(0));
+
+        List<MatchResult> matches = new ArrayList<>(played);
+        matches.sort(Comparator.comparingInt(MatchResult::round).thenComparingInt(MatchResult::match));
+        return new TournamentResult(matches, tally.standings(entrants));
+    }
+
+    /**
+     * Beendet den Executor, sofern das Turnier ihn selbst erzeugt hat.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.close();
+        }
+    }
+
+    /**
+     * Trägt einen einzelnen Kampf mit Kopien der Teilnehmer aus.
+     *
+     * Gekämpft wird über {@link BattleEngine#tallyFight}, also ohne
+     * Berichterstattung; die Zahl der Angriffe liefert der Zähler. Ist der
+     * Kampf bereits im Checkpoint gesichert, wird sein Ergebnis übernommen
+     * statt erneut gekämpft.
+     */
+    private Played play(int round, int match, List<? extends Warrior> entrants, List<WarriorSpec> specs,
+                             int first, int second, boolean decisive, Tally tally, Progress progress) {
+        int winnerIndex;
+        int rounds;
+        int[] stored = progress.done().get(match);
+        if (stored != null) {
+            winnerIndex = stored[0];
+            rounds = stored[1];
+        } else {
+            Warrior a = specs.get(first).newWarrior();
+            Warrior b = specs.get(second).newWarrior();
+            CombatRandom rng = new SplitMixRandom(SplitMixRandom.streamSeed(seed, match));
+            Warrior winner;
+            try {
+                BattleEngine.Tally counts = new BattleEngine.Tally();
+                winner = BattleEngine.HEADLESS.tallyFight(a, b, maxRounds, rng, counts);
+                rounds = counts.rounds;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Turnierkampf wurde unterbrochen", e);
+            }
+            if (winner == null && decisive) {
+                // Gleichstand: größerer Anteil verbliebener Gesundheit, sonst der besser Gesetzte
+                double restA = (double) a.health / specs.get(first).health();
+                double restB = (double) b.health / specs.get(second).health();
+                boolean firstAdvances = restA > restB || (restA == restB && first < second);
+                winner = firstAdvances ? a : b;
+            }
+            winnerIndex = winner == a ? first : winner == b ? second : -1;
+            progress.record(match, winnerIndex, rounds);
+        }
+        Warrior original = winnerIndex < 0 ? null : entrants.get(winnerIndex);
+        tally.record(first, second, winnerIndex);
+        return new Played(new MatchResult(round, match, entrants.get(first), entrants.get(second), original, rounds),
+                winnerIndex);
+    }
+
+    /**
+     * Schlüssel eines Turniers über alle Werte, die seine Kämpfe bestimmen.
+     *
+     * @param legs Durchgänge eines Jeder-gegen-jeden-Turniers, 0 für K.-o.
+     */
+    private long runKey(List<WarriorSpec> specs, int legs) {
+        long h = SplitMixRandom.streamSeed(seed, legs);
+        h = SplitMixRandom.streamSeed(h, maxRounds);
+        h = SplitMixRandom.streamSeed(h, specs.size());
+        for (WarriorSpec spec : specs) {
+            h = SplitMixRandom.streamSeed(h, spec.name().hashCode());
+            h = SplitMixRandom.streamSeed(h, spec.health());
+            h = SplitMixRandom.streamSeed(h, spec.attkMax());
+            h = SplitMixRandom.streamSeed(h, spec.blockMax());
+            h = SplitMixRandom.streamSeed(h, Double.doubleToLongBits(spec.dodgePercent()));
+        }
+        return h;
+    }
+
+    /**
+     * Prüft die Teilnehmerliste und erstellt für jeden Teilnehmer eine Spezifikation.
+     */
+    private static List<WarriorSpec> validate(List<? extends Warrior> entrants) {
+        if (entrants == null || entrants.size() < 2) {
+            throw new IllegalArgumentException("Ein Turnier benötigt mindestens zwei Teilnehmer");
+        }
+        List<WarriorSpec> specs = new ArrayList<>(entrants.size());
+        for (Warrior entrant : entrants) {
+            specs.add(WarriorSpec.of(entrant));
+        }
+        return specs;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Bereits gesicherte Kämpfe und das Journal für neue.
+     *
+     * @param done Ausgang je Kampfnummer als {Listenposition des Siegers, Angriffe}
+     * @param log das Journal oder {@code null} ohne Checkpoints
+     */
+    private record Progress(Map<Integer, int[]> done, CheckpointLog log) {
+
+        /** Ohne Checkpoints. */
+        static final Progress NONE = new Progress(Map.of(), null);
+
+        /** Länge eines Datensatzes: Kampfnummer, Sieger, Angriffe. */
+        static final int RECORD = 3 * Integer.BYTES;
+
+        static Progress resume(CheckpointLog log) throws IOException {
+            Map<Integer, int[]> done = new HashMap<>();
+            for (ByteBuffer record : log.records()) {
+                if (record.remaining() != RECORD) {
+                    throw new IOException("Checkpoint-Datei enthält keinen Turnierkampf");
+                }
+                done.put(record.getInt(), new int[] {record.getInt(), record.getInt()});
+            }
+            return new Progress(done, log);
+        }
+
+        void record(int match, int winner, int rounds) {
+            if (log != null) {
+                log.append(ByteBuffer.allocate(RECORD).putInt(match).putInt(winner).putInt(rounds).flip());
+            }
+        }
+    }
+
+    /**
+     * Ergebnis eines Kampfes zusammen mit der Listenposition des Siegers.
+     *
+     * @param result das veröffentlichte Kampfergebnis
+     * @param winner Listenposition des Siegers oder -1 bei Unentschieden
+     */
+    private record Played(MatchResult result, int winner) {
+    }
+
+    /**
+     * Zählt Siege, Niederlagen und Unentschieden je Teilnehmer.
+     *
+     * Teilnehmer werden über ihre Listenposition gezählt, damit auch mehrfach
+     * gemeldete Krieger getrennt gewertet werden. Die Zähler werden von den
+     * Kämpfen gleichzeitig aktualisiert.
+     */
+    private static final class Tally {
+
+        private final AtomicIntegerArray wins;
+        private final AtomicIntegerArray losses;
+        private final AtomicIntegerArray draws;
+
+        Tally(int entrants) {
+            wins = new AtomicIntegerArray(entrants);
+            losses = new AtomicIntegerArray(entrants);
+            draws = new AtomicIntegerArray(entrants);
+        }
+
+        void record(int first, int second, int winner) {
+            if (winner < 0) {
+                draws.incrementAndGet(first);
+                draws.incrementAndGet(second);
+            } else {
+                wins.incrementAndGet(winner);
+                losses.incrementAndGet(winner == first ? second : first);
+            }
+        }
+
+        List<Standing> standings(List<? extends Warrior> entrants) {
+            List<Standing> table = new ArrayList<>(entrants.size());
+            for (int i = 0; i < entrants.size(); i++) {
+                table.add(new Standing(entrants.get(i), wins.get(i), losses.get(i), draws.get(i)));
+            }
+            // Stabile Sortierung: bei Gleichstand bleibt die Setzreihenfolge erhalten
+            table.sort(Comparator.comparingInt(Standing::points).thenComparingInt(Standing::wins).reversed());
+            return table;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines vollständig ausgetragenen Turniers.
+ *
+ * @param matches alle Kämpfe, sortiert nach Runde und Kampfnummer
+ * @param standings die Tabelle, bester Teilnehmer zuerst
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Tournament
+ */
+public record TournamentResult(List<MatchResult> matches, List<Standing> standings) {
+
+    /**
+     * Erstellt ein Ergebnis mit unveränderlichen Kopien der Listen.
+     */
+    public TournamentResult {
+        matches = List.copyOf(matches);
+        standings = List.copyOf(standings);
+    }
+
+    /**
+     * Gibt den Turniersieger zurück.
+     *
+     * @return der erstplatzierte Teilnehmer
+     */
+    public Warrior champion() {
+        return standings.get(0).entrant();
+    }
+}
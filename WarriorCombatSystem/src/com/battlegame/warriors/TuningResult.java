@@ -0,0 +1,29 @@
+package com.battlegame.warriors;
+
+/**
+ * Ein vom {@link BalanceTuner} gefundener Kandidat.
+ *
+ * @param spec die Kampfwerte des Kandidaten
+ * @param winRate geschätzte Siegquote des Kandidaten, gemittelt über alle Gegner
+ * @param error Abstand der geschätzten Siegquote zur Zielquote
+ * @param fights Mindestanzahl der simulierten Kämpfe gegen jeden einzelnen Gegner
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BalanceTuner
+ */
+public record TuningResult(WarriorSpec spec, double winRate, double error, long fights) {
+
+    /**
+     * Gibt eine String-Repräsentation des Kandidaten zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("TuningResult{health=%d, attkMax=%d, blockMax=%d, dodgePercent=%.3f, "
+                + "winRate=%.4f, error=%.4f, fights=%d}",
+                spec.health(), spec.attkMax(), spec.blockMax(), spec.dodgePercent(), winRate, error, fights);
+    }
+}
@@ -0,0 +1,176 @@
+package com.battlegame.warriors;
+
+import java.util.Arrays;
+
+/**
+ * Unveränderliches Raster von Kampfwerten, das der {@link BalanceTuner} durchsucht.
+ *
+ * Ein Raster geht von einer Basisspezifikation aus, deren Werte zunächst
+ * fest sind. Jede Achse lässt sich anschließend über einen Bereich mit
+ * fester Schrittweite öffnen:
+ *
+ * <pre>{@code
+ * TuningSpace space = TuningSpace.around(Archetypes.LOKI)
+ *         .attkMax(60, 120, 5)
+ *         .dodgePercent(0.0, 0.5, 0.05);
+ * }</pre>
+ *
+ * Jede Methode liefert ein neues Raster; das ursprüngliche bleibt unverändert.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BalanceTuner
+ */
+public final class TuningSpace {
+
+    private final String name;
+    private final int[] health;
+    private final int[] attkMax;
+    private final int[] blockMax;
+    private final double[] dodgePercent;
+
+    private TuningSpace(String name, int[] health, int[] attkMax, int[] blockMax, double[] dodgePercent) {
+        long size = (long) health.length * attkMax.length * blockMax.length * dodgePercent.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Raster ist zu groß: " + size + " Kandidaten");
+        }
+        this.name = name;
+        this.health = health;
+        this.attkMax = attkMax;
+        this.blockMax = blockMax;
+        this.dodgePercent = dodgePercent;
+    }
+
+    /**
+     * Erstellt ein Raster, das nur aus der Basisspezifikation besteht.
+     *
+     * @param base die Basisspezifikation; ihr Name gilt für alle Kandidaten
+     * @return das neue Raster mit genau einem Kandidaten
+     * @throws IllegalArgumentException wenn base null ist
+     */
+    public static TuningSpace around(WarriorSpec base) {
+        if (base == null) {
+            throw new IllegalArgumentException("Basisspezifikation darf nicht null sein");
+        }
+        return new TuningSpace(base.name(), new int[] {base.health()}, new int[] {base.attkMax()},
+                new int[] {base.blockMax()}, new double[] {base.dodgePercent()});
+    }
+
+    /**
+     * Öffnet die Achse der Gesundheit.
+     *
+     * @param min kleinster Wert (muss positiv sein)
+     * @param max größter Wert (mindestens min)
+     * @param step Schrittweite (muss positiv sein)
+     * @return ein neues Raster
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    public TuningSpace health(int min, int max, int step) {
+        return new TuningSpace(name, range(min, max, step), attkMax, blockMax, dodgePercent);
+    }
+
+    /**
+     * Öffnet die Achse des maximalen Angriffswerts.
+     *
+     * @param min kleinster Wert (muss positiv sein)
+     * @param max größter Wert (mindestens min)
+     * @param step Schrittweite (muss positiv sein)
+     * @return ein neues Raster
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    public TuningSpace attkMax(int min, int max, int step) {
+        return new TuningSpace(name, health, range(min, max, step), blockMax, dodgePercent);
+    }
+
+    /**
+     * Öffnet die Achse des maximalen Blockwerts.
+     *
+     * @param min kleinster Wert (muss positiv sein)
+     * @param max größter Wert (mindestens min)
+     * @param step Schrittweite (muss positiv sein)
+     * @return ein neues Raster
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    public TuningSpace blockMax(int min, int max, int step) {
+        return new TuningSpace(name, health, attkMax, range(min, max, step), dodgePercent);
+    }
+
+    /**
+     * Öffnet die Achse der Ausweichwahrscheinlichkeit.
+     *
+     * Die Rasterwerte werden auf sechs Nachkommastellen gerundet, damit
+     * z.B. {@code 0.05 * 3} als {@code 0.15} geführt wird.
+     *
+     * @param min kleinster Wert (mindestens 0.0)
+     * @param max größter Wert (zwischen min und 1.0)
+     * @param step Schrittweite (muss positiv sein)
+     * @return ein neues Raster
+     * @throws IllegalArgumentException wenn der Bereich ungültig ist
+     */
+    public TuningSpace dodgePercent(double min, double max, double step) {
+        if (min < 0.0 || max > 1.0 || max < min || !(step > 0.0)) {
+            throw new IllegalArgumentException("Ungültiger Bereich der Ausweichwahrscheinlichkeit");
+        }
+        int count = (int) Math.floor((max - min) / step + 1e-9) + 1;
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.round((min + i * step) * 1e6) / 1e6;
+        }
+        return new TuningSpace(name, health, attkMax, blockMax, values);
+    }
+
+    /**
+     * Gibt die Anzahl der Kandidaten im Raster zurück.
+     *
+     * @return Produkt der Werte aller Achsen
+     */
+    public int size() {
+        return health.length * attkMax.length * blockMax.length * dodgePercent.length;
+    }
+
+    /**
+     * Gibt den Kandidaten mit dem angegebenen Index zurück.
+     *
+     * Die Ausweichachse ändert sich am schnellsten, die Gesundheit am langsamsten.
+     *
+     * @param index Index zwischen 0 und {@link #size()} - 1
+     * @return die Spezifikation des Kandidaten
+     * @throws IllegalArgumentException wenn index außerhalb des Rasters liegt
+     */
+    public WarriorSpec candidate(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IllegalArgumentException("Index außerhalb des Rasters: " + index);
+        }
+        int d = index % dodgePercent.length;
+        index /= dodgePercent.length;
+        int b = index % blockMax.length;
+        index /= blockMax.length;
+        int a = index % attkMax.length;
+        int h = index / attkMax.length;
+        return new WarriorSpec(name, health[h], attkMax[a], blockMax[b], dodgePercent[d]);
+    }
+
+    private static int[] range(int min, int max, int step) {
+        if (min <= 0 || max < min || step <= 0) {
+            throw new IllegalArgumentException("Ungültiger Bereich: " + min + " bis " + max + " in Schritten von " + step);
+        }
+        int[] values = new int[(max - min) / step + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = min + i * step;
+        }
+        return values;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Rasters zurück.
+     *
+     * @return Name und Werte aller Achsen
+     */
+    @Override
+    public String toString() {
+        return "TuningSpace{name='" + name + "', health=" + Arrays.toString(health)
+                + ", attkMax=" + Arrays.toString(attkMax) + ", blockMax=" + Arrays.toString(blockMax)
+                + ", dodgePercent=" + Arrays.toString(dodgePercent) + "}";
+    }
+}
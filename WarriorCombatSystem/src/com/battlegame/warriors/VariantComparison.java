@@ -0,0 +1,44 @@
+package com.battlegame.warriors;
+
+/**
+ * Vergleich zweier Varianten gegen denselben Gegner mit gemeinsamen Zufallszahlen.
+ *
+ * @param first Schätzung der ersten Variante gegen den Gegner
+ * @param second Schätzung der zweiten Variante gegen den Gegner
+ * @param difference geschätzter Unterschied der Punktwerte, erste minus zweite Variante
+ * @param lower untere Grenze des Konfidenzintervalls des Unterschieds
+ * @param upper obere Grenze des Konfidenzintervalls des Unterschieds
+ * @param varianceReduction Varianz des Unterschieds bei unabhängigen Kämpfen
+ *                          geteilt durch die Varianz mit gemeinsamen Zufallszahlen;
+ *                          so viel mal weniger Kämpfe waren nötig
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see AdaptiveSimulator#compare(WarriorSpec, WarriorSpec, WarriorSpec, double, long)
+ */
+public record VariantComparison(WinRateEstimate first, WinRateEstimate second,
+                                double difference, double lower, double upper, double varianceReduction) {
+
+    /**
+     * Gibt die halbe Breite des Konfidenzintervalls des Unterschieds zurück.
+     *
+     * @return der Fehlerbalken um den Unterschied
+     */
+    public double halfWidth() {
+        return (upper - lower) / 2;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation des Vergleichs zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("VariantComparison{fights=%d, first=%.4f, second=%.4f, difference=%.4f ± %.4f "
+                + "[%.4f, %.4f], varianceReduction=%.2f}",
+                first.fights(), first.score(), second.score(), difference, halfWidth(), lower, upper,
+                varianceReduction);
+    }
+}
@@ -0,0 +1,143 @@
+package com.battlegame.warriors;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vektorisierter Angriffsschritt der {@link BatchCombatEngine}.
+ *
+ * Jede Lane eines {@link LongVector} berechnet einen Kampf: SplitMix64-Zustand,
+ * Würfe und Schaden werden für alle Lanes gleichzeitig ermittelt. Würfe, die
+ * in einer Lane nicht stattfinden (z.B. der Blockwurf nach einem Ausweichen),
+ * schieben den Zufallszustand dieser Lane über Masken nicht weiter, sodass
+ * jeder Kampf exakt dieselbe Wurffolge wie in der skalaren Schleife erhält.
+ *
+ * Diese Klasse verweist auf das Inkubator-Modul {@code jdk.incubator.vector}
+ * und darf nur geladen werden, wenn es verfügbar ist.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see BatchCombatEngine
+ */
+final class VectorLanes {
+
+    /** Bevorzugte Vektorbreite für 64-Bit-Lanes. */
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    /** Gleiche Lane-Anzahl für Gleitkommawerte. */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Gleiche Lane-Anzahl für int-Spalten bei halber Bitbreite. */
+    private static final VectorSpecies<Integer> INTS = LONGS.length() < 2
+            ? IntVector.SPECIES_64
+            : IntVector.SPECIES_64.withShape(VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private VectorLanes() {
+    }
+
+    /**
+     * Prüft, ob die Vektorisierung auf dieser Plattform sinnvoll ist.
+     *
+     * @return {@code true} wenn ein Vektor mindestens zwei 64-Bit-Lanes fasst
+     */
+    static boolean isUsable() {
+        return LONGS.length() >= 2 && INTS.length() == LONGS.length() && DOUBLES.length() == LONGS.length();
+    }
+
+    /**
+     * Gibt das Ende des vektorisiert bearbeiteten Bereichs zurück.
+     *
+     * @param size Anzahl der Kämpfe
+     * @return Index, ab dem die skalare Schleife übernimmt
+     */
+    static int loopBound(int size) {
+        return LONGS.loopBound(size);
+    }
+
+    /**
+     * Führt einen Angriff für alle laufenden Kämpfe in [0, loopBound(live)) aus.
+     *
+     * @return Anzahl der Kämpfe, die durch diesen Angriff beendet wurden
+     */
+    static int attack(FightBatch b, int live, int[] atkMax, int[] defBlock, double[] defDodge,
+                      int[] defHealth, int[] atkDamage, int winCode) {
+        int killed = 0;
+        int upper = loopBound(live);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            VectorMask<Long> active = IntVector.fromArray(INTS, b.outcome, i)
+                    .compare(VectorOperators.EQ, FightBatch.RUNNING).cast(LONGS);
+            if (!active.anyTrue()) {
+                continue;
+            }
+
+            // Angriffswurf
+            LongVector s = LongVector.fromArray(LONGS, b.rngState, i).add(SplitMixRandom.GAMMA, active);
+            LongVector atk = roll(s, ints(atkMax, i));
+
+            // Ausweichwurf nur für ausweichfähige Verteidiger
+            DoubleVector dodge = DoubleVector.fromArray(DOUBLES, defDodge, i);
+            VectorMask<Long> canDodge = active.and(dodge.compare(VectorOperators.GT, 0.0).cast(LONGS));
+            s = s.add(SplitMixRandom.GAMMA, canDodge);
+            VectorMask<Long> dodged = canDodge.and(unit(s).compare(VectorOperators.LE, dodge).cast(LONGS));
+
+            // Blockwurf nur ohne erfolgreiches Ausweichen
+            s = s.add(SplitMixRandom.GAMMA, active.andNot(dodged));
+            LongVector blk = roll(s, ints(defBlock, i)).blend(DodgeWarrior.DODGE_BLOCK, dodged);
+            s.intoArray(b.rngState, i);
+
+            LongVector dmg = atk.sub(blk).max(0L).blend(0L, active.not());
+            LongVector health = ints(defHealth, i).sub(dmg);
+            store(health, defHealth, i);
+            store(ints(atkDamage, i).add(dmg), atkDamage, i);
+            store(ints(b.maxHit, i).max(dmg), b.maxHit, i);
+            store(ints(b.rounds, i).add(1L, active), b.rounds, i);
+
+            VectorMask<Long> died = active.and(health.compare(VectorOperators.LE, 0L));
+            if (died.anyTrue()) {
+                store(ints(b.outcome, i).blend(winCode, died), b.outcome, i);
+                killed += died.trueCount();
+            }
+        }
+        return killed;
+    }
+
+    /**
+     * Würfelt je Lane einen Wert zwischen 1 und max aus dem Zustand {@code s}.
+     */
+    private static LongVector roll(LongVector s, LongVector max) {
+        DoubleVector scaled = unit(s).mul((DoubleVector) max.convert(VectorOperators.L2D, 0));
+        return ((LongVector) scaled.convert(VectorOperators.D2L, 0)).add(1L);
+    }
+
+    /**
+     * Wandelt SplitMix64-Zustände in Zufallszahlen aus [0.0, 1.0) um.
+     */
+    private static DoubleVector unit(LongVector s) {
+        LongVector z = s;
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 30)).mul(0xbf58476d1ce4e5b9L);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 27)).mul(0x94d049bb133111ebL);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 31));
+        return ((DoubleVector) z.lanewise(VectorOperators.LSHR, 11).convert(VectorOperators.L2D, 0))
+                .mul(0x1.0p-53);
+    }
+
+    /**
+     * Lädt eine int-Spalte in 64-Bit-Lanes.
+     */
+    private static LongVector ints(int[] column, int i) {
+        return (LongVector) IntVector.fromArray(INTS, column, i).convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+
+    /**
+     * Schreibt 64-Bit-Lanes zurück in eine int-Spalte.
+     */
+    private static void store(LongVector values, int[] column, int i) {
+        ((IntVector) values.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(column, i);
+    }
+}
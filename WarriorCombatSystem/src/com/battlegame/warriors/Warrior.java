@@ -1,6 +1,9 @@
 
 package com.battlegame.warriors;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Die Warrior-Klasse repräsentiert einen Krieger in einem kampfbasierten Spiel.
  * Diese Klasse implementiert das grundlegende Verhalten eines Kriegers mit
@@ -26,6 +29,54 @@ package com.battlegame.warriors;
  */
 public class Warrior {
 
+    /**
+     * Atomarer Zugriff auf {@link #health} für {@link #applyDamage(int)},
+     * {@link #heal(int)} und {@link #healIfAlive(int)}.
+     */
+    private static final VarHandle HEALTH;
+
+    static {
+        try {
+            HEALTH = MethodHandles.lookup().findVarHandle(Warrior.class, "health", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Welche Würfelmethoden eine Klasse überschreibt.
+     *
+     * Wird einmal je Klasse ermittelt und nicht in jedem Krieger abgelegt,
+     * damit ein Warrior nicht größer wird als seine Kampfwerte.
+     *
+     * @param legacyAttack nur {@link #attack()} ist überschrieben;
+     *                     {@link #attack(CombatRandom)} delegiert dorthin
+     * @param legacyBlock nur {@link #block()} ist überschrieben;
+     *                    {@link #block(CombatRandom)} delegiert dorthin
+     * @param ownBlock {@link #block(CombatRandom)} ist in einer Unterklasse überschrieben
+     */
+    private record Dispatch(boolean legacyAttack, boolean legacyBlock, boolean ownBlock) {
+    }
+
+    /** Die {@link Dispatch}-Einträge, einmal je Klasse ermittelt. */
+    private static final ClassValue<Dispatch> DISPATCH = new ClassValue<>() {
+        @Override
+        protected Dispatch computeValue(Class<?> type) {
+            try {
+                Class<?> attack = type.getMethod("attack").getDeclaringClass();
+                Class<?> attackRng = type.getMethod("attack", CombatRandom.class).getDeclaringClass();
+                Class<?> block = type.getMethod("block").getDeclaringClass();
+                Class<?> blockRng = type.getMethod("block", CombatRandom.class).getDeclaringClass();
+                return new Dispatch(
+                        attack != attackRng && attackRng.isAssignableFrom(attack),
+                        block != blockRng && blockRng.isAssignableFrom(block),
+                        blockRng != Warrior.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
     /**
      * Der Name des Kriegers.
      * 
@@ -39,6 +90,9 @@ public class Warrior {
      * 
      * Wenn die Gesundheit auf 0 oder darunter fällt, gilt der Krieger als besiegt.
      * Öffentlich zugänglich für direkte Manipulation in Kampfsituationen.
+     * Direkte Schreibzugriffe sind nur sicher, solange ein einziger Thread
+     * den Krieger verwendet; bei gleichzeitigen Angreifern oder Heilern
+     * {@link #applyDamage(int)} und {@link #heal(int)} verwenden.
      */
     public int health = 0;
 
@@ -111,12 +165,38 @@ public class Warrior {
      * Die Zufälligkeit simuliert die Unvorhersagbarkeit von Kampfsituationen
      * und sorgt für abwechslungsreiche Spielverläufe.
      * 
+     * Verwendet die Zufallsquelle des aktuellen Threads.
      * 
      * @return ein zufälliger Angriffswert zwischen 1 und attkMax (inklusive)
      * @see #block()
+     * @see #attack(CombatRandom)
      */
     public int attack() {
-        return 1 + (int)(Math.random() * attkMax);
+        if (DISPATCH.get(getClass()).legacyAttack()) {
+            // Aufruf über super.attack() aus einer älteren Überschreibung
+            return CombatRandom.current().roll(attkMax);
+        }
+        return attack(CombatRandom.current());
+    }
+
+    /**
+     * Führt einen Angriff mit der angegebenen Zufallsquelle aus.
+     * 
+     * Die {@link BattleEngine} ruft ausschließlich diese Variante auf.
+     * Unterklassen mit eigenem Angriffsverhalten sollten sie überschreiben.
+     * Überschreibt eine Unterklasse nur {@link #attack()}, delegiert diese
+     * Methode dorthin; der Angriff verwendet dann die Zufallsquelle der
+     * Unterklasse und ist mit festem Startwert nicht reproduzierbar.
+     * 
+     * @param rng die Zufallsquelle für den Angriffswurf
+     * @return ein zufälliger Angriffswert zwischen 1 und attkMax (inklusive)
+     * @see CombatRandom#roll(int)
+     */
+    public int attack(CombatRandom rng) {
+        if (DISPATCH.get(getClass()).legacyAttack()) {
+            return attack();
+        }
+        return rng.roll(attkMax);
     }
 
     /**
@@ -126,11 +206,76 @@ public class Warrior {
      * Dieser Wert wird vom eingehenden Schaden abgezogen, um den
      * tatsächlichen erlittenen Schaden zu berechnen.
      *
+     * Verwendet die Zufallsquelle des aktuellen Threads.
+     *
      * @return ein zufälliger Blockwert zwischen 1 und blockMax (inklusive)
      * @see #attack()
+     * @see #block(CombatRandom)
      */
     public int block() {
-        return 1 + (int)(Math.random() * blockMax);
+        if (DISPATCH.get(getClass()).legacyBlock()) {
+            // Aufruf über super.block() aus einer älteren Überschreibung
+            return rollBlock(CombatRandom.current(), BattleReporter.CONSOLE);
+        }
+        return block(CombatRandom.current());
+    }
+
+    /**
+     * Führt eine Verteidigung mit der angegebenen Zufallsquelle aus.
+     * 
+     * Die {@link BattleEngine} verteidigt über diese Variante. Unterklassen
+     * mit eigenem Verteidigungsverhalten sollten sie überschreiben.
+     * Überschreibt eine Unterklasse nur {@link #block()}, delegiert diese
+     * Methode dorthin; die Verteidigung verwendet dann die Zufallsquelle der
+     * Unterklasse und ist mit festem Startwert nicht reproduzierbar.
+     * 
+     * @param rng die Zufallsquelle für den Blockwurf
+     * @return ein zufälliger Blockwert zwischen 1 und blockMax (inklusive)
+     * @see CombatRandom#roll(int)
+     */
+    public int block(CombatRandom rng) {
+        if (DISPATCH.get(getClass()).legacyBlock()) {
+            return block();
+        }
+        return rollBlock(rng, BattleReporter.CONSOLE);
+    }
+
+    /**
+     * Verteidigt sich gegen einen Angriff innerhalb einer {@link BattleEngine}.
+     * 
+     * Die Standardimplementierung delegiert an {@link #block(CombatRandom)}.
+     * Unterklassen mit besonderen Verteidigungsfähigkeiten können diese Methode
+     * überschreiben, um Ereignisse wie ein Ausweichen an die Berichterstattung
+     * der Engine zu melden, anstatt selbst auf die Konsole zu schreiben.
+     * 
+     * @param rng die Zufallsquelle für alle Würfe dieser Verteidigung
+     * @param reporter Empfänger der Kampfereignisse
+     * @return der Blockwert dieser Verteidigung
+     * @see DodgeWarrior#defend(CombatRandom, BattleReporter)
+     */
+    int defend(CombatRandom rng, BattleReporter reporter) {
+        return block(rng);
+    }
+
+    /**
+     * Würfelt die Verteidigung ohne Rücksicht auf Überschreibungen von
+     * {@link #block()} und {@link #block(CombatRandom)}.
+     *
+     * @param rng die Zufallsquelle für alle Würfe dieser Verteidigung
+     * @param reporter Empfänger der Kampfereignisse
+     * @return ein zufälliger Blockwert zwischen 1 und blockMax (inklusive)
+     */
+    int rollBlock(CombatRandom rng, BattleReporter reporter) {
+        return rng.roll(blockMax);
+    }
+
+    /**
+     * Prüft, ob eine Unterklasse {@link #block()} oder {@link #block(CombatRandom)}
+     * überschreibt, die Verteidigung also nicht allein über {@link #rollBlock} läuft.
+     */
+    final boolean overridesBlock() {
+        Dispatch dispatch = DISPATCH.get(getClass());
+        return dispatch.legacyBlock() || dispatch.ownBlock();
     }
 
     /**
@@ -212,17 +357,87 @@ public class Warrior {
         return health > 0;
     }
 
+    /**
+     * Gibt die aktuelle Gesundheit mit Volatile-Semantik zurück.
+     * 
+     * Liefert auch dann einen aktuellen Wert, wenn andere Threads den
+     * Krieger gleichzeitig über {@link #applyDamage(int)} oder
+     * {@link #heal(int)} verändern.
+     * 
+     * @return die aktuellen Gesundheitspunkte
+     */
+    public int getHealth() {
+        return (int) HEALTH.getVolatile(this);
+    }
+
+    /**
+     * Zieht den angegebenen Schaden atomar von der Gesundheit ab.
+     * 
+     * Sicher bei beliebig vielen gleichzeitigen Angreifern: Kein Treffer geht
+     * verloren, und genau der Treffer, der die Gesundheit von einem positiven
+     * Wert auf 0 oder darunter senkt, liefert {@code true}. Der Tod eines
+     * Kriegers wird damit genau einmal erkannt, solange gefallene Krieger
+     * nur über {@link #healIfAlive(int)} geheilt werden.
+     * 
+     * @param damage der abzuziehende Schaden (darf nicht negativ sein)
+     * @return {@code true} genau dann, wenn dieser Treffer den Krieger getötet hat
+     * @throws IllegalArgumentException wenn damage negativ ist
+     */
+    public boolean applyDamage(int damage) {
+        if (damage < 0) {
+            throw new IllegalArgumentException("Schaden darf nicht negativ sein");
+        }
+        if (damage == 0) {
+            return false;
+        }
+        int before = (int) HEALTH.getAndAdd(this, -damage);
+        return before > 0 && before <= damage;
+    }
+
     /**
      * Heilt den Krieger um den angegebenen Betrag.
      * 
+     * Die Heilung wird atomar angewendet und ist damit sicher gegenüber
+     * gleichzeitigen Treffern über {@link #applyDamage(int)}. Sie wirkt
+     * unabhängig von der aktuellen Gesundheit, also auch bei einem mit
+     * {@link #Warrior()} erzeugten oder bereits gefallenen Krieger.
+     * 
      * @param healAmount die Anzahl der zu heilenden Gesundheitspunkte (muss positiv sein)
      * @throws IllegalArgumentException wenn healAmount negativ ist
+     * @see #healIfAlive(int)
      */
     public void heal(int healAmount) {
         if (healAmount < 0) {
             throw new IllegalArgumentException("Heilbetrag muss positiv sein");
         }
-        this.health += healAmount;
+        HEALTH.getAndAdd(this, healAmount);
+    }
+
+    /**
+     * Heilt den Krieger um den angegebenen Betrag, sofern er noch lebt.
+     * 
+     * Wie {@link #heal(int)} atomar, belebt aber keinen gefallenen Krieger
+     * wieder. Prüfung und Heilung geschehen in einem Schritt, sodass ein
+     * gleichzeitiger tödlicher Treffer nicht rückgängig gemacht wird.
+     * 
+     * @param healAmount die Anzahl der zu heilenden Gesundheitspunkte (muss positiv sein)
+     * @return {@code true} wenn der Krieger geheilt wurde, {@code false} wenn
+     *         er bereits gefallen war
+     * @throws IllegalArgumentException wenn healAmount negativ ist
+     */
+    public boolean healIfAlive(int healAmount) {
+        if (healAmount < 0) {
+            throw new IllegalArgumentException("Heilbetrag muss positiv sein");
+        }
+        int current = (int) HEALTH.getVolatile(this);
+        while (current > 0) {
+            int witness = (int) HEALTH.compareAndExchange(this, current, current + healAmount);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
     }
 
     /**
@@ -46,7 +46,8 @@ public class WarriorGame {
      * @param args Kommandozeilenargumente (werden in dieser Implementierung nicht verwendet)
      * @throws InterruptedException wenn der ausführende Thread während der Kampfpausen
      *                             unterbrochen wird
-     * @see Battle#startFight(Warrior, Warrior)
+     * @see BattleEngine#startFight(Warrior, Warrior)
+     * @see CombatEventBus
      * @see DodgeWarrior#DodgeWarrior(String, int, int, int, double)
      * @see Warrior#teleport()
      * @see Warrior#setTeleportAbility(Teleports)
@@ -70,7 +71,11 @@ public class WarriorGame {
 
         System.out.println("=== KAMPF BEGINNT ===");
         // Starte den epischen Kampf zwischen Thor und Loki
-        Battle.startFight(thor, loki);
+        // Die Ausgabe übernimmt ein eigener Thread, der Kampf schreibt nur Ereignisse
+        try (CombatEventBus events = new CombatEventBus()) {
+            events.addConsumer(new ConsoleEventRenderer()).start();
+            new BattleEngine(events, BattlePacer.sleeping(1500)).startFight(thor, loki);
+        }
         
         System.out.println("\n=== TELEPORTATIONS-DEMONSTRATION ===");
         
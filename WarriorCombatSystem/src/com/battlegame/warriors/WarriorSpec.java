@@ -0,0 +1,101 @@
+package com.battlegame.warriors;
+
+/**
+ * Unveränderliche Beschreibung der Kampfwerte eines Kriegers.
+ *
+ * Eine Spezifikation enthält nur die Startwerte eines Kriegers, aber keinen
+ * veränderlichen Zustand. Sie kann daher gefahrlos zwischen beliebig vielen
+ * Threads geteilt werden, während jeder Kampf mit {@link #newWarrior()}
+ * seine eigenen Warrior-Objekte erzeugt.
+ *
+ * Ist {@code dodgePercent} größer als 0, wird ein {@link DodgeWarrior}
+ * erzeugt, andernfalls ein gewöhnlicher {@link Warrior}.
+ *
+ * @param name Name des Kriegers (darf nicht null oder leer sein)
+ * @param health anfängliche Gesundheitspunkte (muss positiv sein)
+ * @param attkMax maximaler Angriffswert (muss positiv sein)
+ * @param blockMax maximaler Blockwert (muss positiv sein)
+ * @param dodgePercent Ausweichwahrscheinlichkeit zwischen 0.0 und 1.0
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see Warrior
+ * @see DodgeWarrior
+ */
+public record WarriorSpec(String name, int health, int attkMax, int blockMax, double dodgePercent) {
+
+    /**
+     * Validiert die Kampfwerte.
+     *
+     * @throws IllegalArgumentException wenn name null/leer ist, ein numerischer
+     *                                  Wert nicht positiv ist oder dodgePercent
+     *                                  außerhalb von 0.0 bis 1.0 liegt
+     */
+    public WarriorSpec {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name darf nicht null oder leer sein");
+        }
+        if (health <= 0 || attkMax <= 0 || blockMax <= 0) {
+            throw new IllegalArgumentException("Gesundheit, Angriffs- und Blockwert müssen positiv sein");
+        }
+        if (dodgePercent < 0.0 || dodgePercent > 1.0) {
+            throw new IllegalArgumentException("Ausweichwahrscheinlichkeit muss zwischen 0.0 und 1.0 liegen");
+        }
+        name = name.trim();
+    }
+
+    /**
+     * Erstellt eine Spezifikation für einen Krieger ohne Ausweichfähigkeit.
+     *
+     * @param name Name des Kriegers
+     * @param health anfängliche Gesundheitspunkte
+     * @param attkMax maximaler Angriffswert
+     * @param blockMax maximaler Blockwert
+     * @return die neue Spezifikation
+     */
+    public static WarriorSpec of(String name, int health, int attkMax, int blockMax) {
+        return new WarriorSpec(name, health, attkMax, blockMax, 0.0);
+    }
+
+    /**
+     * Liest die aktuellen Kampfwerte eines bestehenden Kriegers aus.
+     *
+     * Die aktuelle Gesundheit des Kriegers wird als Startgesundheit übernommen.
+     *
+     * @param warrior der Krieger, dessen Werte übernommen werden
+     * @return eine Spezifikation mit den Werten des Kriegers
+     * @throws IllegalArgumentException wenn warrior null ist oder ungültige Werte besitzt
+     */
+    public static WarriorSpec of(Warrior warrior) {
+        if (warrior == null) {
+            throw new IllegalArgumentException("Warrior-Objekt darf nicht null sein");
+        }
+        double dodge = warrior instanceof DodgeWarrior dodger ? dodger.getDodgePercent() : 0.0;
+        return new WarriorSpec(warrior.getName(), warrior.health, warrior.attkMax, warrior.blockMax, dodge);
+    }
+
+    /**
+     * Prüft, ob Krieger dieser Spezifikation ausweichen können.
+     *
+     * @return {@code true} wenn dodgePercent größer als 0 ist
+     */
+    public boolean canDodge() {
+        return dodgePercent > 0.0;
+    }
+
+    /**
+     * Erzeugt einen neuen Krieger mit diesen Kampfwerten.
+     *
+     * Jeder Aufruf liefert ein eigenes Objekt mit eigenem Gesundheitszustand.
+     *
+     * @return ein neuer {@link DodgeWarrior} wenn {@link #canDodge()},
+     *         andernfalls ein neuer {@link Warrior}
+     */
+    public Warrior newWarrior() {
+        if (canDodge()) {
+            return new DodgeWarrior(name, health, attkMax, blockMax, dodgePercent);
+        }
+        return new Warrior(name, health, attkMax, blockMax);
+    }
+}
@@ -0,0 +1,67 @@
+package com.battlegame.warriors;
+
+/**
+ * Geschätzter Punktwert des ersten Kriegers einer Paarung mit Fehlerbalken.
+ *
+ * Der Punktwert zählt einen Sieg als 1, ein Unentschieden als ½ und eine
+ * Niederlage als 0; er ist damit die Siegquote des ersten Kriegers, bei der
+ * Unentschieden halb zählen. Ein Wert über ½ bedeutet, dass der erste
+ * Krieger die Paarung gewinnt.
+ *
+ * Der {@link AdaptiveSimulator} prüft nach jedem Abschnitt, ob er aufhören
+ * kann. Das Intervall ist deshalb auf die Anzahl dieser Prüfungen
+ * abgestimmt und überdeckt den wahren Punktwert mindestens mit dem
+ * angegebenen Konfidenzniveau; es ist breiter als ein Intervall über
+ * dieselben Kämpfe bei fester Anzahl.
+ *
+ * @param fights Anzahl der simulierten Kämpfe
+ * @param firstWins Siege des ersten Kriegers
+ * @param secondWins Siege des zweiten Kriegers
+ * @param draws Kämpfe ohne Sieger
+ * @param score geschätzter Punktwert des ersten Kriegers
+ * @param lower untere Grenze des Konfidenzintervalls
+ * @param upper obere Grenze des Konfidenzintervalls
+ * @param confidence Konfidenzniveau des Intervalls
+ * @param verdict wer die Paarung gewinnt, soweit entschieden
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ * @see AdaptiveSimulator
+ */
+public record WinRateEstimate(long fights, long firstWins, long secondWins, long draws,
+                              double score, double lower, double upper, double confidence,
+                              Verdict verdict) {
+
+    /**
+     * Entscheidung über den Sieger einer Paarung.
+     */
+    public enum Verdict {
+        /** Der erste Krieger gewinnt mehr als die Hälfte der Punkte. */
+        FIRST,
+        /** Der zweite Krieger gewinnt mehr als die Hälfte der Punkte. */
+        SECOND,
+        /** Die Kämpfe reichen für keine Entscheidung. */
+        UNDECIDED
+    }
+
+    /**
+     * Gibt die halbe Breite des Konfidenzintervalls zurück.
+     *
+     * @return der Fehlerbalken um den Punktwert
+     */
+    public double halfWidth() {
+        return (upper - lower) / 2;
+    }
+
+    /**
+     * Gibt eine String-Repräsentation der Schätzung zurück.
+     *
+     * @return formatierte Zusammenfassung
+     */
+    @Override
+    public String toString() {
+        return String.format("WinRateEstimate{fights=%d, score=%.4f ± %.4f [%.4f, %.4f] (%.0f%%), verdict=%s}",
+                fights, score, halfWidth(), lower, upper, confidence * 100, verdict);
+    }
+}
@@ -5,4 +5,7 @@
  * 
  */
 module WarriorCombatSystem {
-}
\ No newline at end of file
+    requires static jdk.incubator.vector;
+    requires jdk.jfr;
+    requires jdk.httpserver;
+}
\ No newline at end of file
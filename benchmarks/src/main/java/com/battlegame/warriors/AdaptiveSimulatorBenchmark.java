@@ -0,0 +1,232 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den {@link AdaptiveSimulator}.
+ *
+ * {@link #main(String[])} vergleicht die Fehlerbalken mit den exakten
+ * Wahrscheinlichkeiten des {@link MatchupSolver}, prüft die Überdeckung der
+ * Intervalle und die Fehlerquote des sequentiellen Tests und zählt, wie
+ * viele Kämpfe einseitige und ausgeglichene Paarungen mit und ohne
+ * antithetische Paare und gemeinsame Zufallszahlen brauchen:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.AdaptiveSimulatorBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveSimulatorBenchmark {
+
+    private static final double HALF_WIDTH = 0.01;
+    private static final double INDIFFERENCE = 0.02;
+
+    private static final WarriorSpec MIRROR_A = WarriorSpec.of("A", 300, 80, 30);
+    private static final WarriorSpec MIRROR_B = WarriorSpec.of("B", 300, 80, 30);
+    private static final WarriorSpec TANK = new WarriorSpec("Tank", 400, 40, 60, 0.0);
+
+    /** Kämpfe, die eine feste Anzahl für ±0,01 bei 95 % im ungünstigsten Fall braucht. */
+    private static final long FIXED_FIGHTS = 9_604;
+
+    private final AdaptiveSimulator simulator = new AdaptiveSimulator();
+    private long seed;
+
+    /**
+     * Ausgeglichene Paarung auf ±0,01.
+     */
+    @Benchmark
+    public double evenMatchup() {
+        return simulator.estimate(MIRROR_A, MIRROR_B, HALF_WIDTH, seed++).score();
+    }
+
+    /**
+     * Einseitige Paarung per sequentiellem Test.
+     */
+    @Benchmark
+    public long lopsidedDecision() {
+        return simulator.decide(Archetypes.THOR, Archetypes.LOKI, INDIFFERENCE, seed++).fights();
+    }
+
+    private static double exactScore(MatchupSolver solver, WarriorSpec first, WarriorSpec second) {
+        MatchupOdds odds = solver.solve(first, second);
+        return odds.firstWinProbability() + odds.drawProbability() / 2;
+    }
+
+    /**
+     * Prüft Intervalle, Test und Varianzreduktion.
+     *
+     * @param args nicht verwendet
+     */
+    public static void main(String[] args) {
+        int failures = 0;
+        MatchupSolver solver = new MatchupSolver();
+        AdaptiveSimulator adaptive = new AdaptiveSimulator();
+        AdaptiveSimulator plain = new AdaptiveSimulator(ForkJoinPool.commonPool(),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, AdaptiveSimulator.DEFAULT_CONFIDENCE,
+                AdaptiveSimulator.DEFAULT_MAX_FIGHTS, false);
+
+        // Ohne antithetische Paare dieselben Kämpfe wie der MonteCarloSimulator
+        WinRateEstimate direct = plain.estimate(Archetypes.LOKI, Archetypes.THOR, HALF_WIDTH, 7);
+        SimulationResult fixed = new MonteCarloSimulator().simulate(Archetypes.LOKI, Archetypes.THOR,
+                direct.fights(), 7);
+        if (direct.firstWins() != fixed.firstWins() || direct.secondWins() != fixed.secondWins()) {
+            System.out.println("Abweichung vom MonteCarloSimulator: " + direct + " / " + fixed);
+            failures++;
+        }
+
+        // Unabhängig von der Anzahl der Threads
+        ForkJoinPool single = new ForkJoinPool(1);
+        AdaptiveSimulator sequential = new AdaptiveSimulator(single, MonteCarloSimulator.DEFAULT_MAX_ROUNDS,
+                AdaptiveSimulator.DEFAULT_CONFIDENCE, AdaptiveSimulator.DEFAULT_MAX_FIGHTS, true);
+        if (!sequential.estimate(MIRROR_A, MIRROR_B, HALF_WIDTH, 11)
+                .equals(adaptive.estimate(MIRROR_A, MIRROR_B, HALF_WIDTH, 11))
+                || !sequential.compare(Archetypes.LOKI, TANK, Archetypes.THOR, HALF_WIDTH, 11)
+                .equals(adaptive.compare(Archetypes.LOKI, TANK, Archetypes.THOR, HALF_WIDTH, 11))) {
+            System.out.println("Ergebnis hängt von der Anzahl der Threads ab");
+            failures++;
+        }
+        single.shutdown();
+
+        // Benötigte Kämpfe und Überdeckung der Intervalle über viele Startwerte
+        List<WarriorSpec[]> matchups = List.of(
+                new WarriorSpec[] {Archetypes.LOKI, Archetypes.THOR},
+                new WarriorSpec[] {Archetypes.THOR, Archetypes.LOKI},
+                new WarriorSpec[] {TANK, Archetypes.THOR},
+                new WarriorSpec[] {MIRROR_A, MIRROR_B});
+        int runs = 100;
+        int coverageRuns = 400;
+        System.out.printf("Feste Anzahl für ±%.2f: %d Kämpfe%n", HALF_WIDTH, FIXED_FIGHTS);
+        for (WarriorSpec[] matchup : matchups) {
+            double exact = exactScore(solver, matchup[0], matchup[1]);
+            for (AdaptiveSimulator simulator : new AdaptiveSimulator[] {plain, adaptive}) {
+                long fights = 0;
+                int covered = 0;
+                for (int r = 0; r < coverageRuns; r++) {
+                    WinRateEstimate estimate = simulator.estimate(matchup[0], matchup[1], HALF_WIDTH, r);
+                    fights += estimate.fights();
+                    if (estimate.lower() <= exact && exact <= estimate.upper()) {
+                        covered++;
+                    }
+                    if (estimate.halfWidth() > HALF_WIDTH) {
+                        failures++;
+                    }
+                }
+                System.out.printf("%-4s gegen %-4s exakt %.4f, %s: %6d Kämpfe im Mittel, Überdeckung %d %%%n",
+                        matchup[0].name(), matchup[1].name(), exact,
+                        simulator == plain ? "unabhängig " : "antithetisch", fights / coverageRuns,
+                        covered * 100 / coverageRuns);
+                // 95 % nominal; 92 % liegen drei Standardabweichungen darunter
+                if (covered * 100 < coverageRuns * 92) {
+                    failures++;
+                }
+                // Die wiederholten Prüfungen kosten Kämpfe; antithetische Paare holen sie mehr als zurück
+                long limit = simulator == plain ? FIXED_FIGHTS * 3 / 2 : FIXED_FIGHTS;
+                if (fights / coverageRuns > limit) {
+                    failures++;
+                }
+            }
+        }
+
+        // Einseitige Paarungen brauchen nur einen Bruchteil der Kämpfe
+        WinRateEstimate lopsided = adaptive.estimate(TANK, Archetypes.THOR, HALF_WIDTH, 1);
+        WinRateEstimate favoured = adaptive.estimate(Archetypes.THOR, Archetypes.LOKI, HALF_WIDTH, 1);
+        WinRateEstimate even = adaptive.estimate(MIRROR_A, MIRROR_B, HALF_WIDTH, 1);
+        System.out.println("Einseitig: " + lopsided);
+        System.out.println("Favorit: " + favoured);
+        System.out.println("Ausgeglichen: " + even);
+        if (lopsided.fights() * 2 > FIXED_FIGHTS || lopsided.verdict() != WinRateEstimate.Verdict.SECOND
+                || favoured.fights() > FIXED_FIGHTS || favoured.verdict() != WinRateEstimate.Verdict.FIRST) {
+            failures++;
+        }
+
+        // Sequentieller Test: Fehlerquote und Kämpfe bis zur Entscheidung
+        for (WarriorSpec[] matchup : matchups) {
+            double exact = exactScore(solver, matchup[0], matchup[1]);
+            WinRateEstimate.Verdict truth = exact > 0.5 ? WinRateEstimate.Verdict.FIRST
+                    : WinRateEstimate.Verdict.SECOND;
+            long fights = 0;
+            int wrong = 0;
+            for (int r = 0; r < runs; r++) {
+                WinRateEstimate decision = adaptive.decide(matchup[0], matchup[1], INDIFFERENCE, r);
+                fights += decision.fights();
+                if (decision.verdict() != truth) {
+                    wrong++;
+                }
+            }
+            System.out.printf("Test %-4s gegen %-4s: %6d Kämpfe im Mittel, %d falsche Urteile von %d%n",
+                    matchup[0].name(), matchup[1].name(), fights / runs, wrong, runs);
+            // Außerhalb der Indifferenzzone höchstens 5 % Fehler erwartet
+            if (Math.abs(exact - 0.5) > INDIFFERENCE && wrong > 10) {
+                failures++;
+            }
+        }
+
+        // Gemeinsame Zufallszahlen beim Vergleich zweier Varianten
+        WarriorSpec stronger = new WarriorSpec("Loki+", 800, 90, 40, 0.25);
+        double exactDifference = exactScore(solver, stronger, Archetypes.THOR)
+                - exactScore(solver, Archetypes.LOKI, Archetypes.THOR);
+        VariantComparison paired = adaptive.compare(stronger, Archetypes.LOKI, Archetypes.THOR, HALF_WIDTH, 3);
+        System.out.printf("Vergleich exakt %.4f: %s%n", exactDifference, paired);
+        if (paired.lower() > exactDifference || paired.upper() < exactDifference
+                || paired.varianceReduction() <= 1.0 || paired.halfWidth() > HALF_WIDTH) {
+            failures++;
+        }
+        int covered = 0;
+        long fights = 0;
+        double reduction = 0;
+        for (int r = 0; r < runs; r++) {
+            VariantComparison comparison = adaptive.compare(stronger, Archetypes.LOKI, Archetypes.THOR,
+                    HALF_WIDTH, 1_000 + r);
+            fights += comparison.first().fights();
+            reduction += comparison.varianceReduction();
+            if (comparison.lower() <= exactDifference && exactDifference <= comparison.upper()) {
+                covered++;
+            }
+        }
+        System.out.printf("Vergleich über %d Startwerte: %d Kämpfe je Variante im Mittel, "
+                + "Varianz %.1f-mal kleiner als unabhängig, Überdeckung %d %%%n",
+                runs, fights / runs, reduction / runs, covered * 100 / runs);
+        if (covered < 88) {
+            failures++;
+        }
+
+        // Dauer einer Schätzung
+        AdaptiveSimulatorBenchmark benchmark = new AdaptiveSimulatorBenchmark();
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            for (int k = 0; k < 10; k++) {
+                benchmark.evenMatchup();
+            }
+            long evenNanos = (System.nanoTime() - start) / 10;
+            start = System.nanoTime();
+            for (int k = 0; k < 10; k++) {
+                benchmark.lopsidedDecision();
+            }
+            System.out.printf("Ausgeglichen auf ±%.2f: %.2f ms, einseitig entschieden: %.2f ms%n", HALF_WIDTH,
+                    evenNanos / 1e6, (System.nanoTime() - start) / 10 / 1e6);
+        }
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.battlegame.warriors;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Liest die vom aufrufenden Thread allokierten Bytes für die
+ * Allokationsprüfungen in den {@code main}-Methoden der Benchmarks.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+final class AllocatedBytes {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocatedBytes() {
+    }
+
+    /**
+     * Gibt die Bytes zurück, die der aufrufende Thread bisher allokiert hat.
+     *
+     * @return die Summe aller Allokationen des aufrufenden Threads
+     */
+    static long currentThread() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
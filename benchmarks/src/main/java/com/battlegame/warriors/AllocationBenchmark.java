@@ -0,0 +1,99 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allokationsbenchmark für den Kampfkern der {@link BattleEngine}.
+ *
+ * Jede Operation ist ein vollständiger 800-HP-Kampf Thor gegen Loki mit
+ * wiederverwendeten Kriegern, deren Gesundheit vor jedem Kampf zurückgesetzt
+ * wird. Nach dem Aufwärmen muss {@code gc.alloc.rate.norm} bei 0 B/op liegen.
+ *
+ * {@link #main(String[])} prüft dasselbe ohne JMH über die pro Thread
+ * allokierten Bytes und beendet sich mit Status 1, falls der Kern allokiert:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.AllocationBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+    private static final int HEALTH = 800;
+
+    private final BattleEngine engine = BattleEngine.HEADLESS;
+
+    private Warrior thor;
+    private Warrior loki;
+    private SplitMixRandom rng;
+
+    @Setup
+    public void setUp() {
+        thor = WarriorSpec.of("Thor", HEALTH, 130, 40).newWarrior();
+        loki = new WarriorSpec("Loki", HEALTH, 85, 40, 0.25).newWarrior();
+        rng = new SplitMixRandom(42);
+    }
+
+    /**
+     * Ein vollständiger Kampf mit zurückgesetzten Kriegern.
+     */
+    @Benchmark
+    public Warrior fullFight() throws InterruptedException {
+        thor.health = HEALTH;
+        loki.health = HEALTH;
+        return engine.startFight(thor, loki, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Misst die pro Kampf allokierten Bytes nach dem Aufwärmen.
+     *
+     * @param args optional die Anzahl gemessener Kämpfe (Standard: 1.000.000)
+     * @throws InterruptedException wird von der Engine nie ausgelöst, da
+     *                             ohne Taktung gekämpft wird
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int fights = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        AllocationBenchmark benchmark = new AllocationBenchmark();
+        benchmark.setUp();
+        int thorWins = 0;
+        for (int i = 0; i < 200_000; i++) {
+            benchmark.fullFight();
+        }
+
+        long before = AllocatedBytes.currentThread();
+        for (int i = 0; i < fights; i++) {
+            if (benchmark.fullFight() == benchmark.thor) {
+                thorWins++;
+            }
+        }
+        long allocated = AllocatedBytes.currentThread() - before;
+
+        System.out.println("Kämpfe:            " + fights);
+        System.out.println("Siege Thor:        " + thorWins);
+        System.out.println("Allokierte Bytes:  " + allocated);
+        System.out.println("Bytes pro Kampf:   " + (double) allocated / fights);
+        // Die Messung selbst darf einige Bytes kosten, nicht aber jeder Kampf
+        if (allocated >= fights) {
+            System.out.println("FEHLER: Der Kampfkern allokiert Speicher");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für Kämpfe zwischen {@link Combatant}-Objekten im Vergleich zu
+ * frisch erzeugten {@link Warrior}-Objekten.
+ *
+ * {@link #main(String[])} misst den Speicherbedarf pro Kampf für beide
+ * Varianten und prüft, dass beide bei gleichem Startwert denselben Verlauf
+ * nehmen:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.ArchetypeBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchetypeBenchmark {
+
+    private final BattleEngine engine = BattleEngine.HEADLESS;
+
+    private Combatant thor;
+    private Combatant loki;
+    private SplitMixRandom rng;
+
+    @Setup
+    public void setUp() {
+        thor = Archetypes.DEFAULT.combatant("Thor");
+        loki = Archetypes.DEFAULT.combatant("Loki");
+        rng = new SplitMixRandom(42);
+    }
+
+    /**
+     * Kampf mit zwei frisch erzeugten Kriegern, wie bisher pro simuliertem Kampf.
+     */
+    @Benchmark
+    public Warrior warriorFight() throws InterruptedException {
+        return engine.startFight(Archetypes.THOR.newWarrior(), Archetypes.LOKI.newWarrior(),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Kampf mit zwei frisch erzeugten Combatants.
+     */
+    @Benchmark
+    public Combatant combatantFight() {
+        return Combatant.fight(new Combatant(Archetypes.THOR), new Combatant(Archetypes.LOKI),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Kampf mit zwei zurückgesetzten, wiederverwendeten Combatants.
+     */
+    @Benchmark
+    public Combatant reusedCombatantFight() {
+        return Combatant.fight(thor.reset(), loki.reset(), MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Misst die Allokation pro Kampf und vergleicht die Kampfverläufe.
+     *
+     * @param args optional die Anzahl der Kämpfe je Variante (Standard: 1.000.000)
+     * @throws InterruptedException wird von der Engine nie ausgelöst, da
+     *                             ohne Taktung gekämpft wird
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int fights = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ArchetypeBenchmark benchmark = new ArchetypeBenchmark();
+        benchmark.setUp();
+
+        // Gleicher Startwert, gleicher Kampfverlauf
+        SplitMixRandom a = new SplitMixRandom(0);
+        SplitMixRandom b = new SplitMixRandom(0);
+        int mismatches = 0;
+        for (int i = 0; i < 10_000; i++) {
+            a.setState(SplitMixRandom.streamSeed(7, i));
+            b.setState(SplitMixRandom.streamSeed(7, i));
+            Warrior w1 = Archetypes.THOR.newWarrior();
+            Warrior w2 = Archetypes.LOKI.newWarrior();
+            Warrior w = benchmark.engine.startFight(w1, w2, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, a);
+            Combatant c1 = benchmark.thor.reset();
+            Combatant c2 = benchmark.loki.reset();
+            Combatant c = Combatant.fight(c1, c2, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, b);
+            boolean sameWinner = w == null ? c == null : c != null && w.getName().equals(c.getName());
+            if (!sameWinner || w1.health != c1.getHealth() || w2.health != c2.getHealth()) {
+                mismatches++;
+            }
+        }
+        System.out.println("Abweichende Kämpfe:        " + mismatches);
+
+        for (int i = 0; i < 200_000; i++) {
+            benchmark.warriorFight();
+            benchmark.combatantFight();
+            benchmark.reusedCombatantFight();
+        }
+
+        long before = AllocatedBytes.currentThread();
+        for (int i = 0; i < fights; i++) {
+            benchmark.warriorFight();
+        }
+        long warriorBytes = AllocatedBytes.currentThread() - before;
+
+        before = AllocatedBytes.currentThread();
+        for (int i = 0; i < fights; i++) {
+            benchmark.combatantFight();
+        }
+        long combatantBytes = AllocatedBytes.currentThread() - before;
+
+        before = AllocatedBytes.currentThread();
+        for (int i = 0; i < fights; i++) {
+            benchmark.reusedCombatantFight();
+        }
+        long reusedBytes = AllocatedBytes.currentThread() - before;
+
+        System.out.println("Bytes pro Kampf (Warrior):          " + (double) warriorBytes / fights);
+        System.out.println("Bytes pro Kampf (Combatant):        " + (double) combatantBytes / fights);
+        System.out.println("Bytes pro Kampf (wiederverwendet):  " + (double) reusedBytes / fights);
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst die Kosten eines Zuges der {@link Arena} in Abhängigkeit von der
+ * Anzahl der Krieger.
+ *
+ * Die Karte wächst mit der Anzahl, sodass die Dichte gleich bleibt; bei
+ * linearem Aufwand wächst die Zeit je Zug proportional zu {@code warriors}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArenaBenchmark {
+
+    @Param({"1000", "4000", "16000"})
+    public int warriors;
+
+    private Arena arena;
+    private SplitMixRandom rng;
+
+    /**
+     * Stellt vor jeder Iteration zwei Armeen neu auf, damit nicht nur
+     * Überlebende gemessen werden.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        double size = Math.sqrt(warriors) * 4.0;
+        arena = new Arena(size, size);
+        SplitMixRandom placement = new SplitMixRandom(7);
+        for (int i = 0; i < warriors; i++) {
+            Warrior warrior = i % 4 == 0
+                    ? new DodgeWarrior("D" + i, 100_000, 80, 30, 0.2)
+                    : new Warrior("W" + i, 100_000, 90, 30);
+            arena.add(warrior, i % 2, placement.nextDouble() * size, placement.nextDouble() * size);
+        }
+        rng = new SplitMixRandom(42);
+    }
+
+    @Benchmark
+    public boolean tick() throws InterruptedException {
+        return arena.tick(rng);
+    }
+}
@@ -0,0 +1,105 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den {@link BalanceTuner}.
+ *
+ * {@link #main(String[])} sucht Kampfwerte für Loki, mit denen er gegen Thor
+ * die Hälfte der Kämpfe gewinnt, prüft die gefundenen Kandidaten gegen den
+ * {@link MatchupSolver} und zeigt, wie viele Kämpfe das stufenweise
+ * Aussortieren und der Zwischenspeicher einsparen:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.BalanceTunerBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BalanceTunerBenchmark {
+
+    private static final TuningSpace SPACE = TuningSpace.around(Archetypes.LOKI)
+            .attkMax(60, 140, 5)
+            .blockMax(20, 60, 5)
+            .dodgePercent(0.0, 0.5, 0.05);
+
+    /**
+     * Eine vollständige Suche mit leerem Zwischenspeicher.
+     */
+    @Benchmark
+    public List<TuningResult> tuneMatchup() {
+        BalanceTuner tuner = new BalanceTuner(ForkJoinPool.commonPool(), 1, BalanceTuner.DEFAULT_PRECISE_FIGHTS);
+        return tuner.tuneMatchup(SPACE, Archetypes.THOR, 0.5, 10);
+    }
+
+    /**
+     * Führt die Suche aus und prüft die Ergebnisse.
+     *
+     * @param args werden nicht verwendet
+     */
+    public static void main(String[] args) {
+        int failures = 0;
+        BalanceTuner tuner = new BalanceTuner(ForkJoinPool.commonPool(), 1, BalanceTuner.DEFAULT_PRECISE_FIGHTS);
+
+        long start = System.nanoTime();
+        List<TuningResult> best = tuner.tuneMatchup(SPACE, Archetypes.THOR, 0.5, 10);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long fights = tuner.simulatedFights();
+        long bruteForce = (long) SPACE.size() * BalanceTuner.DEFAULT_PRECISE_FIGHTS;
+        System.out.printf("%d Kandidaten in %d ms, %,d Kämpfe statt %,d (%.1f %%)%n",
+                SPACE.size(), millis, fights, bruteForce, 100.0 * fights / bruteForce);
+
+        // Geschätzte gegen exakte Siegquote, beide Angriffsreihenfolgen gemittelt
+        MatchupSolver solver = new MatchupSolver();
+        for (TuningResult result : best) {
+            WarriorSpec spec = result.spec();
+            double exact = (solver.solve(spec, Archetypes.THOR).firstWinProbability()
+                    + solver.solve(Archetypes.THOR, spec).secondWinProbability()) / 2;
+            double sigma = Math.sqrt(exact * (1 - exact) / result.fights());
+            boolean ok = Math.abs(result.winRate() - exact) <= 4 * sigma && Math.abs(exact - 0.5) < 0.03;
+            System.out.printf("%s exakt=%.4f%s%n", result, exact, ok ? "" : "  FEHLER");
+            if (!ok) {
+                failures++;
+            }
+        }
+
+        // Dieselbe Suche erneut: alle Paarungen sind bereits ausgewertet
+        List<TuningResult> again = tuner.tuneMatchup(SPACE, Archetypes.THOR, 0.5, 10);
+        long repeated = tuner.simulatedFights() - fights;
+        System.out.println("Kämpfe bei wiederholter Suche: " + repeated);
+        if (repeated != 0 || !again.equals(best)) {
+            failures++;
+        }
+
+        // Gegen eine ganze Aufstellung
+        List<WarriorSpec> roster = List.of(Archetypes.THOR, Archetypes.LOKI,
+                WarriorSpec.of("Zwerg", 900, 90, 60), new WarriorSpec("Elf", 600, 110, 30, 0.4));
+        long before = tuner.simulatedFights();
+        List<TuningResult> balanced = tuner.tuneRoster(SPACE, roster, 0.5, 3);
+        System.out.printf("Aufstellung: %,d neue Kämpfe, %d Paarungen gespeichert%n",
+                tuner.simulatedFights() - before, tuner.evaluatedMatchups());
+        balanced.forEach(System.out::println);
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
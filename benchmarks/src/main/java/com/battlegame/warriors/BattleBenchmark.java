@@ -0,0 +1,66 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für einzelne Angriffe und vollständige Kämpfe der {@link BattleEngine}
+ * ohne Taktung und Ausgabe.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+
+    private final BattleEngine engine = BattleEngine.HEADLESS;
+    private final WarriorSpec thorSpec = WarriorSpec.of("Thor", 800, 130, 40);
+    private final WarriorSpec lokiSpec = new WarriorSpec("Loki", 800, 85, 40, 0.25);
+
+    private Warrior thor;
+    private Warrior loki;
+    private SplitMixRandom rng;
+
+    @Setup
+    public void setUp() {
+        thor = thorSpec.newWarrior();
+        loki = lokiSpec.newWarrior();
+        rng = new SplitMixRandom(42);
+    }
+
+    /**
+     * Ein Angriff von Thor auf Loki; Lokis Gesundheit wird vor dem Tod zurückgesetzt.
+     */
+    @Benchmark
+    public String getAttackResult() throws InterruptedException {
+        if (loki.health < 200) {
+            loki.health = lokiSpec.health();
+        }
+        return engine.getAttackResult(thor, loki, rng);
+    }
+
+    /**
+     * Ein vollständiger Kampf Thor gegen Loki mit frisch erzeugten Kriegern.
+     */
+    @Benchmark
+    public Warrior startFight() throws InterruptedException {
+        return engine.startFight(thorSpec.newWarrior(), lokiSpec.newWarrior(),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+}
@@ -0,0 +1,280 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lasttest für den {@link BattleService} auf localhost.
+ *
+ * {@link #main(String[])} prüft, dass der Dienst dieselben Kämpfe wie die
+ * {@link BattleEngine} austrägt, erzeugt Last aus vielen gleichzeitigen
+ * Clients, gibt Durchsatz, Batch-Größe und Latenz-Perzentile aus und prüft,
+ * dass ein überlasteter Dienst mit 503 abweist, dass laufende Simulationen
+ * Kämpfe nicht aufhalten und dass das Beenden unter Last keine Anfrage
+ * hängen lässt:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.BattleServiceBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BattleServiceBenchmark {
+
+    private static final String THOR = "Thor,800,130,40";
+    private static final String LOKI = "Loki,800,85,40,0.25";
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\":(\"[^\"]*\"|null|-?\\d+)");
+
+    private BattleService service;
+    private HttpClient client;
+    private URI fight;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = BattleService.start(0);
+        client = HttpClient.newHttpClient();
+        fight = fightUri(service, THOR, LOKI, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    /**
+     * Eine Kampfanfrage über HTTP.
+     */
+    @Benchmark
+    @Threads(64)
+    public int fightRequest() throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(fight).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static URI fightUri(BattleService service, String first, String second, Long seed) {
+        return URI.create("http://localhost:" + service.port() + "/fight?first=" + encode(first)
+                + "&second=" + encode(second) + (seed == null ? "" : "&seed=" + seed));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String field(String json, String name) {
+        Matcher m = FIELD.matcher(json);
+        while (m.find()) {
+            if (m.group(1).equals(name)) {
+                return m.group(2).replace("\"", "");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Führt Korrektheitsprüfung und Lasttest aus.
+     *
+     * @param args optional die Anzahl der Anfragen im Lasttest (Standard: 20.000)
+     * @throws Exception wenn der Dienst nicht erreichbar ist
+     */
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int failures = 0;
+        BattleServiceBenchmark benchmark = new BattleServiceBenchmark();
+        benchmark.setUp();
+        BattleService service = benchmark.service;
+        HttpClient client = benchmark.client;
+
+        // Gleicher Startwert, gleicher Kampf wie in der BattleEngine
+        for (long seed = 0; seed < 50; seed++) {
+            String json = client.send(HttpRequest.newBuilder(fightUri(service, THOR, LOKI, seed)).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Warrior thor = Archetypes.THOR.newWarrior();
+            Warrior loki = Archetypes.LOKI.newWarrior();
+            Warrior winner = BattleEngine.HEADLESS.startFight(thor, loki, MonteCarloSimulator.DEFAULT_MAX_ROUNDS,
+                    new SplitMixRandom(seed));
+            String expected = winner == null ? "null" : winner.getName();
+            if (!expected.equals(field(json, "winner"))
+                    || !String.valueOf(thor.getHealth()).equals(field(json, "firstHealth"))
+                    || !String.valueOf(loki.getHealth()).equals(field(json, "secondHealth"))) {
+                System.out.println("Abweichung bei Startwert " + seed + ": " + json);
+                failures++;
+            }
+        }
+        HttpResponse<String> bad = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + service.port() + "/fight?first=Thor,800")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        System.out.println("Ungültige Anfrage: " + bad.statusCode() + " " + bad.body());
+        if (bad.statusCode() != 400) {
+            failures++;
+        }
+        HttpResponse<String> simulation = client.send(HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + service.port() + "/simulate?first=" + encode(THOR) + "&second=" + encode(LOKI)
+                        + "&fights=100000&seed=1")).build(), HttpResponse.BodyHandlers.ofString());
+        System.out.println("Simulation: " + simulation.body());
+        if (!String.valueOf(new BatchCombatEngine().simulate(Archetypes.THOR, Archetypes.LOKI, 100_000, 1)
+                .firstWins()).equals(field(simulation.body(), "firstWins"))) {
+            failures++;
+        }
+
+        // Last aus vielen gleichzeitigen Clients
+        int clients = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    if (benchmark.fightRequest() != 200) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long nanos = System.nanoTime() - start;
+        ServiceStats stats = service.stats();
+        System.out.printf("%d Anfragen von %d Clients: %.0f Anfragen/s, %d Fehler%n",
+                requests, clients, requests * 1e9 / nanos, errors.get());
+        System.out.println(stats);
+        if (errors.get() > 0 || stats.meanBatchSize() <= 1.0) {
+            failures++;
+        }
+        benchmark.tearDown();
+
+        // Überlast: winzige Warteschlange, ein Kampf je Batch
+        BattleService tiny = BattleService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 1, 1);
+        URI tinyFight = fightUri(tiny, "A,100000,2,1", "B,100000,2,1", null);
+        AtomicInteger rejected = new AtomicInteger();
+        futures.clear();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(tinyFight).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 503) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        System.out.println("Überlast: " + rejected.get() + " von " + clients * 20 + " Anfragen mit 503 abgewiesen, "
+                + tiny.stats());
+        if (rejected.get() == 0 || rejected.get() != tiny.stats().rejected()) {
+            failures++;
+        }
+        tiny.close();
+
+        // Simulationen auf allen Kernen halten Kämpfe und Statistik nicht auf
+        int cores = Runtime.getRuntime().availableProcessors();
+        BattleService busy = BattleService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                BattleService.DEFAULT_QUEUE_CAPACITY, BattleService.DEFAULT_MAX_BATCH, cores);
+        List<CompletableFuture<HttpResponse<Void>>> simulations = new ArrayList<>();
+        for (int c = 0; c < cores; c++) {
+            simulations.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + busy.port()
+                    + "/simulate?first=" + encode(THOR) + "&second=" + encode(LOKI) + "&fights="
+                    + BattleService.MAX_SIMULATION_FIGHTS)).build(), HttpResponse.BodyHandlers.discarding()));
+        }
+        Thread.sleep(200);
+        start = System.nanoTime();
+        int statsStatus = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + busy.port() + "/stats"))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        int fightStatus = client.send(HttpRequest.newBuilder(fightUri(busy, THOR, LOKI, 1L)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+        long busyMillis = (System.nanoTime() - start) / 1_000_000;
+        boolean stillRunning = simulations.stream().anyMatch(future -> !future.isDone());
+        System.out.println("Statistik und Kampf während " + cores + " Simulationen: " + busyMillis + " ms"
+                + (stillRunning ? "" : " (Simulationen schon fertig)"));
+        if (statsStatus != 200 || fightStatus != 200 || busyMillis > 1_000) {
+            failures++;
+        }
+        for (CompletableFuture<HttpResponse<Void>> future : simulations) {
+            if (future.get().statusCode() != 200) {
+                failures++;
+            }
+        }
+        busy.close();
+
+        // Beenden unter Last: jede Anfrage wird beantwortet oder abgebrochen
+        BattleService closing = BattleService.start(0);
+        URI closingFight = fightUri(closing, THOR, LOKI, null);
+        AtomicInteger answered = new AtomicInteger();
+        futures.clear();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                while (true) {
+                    try {
+                        int status = client.send(HttpRequest.newBuilder(closingFight)
+                                .timeout(Duration.ofSeconds(10)).build(),
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status != 200 && status != 503) {
+                            errors.incrementAndGet();
+                        }
+                        answered.incrementAndGet();
+                    } catch (IOException stopped) {
+                        // Verbindung beim Beenden geschlossen
+                        return null;
+                    }
+                }
+            }));
+        }
+        Thread.sleep(300);
+        start = System.nanoTime();
+        closing.close();
+        long closeMillis = (System.nanoTime() - start) / 1_000_000;
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        System.out.println("Beenden unter Last nach " + answered.get() + " Anfragen: " + closeMillis + " ms");
+        if (closeMillis > 5_000 || errors.get() > 0) {
+            failures++;
+        }
+        pool.shutdown();
+
+        System.out.println("Fehler: " + failures);
+        System.exit(failures > 0 ? 1 : 0);
+    }
+}
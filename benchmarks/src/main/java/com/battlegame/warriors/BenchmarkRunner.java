@@ -0,0 +1,39 @@
+package com.battlegame.warriors;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startpunkt der Benchmark-Suite.
+ *
+ * Nimmt dieselben Kommandozeilenargumente wie {@code org.openjdk.jmh.Main}
+ * entgegen, aktiviert aber immer den GC-Profiler, sodass neben dem Durchsatz
+ * auch die Allokationsrate ({@code gc.alloc.rate.norm}) jedes Benchmarks
+ * ausgegeben wird.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Führt die ausgewählten Benchmarks mit GC-Profiler aus.
+     *
+     * @param args JMH-Kommandozeilenargumente, z.B. ein Filter wie {@code Battle}
+     * @throws CommandLineOptionException wenn die Argumente ungültig sind
+     * @throws RunnerException wenn ein Benchmark fehlschlägt
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
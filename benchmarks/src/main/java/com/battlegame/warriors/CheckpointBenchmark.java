@@ -0,0 +1,219 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für Checkpoints über das {@link CheckpointLog}.
+ *
+ * {@link #main(String[])} misst die Kosten der Checkpoints, beendet einen
+ * Simulationsprozess hart mitten im Lauf und prüft, dass die Fortsetzung
+ * bitgenau dasselbe Ergebnis liefert wie ein Lauf ohne Unterbrechung; ebenso
+ * für ein abgeschnittenes Journal und ein Turnier:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.CheckpointBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointBenchmark {
+
+    private static final long FIGHTS = 2_000_000;
+    private static final long SEED = 99;
+    private static final long INTERVAL = 65_536;
+
+    private MonteCarloSimulator simulator;
+    private Path checkpoint;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new MonteCarloSimulator();
+        checkpoint = Files.createTempFile("simulation", ".checkpoint");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(checkpoint);
+    }
+
+    /**
+     * Simulation ohne Checkpoints.
+     */
+    @Benchmark
+    public SimulationResult plain() {
+        return simulator.simulate(Archetypes.THOR, Archetypes.LOKI, FIGHTS, SEED);
+    }
+
+    /**
+     * Dieselbe Simulation mit einem Checkpoint je {@link #INTERVAL} Kämpfe.
+     */
+    @Benchmark
+    public SimulationResult checkpointed() throws IOException {
+        Files.delete(checkpoint);
+        return simulator.simulate(Archetypes.THOR, Archetypes.LOKI, FIGHTS, SEED, checkpoint, INTERVAL);
+    }
+
+    /**
+     * Führt Prüfungen und Messungen aus.
+     *
+     * @param args leer, oder {@code child <datei> <kämpfe>} für den abzubrechenden Prozess
+     * @throws Exception wenn eine Datei oder der Kindprozess nicht verwendet werden kann
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            new MonteCarloSimulator().simulate(Archetypes.THOR, Archetypes.LOKI, Long.parseLong(args[2]), SEED,
+                    Paths.get(args[1]), INTERVAL);
+            return;
+        }
+        int failures = 0;
+        CheckpointBenchmark benchmark = new CheckpointBenchmark();
+        benchmark.setUp();
+
+        // Kosten der Checkpoints: Median abwechselnder Läufe, da einzelne Läufe stark streuen
+        SimulationResult expected = benchmark.plain();
+        benchmark.checkpointed();
+        int reps = 11;
+        long[] plainNanos = new long[reps];
+        long[] checkpointNanos = new long[reps];
+        for (int i = 0; i < 2 * reps; i++) {
+            // Reihenfolge wechseln, damit keine Variante immer als zweite läuft
+            long start = System.nanoTime();
+            if ((i & 1) == (i >> 1 & 1)) {
+                benchmark.plain();
+                plainNanos[i >> 1] = System.nanoTime() - start;
+            } else {
+                SimulationResult result = benchmark.checkpointed();
+                checkpointNanos[i >> 1] = System.nanoTime() - start;
+                if (!result.equals(expected)) {
+                    failures++;
+                }
+            }
+        }
+        Arrays.sort(plainNanos);
+        Arrays.sort(checkpointNanos);
+        long plainMedian = plainNanos[reps / 2];
+        long checkpointMedian = checkpointNanos[reps / 2];
+        System.out.printf("%d Kämpfe: ohne Checkpoints %d ms, mit %d Checkpoints %d ms (%+.1f%%), Median aus %d%n",
+                FIGHTS, plainMedian / 1_000_000, FIGHTS / INTERVAL, checkpointMedian / 1_000_000,
+                100 * ((double) checkpointMedian / plainMedian - 1.0), reps);
+
+        // Abgeschlossener Lauf: Ergebnis sofort aus der Datei
+        long start = System.nanoTime();
+        SimulationResult reread = benchmark.simulator.simulate(Archetypes.THOR, Archetypes.LOKI, FIGHTS, SEED,
+                benchmark.checkpoint, INTERVAL);
+        System.out.printf("Erneuter Aufruf nach Abschluss: %d µs%n", (System.nanoTime() - start) / 1_000);
+        if (!reread.equals(expected)) {
+            failures++;
+        }
+
+        // Abgeschnittenes Journal wie nach einem Absturz während des Schreibens
+        long size = Files.size(benchmark.checkpoint);
+        try (FileChannel channel = FileChannel.open(benchmark.checkpoint, StandardOpenOption.WRITE)) {
+            channel.truncate(size / 2 + 13);
+        }
+        if (!benchmark.simulator.simulate(Archetypes.THOR, Archetypes.LOKI, FIGHTS, SEED, benchmark.checkpoint,
+                INTERVAL).equals(expected)) {
+            System.out.println("Abweichung nach abgeschnittenem Journal");
+            failures++;
+        }
+
+        // Harter Abbruch eines Prozesses mitten in der Simulation
+        long childFights = 20 * FIGHTS;
+        SimulationResult childExpected = benchmark.simulator.simulate(Archetypes.THOR, Archetypes.LOKI,
+                childFights, SEED);
+        Files.delete(benchmark.checkpoint);
+        Process child = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), CheckpointBenchmark.class.getName(),
+                "child", benchmark.checkpoint.toString(), Long.toString(childFights)).inheritIO().start();
+        Thread.sleep(1_500);
+        child.destroyForcibly().waitFor();
+        long saved = Files.size(benchmark.checkpoint);
+        start = System.nanoTime();
+        SimulationResult resumed = benchmark.simulator.simulate(Archetypes.THOR, Archetypes.LOKI, childFights, SEED,
+                benchmark.checkpoint, INTERVAL);
+        System.out.printf("Prozess abgebrochen mit %d Bytes Checkpoint (ca. %d von %d Kämpfen), "
+                        + "Fortsetzung %d ms, bitgenau: %b%n", saved,
+                (saved - CheckpointLog.FILE_HEADER) / (CheckpointLog.RECORD_HEADER + 16 + SimulationResult.BYTES)
+                        * INTERVAL, childFights, (System.nanoTime() - start) / 1_000_000, resumed.equals(childExpected));
+        if (saved <= CheckpointLog.FILE_HEADER || !resumed.equals(childExpected)) {
+            failures++;
+        }
+
+        // Anderer Lauf mit derselben Datei wird abgewiesen
+        try {
+            benchmark.simulator.simulate(Archetypes.THOR, Archetypes.LOKI, childFights, SEED + 1,
+                    benchmark.checkpoint, INTERVAL);
+            failures++;
+        } catch (IOException e) {
+            System.out.println("Anderer Lauf: " + e.getMessage());
+        }
+
+        // Turnier: nach Verlust der zweiten Hälfte des Journals fortsetzen
+        List<Warrior> entrants = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            entrants.add(new Warrior("K" + i, 300 + 13 * i, 40 + i % 17, 20 + i % 11));
+        }
+        Files.delete(benchmark.checkpoint);
+        try (Tournament tournament = new Tournament(ForkJoinPool.commonPool(), SEED)) {
+            TournamentResult full = tournament.roundRobin(entrants, 2);
+            tournament.roundRobin(entrants, 2, benchmark.checkpoint);
+            size = Files.size(benchmark.checkpoint);
+            try (FileChannel channel = FileChannel.open(benchmark.checkpoint, StandardOpenOption.WRITE)) {
+                channel.truncate(size / 2);
+            }
+            TournamentResult resumedTournament = tournament.roundRobin(entrants, 2, benchmark.checkpoint);
+            boolean same = full.matches().equals(resumedTournament.matches())
+                    && full.standings().equals(resumedTournament.standings());
+            System.out.printf("Turnier mit %d Kämpfen nach halbem Journal fortgesetzt, gleich: %b%n",
+                    full.matches().size(), same);
+            if (!same) {
+                failures++;
+            }
+
+            Path knockoutFile = Files.createTempFile("knockout", ".checkpoint");
+            TournamentResult knockout = tournament.knockout(entrants);
+            tournament.knockout(entrants, knockoutFile);
+            try (FileChannel channel = FileChannel.open(knockoutFile, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(knockoutFile) / 3);
+            }
+            if (!knockout.matches().equals(tournament.knockout(entrants, knockoutFile).matches())) {
+                System.out.println("Abweichung im K.-o.-Turnier");
+                failures++;
+            }
+            Files.deleteIfExists(knockoutFile);
+        }
+        benchmark.tearDown();
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für gewürfelte und über {@link DamageTables} gezogene Kämpfe.
+ *
+ * {@link #main(String[])} vergleicht die gezogenen Schadenswerte mit der
+ * exakten {@link DamageDistribution} und die Siegquote mit dem
+ * {@link MatchupSolver}:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.DamageTableBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamageTableBenchmark {
+
+    private final BattleEngine rolled = BattleEngine.HEADLESS;
+    private final BattleEngine sampled = BattleEngine.HEADLESS.withDamageTables(new DamageTables());
+
+    private Warrior thor;
+    private Warrior loki;
+    private SplitMixRandom rng;
+
+    @Setup
+    public void setUp() {
+        thor = Archetypes.THOR.newWarrior();
+        loki = Archetypes.LOKI.newWarrior();
+        rng = new SplitMixRandom(42);
+    }
+
+    /**
+     * Vollständiger Kampf mit Angriffs-, Ausweich- und Blockwurf je Angriff.
+     */
+    @Benchmark
+    public Warrior rolledFight() throws InterruptedException {
+        thor.health = Archetypes.THOR.health();
+        loki.health = Archetypes.LOKI.health();
+        return rolled.startFight(thor, loki, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Vollständiger Kampf mit einem Wurf je Angriff aus der Alias-Tabelle.
+     */
+    @Benchmark
+    public Warrior sampledFight() throws InterruptedException {
+        thor.health = Archetypes.THOR.health();
+        loki.health = Archetypes.LOKI.health();
+        return sampled.startFight(thor, loki, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, rng);
+    }
+
+    /**
+     * Prüft Verteilung, Siegquote und Allokationsfreiheit und misst beide Varianten.
+     *
+     * @param args optional die Anzahl der Kämpfe je Variante (Standard: 1.000.000)
+     * @throws InterruptedException wird ohne Taktung nie ausgelöst
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int fights = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean failed = false;
+
+        // Gezogene Schadenswerte gegen die exakte Verteilung
+        DamageTables tables = new DamageTables();
+        SplitMixRandom rng = new SplitMixRandom(1);
+        WarriorSpec[][] pairs = {
+            {Archetypes.THOR, Archetypes.LOKI},
+            {Archetypes.LOKI, Archetypes.THOR},
+            {WarriorSpec.of("Zwerg", 100, 7, 30), new WarriorSpec("Elf", 100, 50, 3, 0.9)},
+        };
+        for (WarriorSpec[] pair : pairs) {
+            DamageSampler sampler = tables.get(pair[0], pair[1]);
+            double[] pmf = sampler.distribution().toArray();
+            long[] counts = new long[pmf.length];
+            int samples = 10_000_000;
+            for (int i = 0; i < samples; i++) {
+                counts[sampler.sample(rng)]++;
+            }
+            double distance = 0.0;
+            for (int d = 0; d < pmf.length; d++) {
+                distance += Math.abs((double) counts[d] / samples - pmf[d]);
+            }
+            distance /= 2;
+            System.out.printf("%s -> %s: Totalvariationsabstand %.5f%n",
+                    pair[0].name(), pair[1].name(), distance);
+            failed |= distance > 0.003;
+        }
+
+        // Siegquoten gegen die exakte Lösung
+        double exact = new MatchupSolver().solve(Archetypes.THOR, Archetypes.LOKI).firstWinProbability();
+        DamageTableBenchmark benchmark = new DamageTableBenchmark();
+        benchmark.setUp();
+        for (int i = 0; i < 100_000; i++) {
+            benchmark.rolledFight();
+            benchmark.sampledFight();
+        }
+        long rolledWins = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < fights; i++) {
+            if (benchmark.rolledFight() == benchmark.thor) {
+                rolledWins++;
+            }
+        }
+        long rolledNanos = System.nanoTime() - start;
+        long sampledWins = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < fights; i++) {
+            if (benchmark.sampledFight() == benchmark.thor) {
+                sampledWins++;
+            }
+        }
+        long sampledNanos = System.nanoTime() - start;
+
+        // Treffer im Zwischenspeicher allokieren nichts
+        long before = AllocatedBytes.currentThread();
+        for (int i = 0; i < fights; i++) {
+            benchmark.sampledFight();
+        }
+        double sampledBytes = (double) (AllocatedBytes.currentThread() - before) / fights;
+
+        double rolledRate = (double) rolledWins / fights;
+        double sampledRate = (double) sampledWins / fights;
+        double sigma = Math.sqrt(exact * (1 - exact) / fights);
+        System.out.printf("Siegquote Thor: exakt %.4f, gewürfelt %.4f, Tabelle %.4f (Standardfehler %.4f)%n",
+                exact, rolledRate, sampledRate, sigma);
+        System.out.printf("ns pro Kampf: gewürfelt %.0f, Tabelle %.0f%n",
+                (double) rolledNanos / fights, (double) sampledNanos / fights);
+        System.out.println("Bytes pro Kampf (Tabelle): " + sampledBytes);
+        failed |= Math.abs(sampledRate - exact) > 5 * sigma;
+        failed |= sampledBytes >= 1.0;
+        if (failed) {
+            System.out.println("FEHLER: Tabellen weichen von der exakten Verteilung ab");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.battlegame.warriors;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den {@link EffectScheduler} und Kämpfe mit Fähigkeiten.
+ *
+ * {@link #scheduleAndAdvance()} plant pro Operation einen Effekt ein und
+ * rückt einen Zug vor. Die Wirkungsdauern sind so gewählt, dass im Mittel
+ * {@code activeEffects} Effekte gleichzeitig aktiv sind; die Kosten pro
+ * Operation sollen davon unabhängig sein.
+ *
+ * {@link #main(String[])} prüft das Ablaufen jedes Effekts gegen den
+ * erwarteten Zug und gibt die Kosten pro Operation für mehrere Größen aus:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.EffectSchedulerBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectSchedulerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int activeEffects;
+
+    private EffectScheduler scheduler;
+    private int slot;
+    private SplitMixRandom rng;
+
+    private final AbilityBattle battle = new AbilityBattle(BattleEngine.HEADLESS);
+    private final List<Ability> thorAbilities = List.of(Ability.healOverTime(15, 4, 12));
+    private final List<Ability> lokiAbilities = List.of(
+            Ability.teleportEvade(2, 10), Ability.dodgeBuff(25, 4, 8));
+    private SplitMixRandom fightRng;
+
+    @Setup
+    public void setUp() {
+        scheduler = new EffectScheduler(activeEffects * 2);
+        slot = scheduler.register(Archetypes.THOR.newWarrior());
+        rng = new SplitMixRandom(42);
+        fightRng = new SplitMixRandom(42);
+        // Gleichgewicht herstellen
+        for (int i = 0; i < activeEffects * 4; i++) {
+            scheduleAndAdvance();
+        }
+    }
+
+    /**
+     * Einen Effekt einplanen und einen Zug vorrücken.
+     */
+    @Benchmark
+    public int scheduleAndAdvance() {
+        scheduler.evade(slot, 1 + rng.roll(2 * activeEffects));
+        scheduler.advance();
+        return scheduler.activeEffects();
+    }
+
+    /**
+     * Ein vollständiger Kampf Thor gegen Loki mit Fähigkeiten.
+     */
+    @Benchmark
+    public Warrior abilityFight() throws InterruptedException {
+        return battle.startFight(Archetypes.THOR.newWarrior(), thorAbilities,
+                Archetypes.LOKI.newWarrior(), lokiAbilities, MonteCarloSimulator.DEFAULT_MAX_ROUNDS, fightRng);
+    }
+
+    /**
+     * Prüft das Ablaufen der Effekte und misst die Kosten pro Operation.
+     *
+     * @param args werden nicht verwendet
+     * @throws InterruptedException wird ohne Taktung nie ausgelöst
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int failures = verifyExpiry(20_000, 300_000);
+
+        for (int size : new int[] {1_000, 100_000, 1_000_000}) {
+            EffectSchedulerBenchmark benchmark = new EffectSchedulerBenchmark();
+            benchmark.activeEffects = size;
+            benchmark.setUp();
+            int ops = 5_000_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                benchmark.scheduleAndAdvance();
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%,10d aktive Effekte: %.1f ns pro Operation%n",
+                    benchmark.scheduler.activeEffects(), (double) nanos / ops);
+        }
+
+        EffectSchedulerBenchmark fights = new EffectSchedulerBenchmark();
+        fights.activeEffects = 1;
+        fights.setUp();
+        int thorWins = 0;
+        int fightCount = 100_000;
+        for (int i = 0; i < fightCount; i++) {
+            Warrior winner = fights.abilityFight();
+            if (winner != null && winner.getName().equals("Thor")) {
+                thorWins++;
+            }
+        }
+        System.out.printf("Thor gewinnt mit Fähigkeiten %.1f %% der Kämpfe, %d Effekte übrig%n",
+                100.0 * thorWins / fightCount, fights.battle.getScheduler().activeEffects());
+        if (fights.battle.getScheduler().activeEffects() != 0) {
+            failures++;
+        }
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plant Ausweichphasen mit bis zu {@code maxDuration} Zügen für einzelne
+     * Krieger ein, bricht einige ab, und prüft nach jedem Zug, dass genau die
+     * erwarteten Phasen geendet haben.
+     */
+    private static int verifyExpiry(int warriors, int maxDuration) {
+        EffectScheduler scheduler = new EffectScheduler();
+        SplitMixRandom rng = new SplitMixRandom(7);
+        int[] slots = new int[warriors];
+        long[] endsAt = new long[warriors];
+        int[] effect = new int[warriors];
+        for (int i = 0; i < warriors; i++) {
+            slots[i] = scheduler.register(new Warrior("W" + i, 1, 1, 1));
+            int duration = rng.chance(0.5) ? rng.roll(64) : rng.roll(maxDuration);
+            effect[i] = scheduler.evade(slots[i], duration);
+            endsAt[i] = duration;
+        }
+        // Jeden zehnten Effekt vorzeitig abbrechen
+        for (int i = 0; i < warriors; i += 10) {
+            scheduler.cancel(effect[i]);
+            endsAt[i] = 0;
+        }
+        int[] ending = new int[maxDuration + 1];
+        int expected = 0;
+        for (int i = 0; i < warriors; i++) {
+            if (endsAt[i] > 0) {
+                ending[(int) endsAt[i]]++;
+                expected++;
+            }
+        }
+        int failures = 0;
+        for (int tick = 1; tick <= maxDuration; tick++) {
+            scheduler.advance();
+            expected -= ending[tick];
+            if (scheduler.activeEffects() != expected) {
+                failures++;
+            }
+            // Stichproben: jede einzelne Phase gegen ihr erwartetes Ende
+            if (tick % 997 != 0 && tick > 130) {
+                continue;
+            }
+            for (int i = 0; i < warriors; i++) {
+                if (scheduler.isEvading(slots[i]) != (endsAt[i] > tick)) {
+                    failures++;
+                }
+            }
+        }
+        System.out.printf("Ablaufprüfung: %d Effekte bis %d Züge, %d Fehler, %d aktiv%n",
+                warriors, maxDuration, failures, scheduler.activeEffects());
+        return failures + scheduler.activeEffects();
+    }
+}
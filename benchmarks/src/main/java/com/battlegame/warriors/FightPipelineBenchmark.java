@@ -0,0 +1,208 @@
+package com.battlegame.warriors;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die {@link FightPipeline}.
+ *
+ * {@link #main(String[])} erzeugt einen Kader als Text und binär, prüft, dass
+ * beide Formen dieselbe Ergebnisdatei liefern, dass die Kämpfe denen der
+ * {@link BattleEngine} entsprechen und dass ungültige Zeilen gemeldet werden,
+ * und misst den Durchsatz:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.FightPipelineBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FightPipelineBenchmark {
+
+    private static final long SEED = 20_240_601L;
+
+    @Param({"1000000"})
+    private int warriors;
+
+    private Path csv;
+    private Path binary;
+    private Path results;
+    private FightPipeline pipeline;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = Files.createTempFile("roster", ".csv");
+        binary = Files.createTempFile("roster", ".bin");
+        results = Files.createTempFile("results", ".csv");
+        writeRoster(csv, warriors);
+        try (RosterReader reader = new RosterReader(csv);
+             RosterWriter writer = new RosterWriter(binary)) {
+            WarriorSpec spec;
+            while ((spec = reader.next()) != null) {
+                writer.write(spec);
+            }
+        }
+        pipeline = new FightPipeline();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(results);
+    }
+
+    /**
+     * Alle Kämpfe des binären Kaders.
+     */
+    @Benchmark
+    public PipelineResult binaryRoster() throws IOException {
+        return pipeline.run(binary, results, SEED);
+    }
+
+    /**
+     * Alle Kämpfe des Kaders als Text.
+     */
+    @Benchmark
+    public PipelineResult csvRoster() throws IOException {
+        return pipeline.run(csv, results, SEED);
+    }
+
+    /**
+     * Schreibt einen zufälligen Kader als Text.
+     */
+    private static void writeRoster(Path file, int count) throws IOException {
+        SplittableRandom rng = new SplittableRandom(7);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Name,Gesundheit,Angriff,Block,Ausweichen\n");
+            for (int i = 0; i < count; i++) {
+                out.write("Krieger" + i + "," + (200 + rng.nextInt(800)) + "," + (20 + rng.nextInt(130))
+                        + "," + (10 + rng.nextInt(60)));
+                if (i % 3 == 0) {
+                    out.write("," + rng.nextInt(40) / 100.0);
+                }
+                out.write(i % 1000 == 0 ? "\r\n" : "\n");
+            }
+        }
+    }
+
+    /**
+     * Prüft die Pipeline und misst den Durchsatz.
+     *
+     * @param args optional die Anzahl der Krieger (Standard: 1.000.000)
+     * @throws IOException wenn die temporären Dateien nicht verwendet werden können
+     */
+    public static void main(String[] args) throws IOException {
+        int failures = 0;
+        FightPipelineBenchmark benchmark = new FightPipelineBenchmark();
+        benchmark.warriors = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        benchmark.setUp();
+        System.out.printf("Kader: %d Krieger, Text %d MB, binär %d MB%n", benchmark.warriors,
+                Files.size(benchmark.csv) >> 20, Files.size(benchmark.binary) >> 20);
+
+        // Aufwärmen, dann beide Formen messen
+        benchmark.binaryRoster();
+        PipelineResult fromCsv = benchmark.csvRoster();
+        byte[] csvResults = Files.readAllBytes(benchmark.results);
+        PipelineResult fromBinary = benchmark.binaryRoster();
+        System.out.println("Text:  " + fromCsv);
+        System.out.println("Binär: " + fromBinary);
+        if (fromCsv.fights() != benchmark.warriors / 2 || fromCsv.firstWins() != fromBinary.firstWins()
+                || fromCsv.draws() != fromBinary.draws()
+                || Files.mismatch(benchmark.results, writeTemp(csvResults)) != -1) {
+            failures++;
+        }
+
+        // Ein Simulations-Thread: Ergebnis unabhängig von der Parallelität
+        PipelineResult single = new FightPipeline(1, 1000, MonteCarloSimulator.DEFAULT_MAX_ROUNDS)
+                .run(benchmark.binary, benchmark.results, SEED);
+        System.out.println("1 Thread: " + single);
+        if (Files.mismatch(benchmark.results, writeTemp(csvResults)) != -1) {
+            failures++;
+        }
+
+        // Die ersten Kämpfe entsprechen der BattleEngine
+        try (RosterReader roster = new RosterReader(benchmark.binary);
+             BufferedReader lines = Files.newBufferedReader(benchmark.results, StandardCharsets.UTF_8)) {
+            if (!lines.readLine().equals(FightPipeline.HEADER.trim())) {
+                failures++;
+            }
+            for (int i = 0; i < 10_000; i++) {
+                Warrior first = roster.next().newWarrior();
+                Warrior second = roster.next().newWarrior();
+                Warrior winner = BattleEngine.HEADLESS.startFight(first, second,
+                        MonteCarloSimulator.DEFAULT_MAX_ROUNDS, new SplitMixRandom(SplitMixRandom.streamSeed(SEED, i)));
+                String[] fields = lines.readLine().split(",", -1);
+                if (!fields[0].equals(first.getName()) || !fields[1].equals(second.getName())
+                        || !fields[2].equals(winner == null ? "" : winner.getName())
+                        || Integer.parseInt(fields[4]) != first.getHealth()
+                        || Integer.parseInt(fields[5]) != second.getHealth()) {
+                    System.out.println("Abweichung in Kampf " + i + ": " + String.join(",", fields));
+                    failures++;
+                }
+            }
+        } catch (InterruptedException e) {
+            failures++;
+        }
+
+        // Ungültige Zeile wird mit Zeilennummer gemeldet
+        Path broken = writeTemp("A,100,10,5\nB,100,zehn,5\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            benchmark.pipeline.run(broken, benchmark.results, SEED);
+            failures++;
+        } catch (IOException expected) {
+            System.out.println("Ungültiger Kader: " + expected.getMessage());
+            if (!expected.getMessage().contains("Zeile 2")) {
+                failures++;
+            }
+        }
+        Files.deleteIfExists(broken);
+
+        // Textkader, dessen erster Name wie die binäre Kennung beginnt
+        Path lookalike = writeTemp("WCSKnight,100,10,5\nB,100,10,5\n".getBytes(StandardCharsets.UTF_8));
+        try (RosterReader roster = new RosterReader(lookalike)) {
+            WarriorSpec knight = roster.next();
+            if (roster.isBinary() || !knight.name().equals("WCSKnight") || roster.next() == null) {
+                failures++;
+            }
+        }
+        Files.deleteIfExists(lookalike);
+
+        benchmark.tearDown();
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Path writeTemp(byte[] content) throws IOException {
+        Path file = Files.createTempFile("pipeline", ".tmp");
+        file.toFile().deleteOnExit();
+        return Files.write(file, content);
+    }
+}
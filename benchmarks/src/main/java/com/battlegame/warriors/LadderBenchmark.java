@@ -0,0 +1,203 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die {@link Ladder}.
+ *
+ * {@link #main(String[])} prüft die Elo-Wertung, die Reproduzierbarkeit mit
+ * einem Thread, die Konsistenz des Histogramms nach einem Lauf mit mehreren
+ * Threads und dass stärkere Krieger aufsteigen, und misst den Durchsatz bei
+ * einer Million Kriegern:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.LadderBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LadderBenchmark {
+
+    private static final long SEED = 4_711;
+
+    @Param({"1000000"})
+    private int warriors;
+
+    private Ladder ladder;
+    private SplitMixRandom rng;
+    private long round;
+
+    @Setup
+    public void setUp() {
+        ladder = new Ladder(roster(warriors));
+        rng = new SplitMixRandom(SEED);
+    }
+
+    /**
+     * Sucht einen Gegner für einen zufälligen Krieger.
+     */
+    @Benchmark
+    public int findOpponent() {
+        return ladder.findOpponent((int) (rng.nextDouble() * warriors), rng);
+    }
+
+    /**
+     * Trägt 100.000 gewertete Kämpfe aus.
+     */
+    @Benchmark
+    @OperationsPerInvocation(100_000)
+    public LadderResult play() {
+        return ladder.play(100_000, SEED + round++);
+    }
+
+    /**
+     * Erzeugt einen Kader, dessen Stärke mit dem Index steigt, in zufälliger Reihenfolge.
+     */
+    private static List<WarriorSpec> roster(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<WarriorSpec> roster = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int level = random.nextInt(100);
+            roster.add(new WarriorSpec("L" + level + "-" + i, 300 + 6 * level, 60 + level / 2, 30,
+                    i % 4 == 0 ? 0.1 : 0.0));
+        }
+        return roster;
+    }
+
+    private static int level(WarriorSpec spec) {
+        return Integer.parseInt(spec.name().substring(1, spec.name().indexOf('-')));
+    }
+
+    /**
+     * Prüft die Rangliste und misst den Durchsatz.
+     *
+     * @param args optional die Anzahl der Krieger (Standard: 1.000.000)
+     */
+    public static void main(String[] args) {
+        int failures = 0;
+
+        // Elo: gleich starke Gegner, vorläufige Wertung mit doppeltem K-Faktor
+        Ladder pair = new Ladder(roster(2), 1, Ladder.DEFAULT_K_FACTOR);
+        pair.record(0, 1, FightBatch.FIRST_WON);
+        if (pair.rating(0) != 1524.0 || pair.rating(1) != 1476.0 || pair.games(0) != 1) {
+            System.out.println("Elo-Wertung falsch: " + pair.rating(0) + " / " + pair.rating(1));
+            failures++;
+        }
+        try {
+            pair.record(0, 1, FightBatch.RUNNING);
+            failures++;
+        } catch (IllegalArgumentException expected) {
+            System.out.println("Laufender Kampf: " + expected.getMessage());
+        }
+
+        // Ein Thread: gleicher Startwert, gleiche Wertung
+        List<WarriorSpec> small = roster(10_000);
+        Ladder a = new Ladder(small, 1, Ladder.DEFAULT_K_FACTOR);
+        Ladder b = new Ladder(small, 1, Ladder.DEFAULT_K_FACTOR);
+        LadderResult first = a.play(200_000, SEED);
+        LadderResult second = b.play(200_000, SEED);
+        for (int id = 0; id < small.size(); id++) {
+            if (a.rating(id) != b.rating(id) || a.games(id) != b.games(id)) {
+                System.out.println("Nicht reproduzierbar bei Krieger " + id);
+                failures++;
+                break;
+            }
+        }
+        if (first.firstWins() != second.firstWins() || first.draws() != second.draws()) {
+            failures++;
+        }
+
+        // Mehrere Threads: jeder Krieger genau einmal im Histogramm, Spitze stimmt
+        Ladder concurrent = new Ladder(small, 4, Ladder.DEFAULT_K_FACTOR);
+        LadderResult parallel = concurrent.play(1_000_000, SEED);
+        System.out.println("4 Threads: " + parallel);
+        List<LadderEntry> all = concurrent.top(small.size());
+        Set<Integer> seen = new HashSet<>();
+        for (LadderEntry entry : all) {
+            seen.add(entry.id());
+        }
+        if (all.size() != small.size() || seen.size() != small.size() || parallel.matches() != 1_000_000) {
+            System.out.println("Histogramm inkonsistent: " + all.size() + " Einträge, " + seen.size() + " Krieger");
+            failures++;
+        }
+        double best = Double.NEGATIVE_INFINITY;
+        for (int id = 0; id < small.size(); id++) {
+            best = Math.max(best, concurrent.rating(id));
+        }
+        if (concurrent.top(1).get(0).rating() != best) {
+            System.out.println("Spitze falsch: " + concurrent.top(1) + " statt " + best);
+            failures++;
+        }
+
+        // Stärkere Krieger stehen weiter oben
+        double strong = 0;
+        double weak = 0;
+        int strongCount = 0;
+        int weakCount = 0;
+        for (int id = 0; id < small.size(); id++) {
+            int level = level(small.get(id));
+            if (level >= 90) {
+                strong += concurrent.rating(id);
+                strongCount++;
+            } else if (level < 10) {
+                weak += concurrent.rating(id);
+                weakCount++;
+            }
+        }
+        System.out.printf("Mittlere Wertung: Stufe 90-99 %.0f, Stufe 0-9 %.0f%n", strong / strongCount,
+                weak / weakCount);
+        System.out.println("Spitze: " + concurrent.top(3));
+        if (strong / strongCount < weak / weakCount + 200) {
+            failures++;
+        }
+        if (parallel.meanRatingGap() > 4 * Ladder.BUCKET_WIDTH) {
+            System.out.println("Gegner zu weit entfernt: " + parallel.meanRatingGap());
+            failures++;
+        }
+
+        // Durchsatz mit einer Million Krieger
+        LadderBenchmark benchmark = new LadderBenchmark();
+        benchmark.warriors = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        benchmark.setUp();
+        benchmark.ladder.play(1_000_000, SEED);
+        for (int i = 0; i < 3; i++) {
+            System.out.println(benchmark.warriors + " Krieger: " + benchmark.play());
+        }
+        int lookups = 5_000_000;
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < lookups; i++) {
+            sum += benchmark.findOpponent();
+        }
+        System.out.printf("Gegnersuche: %.0f ns (%d)%n", (double) (System.nanoTime() - start) / lookups,
+                sum & 1);
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
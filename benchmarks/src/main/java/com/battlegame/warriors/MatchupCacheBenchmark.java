@@ -0,0 +1,219 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den {@link MatchupCache}.
+ *
+ * {@link #main(String[])} prüft Treffer nach dem erneuten Öffnen, die
+ * Verdrängung bei voller Kapazität und das Verwerfen bei geänderter
+ * Regelversion und misst Zugriffszeiten:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.MatchupCacheBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchupCacheBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    private Path file;
+    private MatchupCache cache;
+    private WarriorSpec[] specs;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("matchups", ".cache");
+        Files.delete(file);
+        cache = new MatchupCache(file, ENTRIES);
+        specs = new WarriorSpec[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            specs[i] = first(i);
+            cache.put(specs[i], Archetypes.THOR, result(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cache.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Ein Treffer im Zwischenspeicher.
+     */
+    @Benchmark
+    public SimulationResult get() {
+        next = next + 1 == ENTRIES ? 0 : next + 1;
+        return cache.get(specs[next], Archetypes.THOR);
+    }
+
+    private static WarriorSpec first(int i) {
+        return new WarriorSpec("K" + i, 100 + i % 1000, 10 + i / 1000, 20, (i % 7) / 10.0);
+    }
+
+    private static SimulationResult result(int i) {
+        return new SimulationResult(1000 + i, i, 1000 - i % 1000, i % 1000, 7L * i, 49L * i,
+                3L * i, 11L * i, 4L * i, 13L * i, i % 250);
+    }
+
+    /**
+     * Prüft den Zwischenspeicher und misst Zugriffszeiten.
+     *
+     * @param args werden nicht verwendet
+     * @throws IOException wenn die temporäre Datei nicht verwendet werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        int failures = 0;
+        MatchupCacheBenchmark benchmark = new MatchupCacheBenchmark();
+        benchmark.setUp();
+        Path file = benchmark.file;
+
+        // Zweites Öffnen derselben Datei muss scheitern
+        try {
+            new MatchupCache(file).close();
+            failures++;
+        } catch (IOException expected) {
+            System.out.println("Gesperrt: " + expected.getMessage());
+        }
+
+        int ops = 5_000_000;
+        for (int i = 0; i < ops; i++) {
+            benchmark.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            benchmark.get();
+        }
+        System.out.printf("Treffer: %.0f ns%n", (double) (System.nanoTime() - start) / ops);
+        benchmark.cache.close();
+
+        // Warmstart: sofort nach dem Öffnen liefern, ohne Aufbau
+        start = System.nanoTime();
+        MatchupCache cache = new MatchupCache(file);
+        SimulationResult firstHit = cache.get(first(4242), Archetypes.THOR);
+        System.out.printf("Öffnen bis zum ersten Treffer: %d µs, %d Einträge%n",
+                (System.nanoTime() - start) / 1_000, cache.size());
+        if (!result(4242).equals(firstHit)) {
+            failures++;
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            if (!result(i).equals(cache.get(first(i), Archetypes.THOR))) {
+                failures++;
+            }
+        }
+
+        // Verdrängung: häufig genutzte Einträge überleben, alle übrigen bleiben korrekt
+        for (int i = ENTRIES; i < 3 * ENTRIES; i++) {
+            for (int hot = 0; hot < 100; hot += 10) {
+                cache.get(first(hot), Archetypes.THOR);
+            }
+            cache.put(first(i), Archetypes.THOR, result(i));
+        }
+        int present = 0;
+        int hotPresent = 0;
+        for (int i = 0; i < 3 * ENTRIES; i++) {
+            SimulationResult stored = cache.get(first(i), Archetypes.THOR);
+            if (stored != null) {
+                present++;
+                if (i < 100 && i % 10 == 0) {
+                    hotPresent++;
+                }
+                if (!stored.equals(result(i))) {
+                    failures++;
+                }
+            }
+        }
+        System.out.printf("Nach Verdrängung: %d Einträge (Kapazität %d), %d von 10 häufig genutzten erhalten%n",
+                present, cache.capacity(), hotPresent);
+        if (present != cache.size() || present != ENTRIES || hotPresent != 10) {
+            failures++;
+        }
+
+        // Simulationsergebnisse: beim zweiten Mal aus dem Zwischenspeicher
+        MonteCarloSimulator simulator = new MonteCarloSimulator();
+        start = System.nanoTime();
+        SimulationResult simulated = cache.simulate(simulator, Archetypes.THOR, Archetypes.LOKI, 200_000);
+        long simulateMicros = (System.nanoTime() - start) / 1_000;
+        start = System.nanoTime();
+        SimulationResult cached = cache.simulate(simulator, Archetypes.THOR, Archetypes.LOKI, 200_000);
+        System.out.printf("Thor gegen Loki: simuliert %d µs, gespeichert %d µs, Siegquote %.4f%n",
+                simulateMicros, (System.nanoTime() - start) / 1_000, cached.firstWinRate());
+        if (!cached.equals(simulated)) {
+            failures++;
+        }
+
+        // Ein kleinerer Lauf ersetzt keinen größeren
+        cache.put(Archetypes.THOR, Archetypes.LOKI, simulator.simulate(Archetypes.THOR, Archetypes.LOKI, 1_000));
+        if (!simulated.equals(cache.get(Archetypes.THOR, Archetypes.LOKI))) {
+            failures++;
+        }
+
+        // Ergebnisse mit anderer Obergrenze an Angriffen gelten nicht
+        MonteCarloSimulator shortFights = new MonteCarloSimulator(ForkJoinPool.commonPool(), 10);
+        SimulationResult limited = cache.simulate(shortFights, Archetypes.THOR, Archetypes.LOKI, 1_000);
+        System.out.printf("Thor gegen Loki mit 10 Angriffen: %d Kämpfe, Siegquote %.4f%n",
+                limited.fights(), limited.firstWinRate());
+        if (limited.fights() != 1_000 || !limited.equals(cache.get(Archetypes.THOR, Archetypes.LOKI, 10))
+                || !simulated.equals(cache.simulate(simulator, Archetypes.THOR, Archetypes.LOKI, 200_000))) {
+            failures++;
+        }
+        cache.close();
+
+        // Eine bestehende Datei behält ihre Kapazität
+        try {
+            new MatchupCache(file, 2 * ENTRIES).close();
+            failures++;
+        } catch (IllegalArgumentException expected) {
+            System.out.println("Andere Kapazität: " + expected.getMessage());
+        }
+        try (MatchupCache reopened = new MatchupCache(file)) {
+            if (reopened.capacity() != ENTRIES || !simulated.equals(reopened.get(Archetypes.THOR, Archetypes.LOKI))) {
+                failures++;
+            }
+        }
+
+        // Geänderte Regelversion verwirft alle Einträge
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(8);
+            raw.writeInt(Battle.RULES_VERSION + 1);
+        }
+        try (MatchupCache outdated = new MatchupCache(file)) {
+            System.out.println("Einträge nach Regeländerung: " + outdated.size());
+            if (outdated.size() != 0 || outdated.get(first(0), Archetypes.THOR) != null) {
+                failures++;
+            }
+        }
+        Files.deleteIfExists(file);
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst den Aufwand der {@link CombatMetrics} im Kampfablauf.
+ *
+ * {@link #plainFight()} und {@link #instrumentedFight()} unterscheiden sich
+ * nur durch die Kennzahlen; die Differenz ist der Aufwand je Kampf. Beide
+ * laufen auf mehreren Threads, damit auch gemeinsam genutzte Zähler sichtbar
+ * würden.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsBenchmark {
+
+    private final WarriorSpec thor = WarriorSpec.of("Thor", 800, 130, 40);
+    private final WarriorSpec loki = new WarriorSpec("Loki", 800, 85, 40, 0.25);
+
+    private final CombatMetrics metrics = new CombatMetrics();
+    private final BattleEngine plain = BattleEngine.HEADLESS;
+    private final BattleEngine instrumented = BattleEngine.HEADLESS.withReporter(metrics);
+
+    /**
+     * Zufallsquelle je Benchmark-Thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+
+        SplitMixRandom rng;
+
+        @Setup
+        public void setUp() {
+            rng = new SplitMixRandom(SplitMixRandom.randomSeed());
+        }
+    }
+
+    @Benchmark
+    public Warrior plainFight(ThreadRandom random) throws InterruptedException {
+        return plain.startFight(thor.newWarrior(), loki.newWarrior(),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, random.rng);
+    }
+
+    @Benchmark
+    public Warrior instrumentedFight(ThreadRandom random) throws InterruptedException {
+        return instrumented.startFight(thor.newWarrior(), loki.newWarrior(),
+                MonteCarloSimulator.DEFAULT_MAX_ROUNDS, random.rng);
+    }
+
+    /**
+     * Eine Momentaufnahme über die Zählerblöcke aller bisherigen Threads.
+     */
+    @Benchmark
+    @Threads(1)
+    public MetricsSnapshot snapshot() {
+        return metrics.snapshot();
+    }
+}
@@ -0,0 +1,321 @@
+package com.battlegame.warriors;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den {@link PacedFightScheduler}.
+ *
+ * {@link #main(String[])} prüft, dass getaktete Kämpfe genauso verlaufen und
+ * dieselben Meldungen in derselben Reihenfolge liefern wie
+ * {@link BattleEngine#startFight(Warrior, Warrior, int, CombatRandom)}, misst
+ * die Genauigkeit des Takts bei 10.000 gleichzeitigen Kämpfen auf zwei
+ * Threads, prüft, dass ein Träger zwischen weit auseinanderliegenden
+ * Angriffen schläft, und prüft Abbruch und Schließen:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.PacedFightBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacedFightBenchmark {
+
+    private static final int FIGHTS = 10_000;
+    private static final int MAX_ROUNDS = 10_000;
+
+    private PacedFightScheduler scheduler;
+    private long round;
+
+    @Setup
+    public void setUp() {
+        scheduler = new PacedFightScheduler(2, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    /**
+     * 10.000 Kämpfe im Millisekundentakt bis zum Ende.
+     */
+    @Benchmark
+    public int thousandsOfFights() {
+        List<PacedFight> fights = new ArrayList<>(FIGHTS);
+        for (int i = 0; i < FIGHTS; i++) {
+            fights.add(scheduler.submit(new Warrior("A", 200, 60, 30), new Warrior("B", 200, 60, 30),
+                    BattleEngine.HEADLESS, MAX_ROUNDS, CombatRandom.seeded(round++)));
+        }
+        int rounds = 0;
+        for (PacedFight fight : fights) {
+            fight.result().join();
+            rounds += fight.rounds();
+        }
+        return rounds;
+    }
+
+    /**
+     * Zeichnet die Meldungen eines Kampfes auf.
+     */
+    private static final class Recorder implements BattleReporter {
+
+        final List<String> events = new ArrayList<>();
+        final boolean withEvents;
+        long[] attackTimes = new long[64];
+        int attacks;
+
+        Recorder(boolean withEvents) {
+            this.withEvents = withEvents;
+        }
+
+        @Override
+        public void fightStarted(Warrior first, Warrior second) {
+            if (withEvents) {
+                events.add("start " + first.getName() + " " + second.getName());
+            }
+        }
+
+        @Override
+        public void dodged(Warrior defender) {
+            if (withEvents) {
+                events.add("dodged " + defender.getName());
+            }
+        }
+
+        @Override
+        public void attacked(Warrior attacker, Warrior defender, int attack, int block, int damage) {
+            if (attacks == attackTimes.length) {
+                attackTimes = Arrays.copyOf(attackTimes, 2 * attacks);
+            }
+            attackTimes[attacks++] = System.nanoTime();
+            if (withEvents) {
+                events.add(attacker.getName() + " " + attack + " " + block + " " + damage);
+            }
+        }
+
+        @Override
+        public void died(Warrior loser, Warrior winner) {
+            if (withEvents) {
+                events.add("died " + loser.getName());
+            }
+        }
+
+        @Override
+        public void fightEnded(Warrior winner, Warrior loser, int rounds) {
+            if (withEvents) {
+                events.add("ended " + winner.getName() + " " + rounds);
+            }
+        }
+
+        @Override
+        public void fightDrawn(Warrior first, Warrior second, int rounds) {
+            if (withEvents) {
+                events.add("drawn " + rounds);
+            }
+        }
+    }
+
+    private static Warrior warrior(String name, long seed, int health) {
+        int attk = 30 + Math.floorMod(seed * 31, 70);
+        int block = 10 + Math.floorMod(seed * 17, 40);
+        return seed % 3 == 0 ? new DodgeWarrior(name, health, attk, block, 0.2) : new Warrior(name, health, attk, block);
+    }
+
+    /**
+     * Prüft den Scheduler und misst die Genauigkeit des Takts.
+     *
+     * @param args nicht verwendet
+     * @throws InterruptedException wenn der Thread beim Warten unterbrochen wird
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int failures = 0;
+
+        // Gleicher Verlauf und gleiche Meldungen wie die BattleEngine
+        try (PacedFightScheduler fast = new PacedFightScheduler(2, 1)) {
+            int n = 2_000;
+            PacedFight[] paced = new PacedFight[n];
+            Recorder[] pacedEvents = new Recorder[n];
+            for (int i = 0; i < n; i++) {
+                pacedEvents[i] = new Recorder(true);
+                int maxRounds = i % 10 == 0 ? 3 : MAX_ROUNDS;
+                paced[i] = fast.submit(warrior("A", i, 150), warrior("B", i + 1, 150),
+                        new BattleEngine(pacedEvents[i], BattlePacer.NONE), maxRounds, CombatRandom.seeded(i));
+            }
+            int mismatches = 0;
+            for (int i = 0; i < n; i++) {
+                Warrior w1 = warrior("A", i, 150);
+                Warrior w2 = warrior("B", i + 1, 150);
+                Recorder direct = new Recorder(true);
+                int maxRounds = i % 10 == 0 ? 3 : MAX_ROUNDS;
+                Warrior winner = new BattleEngine(direct, BattlePacer.NONE).startFight(w1, w2, maxRounds,
+                        CombatRandom.seeded(i));
+                Warrior pacedWinner = paced[i].result().join();
+                String expected = winner == null ? null : winner.getName();
+                String actual = pacedWinner == null ? null : pacedWinner.getName();
+                if (!String.valueOf(expected).equals(String.valueOf(actual))
+                        || paced[i].first().getHealth() != w1.getHealth()
+                        || paced[i].second().getHealth() != w2.getHealth()
+                        || !direct.events.equals(pacedEvents[i].events)) {
+                    mismatches++;
+                }
+            }
+            System.out.println("Abweichungen von der BattleEngine: " + mismatches + " von " + n);
+            if (mismatches > 0) {
+                failures++;
+            }
+        }
+
+        // 10.000 gleichzeitige Kämpfe mit 200 ms Pause auf zwei Threads
+        long pace = 200;
+        int threadsBefore = Thread.activeCount();
+        try (PacedFightScheduler scheduler = new PacedFightScheduler(2, pace)) {
+            PacedFight[] fights = new PacedFight[FIGHTS];
+            Recorder[] recorders = new Recorder[FIGHTS];
+            for (int i = 0; i < FIGHTS; i++) {
+                if (i % 1_000 == 0) {
+                    // Zuschauerkämpfe beginnen nicht alle im selben Augenblick
+                    Thread.sleep(pace / 10);
+                }
+                recorders[i] = new Recorder(false);
+                fights[i] = scheduler.submit(new Warrior("A" + i, 1_000, 60, 40), new Warrior("B" + i, 1_000, 60, 40),
+                        new BattleEngine(recorders[i], BattlePacer.NONE), 30, CombatRandom.seeded(i));
+            }
+            Thread.sleep(1_000);
+            int threadsDuring = Thread.activeCount() - threadsBefore;
+            System.out.printf("%d Kämpfe laufen auf %d zusätzlichen Threads (schlafende Taktung: %d)%n",
+                    scheduler.activeFights(), threadsDuring, FIGHTS);
+            if (threadsDuring > scheduler.carrierThreads()) {
+                failures++;
+            }
+
+            // Jeden zweiten Kampf abbrechen
+            int[] roundsAtCancel = new int[FIGHTS];
+            for (int i = 1; i < FIGHTS; i += 2) {
+                fights[i].cancel();
+                roundsAtCancel[i] = fights[i].rounds();
+            }
+            long[] deviations = new long[FIGHTS * 40];
+            int count = 0;
+            int cancelledLate = 0;
+            for (int i = 0; i < FIGHTS; i++) {
+                if (i % 2 == 1) {
+                    try {
+                        fights[i].result().join();
+                        failures++;
+                    } catch (CancellationException expected) {
+                        // abgebrochen
+                    }
+                    continue;
+                }
+                fights[i].result().join();
+                Recorder recorder = recorders[i];
+                for (int a = 1; a < recorder.attacks; a++) {
+                    long interval = recorder.attackTimes[a] - recorder.attackTimes[a - 1];
+                    deviations[count++] = Math.abs(interval - TimeUnit.MILLISECONDS.toNanos(pace));
+                }
+            }
+            Thread.sleep(2 * pace);
+            for (int i = 1; i < FIGHTS; i += 2) {
+                // Nach der Rückkehr von cancel() beginnt kein Angriff mehr
+                if (fights[i].rounds() > roundsAtCancel[i]) {
+                    cancelledLate++;
+                }
+            }
+            long[] sorted = Arrays.copyOf(deviations, count);
+            Arrays.sort(sorted);
+            System.out.printf("Abweichung vom Takt über %d Pausen: Median %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    count, sorted[count / 2] / 1e6, sorted[(int) (count * 0.99)] / 1e6, sorted[count - 1] / 1e6);
+            System.out.println("Nach Abbruch weitergelaufen: " + cancelledLate + ", aktiv: " + scheduler.activeFights());
+            if (sorted[count / 2] > TimeUnit.MILLISECONDS.toNanos(2) || cancelledLate > 0
+                    || scheduler.activeFights() != 0) {
+                failures++;
+            }
+        }
+
+        // Zwischen Angriffen im Sekundentakt schläft der Träger
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (PacedFightScheduler slow = new PacedFightScheduler(1, 1_000)) {
+            slow.submit(new Warrior("A", 1_000_000, 2, 1), new Warrior("B", 1_000_000, 2, 1),
+                    BattleEngine.HEADLESS, MAX_ROUNDS, CombatRandom.seeded(1));
+            Thread.sleep(100);
+            long carrier = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().equals("paced-fight-carrier-0"))
+                    .findFirst().orElseThrow().threadId();
+            long cpuBefore = threads.getThreadCpuTime(carrier);
+            Thread.sleep(3_000);
+            long cpuMillis = (threads.getThreadCpuTime(carrier) - cpuBefore) / 1_000_000;
+            System.out.println("Rechenzeit des Trägers über 3 s mit einem Kampf: " + cpuMillis + " ms");
+            if (cpuMillis > 20) {
+                failures++;
+            }
+        }
+
+        // Schließen bricht laufende Kämpfe ab, danach werden keine angenommen
+        PacedFightScheduler closing = new PacedFightScheduler(1, 1_000);
+        List<PacedFight> open = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            open.add(closing.submit(new Warrior("A", 1_000, 60, 40), new Warrior("B", 1_000, 60, 40),
+                    BattleEngine.HEADLESS, MAX_ROUNDS, CombatRandom.seeded(i)));
+        }
+        Thread.sleep(50);
+        closing.close();
+        int notCancelled = 0;
+        for (PacedFight fight : open) {
+            try {
+                fight.result().join();
+                notCancelled++;
+            } catch (CancellationException | CompletionException expected) {
+                // abgebrochen
+            }
+        }
+        try {
+            closing.submit(new Warrior("A", 10, 5, 5), new Warrior("B", 10, 5, 5));
+            failures++;
+        } catch (IllegalStateException expected) {
+            System.out.println("Nach dem Schließen: " + expected.getMessage());
+        }
+        if (notCancelled > 0) {
+            failures++;
+        }
+
+        // Durchsatz der Schritte
+        PacedFightBenchmark benchmark = new PacedFightBenchmark();
+        benchmark.setUp();
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            int rounds = benchmark.thousandsOfFights();
+            System.out.printf("%d Kämpfe im Millisekundentakt, %d Angriffe: %d ms%n", FIGHTS, rounds,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        benchmark.tearDown();
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
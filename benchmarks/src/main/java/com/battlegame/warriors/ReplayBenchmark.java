@@ -0,0 +1,133 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für das Aufzeichnen und Wiedergeben von Kämpfen.
+ *
+ * Gemessen werden Kämpfe pro Mikrosekunde; {@link #resimulate()} dient als
+ * Vergleich mit dem erneuten Austragen über die {@link BattleEngine}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+    private static final int FIGHTS = 10_000;
+
+    private final WarriorSpec thor = WarriorSpec.of("Thor", 800, 130, 40);
+    private final WarriorSpec loki = new WarriorSpec("Loki", 800, 85, 40, 0.25);
+
+    private Path file;
+    private ReplayReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("replay", ".wcsr");
+        Files.delete(file);
+        try (ReplayWriter writer = new ReplayWriter(file)) {
+            for (int i = 0; i < FIGHTS; i++) {
+                writer.record(thor, loki, i, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+            }
+        }
+        reader = new ReplayReader(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Zeichnet Kämpfe in eine temporäre Datei auf.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public long record() throws IOException {
+        Path target = Files.createTempFile("replay", ".wcsr");
+        Files.delete(target);
+        try (ReplayWriter writer = new ReplayWriter(target)) {
+            for (int i = 0; i < FIGHTS; i++) {
+                writer.record(thor, loki, i, MonteCarloSimulator.DEFAULT_MAX_ROUNDS);
+            }
+            return writer.fights();
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Gibt alle Kämpfe ohne Würfeln wieder.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public int replay() {
+        reader.rewind();
+        int firstWins = 0;
+        ReplayFight fight;
+        while ((fight = reader.next()) != null) {
+            if (fight.replay(BattleReporter.SILENT) != null && fight.outcome() == FightBatch.FIRST_WON) {
+                firstWins++;
+            }
+        }
+        return firstWins;
+    }
+
+    /**
+     * Summiert den Schaden aller Kämpfe direkt aus der Datei.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public long scan() {
+        reader.rewind();
+        long damage = 0;
+        ReplayFight fight;
+        while ((fight = reader.next()) != null) {
+            for (int i = 0, n = fight.rounds(); i < n; i++) {
+                damage += fight.damage(i);
+            }
+        }
+        return damage;
+    }
+
+    /**
+     * Trägt alle Kämpfe mit ihrem Startwert erneut aus und vergleicht sie.
+     */
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public int resimulate() {
+        reader.rewind();
+        int matching = 0;
+        ReplayFight fight;
+        while ((fight = reader.next()) != null) {
+            if (fight.resimulate()) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,235 @@
+package com.battlegame.warriors;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die {@link ShardedSimulation}.
+ *
+ * {@link #main(String[])} prüft, dass die verteilte Simulation für mehrere
+ * Paarungen bitgenau dieselben Ergebnisse liefert wie ein einzelner
+ * {@link MonteCarloSimulator}, auch wenn Arbeitsprozesse mitten im Lauf
+ * abstürzen oder hängen bleiben, dass dauerhaft defekte Arbeitsprozesse zu
+ * einer {@link IOException} führen, und misst den Durchsatz:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.ShardedSimulationBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ShardedSimulationBenchmark {
+
+    private static final long FIGHTS = 400_000;
+    private static final long SEED = 2024;
+    private static final long SHARD_FIGHTS = 50_000;
+
+    private static final List<WarriorSpec> FIRSTS = List.of(Archetypes.THOR, Archetypes.LOKI,
+            new WarriorSpec("Tank", 400, 40, 60, 0.0), new WarriorSpec("Flink", 180, 70, 20, 0.35));
+    private static final List<WarriorSpec> SECONDS = List.of(Archetypes.LOKI, Archetypes.THOR,
+            Archetypes.THOR, Archetypes.LOKI);
+
+    private final ShardedSimulation sharded = new ShardedSimulation(2, SHARD_FIGHTS,
+            ShardedSimulation.DEFAULT_MAX_ATTEMPTS, ShardedSimulation.DEFAULT_SHARD_TIMEOUT_MILLIS,
+            ShardedSimulation.defaultCommand(2));
+
+    /**
+     * Vier Paarungen auf zwei Arbeitsprozessen, einschließlich deren Start.
+     */
+    @Benchmark
+    public long shardedSimulation() throws IOException {
+        return sharded.simulate(FIRSTS, SECONDS, FIGHTS, SEED).fights();
+    }
+
+    /**
+     * Arbeitsprozess, der abstürzt, solange noch Markierungsdateien fehlen.
+     *
+     * Argumente: Verzeichnis, Anzahl der Abstürze, Verzögerung in Millisekunden.
+     * Jede Markierung kann nur ein Prozess anlegen, daher stürzen über alle
+     * Neustarts hinweg genau so viele Prozesse ab.
+     */
+    public static final class FlakyWorker {
+
+        public static void main(String[] args) throws Exception {
+            Path dir = Paths.get(args[0]);
+            int crashes = Integer.parseInt(args[1]);
+            long delay = Long.parseLong(args[2]);
+            for (int k = 0; k < crashes; k++) {
+                try {
+                    Files.createFile(dir.resolve("crash-" + k));
+                } catch (FileAlreadyExistsException taken) {
+                    continue;
+                }
+                Thread crash = new Thread(() -> {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException ignored) {
+                        // trotzdem abstürzen
+                    }
+                    Runtime.getRuntime().halt(3);
+                });
+                crash.setDaemon(true);
+                crash.start();
+                break;
+            }
+            ShardWorker.main(args);
+        }
+    }
+
+    /**
+     * Arbeitsprozess, der beim ersten Start nie antwortet.
+     *
+     * Argument: Verzeichnis für die Markierung.
+     */
+    public static final class HangingWorker {
+
+        public static void main(String[] args) throws Exception {
+            try {
+                Files.createFile(Paths.get(args[0]).resolve("hang"));
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (FileAlreadyExistsException taken) {
+                ShardWorker.main(args);
+            }
+        }
+    }
+
+    private static List<String> command(Class<?> worker, String... args) {
+        return command(worker.getName(), args);
+    }
+
+    private static List<String> command(String mainClass, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass);
+        Collections.addAll(command, args);
+        return command;
+    }
+
+    private static long count(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    /**
+     * Prüft die verteilte Simulation und misst den Durchsatz.
+     *
+     * @param args nicht verwendet
+     * @throws IOException wenn die Simulation oder ein temporäres Verzeichnis scheitert
+     */
+    public static void main(String[] args) throws IOException {
+        int failures = 0;
+
+        long start = System.nanoTime();
+        MonteCarloSimulator simulator = new MonteCarloSimulator();
+        List<SimulationResult> expected = new ArrayList<>();
+        for (int m = 0; m < FIRSTS.size(); m++) {
+            expected.add(simulator.simulate(FIRSTS.get(m), SECONDS.get(m), FIGHTS, SEED));
+        }
+        long single = System.nanoTime() - start;
+        System.out.printf("Ein Prozess: %d Kämpfe in %d ms%n", FIGHTS * FIRSTS.size(), single / 1_000_000);
+
+        // Bitgenau gleich bei unterschiedlicher Prozessanzahl und Shardgröße
+        for (int workers : new int[] {1, 2, 3}) {
+            long shardFights = SHARD_FIGHTS * workers - 1;
+            ShardedSimulation simulation = new ShardedSimulation(workers, shardFights,
+                    ShardedSimulation.DEFAULT_MAX_ATTEMPTS, ShardedSimulation.DEFAULT_SHARD_TIMEOUT_MILLIS,
+                    ShardedSimulation.defaultCommand(workers));
+            ShardedResult result = simulation.simulate(FIRSTS, SECONDS, FIGHTS, SEED);
+            boolean equal = result.results().equals(expected);
+            System.out.println(workers + " Arbeitsprozesse: " + result + (equal ? "" : " ABWEICHUNG"));
+            if (!equal || result.retries() != 0) {
+                failures++;
+            }
+        }
+
+        // Abstürze mitten im Lauf werden wiederholt
+        Path dir = Files.createTempDirectory("shards");
+        int crashes = 3;
+        ShardedSimulation flaky = new ShardedSimulation(2, SHARD_FIGHTS, crashes + 2, 60_000,
+                command(FlakyWorker.class, dir.toString(), Integer.toString(crashes), "400"));
+        ShardedResult recovered = flaky.simulate(FIRSTS, SECONDS, FIGHTS, SEED);
+        long crashed = count(dir, "crash-");
+        System.out.println("Mit " + crashed + " Abstürzen: " + recovered);
+        if (!recovered.results().equals(expected) || crashed != crashes || recovered.retries() != crashes) {
+            failures++;
+        }
+
+        // Hängender Prozess wird nach der Zeitgrenze ersetzt
+        ShardedSimulation hanging = new ShardedSimulation(2, SHARD_FIGHTS, 2, 2_000,
+                command(HangingWorker.class, dir.toString()));
+        ShardedResult timedOut = hanging.simulate(FIRSTS.subList(0, 1), SECONDS.subList(0, 1), FIGHTS, SEED);
+        System.out.println("Mit hängendem Prozess: " + timedOut);
+        if (!timedOut.results().get(0).equals(expected.get(0)) || timedOut.retries() != 1) {
+            failures++;
+        }
+
+        // Dauerhaft defekte Prozesse führen nach allen Versuchen zum Fehler
+        ShardedSimulation broken = new ShardedSimulation(2, SHARD_FIGHTS, 3, 60_000,
+                command(ShardedSimulationBenchmark.class.getPackageName() + ".KeinArbeitsprozess"));
+        try {
+            broken.simulate(FIRSTS, SECONDS, FIGHTS, SEED);
+            failures++;
+        } catch (IOException expectedFailure) {
+            System.out.println("Defekter Arbeitsprozess: " + expectedFailure.getMessage());
+        }
+
+        // Auch ein Startfehler ohne Java-Programm
+        ShardedSimulation missing = new ShardedSimulation(1, SHARD_FIGHTS, 2, 60_000,
+                List.of(dir.resolve("gibt-es-nicht").toString()));
+        try {
+            missing.simulate(Archetypes.THOR, Archetypes.LOKI, FIGHTS, SEED);
+            failures++;
+        } catch (IOException expectedFailure) {
+            System.out.println("Fehlender Befehl: " + expectedFailure.getMessage());
+        }
+
+        // Raster gegen festen Gegner
+        TuningSpace space = TuningSpace.around(Archetypes.THOR).attkMax(110, 150, 20).blockMax(30, 50, 10);
+        ShardedResult tuned = new ShardedSimulation(2).simulate(space, Archetypes.LOKI, 20_000, SEED);
+        for (int i = 0; i < space.size(); i++) {
+            if (!tuned.results().get(i).equals(simulator.simulate(space.candidate(i), Archetypes.LOKI, 20_000, SEED))) {
+                failures++;
+            }
+        }
+
+        // Durchsatz
+        ShardedSimulationBenchmark benchmark = new ShardedSimulationBenchmark();
+        for (int i = 0; i < 3; i++) {
+            start = System.nanoTime();
+            long fights = benchmark.shardedSimulation();
+            System.out.printf("Zwei Arbeitsprozesse: %d Kämpfe in %d ms%n", fights,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        System.out.println("Fehler: " + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks und Belastungstest für Krieger, die von mehreren Threads
+ * gleichzeitig angegriffen werden.
+ *
+ * Die Benchmarks vergleichen den direkten Schreibzugriff auf
+ * {@link Warrior#health} mit {@link Warrior#applyDamage(int)} ohne und mit
+ * Konkurrenz um denselben Krieger.
+ *
+ * {@link #main(String[])} lässt zunächst gleich viele Threads denselben
+ * Krieger über {@link Warrior#applyDamage(int)} treffen und über
+ * {@link Warrior#heal(int)} heilen; die Gesundheit muss danach genau dem
+ * Startwert entsprechen. Zur Kontrolle läuft derselbe Test mit
+ * unsynchronisierten Schreibzugriffen, die zwischen Lesen und Schreiben den
+ * Prozessor abgeben, und muss Treffer verlieren; andernfalls liefen die
+ * Threads nicht verzahnt und der Test wäre ohne Aussage, auch auf einem
+ * einzelnen Kern. Danach schlagen mehrere Threads über eine Engine aus
+ * {@link BattleEngine#withSharedWarriors()} auf denselben Verteidiger ein,
+ * während weitere Threads ihn über {@link Warrior#healIfAlive(int)} heilen.
+ * Geprüft wird, dass der Tod genau einmal erkannt wird und kein Treffer und
+ * keine Heilung verloren gehen. Jeder Fehler beendet den Test mit Status 1:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.battlegame.warriors.SharedWarriorBenchmark}
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedWarriorBenchmark {
+
+    /**
+     * Ein Krieger pro Benchmark-Thread.
+     */
+    @State(Scope.Thread)
+    public static class Own {
+        final Warrior warrior = new Warrior("Thor", Integer.MAX_VALUE, 130, 40);
+    }
+
+    /**
+     * Ein Krieger für alle Benchmark-Threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final Warrior warrior = new Warrior("Loki", Integer.MAX_VALUE, 85, 40);
+
+        @Setup
+        public void setUp() {
+            warrior.health = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Direkter, nicht synchronisierter Schreibzugriff wie im Standard-Kampfkern.
+     */
+    @Benchmark
+    public int plainDamage(Own own) {
+        return own.warrior.health = own.warrior.health - 1;
+    }
+
+    /**
+     * Atomarer Treffer ohne Konkurrenz.
+     */
+    @Benchmark
+    public boolean atomicDamage(Own own) {
+        return own.warrior.applyDamage(1);
+    }
+
+    /**
+     * Atomare Treffer von vier Threads auf denselben Krieger.
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean contendedDamage(Shared shared) {
+        return shared.warrior.applyDamage(1);
+    }
+
+    /**
+     * Änderung der Gesundheit um einen Punkt.
+     */
+    private interface Update {
+        void apply(Warrior warrior, boolean damage);
+    }
+
+    private static final Update ATOMIC = (warrior, damage) -> {
+        if (damage) {
+            warrior.applyDamage(1);
+        } else {
+            warrior.heal(1);
+        }
+    };
+
+    private static final Update PLAIN = (warrior, damage) -> {
+        int health = warrior.health;
+        Thread.yield();
+        warrior.health = damage ? health - 1 : health + 1;
+    };
+
+    /**
+     * Lässt Threads gleichzeitig je {@code updates} Mal auf denselben Krieger
+     * wirken und gibt die Abweichung von der erwarteten Gesundheit zurück.
+     */
+    private static long drift(Update update, int damagers, int healers, int updates)
+            throws InterruptedException {
+        Warrior warrior = new Warrior("Loki", 1_000_000_000, 85, 40);
+        long expected = (long) warrior.health - (long) damagers * updates + (long) healers * updates;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[damagers + healers];
+        for (int t = 0; t < threads.length; t++) {
+            boolean damage = t < damagers;
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < updates; i++) {
+                    update.apply(warrior, damage);
+                    Thread.yield();
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return warrior.getHealth() - expected;
+    }
+
+    /**
+     * Belastungstest mit gleichzeitigen Angreifern und Heilern.
+     *
+     * @param args optional die Anzahl der Durchläufe (Standard: 200)
+     * @throws InterruptedException wenn der Test unterbrochen wird
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int attackers = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int healers = 2;
+        int failures = 0;
+
+        // Treffer und Heilungen um je einen Punkt heben sich genau auf
+        int updates = 20_000;
+        long atomicDrift = drift(ATOMIC, attackers, attackers, updates);
+        long plainDrift = drift(PLAIN, 2 * attackers, 0, updates);
+        System.out.printf("%d Threads mit je %d Änderungen: atomar %d, unsynchronisiert %d Punkte Abweichung%n",
+                2 * attackers, updates, atomicDrift, plainDrift);
+        if (atomicDrift != 0) {
+            failures++;
+        }
+        if (plainDrift == 0) {
+            System.out.println("Kontrolle ohne verlorene Treffer: Threads liefen nicht verzahnt");
+            failures++;
+        }
+
+        for (int run = 0; run < runs; run++) {
+            CombatMetrics metrics = new CombatMetrics();
+            BattleEngine engine = BattleEngine.HEADLESS.withReporter(metrics).withSharedWarriors();
+            Warrior defender = new Warrior("Loki", 200_000, 85, 40);
+            int initial = defender.health;
+            AtomicInteger kills = new AtomicInteger();
+            AtomicLong healed = new AtomicLong();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[attackers + healers];
+
+            for (int t = 0; t < attackers; t++) {
+                long seed = run * 1_000L + t;
+                threads[t] = new Thread(() -> {
+                    Warrior attacker = new Warrior("Thor", 1, 130, 40);
+                    SplitMixRandom rng = new SplitMixRandom(seed);
+                    awaitQuietly(start);
+                    while (defender.getHealth() > 0) {
+                        try {
+                            if (engine.resolveAttack(attacker, defender, rng).isFatal()) {
+                                kills.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+            for (int t = attackers; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    long amount = 0;
+                    awaitQuietly(start);
+                    while (defender.healIfAlive(3)) {
+                        amount += 3;
+                        Thread.onSpinWait();
+                    }
+                    healed.addAndGet(amount);
+                });
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // Jeder Treffer und jede Heilung muss sich in der Gesundheit wiederfinden
+            long expected = initial + healed.get() - metrics.snapshot().totalDamage();
+            if (kills.get() != 1 || defender.isAlive() || defender.getHealth() != expected) {
+                failures++;
+                System.out.printf("Durchlauf %d: %d Tode erkannt, Gesundheit %d statt %d%n",
+                        run, kills.get(), defender.getHealth(), expected);
+            }
+        }
+        System.out.printf("%d Durchläufe, %d Angreifer, %d Heiler, %d Fehler%n",
+                runs, attackers, healers, failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
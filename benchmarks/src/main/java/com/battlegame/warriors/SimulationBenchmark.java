@@ -0,0 +1,98 @@
+package com.battlegame.warriors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die Simulations-, Batch-, Solver- und Turniermodule.
+ *
+ * Die Simulations-Benchmarks messen Kämpfe pro Mikrosekunde; der
+ * Vector-API-Pfad ist nur aktiv, wenn {@code jdk.incubator.vector} geladen ist.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SimulationBenchmark {
+
+    private static final int FIGHTS = 10_000;
+
+    private final WarriorSpec thor = WarriorSpec.of("Thor", 800, 130, 40);
+    private final WarriorSpec loki = new WarriorSpec("Loki", 800, 85, 40, 0.25);
+
+    private final MonteCarloSimulator simulator = new MonteCarloSimulator();
+    private final BatchCombatEngine scalarBatch = new BatchCombatEngine(false);
+    private final BatchCombatEngine vectorBatch = new BatchCombatEngine(true);
+
+    private List<Warrior> roster;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        roster = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            roster.add(i % 2 == 0
+                    ? new Warrior("W" + i, 600 + 8 * i, 90 + i, 30 + i % 10)
+                    : new DodgeWarrior("D" + i, 600 + 8 * i, 70 + i, 30 + i % 10, 0.1 + i / 100.0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public SimulationResult monteCarlo() {
+        return simulator.simulate(thor, loki, FIGHTS, seed++);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public SimulationResult batchScalar() {
+        return scalarBatch.simulate(thor, loki, FIGHTS, seed++);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIGHTS)
+    public SimulationResult batchVector() {
+        return vectorBatch.simulate(thor, loki, FIGHTS, seed++);
+    }
+
+    /**
+     * Vollständiger Aufbau einer DP-Tabelle für 800 gegen 800 Gesundheit.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MatchupOdds matchupSolverCold() {
+        return new MatchupSolver().solve(thor, loki);
+    }
+
+    /**
+     * Jeder gegen jeden mit 32 Teilnehmern (992 Kämpfe) auf virtuellen Threads.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TournamentResult roundRobinTournament() {
+        try (Tournament tournament = Tournament.onVirtualThreads(seed++)) {
+            return tournament.roundRobin(roster, 2);
+        }
+    }
+}
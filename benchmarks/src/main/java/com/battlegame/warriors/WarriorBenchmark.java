@@ -0,0 +1,64 @@
+package com.battlegame.warriors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die einzelnen Würfe von {@link Warrior} und {@link DodgeWarrior}.
+ *
+ * @author MoBoudni
+ * @version 1.0
+ * @since 4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarriorBenchmark {
+
+    private Warrior thor;
+    private DodgeWarrior loki;
+    private SplitMixRandom rng;
+
+    @Setup
+    public void setUp() {
+        thor = new Warrior("Thor", 800, 130, 40);
+        loki = new DodgeWarrior("Loki", 800, 85, 40, 0.25);
+        rng = new SplitMixRandom(42);
+    }
+
+    @Benchmark
+    public int attack() {
+        return thor.attack(rng);
+    }
+
+    @Benchmark
+    public int attackThreadLocalRandom() {
+        return thor.attack();
+    }
+
+    @Benchmark
+    public int block() {
+        return thor.block(rng);
+    }
+
+    /**
+     * Ausweich- und Blockwurf von Loki ohne Konsolenausgabe.
+     */
+    @Benchmark
+    public int dodgeWarriorBlock() {
+        return loki.defend(rng, BattleReporter.SILENT);
+    }
+}